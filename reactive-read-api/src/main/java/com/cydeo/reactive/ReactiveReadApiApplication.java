@@ -0,0 +1,13 @@
+package com.cydeo.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class ReactiveReadApiApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(ReactiveReadApiApplication.class, args);
+    }
+
+}
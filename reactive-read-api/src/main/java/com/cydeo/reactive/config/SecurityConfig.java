@@ -0,0 +1,61 @@
+package com.cydeo.reactive.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.ReactiveJwtAuthenticationConverterAdapter;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Same bearer tokens and roles as the servlet app. The servlet app reads the roles through the Keycloak adapter with
+// use-resource-role-mappings, which means the client roles under resource_access.<client>.roles.
+@Configuration
+@EnableWebFluxSecurity
+public class SecurityConfig {
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, @Value("${keycloak.resource}") String clientId) {
+        return http
+                .csrf().disable()
+                .authorizeExchange()
+                .pathMatchers("/api/v1/task/employee/**").hasRole("Employee")
+                .pathMatchers("/api/v1/project/**", "/api/v1/task/**").hasRole("Manager")
+                .anyExchange().denyAll()
+                .and()
+                .oauth2ResourceServer().jwt().jwtAuthenticationConverter(jwtAuthenticationConverter(clientId))
+                .and().and()
+                .build();
+    }
+
+    private static Converter<Jwt, Mono<AbstractAuthenticationToken>> jwtAuthenticationConverter(String clientId) {
+        JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
+        converter.setPrincipalClaimName("preferred_username");
+        converter.setJwtGrantedAuthoritiesConverter(jwt -> clientRoles(jwt, clientId));
+        return new ReactiveJwtAuthenticationConverterAdapter(converter);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Collection<GrantedAuthority> clientRoles(Jwt jwt, String clientId) {
+        Map<String, Object> resourceAccess = jwt.getClaimAsMap("resource_access");
+        if (resourceAccess == null || !(resourceAccess.get(clientId) instanceof Map)) return List.of();
+        Object roles = ((Map<String, Object>) resourceAccess.get(clientId)).get("roles");
+        if (!(roles instanceof Collection)) return List.of();
+        return ((Collection<Object>) roles).stream()
+                .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
+                .collect(Collectors.toList());
+    }
+
+}
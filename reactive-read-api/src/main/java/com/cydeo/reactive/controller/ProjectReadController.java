@@ -0,0 +1,42 @@
+package com.cydeo.reactive.controller;
+
+import com.cydeo.dto.ResponseWrapper;
+import com.cydeo.reactive.repository.ProjectReadRepository;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+// Read-only mirror of the servlet app's ProjectController GET endpoints; roles are checked in SecurityConfig
+@RestController
+@RequestMapping("/api/v1/project")
+public class ProjectReadController {
+
+    private final ProjectReadRepository projectReadRepository;
+
+    public ProjectReadController(ProjectReadRepository projectReadRepository) {
+        this.projectReadRepository = projectReadRepository;
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Object>> getProjects(ServerHttpRequest request){
+        return ReadResponses.list(request, projectReadRepository.findAll(), "Projects are successfully retrieved");
+    }
+
+    @GetMapping("/{projectCode}")
+    public Mono<ResponseEntity<ResponseWrapper>> getProjectByCode(@PathVariable("projectCode") String projectCode){
+        return ReadResponses.single(projectReadRepository.findByProjectCode(projectCode), "Project is successfully retrieved");
+    }
+
+    @GetMapping("/manager/project-status")
+    public Mono<ResponseEntity<Object>> getProjectByManager(ServerHttpRequest request, @AuthenticationPrincipal Jwt jwt){
+        return ReadResponses.list(request, projectReadRepository.findAllWithTaskCountsByManager(jwt.getClaimAsString("preferred_username")),
+                "Projects are successfully retrieved");
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.cydeo.reactive.controller;
+
+import com.cydeo.dto.ResponseWrapper;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// application/x-ndjson gets the rows one per line as the database returns them; the client's read rate is the
+// demand on the R2DBC cursor, nothing is collected in memory. Everyone else gets the servlet app's ResponseWrapper.
+final class ReadResponses {
+
+    private ReadResponses() {
+    }
+
+    static <T> Mono<ResponseEntity<Object>> list(ServerHttpRequest request, Flux<T> rows, String message) {
+        if (wantsStream(request)) {
+            return Mono.just(ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(rows));
+        }
+        return rows.collectList().map(list -> ResponseEntity.ok(new ResponseWrapper(message, list, HttpStatus.OK)));
+    }
+
+    // Like the servlet app, a missing row is a successful response without data
+    static <T> Mono<ResponseEntity<ResponseWrapper>> single(Mono<T> row, String message) {
+        return row.map(value -> ResponseEntity.ok(new ResponseWrapper(message, value, HttpStatus.OK)))
+                .defaultIfEmpty(ResponseEntity.ok(new ResponseWrapper(message, HttpStatus.OK)));
+    }
+
+    private static boolean wantsStream(ServerHttpRequest request) {
+        return request.getHeaders().getAccept().stream().anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype);
+    }
+
+}
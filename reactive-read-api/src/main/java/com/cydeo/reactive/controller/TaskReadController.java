@@ -0,0 +1,67 @@
+package com.cydeo.reactive.controller;
+
+import com.cydeo.dto.ResponseWrapper;
+import com.cydeo.enums.Status;
+import com.cydeo.reactive.repository.TaskReadRepository;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+// Read-only mirror of the servlet app's TaskController GET endpoints; roles are checked in SecurityConfig.
+// Delta sync (since=), search and history stay on the servlet app, they are served from its in-memory indexes.
+@RestController
+@RequestMapping("/api/v1/task")
+public class TaskReadController {
+
+    private final TaskReadRepository taskReadRepository;
+
+    public TaskReadController(TaskReadRepository taskReadRepository) {
+        this.taskReadRepository = taskReadRepository;
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Object>> getTasks(ServerHttpRequest request){
+        return ReadResponses.list(request, taskReadRepository.findAll(), "Tasks are successfully retrieved");
+    }
+
+    @GetMapping("/assigned")
+    public Mono<ResponseEntity<Object>> getTasksAssignedBetween(ServerHttpRequest request,
+                                                                @RequestParam(value = "week", required = false) String week,
+                                                                @RequestParam(value = "from", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate from,
+                                                                @RequestParam(value = "to", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate to){
+        if (week != null) { // ISO week, Monday to Sunday
+            from = LocalDate.parse(week + "-1", DateTimeFormatter.ISO_WEEK_DATE);
+            to = from.plusDays(6);
+        } else if (from == null || to == null) { // no complete range, the current week
+            from = LocalDate.now().with(DayOfWeek.MONDAY);
+            to = from.plusDays(6);
+        }
+        return ReadResponses.list(request, taskReadRepository.findAllAssignedBetween(from, to), "Tasks are successfully retrieved");
+    }
+
+    @GetMapping("/{taskId}")
+    public Mono<ResponseEntity<ResponseWrapper>> getTaskById(@PathVariable("taskId") Long taskId){
+        return ReadResponses.single(taskReadRepository.findById(taskId), "Task is successfully retrieved");
+    }
+
+    @GetMapping("/employee/pending-tasks")
+    public Mono<ResponseEntity<Object>> employeePendingTasks(ServerHttpRequest request, @AuthenticationPrincipal Jwt jwt){
+        return ReadResponses.list(request, taskReadRepository.findAllByEmployeeAndStatusIsNot(jwt.getClaimAsString("preferred_username"), Status.COMPLETE),
+                "Tasks are successfully retrieved");
+    }
+
+    @GetMapping("/employee/archive")
+    public Mono<ResponseEntity<Object>> employeeArchivedTasks(ServerHttpRequest request, @AuthenticationPrincipal Jwt jwt){
+        return ReadResponses.list(request, taskReadRepository.findAllByEmployeeAndStatus(jwt.getClaimAsString("preferred_username"), Status.COMPLETE),
+                "Tasks are successfully retrieved");
+    }
+
+}
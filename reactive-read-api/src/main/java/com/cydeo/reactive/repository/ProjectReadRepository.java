@@ -0,0 +1,58 @@
+package com.cydeo.reactive.repository;
+
+import com.cydeo.dto.ProjectDTO;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public class ProjectReadRepository {
+
+    private static final String SELECT = "SELECT " + Rows.projectColumns("p", "p_") + ", " + Rows.userColumns("m", "mr", "m_") +
+            " FROM projects p" +
+            " LEFT JOIN users m ON m.id = p.manager_id" +
+            " LEFT JOIN roles mr ON mr.id = m.role_id" +
+            " WHERE p.is_deleted = false";
+
+    // Counted per project in the same query instead of two count queries per project
+    private static final String SELECT_WITH_TASK_COUNTS = "SELECT " + Rows.projectColumns("p", "p_") + ", " + Rows.userColumns("m", "mr", "m_") + "," +
+            " (SELECT COUNT(*) FROM tasks t WHERE t.project_id = p.id AND t.is_deleted = false AND t.task_status = 'COMPLETE') AS complete_tasks," +
+            " (SELECT COUNT(*) FROM tasks t WHERE t.project_id = p.id AND t.is_deleted = false AND t.task_status <> 'COMPLETE') AS unfinished_tasks" +
+            " FROM projects p" +
+            " JOIN users m ON m.id = p.manager_id" +
+            " LEFT JOIN roles mr ON mr.id = m.role_id" +
+            " WHERE p.is_deleted = false AND m.user_name = :managerUserName";
+
+    private final DatabaseClient databaseClient;
+
+    public ProjectReadRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Flux<ProjectDTO> findAll() {
+        return databaseClient.sql(SELECT + " ORDER BY p.project_code")
+                .map((row, metadata) -> Rows.project(row, "p_", Rows.user(row, "m_")))
+                .all();
+    }
+
+    public Mono<ProjectDTO> findByProjectCode(String projectCode) {
+        return databaseClient.sql(SELECT + " AND p.project_code = :projectCode")
+                .bind("projectCode", projectCode)
+                .map((row, metadata) -> Rows.project(row, "p_", Rows.user(row, "m_")))
+                .one();
+    }
+
+    public Flux<ProjectDTO> findAllWithTaskCountsByManager(String managerUserName) {
+        return databaseClient.sql(SELECT_WITH_TASK_COUNTS + " ORDER BY p.project_code")
+                .bind("managerUserName", managerUserName)
+                .map((row, metadata) -> {
+                    ProjectDTO project = Rows.project(row, "p_", Rows.user(row, "m_"));
+                    project.setCompleteTaskCounts(row.get("complete_tasks", Long.class).intValue());
+                    project.setUnfinishedTaskCounts(row.get("unfinished_tasks", Long.class).intValue());
+                    return project;
+                })
+                .all();
+    }
+
+}
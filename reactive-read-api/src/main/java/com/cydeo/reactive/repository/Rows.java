@@ -0,0 +1,73 @@
+package com.cydeo.reactive.repository;
+
+import com.cydeo.dto.ProjectDTO;
+import com.cydeo.dto.RoleDTO;
+import com.cydeo.dto.UserDTO;
+import com.cydeo.enums.Gender;
+import com.cydeo.enums.Status;
+import io.r2dbc.spi.Row;
+
+import java.time.LocalDate;
+
+// Column lists and row mapping shared by the read queries. Every joined table gets a column prefix, so one row can
+// carry a task, its project, the project's manager and the assigned employee; the DTOs come out the same as the
+// servlet app's ModelMapper ones, without the password.
+final class Rows {
+
+    private Rows() {
+    }
+
+    static String userColumns(String userAlias, String roleAlias, String prefix) {
+        return String.join(", ",
+                userAlias + ".id AS " + prefix + "id",
+                userAlias + ".first_name AS " + prefix + "first_name",
+                userAlias + ".last_name AS " + prefix + "last_name",
+                userAlias + ".user_name AS " + prefix + "user_name",
+                userAlias + ".enabled AS " + prefix + "enabled",
+                userAlias + ".phone AS " + prefix + "phone",
+                userAlias + ".gender AS " + prefix + "gender",
+                roleAlias + ".id AS " + prefix + "role_id",
+                roleAlias + ".description AS " + prefix + "role_description");
+    }
+
+    static String projectColumns(String projectAlias, String prefix) {
+        return String.join(", ",
+                projectAlias + ".id AS " + prefix + "id",
+                projectAlias + ".project_code AS " + prefix + "project_code",
+                projectAlias + ".project_name AS " + prefix + "project_name",
+                projectAlias + ".start_date AS " + prefix + "start_date",
+                projectAlias + ".end_date AS " + prefix + "end_date",
+                projectAlias + ".project_detail AS " + prefix + "project_detail",
+                projectAlias + ".project_status AS " + prefix + "project_status");
+    }
+
+    static UserDTO user(Row row, String prefix) {
+        Long id = row.get(prefix + "id", Long.class);
+        if (id == null) return null;
+
+        UserDTO user = new UserDTO();
+        user.setId(id);
+        user.setFirstName(row.get(prefix + "first_name", String.class));
+        user.setLastName(row.get(prefix + "last_name", String.class));
+        user.setUserName(row.get(prefix + "user_name", String.class));
+        user.setEnabled(Boolean.TRUE.equals(row.get(prefix + "enabled", Boolean.class)));
+        user.setPhone(row.get(prefix + "phone", String.class));
+        user.setGender(toEnum(Gender.class, row.get(prefix + "gender", String.class)));
+        Long roleId = row.get(prefix + "role_id", Long.class);
+        user.setRole(roleId == null ? null : new RoleDTO(roleId, row.get(prefix + "role_description", String.class)));
+        return user;
+    }
+
+    static ProjectDTO project(Row row, String prefix, UserDTO manager) {
+        ProjectDTO project = new ProjectDTO(row.get(prefix + "project_name", String.class), row.get(prefix + "project_code", String.class), manager,
+                row.get(prefix + "start_date", LocalDate.class), row.get(prefix + "end_date", LocalDate.class),
+                row.get(prefix + "project_detail", String.class), toEnum(Status.class, row.get(prefix + "project_status", String.class)));
+        project.setId(row.get(prefix + "id", Long.class));
+        return project;
+    }
+
+    static <E extends Enum<E>> E toEnum(Class<E> type, String name) {
+        return name == null ? null : Enum.valueOf(type, name);
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.cydeo.reactive.repository;
+
+import com.cydeo.dto.TaskDTO;
+import com.cydeo.enums.Status;
+import io.r2dbc.spi.Row;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+@Repository
+public class TaskReadRepository {
+
+    // One row per task with its project, the project's manager and the assigned employee, no lazy loading afterwards
+    private static final String SELECT = "SELECT t.id, t.task_subject, t.task_detail, t.task_status, t.assigned_date, " +
+            Rows.projectColumns("p", "p_") + ", " + Rows.userColumns("m", "mr", "m_") + ", " + Rows.userColumns("e", "er", "e_") +
+            " FROM tasks t" +
+            " LEFT JOIN projects p ON p.id = t.project_id" +
+            " LEFT JOIN users m ON m.id = p.manager_id" +
+            " LEFT JOIN roles mr ON mr.id = m.role_id" +
+            " LEFT JOIN users e ON e.id = t.assigned_employee_id" +
+            " LEFT JOIN roles er ON er.id = e.role_id" +
+            " WHERE t.is_deleted = false";
+
+    private final DatabaseClient databaseClient;
+
+    public TaskReadRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Flux<TaskDTO> findAll() {
+        return databaseClient.sql(SELECT + " ORDER BY t.id")
+                .map((row, metadata) -> toDto(row))
+                .all();
+    }
+
+    public Mono<TaskDTO> findById(Long id) {
+        return databaseClient.sql(SELECT + " AND t.id = :id")
+                .bind("id", id)
+                .map((row, metadata) -> toDto(row))
+                .one();
+    }
+
+    public Flux<TaskDTO> findAllAssignedBetween(LocalDate from, LocalDate to) {
+        return databaseClient.sql(SELECT + " AND t.assigned_date BETWEEN :from AND :to ORDER BY t.assigned_date, t.id")
+                .bind("from", from)
+                .bind("to", to)
+                .map((row, metadata) -> toDto(row))
+                .all();
+    }
+
+    public Flux<TaskDTO> findAllByEmployeeAndStatus(String employeeUserName, Status status) {
+        return findAllByEmployee(employeeUserName, " AND t.task_status = :status", status);
+    }
+
+    public Flux<TaskDTO> findAllByEmployeeAndStatusIsNot(String employeeUserName, Status status) {
+        return findAllByEmployee(employeeUserName, " AND t.task_status <> :status", status);
+    }
+
+    private Flux<TaskDTO> findAllByEmployee(String employeeUserName, String statusCondition, Status status) {
+        // By id rather than on the joined users row, so the query starts from the employee's tasks index
+        return databaseClient.sql(SELECT + " AND t.assigned_employee_id = (SELECT id FROM users WHERE user_name = :userName)" + statusCondition + " ORDER BY t.id")
+                .bind("userName", employeeUserName)
+                .bind("status", status.name())
+                .map((row, metadata) -> toDto(row))
+                .all();
+    }
+
+    private static TaskDTO toDto(Row row) {
+        Long projectId = row.get("p_id", Long.class);
+        return new TaskDTO(row.get("id", Long.class),
+                projectId == null ? null : Rows.project(row, "p_", Rows.user(row, "m_")),
+                Rows.user(row, "e_"),
+                row.get("task_subject", String.class),
+                row.get("task_detail", String.class),
+                Rows.toEnum(Status.class, row.get("task_status", String.class)),
+                row.get("assigned_date", LocalDate.class));
+    }
+
+}
@@ -0,0 +1,290 @@
+package com.cydeo.reactive;
+
+import com.cydeo.dto.ProjectDTO;
+import com.cydeo.dto.ResponseWrapper;
+import com.cydeo.dto.RoleDTO;
+import com.cydeo.dto.TaskDTO;
+import com.cydeo.dto.UserDTO;
+import com.cydeo.enums.Status;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.zaxxer.hikari.HikariDataSource;
+import org.apache.catalina.Context;
+import org.apache.catalina.startup.Tomcat;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPublicKey;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Run with: mvn test -Pbenchmark
+// The employee pending-tasks read at high concurrency. The reactive side is this module on Netty and R2DBC; the
+// blocking side is what the servlet app does: Tomcat's 200 threads, a 10 connection Hikari pool (the OLTP pool size),
+// JDBC and one ResponseWrapper per request. Both verify the same RS256 token and run the same joins.
+// By default both read an embedded H2 database. r2dbc-h2 wraps H2's blocking driver and runs it on the event loop, so
+// on H2 the reactive side is capped by the event loop threads; for numbers that mean something for production point
+// both sides at an empty scratch Postgres database:
+//   -Dbenchmark.jdbc-url=jdbc:postgresql://localhost:5432/bench -Dbenchmark.r2dbc-url=r2dbc:postgresql://localhost:5432/bench
+//   -Dbenchmark.username=postgres -Dbenchmark.password=...
+@Tag("benchmark")
+class ReadApiBenchmarkTest {
+
+    private static final String JDBC_URL = System.getProperty("benchmark.jdbc-url", "jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1");
+    private static final String R2DBC_URL = System.getProperty("benchmark.r2dbc-url", "r2dbc:h2:mem:///bench;DB_CLOSE_DELAY=-1");
+    private static final String USERNAME = System.getProperty("benchmark.username", "sa");
+    private static final String PASSWORD = System.getProperty("benchmark.password", "");
+    private static final int EMPLOYEES = 200;
+    private static final int PROJECTS = 20;
+    private static final int TASKS_PER_EMPLOYEE = 30;
+    private static final int CONCURRENCY = 1000;
+    private static final int REQUESTS = 10_000;
+
+    private static final String PENDING_TASKS = "SELECT t.id, t.task_subject, t.task_detail, t.task_status, t.assigned_date," +
+            " p.id AS p_id, p.project_code, p.project_name, p.start_date, p.end_date, p.project_detail, p.project_status," +
+            " m.id AS m_id, m.first_name AS m_first_name, m.last_name AS m_last_name, m.user_name AS m_user_name, mr.id AS m_role_id, mr.description AS m_role," +
+            " e.id AS e_id, e.first_name, e.last_name, e.user_name, er.id AS e_role_id, er.description AS e_role" +
+            " FROM tasks t JOIN projects p ON p.id = t.project_id JOIN users m ON m.id = p.manager_id JOIN roles mr ON mr.id = m.role_id" +
+            " JOIN users e ON e.id = t.assigned_employee_id JOIN roles er ON er.id = e.role_id" +
+            " WHERE t.is_deleted = false AND e.user_name = ? AND t.task_status <> 'COMPLETE' ORDER BY t.id";
+
+    private static KeyPair keyPair;
+
+    @Test
+    void employee_pending_tasks_servlet_and_reactive() throws Exception {
+
+        keyPair = KeyPairGenerator.getInstance("RSA").generateKeyPair();
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(JDBC_URL);
+        dataSource.setUsername(USERNAME);
+        dataSource.setPassword(PASSWORD);
+        dataSource.setMaximumPoolSize(10);
+        seed(dataSource);
+
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < EMPLOYEES; i++) tokens.add(token("employee" + i));
+
+        Tomcat tomcat = servletApp(dataSource);
+        ConfigurableApplicationContext reactive = new SpringApplicationBuilder(ReactiveReadApiApplication.class, TestDecoder.class)
+                .run("--server.port=0", "--spring.r2dbc.url=" + R2DBC_URL, "--spring.r2dbc.username=" + USERNAME,
+                        "--spring.r2dbc.password=" + PASSWORD, "--spring.r2dbc.pool.max-size=10", "--spring.sql.init.mode=never",
+                        "--spring.main.banner-mode=off");
+        try {
+            int servletPort = tomcat.getConnector().getLocalPort();
+            int reactivePort = ((ReactiveWebServerApplicationContext) reactive).getWebServer().getPort();
+            URI servletUri = URI.create("http://localhost:" + servletPort + "/api/v1/task/employee/pending-tasks");
+            URI reactiveUri = URI.create("http://localhost:" + reactivePort + "/api/v1/task/employee/pending-tasks");
+
+            System.out.println(run("servlet", servletUri, tokens));
+            System.out.println(run("reactive", reactiveUri, tokens));
+        } finally {
+            reactive.close();
+            tomcat.stop();
+            tomcat.destroy();
+            dataSource.close();
+        }
+    }
+
+    private static String run(String stack, URI uri, List<String> tokens) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        send(client, uri, tokens, 2_000, new long[2_000]); // warm up connections and the JIT
+
+        long[] latencies = new long[REQUESTS];
+        long start = System.nanoTime();
+        int ok = send(client, uri, tokens, REQUESTS, latencies);
+        long elapsed = System.nanoTime() - start;
+        assertEquals(REQUESTS, ok);
+
+        Arrays.sort(latencies);
+        return String.format("%s: %d requests, %d in flight: %.0f req/s, p50 %d ms, p99 %d ms", stack, REQUESTS, CONCURRENCY,
+                REQUESTS * 1e9 / elapsed, latencies[REQUESTS / 2] / 1_000_000, latencies[REQUESTS * 99 / 100] / 1_000_000);
+    }
+
+    // Keeps CONCURRENCY requests in flight until `requests` have completed
+    private static int send(HttpClient client, URI uri, List<String> tokens, int requests, long[] latencies) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(CONCURRENCY);
+        AtomicInteger ok = new AtomicInteger();
+        CompletableFuture<?>[] responses = new CompletableFuture[requests];
+        for (int i = 0; i < requests; i++) {
+            inFlight.acquire();
+            int index = i;
+            long sent = System.nanoTime();
+            HttpRequest request = HttpRequest.newBuilder(uri).header("Authorization", "Bearer " + tokens.get(i % tokens.size())).build();
+            responses[i] = client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, e) -> {
+                        latencies[index] = System.nanoTime() - sent;
+                        if (response != null && response.statusCode() == 200) ok.incrementAndGet();
+                        inFlight.release();
+                    });
+        }
+        CompletableFuture.allOf(responses).orTimeout(5, TimeUnit.MINUTES).exceptionally(e -> null).join();
+        return ok.get();
+    }
+
+    private static Tomcat servletApp(HikariDataSource dataSource) throws Exception {
+        Tomcat tomcat = new Tomcat();
+        tomcat.setBaseDir(Files.createTempDirectory("tomcat").toString());
+        tomcat.setPort(0);
+        tomcat.getConnector().setProperty("maxThreads", "200");
+        Context context = tomcat.addContext("", null);
+        Tomcat.addServlet(context, "tasks", new PendingTasksServlet(dataSource));
+        context.addServletMappingDecoded("/api/v1/task/employee/pending-tasks", "tasks");
+        tomcat.start();
+        return tomcat;
+    }
+
+    private static String token(String userName) throws Exception {
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .subject(userName)
+                .claim("preferred_username", userName)
+                .claim("resource_access", Map.of("ticketing-app", Map.of("roles", List.of("Employee"))))
+                .expirationTime(new java.util.Date(System.currentTimeMillis() + 3_600_000))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader(JWSAlgorithm.RS256), claims);
+        jwt.sign(new RSASSASigner(keyPair.getPrivate()));
+        return jwt.serialize();
+    }
+
+    private static void seed(HikariDataSource dataSource) throws Exception {
+        String schema = new String(ReadApiBenchmarkTest.class.getResourceAsStream("/schema.sql").readAllBytes());
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute(schema);
+            statement.execute("INSERT INTO roles(description) VALUES ('Admin'), ('Manager'), ('Employee')");
+            statement.execute("INSERT INTO users(first_name, last_name, user_name, pass_word, enabled, gender, role_id) VALUES ('Ozzy', 'Brown', 'ozzy', 'abc1', true, 'MALE', 2)");
+            try (PreparedStatement users = connection.prepareStatement(
+                    "INSERT INTO users(first_name, last_name, user_name, pass_word, enabled, gender, role_id) VALUES (?, ?, ?, 'abc1', true, 'FEMALE', 3)")) {
+                for (int i = 0; i < EMPLOYEES; i++) {
+                    users.setString(1, "Employee");
+                    users.setString(2, String.valueOf(i));
+                    users.setString(3, "employee" + i);
+                    users.addBatch();
+                }
+                users.executeBatch();
+            }
+            try (PreparedStatement projects = connection.prepareStatement(
+                    "INSERT INTO projects(project_code, project_name, project_detail, project_status, start_date, end_date, manager_id) VALUES (?, ?, 'Benchmark project', 'IN_PROGRESS', ?, ?, 1)")) {
+                for (int i = 0; i < PROJECTS; i++) {
+                    projects.setString(1, "BP" + i);
+                    projects.setString(2, "Project " + i);
+                    projects.setObject(3, LocalDate.of(2022, 1, 1));
+                    projects.setObject(4, LocalDate.of(2022, 12, 31));
+                    projects.addBatch();
+                }
+                projects.executeBatch();
+            }
+            try (PreparedStatement tasks = connection.prepareStatement(
+                    "INSERT INTO tasks(task_subject, task_detail, task_status, assigned_date, assigned_employee_id, project_id) VALUES (?, 'Benchmark task detail', ?, ?, ?, ?)")) {
+                Random random = new Random(7);
+                for (int employee = 0; employee < EMPLOYEES; employee++) {
+                    for (int i = 0; i < TASKS_PER_EMPLOYEE; i++) {
+                        tasks.setString(1, "Task " + i);
+                        tasks.setString(2, Status.values()[random.nextInt(3)].name());
+                        tasks.setObject(3, LocalDate.of(2022, 1, 1).plusDays(random.nextInt(365)));
+                        tasks.setLong(4, employee + 2);
+                        tasks.setLong(5, 1 + random.nextInt(PROJECTS));
+                        tasks.addBatch();
+                    }
+                }
+                tasks.executeBatch();
+            }
+        }
+    }
+
+    // Tokens are signed with the benchmark's key instead of Keycloak's
+    static class TestDecoder {
+
+        @Bean
+        public ReactiveJwtDecoder reactiveJwtDecoder() {
+            return NimbusReactiveJwtDecoder.withPublicKey((RSAPublicKey) keyPair.getPublic()).build();
+        }
+
+    }
+
+    // The servlet app's flow: verify the token, a pooled JDBC query, DTOs, ResponseWrapper JSON
+    static class PendingTasksServlet extends HttpServlet {
+
+        private final HikariDataSource dataSource;
+        private final JwtDecoder jwtDecoder = NimbusJwtDecoder.withPublicKey((RSAPublicKey) keyPair.getPublic()).build();
+        private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule()).disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        PendingTasksServlet(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        @Override
+        protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            String userName = jwtDecoder.decode(request.getHeader("Authorization").substring("Bearer ".length())).getClaimAsString("preferred_username");
+
+            List<TaskDTO> tasks = new ArrayList<>();
+            try (Connection connection = dataSource.getConnection(); PreparedStatement statement = connection.prepareStatement(PENDING_TASKS)) {
+                statement.setString(1, userName);
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) tasks.add(toDto(rs));
+                }
+            } catch (SQLException e) {
+                response.sendError(500, e.getMessage());
+                return;
+            }
+
+            response.setContentType("application/json");
+            objectMapper.writeValue(response.getOutputStream(), new ResponseWrapper("Tasks are successfully retrieved", tasks, HttpStatus.OK));
+        }
+
+        private static TaskDTO toDto(ResultSet rs) throws SQLException {
+            UserDTO manager = user(rs.getLong("m_id"), rs.getString("m_first_name"), rs.getString("m_last_name"), rs.getString("m_user_name"),
+                    new RoleDTO(rs.getLong("m_role_id"), rs.getString("m_role")));
+            UserDTO employee = user(rs.getLong("e_id"), rs.getString("first_name"), rs.getString("last_name"), rs.getString("user_name"),
+                    new RoleDTO(rs.getLong("e_role_id"), rs.getString("e_role")));
+            ProjectDTO project = new ProjectDTO(rs.getString("project_name"), rs.getString("project_code"), manager, rs.getObject("start_date", LocalDate.class),
+                    rs.getObject("end_date", LocalDate.class), rs.getString("project_detail"), Status.valueOf(rs.getString("project_status")));
+            project.setId(rs.getLong("p_id"));
+            return new TaskDTO(rs.getLong("id"), project, employee, rs.getString("task_subject"), rs.getString("task_detail"),
+                    Status.valueOf(rs.getString("task_status")), rs.getObject("assigned_date", LocalDate.class));
+        }
+
+        private static UserDTO user(Long id, String firstName, String lastName, String userName, RoleDTO role) {
+            UserDTO user = new UserDTO();
+            user.setId(id);
+            user.setFirstName(firstName);
+            user.setLastName(lastName);
+            user.setUserName(userName);
+            user.setRole(role);
+            return user;
+        }
+
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.cydeo.reactive.controller;
+
+import com.cydeo.dto.TaskDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers.JwtMutator;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import static org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers.mockJwt;
+
+@SpringBootTest(properties = {"spring.r2dbc.url=r2dbc:h2:mem:///ticketing;DB_CLOSE_DELAY=-1", "spring.r2dbc.username=sa", "spring.r2dbc.password=",
+        "spring.sql.init.mode=always"})
+@AutoConfigureWebTestClient
+class ReadControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void should_list_projects_ordered_by_code_with_their_manager() {
+
+        webTestClient.mutateWith(user("ozzy", "Manager"))
+                .get().uri("/api/v1/project")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.success").isEqualTo(true)
+                .jsonPath("$.data.length()").isEqualTo(2)
+                .jsonPath("$.data[0].projectCode").isEqualTo("SP00")
+                .jsonPath("$.data[0].assignedManager.userName").isEqualTo("ozzy")
+                .jsonPath("$.data[0].assignedManager.role.description").isEqualTo("Manager")
+                .jsonPath("$.data[0].assignedManager.passWord").doesNotExist();
+    }
+
+    @Test
+    void should_stream_the_pending_tasks_of_the_logged_in_employee_as_ndjson() {
+
+        Flux<TaskDTO> tasks = webTestClient.mutateWith(user("sam", "Employee"))
+                .get().uri("/api/v1/task/employee/pending-tasks")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(TaskDTO.class)
+                .getResponseBody();
+
+        StepVerifier.create(tasks)
+                .expectNextMatches(task -> task.getTaskSubject().equals("Controllers")
+                        && task.getProject().getProjectCode().equals("SP00")
+                        && task.getAssignedEmployee().getUserName().equals("sam"))
+                .verifyComplete();
+    }
+
+    @Test
+    void should_keep_the_servlet_app_roles() {
+
+        webTestClient.mutateWith(user("sam", "Employee"))
+                .get().uri("/api/v1/task")
+                .exchange()
+                .expectStatus().isForbidden();
+
+        webTestClient.get().uri("/api/v1/task")
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    private static JwtMutator user(String userName, String role) {
+        return mockJwt().jwt(jwt -> jwt.claim("preferred_username", userName)).authorities(new SimpleGrantedAuthority("ROLE_" + role));
+    }
+
+}
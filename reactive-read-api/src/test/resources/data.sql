@@ -0,0 +1,18 @@
+INSERT INTO roles(description) VALUES ('Admin'), ('Manager'), ('Employee');
+
+INSERT INTO users(first_name, last_name, user_name, pass_word, enabled, phone, gender, role_id)
+VALUES ('Mike', 'Smith', 'mike', 'abc1', true, '5551110000', 'MALE', 1),
+       ('Ozzy', 'Brown', 'ozzy', 'abc1', true, '5552220000', 'MALE', 2),
+       ('Sam', 'Jones', 'sam', 'abc1', true, '5553330000', 'MALE', 3),
+       ('Ann', 'Miller', 'ann', 'abc1', true, '5554440000', 'FEMALE', 3);
+
+INSERT INTO projects(project_code, project_name, project_detail, project_status, start_date, end_date, manager_id, is_deleted)
+VALUES ('SP01', 'Spring MVC', 'Spring MVC Project', 'IN_PROGRESS', '2022-02-01', '2022-08-01', 2, false),
+       ('SP00', 'Spring Core', 'Spring Core Project', 'OPEN', '2022-01-05', '2022-06-12', 2, false),
+       ('SP99', 'Deleted', 'Deleted Project', 'OPEN', '2022-01-05', '2022-06-12', 2, true);
+
+INSERT INTO tasks(task_subject, task_detail, task_status, assigned_date, assigned_employee_id, project_id, is_deleted)
+VALUES ('Controllers', 'Write the controllers', 'OPEN', '2022-02-07', 3, 2, false),
+       ('Services', 'Write the services', 'COMPLETE', '2022-02-08', 3, 2, false),
+       ('Beans', 'Define the beans', 'IN_PROGRESS', '2022-01-10', 4, 1, false),
+       ('Removed', 'Deleted task', 'OPEN', '2022-01-10', 3, 1, true);
@@ -0,0 +1,42 @@
+-- The tables the servlet app's Hibernate mapping creates, reduced to what the read API selects
+CREATE TABLE roles (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    is_deleted BOOLEAN DEFAULT FALSE,
+    description VARCHAR(255)
+);
+
+CREATE TABLE users (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    is_deleted BOOLEAN DEFAULT FALSE,
+    first_name VARCHAR(255),
+    last_name VARCHAR(255),
+    user_name VARCHAR(255) NOT NULL UNIQUE,
+    pass_word VARCHAR(255) NOT NULL,
+    enabled BOOLEAN NOT NULL,
+    phone VARCHAR(255),
+    gender VARCHAR(255),
+    role_id BIGINT REFERENCES roles (id)
+);
+
+CREATE TABLE projects (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    is_deleted BOOLEAN DEFAULT FALSE,
+    project_code VARCHAR(255) UNIQUE,
+    project_name VARCHAR(255),
+    start_date DATE,
+    end_date DATE,
+    project_status VARCHAR(255),
+    project_detail VARCHAR(255),
+    manager_id BIGINT REFERENCES users (id)
+);
+
+CREATE TABLE tasks (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    is_deleted BOOLEAN DEFAULT FALSE,
+    task_subject VARCHAR(255),
+    task_detail VARCHAR(255),
+    task_status VARCHAR(255),
+    assigned_date DATE,
+    assigned_employee_id BIGINT REFERENCES users (id),
+    project_id BIGINT REFERENCES projects (id)
+);
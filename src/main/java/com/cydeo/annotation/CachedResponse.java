@@ -0,0 +1,18 @@
+package com.cydeo.annotation;
+
+import com.cydeo.enums.Aggregate;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CachedResponse { // Keeps the serialized (and gzipped) body of a GET endpoint until one of the aggregates is written
+
+    Aggregate[] value();                // every table whose rows end up in the response body
+
+    boolean perUser() default false;    // the body depends on the logged in user (e.g. "my tasks")
+
+}
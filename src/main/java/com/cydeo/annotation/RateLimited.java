@@ -0,0 +1,18 @@
+package com.cydeo.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RateLimited { // Per user budget for one endpoint, on top of the default budget every API call counts against
+
+    String value();             // budget name, endpoints with the same name share one bucket per user
+
+    int perMinute();            // sustained rate, scaled by the caller's role multiplier (ticketing.rate-limit.role-multipliers)
+
+    int burst();                // calls allowed back to back before the rate applies
+
+}
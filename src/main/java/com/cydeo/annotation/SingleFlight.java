@@ -0,0 +1,16 @@
+package com.cydeo.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SingleFlight { // Concurrent calls with the same arguments (and caller) share one execution and its result
+
+    String value();                     // name for metrics and for ticketing.single-flight.methods.<name>=false
+
+    boolean perUser() default true;     // the result depends on the logged in user; false lets every caller share it
+
+}
@@ -0,0 +1,20 @@
+package com.cydeo.annotation;
+
+import com.cydeo.enums.Aggregate;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface VersionedResource { // Put it on a GET endpoint and it answers If-None-Match with 304 without running the method
+
+    Aggregate[] value();                // every table whose rows end up in the response body
+
+    boolean perUser() default false;    // the body depends on the logged in user (e.g. "my tasks")
+
+    long maxAgeSeconds() default 0;     // 0 means the client has to revalidate every time
+
+}
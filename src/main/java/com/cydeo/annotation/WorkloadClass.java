@@ -0,0 +1,16 @@
+package com.cydeo.annotation;
+
+import com.cydeo.enums.Workload;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface WorkloadClass { // Connections taken while the method runs come from this workload's pool, OLTP when absent
+
+    Workload value();
+
+}
@@ -0,0 +1,95 @@
+package com.cydeo.aspect;
+
+import com.cydeo.annotation.VersionedResource;
+import com.cydeo.service.VersionStampService;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.keycloak.adapters.springsecurity.account.SimpleKeycloakAccount;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.servlet.http.HttpServletRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)   // around ResponseCacheAspect
+@Slf4j
+public class ConditionalGetAspect {
+
+    private final VersionStampService versionStampService;
+
+    public ConditionalGetAspect(VersionStampService versionStampService) {
+        this.versionStampService = versionStampService;
+    }
+
+    @Around("@annotation(versionedResource)")
+    public Object aroundVersionedResourceAdvice(ProceedingJoinPoint proceedingJoinPoint, VersionedResource versionedResource) throws Throwable {
+
+        HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest();
+
+        // The tag covers the table versions plus everything else the body depends on: the endpoint, its arguments,
+        // the requested representation and, for "my ..." endpoints, the user
+        String fingerprint = proceedingJoinPoint.getSignature().toLongString()
+                + Arrays.deepToString(proceedingJoinPoint.getArgs())
+                + request.getHeader(HttpHeaders.ACCEPT)
+                + (versionedResource.perUser() ? getUsername() : "")
+                + versionStampService.versionOf(versionedResource.value());
+        String eTag = "\"" + DigestUtils.md5DigestAsHex(fingerprint.getBytes(StandardCharsets.UTF_8)) + "\"";
+
+        CacheControl cacheControl = versionedResource.maxAgeSeconds() > 0
+                ? CacheControl.maxAge(versionedResource.maxAgeSeconds(), TimeUnit.SECONDS).cachePrivate()
+                : CacheControl.noCache().cachePrivate();
+
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), eTag)) {
+            log.debug("Not modified -> Method: {}", proceedingJoinPoint.getSignature().toShortString());
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(cacheControl).varyBy(HttpHeaders.ACCEPT).build();
+        }
+
+        Object result = proceedingJoinPoint.proceed();
+
+        if (result instanceof ResponseEntity && ((ResponseEntity<?>) result).getStatusCode().is2xxSuccessful()) {
+            ResponseEntity<?> response = (ResponseEntity<?>) result;
+            List<String> vary = new ArrayList<>(response.getHeaders().getVary());
+            if (!vary.contains(HttpHeaders.ACCEPT)) vary.add(HttpHeaders.ACCEPT);
+            return ResponseEntity.status(response.getStatusCode())
+                    .headers(response.getHeaders())
+                    .eTag(eTag)
+                    .cacheControl(cacheControl)
+                    .varyBy(vary.toArray(new String[0]))
+                    .body(response.getBody());
+        }
+        return result;
+
+    }
+
+    private boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) return false;
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .anyMatch(candidate -> candidate.equals(eTag) || candidate.equals("*"));
+    }
+
+    private String getUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SimpleKeycloakAccount userDetails = (SimpleKeycloakAccount) authentication.getDetails();
+        return userDetails.getKeycloakSecurityContext().getToken().getPreferredUsername();
+    }
+
+}
@@ -0,0 +1,177 @@
+package com.cydeo.aspect;
+
+import com.cydeo.annotation.CachedResponse;
+import com.cydeo.enums.Aggregate;
+import com.cydeo.event.ProjectEvent;
+import com.cydeo.event.TaskEvent;
+import com.cydeo.event.UserEvent;
+import com.cydeo.support.ResponseCache;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.keycloak.adapters.springsecurity.account.SimpleKeycloakAccount;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+// Runs inside method security, so @RolesAllowed is still checked on every call, and inside ConditionalGetAspect,
+// so a 304 costs no cache lookup. One entry per endpoint, arguments and negotiated format; it holds the body both
+// plain and gzipped, so a hit is a byte copy.
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@ConditionalOnProperty(name = "ticketing.response-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class ResponseCacheAspect {
+
+    private final ResponseCache<Object> responseCache;
+    private final List<AbstractJackson2HttpMessageConverter> converters;
+
+    public ResponseCacheAspect(ResponseCache<Object> responseCache, HttpMessageConverters httpMessageConverters) {
+        this.responseCache = responseCache;
+        this.converters = httpMessageConverters.getConverters().stream()
+                .filter(AbstractJackson2HttpMessageConverter.class::isInstance)
+                .map(AbstractJackson2HttpMessageConverter.class::cast)
+                .collect(Collectors.toList());
+    }
+
+    @Around("@annotation(cachedResponse)")
+    public Object aroundCachedResponseAdvice(ProceedingJoinPoint proceedingJoinPoint, CachedResponse cachedResponse) throws Throwable {
+
+        HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest();
+
+        Representation representation = negotiate(request.getHeader(HttpHeaders.ACCEPT));
+        if (representation == null) return proceedingJoinPoint.proceed();   // Spring MVC answers 406 on its own
+
+        String key = proceedingJoinPoint.getSignature().toLongString()
+                + Arrays.deepToString(proceedingJoinPoint.getArgs())
+                + representation.mediaType
+                + (cachedResponse.perUser() ? getUsername() : "");
+
+        Object result = responseCache.get(key, cachedResponse.value(), CachedBody.class::isInstance,
+                () -> serialize(proceedingJoinPoint.proceed(), representation));
+
+        if (!(result instanceof CachedBody)) return result;
+        CachedBody body = (CachedBody) result;
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(body.status)
+                .contentType(body.mediaType)
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        return acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))
+                ? response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(body.gzipped)
+                : response.body(body.bytes);
+    }
+
+    // Published by the services after every write; the project list carries its managers, so a user write
+    // drops it as well
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProjectEvent(ProjectEvent event) {
+        responseCache.invalidate(Aggregate.PROJECT);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskEvent(TaskEvent event) {
+        responseCache.invalidate(Aggregate.TASK);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserEvent(UserEvent event) {
+        responseCache.invalidate(Aggregate.USER);
+    }
+
+    // Same choice Spring MVC makes for the body: the most specific accepted type a Jackson converter can write,
+    // JSON for */*
+    private Representation negotiate(String accept) {
+        List<MediaType> accepted;
+        try {
+            accepted = accept == null ? List.of(MediaType.ALL) : MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+        MediaType.sortBySpecificityAndQuality(accepted);
+        for (MediaType acceptedType : accepted) {
+            for (AbstractJackson2HttpMessageConverter converter : converters) {
+                for (MediaType supported : converter.getSupportedMediaTypes()) {
+                    if (supported.isConcrete() && acceptedType.isCompatibleWith(supported)) return new Representation(converter, supported);
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Object serialize(Object result, Representation representation) throws IOException {
+        if (!(result instanceof ResponseEntity) || !((ResponseEntity<?>) result).getStatusCode().is2xxSuccessful()) return result;
+
+        ResponseEntity<?> response = (ResponseEntity<?>) result;
+        byte[] bytes = representation.converter.getObjectMapper().writeValueAsBytes(response.getBody());
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+            gzip.write(bytes);
+        }
+        return new CachedBody(response.getStatusCodeValue(), representation.mediaType, bytes, gzipped.toByteArray());
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private String getUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SimpleKeycloakAccount userDetails = (SimpleKeycloakAccount) authentication.getDetails();
+        return userDetails.getKeycloakSecurityContext().getToken().getPreferredUsername();
+    }
+
+    private static final class Representation {
+
+        private final AbstractJackson2HttpMessageConverter converter;
+        private final MediaType mediaType;
+
+        private Representation(AbstractJackson2HttpMessageConverter converter, MediaType mediaType) {
+            this.converter = converter;
+            this.mediaType = mediaType;
+        }
+
+    }
+
+    private static final class CachedBody {
+
+        private final int status;
+        private final MediaType mediaType;
+        private final byte[] bytes;
+        private final byte[] gzipped;
+
+        private CachedBody(int status, MediaType mediaType, byte[] bytes, byte[] gzipped) {
+            this.status = status;
+            this.mediaType = mediaType;
+            this.bytes = bytes;
+            this.gzipped = gzipped;
+        }
+
+    }
+
+}
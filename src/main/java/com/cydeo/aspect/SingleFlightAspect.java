@@ -0,0 +1,69 @@
+package com.cydeo.aspect;
+
+import com.cydeo.support.SingleFlight;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Ahead of the transaction and workload advice, so a caller that joins a running call holds no connection while it
+// waits. The result object is handed to every caller that joined; the callers only read and serialize it.
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(name = "ticketing.single-flight.enabled", havingValue = "true", matchIfMissing = true)
+public class SingleFlightAspect {
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Optional<SingleFlight>> flights = new ConcurrentHashMap<>();
+
+    public SingleFlightAspect(Environment environment, MeterRegistry meterRegistry) {
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("@annotation(singleFlight)")
+    public Object aroundSingleFlightAdvice(ProceedingJoinPoint proceedingJoinPoint, com.cydeo.annotation.SingleFlight singleFlight) throws Throwable {
+
+        Optional<SingleFlight> flight = flights.computeIfAbsent(singleFlight.value(), this::create);
+        if (flight.isEmpty()) return proceedingJoinPoint.proceed();
+
+        String key = proceedingJoinPoint.getSignature().toLongString()
+                + Arrays.deepToString(proceedingJoinPoint.getArgs())
+                + (singleFlight.perUser() ? getPrincipalName() : "");
+        return flight.get().execute(key, proceedingJoinPoint::proceed);
+    }
+
+    // Each annotated name is looked up once, turned off ones stay empty and just proceed
+    private Optional<SingleFlight> create(String name) {
+        if (!environment.getProperty("ticketing.single-flight.methods." + name, Boolean.class, true)) return Optional.empty();
+
+        SingleFlight flight = new SingleFlight(name);
+        FunctionCounter.builder("ticketing.single-flight.calls", flight, SingleFlight::getCalls).tag("method", name).register(meterRegistry);
+        FunctionCounter.builder("ticketing.single-flight.coalesced", flight, SingleFlight::getCoalesced).tag("method", name).register(meterRegistry);
+        Gauge.builder("ticketing.single-flight.coalescing-ratio", flight, SingleFlight::getCoalescingRatio).tag("method", name).register(meterRegistry);
+        Gauge.builder("ticketing.single-flight.in-flight", flight, SingleFlight::getInFlight).tag("method", name).register(meterRegistry);
+        return Optional.of(flight);
+    }
+
+    private static String getPrincipalName() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null ? "" : authentication.getName();
+    }
+
+}
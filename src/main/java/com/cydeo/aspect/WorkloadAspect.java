@@ -0,0 +1,26 @@
+package com.cydeo.aspect;
+
+import com.cydeo.annotation.WorkloadClass;
+import com.cydeo.enums.Workload;
+import com.cydeo.support.WorkloadContext;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+@Aspect
+@Component
+public class WorkloadAspect {
+
+    @Around("@annotation(workloadClass)")
+    public Object aroundWorkloadClassAdvice(ProceedingJoinPoint proceedingJoinPoint, WorkloadClass workloadClass) throws Throwable {
+
+        Workload previous = WorkloadContext.enter(workloadClass.value());
+        try {
+            return proceedingJoinPoint.proceed();
+        } finally {
+            WorkloadContext.exit(previous);
+        }
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.cydeo.config;
+
+import com.cydeo.enums.Aggregate;
+import com.cydeo.support.AggregateVersionListener;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+@Configuration
+public class AggregateVersionConfig {
+
+    private static final String SEED =
+            "INSERT INTO aggregate_versions (aggregate, version) SELECT ?, 0 WHERE NOT EXISTS (SELECT 1 FROM aggregate_versions WHERE aggregate = ?)";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final AggregateVersionListener aggregateVersionListener;
+    private final JdbcTemplate jdbcTemplate;
+
+    public AggregateVersionConfig(EntityManagerFactory entityManagerFactory, AggregateVersionListener aggregateVersionListener,
+                                  JdbcTemplate jdbcTemplate) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.aggregateVersionListener = aggregateVersionListener;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void registerListeners() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, aggregateVersionListener);
+        registry.appendListeners(EventType.POST_UPDATE, aggregateVersionListener);
+        registry.appendListeners(EventType.POST_DELETE, aggregateVersionListener);
+        seedVersions();
+    }
+
+    // The bump is an UPDATE, so every counter row has to exist before the first write
+    private void seedVersions() {
+        for (Aggregate aggregate : Aggregate.values()) {
+            try {
+                jdbcTemplate.update(SEED, aggregate.getValue(), aggregate.getValue());
+            } catch (DuplicateKeyException e) {
+                // another node seeded it first
+            }
+        }
+    }
+
+}
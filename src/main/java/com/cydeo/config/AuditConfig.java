@@ -0,0 +1,10 @@
+package com.cydeo.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+
+@Configuration
+@EnableJpaAuditing(auditorAwareRef = "currentUserAuditor")
+public class AuditConfig {
+
+}
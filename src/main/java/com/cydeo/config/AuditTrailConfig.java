@@ -0,0 +1,31 @@
+package com.cydeo.config;
+
+import com.cydeo.support.AuditTrailListener;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.context.annotation.Configuration;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+@Configuration
+public class AuditTrailConfig {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final AuditTrailListener auditTrailListener;
+
+    public AuditTrailConfig(EntityManagerFactory entityManagerFactory, AuditTrailListener auditTrailListener) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.auditTrailListener = auditTrailListener;
+    }
+
+    @PostConstruct
+    public void registerListeners() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, auditTrailListener);
+        registry.appendListeners(EventType.POST_UPDATE, auditTrailListener);
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.cydeo.config;
+
+import com.cydeo.filter.ConcurrencyLimitFilter;
+import com.cydeo.support.AdaptiveConcurrencyLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(name = "ticketing.concurrency-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitConfig {
+
+    @Bean
+    public AdaptiveConcurrencyLimiter readConcurrencyLimiter(@Value("${ticketing.concurrency-limit.read.initial-limit:50}") int initialLimit,
+                                                             @Value("${ticketing.concurrency-limit.read.min-limit:10}") int minLimit,
+                                                             @Value("${ticketing.concurrency-limit.read.max-limit:150}") int maxLimit,
+                                                             @Value("${ticketing.concurrency-limit.tolerance:1.5}") double tolerance,
+                                                             @Value("${ticketing.concurrency-limit.smoothing:0.2}") double smoothing,
+                                                             @Value("${ticketing.concurrency-limit.baseline-windows:600}") int baselineWindows,
+                                                             @Value("${ticketing.concurrency-limit.window-ms:1000}") long windowMillis,
+                                                             @Value("${ticketing.concurrency-limit.window-samples:10}") int windowSamples) {
+        return new AdaptiveConcurrencyLimiter("read", initialLimit, minLimit, maxLimit, tolerance, smoothing, baselineWindows, windowMillis, windowSamples);
+    }
+
+    @Bean
+    public AdaptiveConcurrencyLimiter writeConcurrencyLimiter(@Value("${ticketing.concurrency-limit.write.initial-limit:20}") int initialLimit,
+                                                              @Value("${ticketing.concurrency-limit.write.min-limit:5}") int minLimit,
+                                                              @Value("${ticketing.concurrency-limit.write.max-limit:60}") int maxLimit,
+                                                              @Value("${ticketing.concurrency-limit.tolerance:1.5}") double tolerance,
+                                                              @Value("${ticketing.concurrency-limit.smoothing:0.2}") double smoothing,
+                                                              @Value("${ticketing.concurrency-limit.baseline-windows:600}") int baselineWindows,
+                                                              @Value("${ticketing.concurrency-limit.window-ms:1000}") long windowMillis,
+                                                              @Value("${ticketing.concurrency-limit.window-samples:10}") int windowSamples) {
+        return new AdaptiveConcurrencyLimiter("write", initialLimit, minLimit, maxLimit, tolerance, smoothing, baselineWindows, windowMillis, windowSamples);
+    }
+
+    // Runs ahead of Spring Security so a shed request costs no token check
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(@Qualifier("readConcurrencyLimiter") AdaptiveConcurrencyLimiter readConcurrencyLimiter,
+                                                                               @Qualifier("writeConcurrencyLimiter") AdaptiveConcurrencyLimiter writeConcurrencyLimiter,
+                                                                               @Value("${ticketing.concurrency-limit.retry-after-seconds:1}") int retryAfterSeconds,
+                                                                               ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        bindMetrics(readConcurrencyLimiter, meterRegistry);
+        bindMetrics(writeConcurrencyLimiter, meterRegistry);
+
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(readConcurrencyLimiter, writeConcurrencyLimiter, retryAfterSeconds, objectMapper));
+        registration.addUrlPatterns("/api/v1/project/*", "/api/v1/task/*", "/api/v1/user/*");
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+
+    private static void bindMetrics(AdaptiveConcurrencyLimiter limiter, MeterRegistry meterRegistry) {
+        Gauge.builder("ticketing.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit).tag("class", limiter.getName()).register(meterRegistry);
+        Gauge.builder("ticketing.concurrency.in-flight", limiter, AdaptiveConcurrencyLimiter::getInFlight).tag("class", limiter.getName()).register(meterRegistry);
+        FunctionCounter.builder("ticketing.concurrency.rejected", limiter, AdaptiveConcurrencyLimiter::getRejected).tag("class", limiter.getName()).register(meterRegistry);
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.cydeo.config;
+
+import com.cydeo.enums.Workload;
+import com.cydeo.support.ReplicaRoutingDataSource;
+import com.cydeo.support.WorkloadRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+// The workload pools are beans so Spring Boot binds their metrics (hikaricp.connections.acquire, .usage, .pending, ...)
+// tagged with the pool name
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    public HikariDataSource oltpDataSource(DataSourceProperties properties,
+                                           @Value("${ticketing.datasource.oltp.maximum-pool-size:10}") int maximumPoolSize,
+                                           @Value("${ticketing.datasource.oltp.connection-timeout-ms:2000}") long connectionTimeout,
+                                           @Value("${ticketing.datasource.oltp.statement-timeout-ms:5000}") long statementTimeout) {
+        return pool(properties, Workload.OLTP, maximumPoolSize, connectionTimeout, statementTimeout);
+    }
+
+    @Bean
+    public HikariDataSource reportingDataSource(DataSourceProperties properties,
+                                                @Value("${ticketing.datasource.reporting.maximum-pool-size:4}") int maximumPoolSize,
+                                                @Value("${ticketing.datasource.reporting.connection-timeout-ms:30000}") long connectionTimeout,
+                                                @Value("${ticketing.datasource.reporting.statement-timeout-ms:120000}") long statementTimeout) {
+        return pool(properties, Workload.REPORTING, maximumPoolSize, connectionTimeout, statementTimeout);
+    }
+
+    @Bean
+    public WorkloadRoutingDataSource workloadRoutingDataSource(@Qualifier("oltpDataSource") DataSource oltpDataSource,
+                                                               @Qualifier("reportingDataSource") DataSource reportingDataSource) {
+        return new WorkloadRoutingDataSource(Map.of(Workload.OLTP, oltpDataSource, Workload.REPORTING, reportingDataSource));
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(WorkloadRoutingDataSource workloadRoutingDataSource, ObjectProvider<ReplicaRoutingDataSource> replicaRoutingDataSource) {
+        ReplicaRoutingDataSource replicas = replicaRoutingDataSource.getIfAvailable();
+        return new LazyConnectionDataSourceProxy(replicas == null ? workloadRoutingDataSource : replicas);
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, Workload workload, int maximumPoolSize, long connectionTimeout, long statementTimeout) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName(workload.getValue());
+        pool.setMaximumPoolSize(maximumPoolSize);
+        pool.setConnectionTimeout(connectionTimeout);
+        // Postgres cancels a statement running longer than this, so a runaway query gives its connection back
+        if (statementTimeout > 0) pool.setConnectionInitSql("SET statement_timeout = " + statementTimeout);
+        return pool;
+    }
+
+}
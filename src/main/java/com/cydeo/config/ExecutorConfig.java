@@ -0,0 +1,53 @@
+package com.cydeo.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ExecutorConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor keycloakProvisioningExecutor(@Value("${ticketing.keycloak.provisioning.pool-size:8}") int poolSize,
+                                                               @Value("${ticketing.keycloak.provisioning.queue-capacity:256}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("keycloak-provisioning-");
+        // when the queue is full the importing thread does the work itself, which slows down the producer instead of failing rows
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    // Parts of composite pages; the pool size bounds the connections those take from the OLTP pool at once, a full
+    // queue makes the request thread run the part itself
+    @Bean
+    public ThreadPoolTaskExecutor managerHomeExecutor(@Value("${ticketing.manager-home.pool-size:8}") int poolSize,
+                                                      @Value("${ticketing.manager-home.queue-capacity:64}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("manager-home-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    // Startup index builds and other fire-and-forget work; VirtualThreadConfig replaces it when virtual threads are on.
+    // The common pool is shared with the JVM, it must not be shut down with the context
+    @Bean(destroyMethod = "")
+    @ConditionalOnProperty(name = "ticketing.virtual-threads.enabled", havingValue = "false", matchIfMissing = true)
+    public Executor backgroundExecutor() {
+        return ForkJoinPool.commonPool();
+    }
+
+}
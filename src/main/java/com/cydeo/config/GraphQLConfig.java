@@ -0,0 +1,37 @@
+package com.cydeo.config;
+
+import graphql.analysis.FieldComplexityCalculator;
+import graphql.analysis.MaxQueryComplexityInstrumentation;
+import graphql.analysis.MaxQueryDepthInstrumentation;
+import graphql.schema.GraphQLTypeUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class GraphQLConfig {
+
+    // Both run on the parsed query before any resolver, so an expensive query costs no database work
+    @Bean
+    public MaxQueryDepthInstrumentation maxQueryDepthInstrumentation(@Value("${ticketing.graphql.max-depth:6}") int maxDepth) {
+        return new MaxQueryDepthInstrumentation(maxDepth);
+    }
+
+    @Bean
+    public MaxQueryComplexityInstrumentation maxQueryComplexityInstrumentation(@Value("${ticketing.graphql.max-complexity:200}") int maxComplexity,
+                                                                              @Value("${ticketing.graphql.list-cost-factor:10}") int listCostFactor) {
+        return new MaxQueryComplexityInstrumentation(maxComplexity, listFieldComplexity(listCostFactor));
+    }
+
+    // A field costs 1 plus its selection; list fields multiply that by the factor since every selected field is
+    // repeated for each element
+    static FieldComplexityCalculator listFieldComplexity(int listCostFactor) {
+        return (environment, childComplexity) -> {
+            int complexity = 1 + childComplexity;
+            return GraphQLTypeUtil.isList(GraphQLTypeUtil.unwrapNonNull(environment.getFieldDefinition().getType()))
+                    ? complexity * listCostFactor
+                    : complexity;
+        };
+    }
+
+}
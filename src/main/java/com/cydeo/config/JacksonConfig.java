@@ -0,0 +1,36 @@
+package com.cydeo.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+// Besides JSON every controller speaks Smile (Accept / Content-Type application/x-jackson-smile) and CBOR
+// (application/cbor); JSON stays the default for clients that accept anything.
+@Configuration
+public class JacksonConfig {
+
+    // Picked up by Boot's Jackson2ObjectMapperBuilder, so the JSON and binary mappers all get it: property accessors
+    // are generated once per DTO class instead of going through reflection on every call
+    @Bean
+    public BlackbirdModule blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    // Built from Boot's builder rather than the Spring MVC defaults, so the binary formats carry the same modules
+    // and spring.jackson settings as JSON and a DTO means the same thing in every format
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.createXmlMapper(false).factory(new SmileFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.createXmlMapper(false).factory(new CBORFactory()).build());
+    }
+
+}
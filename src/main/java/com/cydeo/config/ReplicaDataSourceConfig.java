@@ -0,0 +1,56 @@
+package com.cydeo.config;
+
+import com.cydeo.support.ReplicaRoutingDataSource;
+import com.cydeo.support.WorkloadRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Only active when replicas are configured; without them every connection comes from the primary's pools
+@Configuration
+@ConditionalOnExpression("!'${ticketing.datasource.replica-urls:}'.isBlank()")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(WorkloadRoutingDataSource workloadRoutingDataSource,
+                                                             @Value("${ticketing.datasource.replica-urls}") String[] replicaUrls,
+                                                             @Value("${ticketing.datasource.replica-username:${spring.datasource.username:}}") String replicaUsername,
+                                                             @Value("${ticketing.datasource.replica-password:${spring.datasource.password:}}") String replicaPassword,
+                                                             @Value("${ticketing.datasource.read-your-writes-ms:5000}") long readYourWritesMillis,
+                                                             @Value("${ticketing.datasource.replica-lag-query:}") String lagQuery,
+                                                             @Value("${ticketing.datasource.max-replica-lag-seconds:10}") double maxLagSeconds,
+                                                             @Value("${ticketing.datasource.validation-timeout-seconds:2}") int validationTimeoutSeconds) {
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicaUrls.length; i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + i);
+            replica.setJdbcUrl(replicaUrls[i].trim());
+            replica.setUsername(replicaUsername);
+            replica.setPassword(replicaPassword);
+            replica.setReadOnly(true);
+            replicas.put(replica.getPoolName(), replica);
+        }
+
+        // Writes and reads that have to see the latest data use the primary's workload pools
+        return new ReplicaRoutingDataSource(workloadRoutingDataSource, replicas, readYourWritesMillis, lagQuery, maxLagSeconds, validationTimeoutSeconds);
+    }
+
+    // The replica pools are not beans, so Spring Boot does not see them; bind their metrics once the registry exists
+    @Bean
+    public MeterBinder replicaPoolMetrics(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return registry -> replicaRoutingDataSource.getReplicaDataSources().stream()
+                .filter(HikariDataSource.class::isInstance)
+                .map(HikariDataSource.class::cast)
+                .forEach(pool -> pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+    }
+
+}
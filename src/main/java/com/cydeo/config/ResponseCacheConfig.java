@@ -0,0 +1,28 @@
+package com.cydeo.config;
+
+import com.cydeo.support.ResponseCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(name = "ticketing.response-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class ResponseCacheConfig {
+
+    @Bean
+    public ResponseCache<Object> responseCache(@Value("${ticketing.response-cache.max-entries:256}") int maxEntries,
+                                               @Value("${ticketing.response-cache.ttl-ms:30000}") long ttlMillis,
+                                               MeterRegistry meterRegistry) {
+        ResponseCache<Object> responseCache = new ResponseCache<>(maxEntries, ttlMillis);
+        FunctionCounter.builder("ticketing.response-cache.hits", responseCache, ResponseCache::getHits).register(meterRegistry);
+        FunctionCounter.builder("ticketing.response-cache.misses", responseCache, ResponseCache::getMisses).register(meterRegistry);
+        FunctionCounter.builder("ticketing.response-cache.coalesced", responseCache, ResponseCache::getCoalesced).register(meterRegistry);
+        Gauge.builder("ticketing.response-cache.entries", responseCache, ResponseCache::size).register(meterRegistry);
+        return responseCache;
+    }
+
+}
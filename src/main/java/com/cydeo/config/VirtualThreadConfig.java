@@ -0,0 +1,41 @@
+package com.cydeo.config;
+
+import com.cydeo.support.VirtualThreads;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+
+// Opt-in, needs Java 21 (build with -Pvirtual-threads). Every servlet request and the background index builds get their
+// own virtual thread, so a request waiting on JDBC or Keycloak no longer holds one of Tomcat's 200 platform threads.
+// server.tomcat.threads.max does not apply any more: the Hikari pools and the concurrency limit filter are what bound
+// the work that reaches the database.
+// Executors that stay on platform threads on purpose:
+// - keycloakProvisioningExecutor: its size is the number of parallel calls Keycloak gets, and the admin client's
+//   TokenManager fetches tokens inside synchronized methods, which would pin the carrier thread
+// - the task stream sender: SseEmitter.send writes to the socket while holding the emitter's monitor
+// - the task search rebuild pool: its size keeps the rebuild within the reporting pool
+// - managerHomeExecutor: its size bounds the OLTP connections the composite pages take
+@Configuration
+@ConditionalOnProperty(name = "ticketing.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean
+    public ExecutorService requestExecutor() {
+        return VirtualThreads.newThreadPerTaskExecutor("http-vt-");
+    }
+
+    @Bean
+    public ExecutorService backgroundExecutor() {
+        return VirtualThreads.newThreadPerTaskExecutor("background-vt-");
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandler(@Qualifier("requestExecutor") ExecutorService requestExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(requestExecutor);
+    }
+
+}
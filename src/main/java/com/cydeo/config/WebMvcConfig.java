@@ -0,0 +1,59 @@
+package com.cydeo.config;
+
+import com.cydeo.interceptor.RateLimitInterceptor;
+import com.cydeo.support.RateLimiter;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final int defaultPerMinute;
+    private final int defaultBurst;
+    private final String roleMultipliers;
+    private final int maxKeys;
+    private final Executor backgroundExecutor;
+
+    public WebMvcConfig(@Value("${ticketing.rate-limit.default.per-minute:600}") int defaultPerMinute,
+                        @Value("${ticketing.rate-limit.default.burst:100}") int defaultBurst,
+                        @Value("${ticketing.rate-limit.role-multipliers:}") String roleMultipliers,
+                        @Value("${ticketing.rate-limit.max-keys:100000}") int maxKeys,
+                        @Qualifier("backgroundExecutor") Executor backgroundExecutor) {
+        this.defaultPerMinute = defaultPerMinute;
+        this.defaultBurst = defaultBurst;
+        this.roleMultipliers = roleMultipliers;
+        this.maxKeys = maxKeys;
+        this.backgroundExecutor = backgroundExecutor;
+    }
+
+    @Bean
+    public RateLimiter rateLimiter() {
+        return new RateLimiter(maxKeys, backgroundExecutor);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RateLimitInterceptor(rateLimiter(), defaultPerMinute, defaultBurst, parseMultipliers(roleMultipliers)))
+                .addPathPatterns("/api/**");
+    }
+
+    // "Admin=4,Manager=2" -> {Admin: 4.0, Manager: 2.0}
+    private static Map<String, Double> parseMultipliers(String value) {
+        Map<String, Double> multipliers = new HashMap<>();
+        for (String entry : value.split(",")) {
+            if (entry.isBlank()) continue;
+            String[] parts = entry.split("=");
+            multipliers.put(parts[0].trim(), Double.parseDouble(parts[1].trim()));
+        }
+        return multipliers;
+    }
+
+}
@@ -0,0 +1,46 @@
+package com.cydeo.controller;
+
+import com.cydeo.annotation.RateLimited;
+import com.cydeo.dto.ResponseWrapper;
+import com.cydeo.dto.TaskReportRowDTO;
+import com.cydeo.index.TaskColumnStore;
+import com.cydeo.service.TaskAnalyticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.annotation.security.RolesAllowed;
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/analytics")
+@Tag(name = "AnalyticsController", description = "Manager reports API")
+public class AnalyticsController {
+
+    private final TaskAnalyticsService taskAnalyticsService;
+
+    public AnalyticsController(TaskAnalyticsService taskAnalyticsService) {
+        this.taskAnalyticsService = taskAnalyticsService;
+    }
+
+    @GetMapping("/tasks")
+    @RolesAllowed("Manager")
+    @Operation(summary = "Task counts, completion rate and open task aging per project or employee")
+    @RateLimited(value = "reports", perMinute = 20, burst = 5)
+    public ResponseEntity<ResponseWrapper> getTaskReport(@RequestParam(value = "groupBy", defaultValue = "PROJECT") TaskColumnStore.GroupBy groupBy,
+                                                         @RequestParam(value = "projectCode", required = false) String projectCode,
+                                                         @RequestParam(value = "assignee", required = false) String assignee,
+                                                         @RequestParam(value = "from", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate from,
+                                                         @RequestParam(value = "to", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate to) {
+        List<TaskReportRowDTO> rows = taskAnalyticsService.report(groupBy, projectCode, assignee, from, to);
+        return ResponseEntity.ok(new ResponseWrapper("Task report is successfully retrieved", rows, HttpStatus.OK));
+    }
+
+}
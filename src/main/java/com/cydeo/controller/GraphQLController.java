@@ -0,0 +1,108 @@
+package com.cydeo.controller;
+
+import com.cydeo.dto.ProjectNodeDTO;
+import com.cydeo.dto.RoleDTO;
+import com.cydeo.dto.TaskNodeDTO;
+import com.cydeo.dto.UserNodeDTO;
+import com.cydeo.service.GraphQLService;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.stereotype.Controller;
+
+import javax.annotation.security.RolesAllowed;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Nested fields go through per request DataLoaders (@BatchMapping): all parents of one level are collected first and
+// their references are loaded with a single IN query, instead of one query per parent
+@Controller
+public class GraphQLController {
+
+    private final GraphQLService graphQLService;
+
+    public GraphQLController(GraphQLService graphQLService) {
+        this.graphQLService = graphQLService;
+    }
+
+    @QueryMapping
+    @RolesAllowed("Manager")
+    public List<ProjectNodeDTO> projects() {
+        return graphQLService.listAllProjects();
+    }
+
+    @QueryMapping
+    @RolesAllowed("Manager")
+    public ProjectNodeDTO project(@Argument String projectCode) {
+        return graphQLService.findProjectByCode(projectCode);
+    }
+
+    @QueryMapping
+    @RolesAllowed("Manager")
+    public List<TaskNodeDTO> tasks() {
+        return graphQLService.listAllTasks();
+    }
+
+    @QueryMapping
+    @RolesAllowed("Manager")
+    public TaskNodeDTO task(@Argument Long id) {
+        return graphQLService.findTaskById(id);
+    }
+
+    @QueryMapping
+    @RolesAllowed({"Manager","Admin"})
+    public List<UserNodeDTO> users() {
+        return graphQLService.listAllUsers();
+    }
+
+    @QueryMapping
+    @RolesAllowed("Admin")
+    public UserNodeDTO user(@Argument String userName) {
+        return graphQLService.findUserByUserName(userName);
+    }
+
+    @BatchMapping(typeName = "Task", field = "project")
+    public Map<TaskNodeDTO, ProjectNodeDTO> taskProject(List<TaskNodeDTO> tasks) {
+        Map<Long, ProjectNodeDTO> projects = graphQLService.findProjectsByIds(ids(tasks, TaskNodeDTO::getProjectId));
+        return resolve(tasks, TaskNodeDTO::getProjectId, projects);
+    }
+
+    @BatchMapping(typeName = "Task", field = "assignedEmployee")
+    public Map<TaskNodeDTO, UserNodeDTO> taskAssignedEmployee(List<TaskNodeDTO> tasks) {
+        Map<Long, UserNodeDTO> users = graphQLService.findUsersByIds(ids(tasks, TaskNodeDTO::getAssignedEmployeeId));
+        return resolve(tasks, TaskNodeDTO::getAssignedEmployeeId, users);
+    }
+
+    @BatchMapping(typeName = "Project", field = "assignedManager")
+    public Map<ProjectNodeDTO, UserNodeDTO> projectAssignedManager(List<ProjectNodeDTO> projects) {
+        Map<Long, UserNodeDTO> users = graphQLService.findUsersByIds(ids(projects, ProjectNodeDTO::getAssignedManagerId));
+        return resolve(projects, ProjectNodeDTO::getAssignedManagerId, users);
+    }
+
+    @BatchMapping(typeName = "User", field = "role")
+    public Map<UserNodeDTO, RoleDTO> userRole(List<UserNodeDTO> users) {
+        Map<Long, RoleDTO> roles = graphQLService.findRolesByIds(ids(users, UserNodeDTO::getRoleId));
+        return resolve(users, UserNodeDTO::getRoleId, roles);
+    }
+
+    // distinct, non null foreign keys of one batch: twenty tasks of the same project are one id in the IN list
+    private static <S> Collection<Long> ids(List<S> sources, Function<S, Long> foreignKey) {
+        return sources.stream().map(foreignKey).filter(Objects::nonNull).collect(Collectors.toSet());
+    }
+
+    // parents without a reference, or with one that no longer exists, are left out and resolve to null
+    private static <S, T> Map<S, T> resolve(List<S> sources, Function<S, Long> foreignKey, Map<Long, T> targets) {
+        Map<S, T> resolved = new LinkedHashMap<>();
+        for (S source : sources) {
+            T target = targets.get(foreignKey.apply(source));
+            if (target != null) resolved.put(source, target);
+        }
+        return resolved;
+    }
+
+}
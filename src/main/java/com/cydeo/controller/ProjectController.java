@@ -1,13 +1,34 @@
 package com.cydeo.controller;
 
+import com.cydeo.annotation.CachedResponse;
+import com.cydeo.annotation.RateLimited;
+import com.cydeo.annotation.VersionedResource;
+import com.cydeo.dto.BatchLookupDTO;
+import com.cydeo.dto.CycleTimeDTO;
+import com.cydeo.dto.ManagerHomeDTO;
 import com.cydeo.dto.ProjectDTO;
 import com.cydeo.dto.ResponseWrapper;
+import com.cydeo.dto.RollupRunDTO;
+import com.cydeo.dto.RollupVerificationDTO;
+import com.cydeo.dto.SuggestionDTO;
+import com.cydeo.dto.ThroughputDTO;
+import com.cydeo.enums.Aggregate;
+import com.cydeo.exception.TicketingProjectException;
+import com.cydeo.service.BatchLookupService;
+import com.cydeo.service.ManagerHomeService;
 import com.cydeo.service.ProjectService;
+import com.cydeo.service.ProjectionService;
+import com.cydeo.service.RollupService;
+import com.cydeo.service.TaskHistoryService;
+import com.cydeo.service.TimelineService;
+import com.cydeo.service.TypeaheadService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import javax.annotation.security.RolesAllowed;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -15,20 +36,125 @@ import java.util.List;
 public class ProjectController {
 
     private final ProjectService projectService;
-
-    public ProjectController(ProjectService projectService) {
+    private final TypeaheadService typeaheadService;
+    private final TimelineService timelineService;
+    private final RollupService rollupService;
+    private final TaskHistoryService taskHistoryService;
+    private final ProjectionService projectionService;
+    private final ManagerHomeService managerHomeService;
+    private final BatchLookupService batchLookupService;
+
+    public ProjectController(ProjectService projectService, TypeaheadService typeaheadService, TimelineService timelineService, RollupService rollupService,
+                             TaskHistoryService taskHistoryService, ProjectionService projectionService, ManagerHomeService managerHomeService,
+                             BatchLookupService batchLookupService) {
         this.projectService = projectService;
+        this.typeaheadService = typeaheadService;
+        this.timelineService = timelineService;
+        this.rollupService = rollupService;
+        this.taskHistoryService = taskHistoryService;
+        this.projectionService = projectionService;
+        this.managerHomeService = managerHomeService;
+        this.batchLookupService = batchLookupService;
     }
 
     @GetMapping
     @RolesAllowed("Manager")
-    public ResponseEntity<ResponseWrapper> getProjects(){
+    @VersionedResource({Aggregate.PROJECT, Aggregate.USER, Aggregate.ROLE})
+    @CachedResponse({Aggregate.PROJECT, Aggregate.USER, Aggregate.ROLE})
+    public ResponseEntity<ResponseWrapper> getProjects(@RequestParam(value = "fields", required = false) List<String> fields,
+                                                       @RequestParam(value = "compact", defaultValue = "false") boolean compact) throws TicketingProjectException {
+        if (fields != null || compact) { // only the requested columns are selected
+            Object projects = compact ? projectionService.listCompact(Aggregate.PROJECT, fields) : projectionService.list(Aggregate.PROJECT, fields);
+            return ResponseEntity.ok(new ResponseWrapper("Projects are successfully retrieved", projects, HttpStatus.OK));
+        }
         List<ProjectDTO> projectDTOList = projectService.listAllProjects();
         return ResponseEntity.ok(new ResponseWrapper("Projects are successfully retrieved",projectDTOList, HttpStatus.OK));
     }
 
+    @GetMapping("/search")
+    @RolesAllowed({"Admin","Manager"})
+    @RateLimited(value = "search", perMinute = 120, burst = 20)
+    public ResponseEntity<ResponseWrapper> searchProjects(@RequestParam("q") String query,
+                                                          @RequestParam(value = "limit", defaultValue = "10") int limit){
+        List<SuggestionDTO> suggestions = typeaheadService.suggestProjects(query, Math.min(limit, 50));
+        return ResponseEntity.ok(new ResponseWrapper("Projects are successfully retrieved",suggestions, HttpStatus.OK));
+    }
+
+    @GetMapping("/timeline")
+    @RolesAllowed({"Admin","Manager"})
+    public ResponseEntity<ResponseWrapper> getProjectTimeline(@RequestParam(value = "from", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate from,
+                                                             @RequestParam(value = "to", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate to){
+        List<ProjectDTO> projectDTOList = timelineService.listProjectsActiveBetween(from, to);
+        return ResponseEntity.ok(new ResponseWrapper("Projects are successfully retrieved",projectDTOList, HttpStatus.OK));
+    }
+
+    @GetMapping("/{projectCode}/throughput")
+    @RolesAllowed({"Admin","Manager"})
+    @RateLimited(value = "reports", perMinute = 20, burst = 5)
+    public ResponseEntity<ResponseWrapper> getProjectThroughput(@PathVariable("projectCode") String projectCode,
+                                                                @RequestParam(value = "from", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate from,
+                                                                @RequestParam(value = "to", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate to){
+        List<ThroughputDTO> days = rollupService.projectThroughput(projectCode, from, to);
+        return ResponseEntity.ok(new ResponseWrapper("Project throughput is successfully retrieved",days, HttpStatus.OK));
+    }
+
+    @GetMapping("/{projectCode}/throughput/employees")
+    @RolesAllowed({"Admin","Manager"})
+    @RateLimited(value = "reports", perMinute = 20, burst = 5)
+    public ResponseEntity<ResponseWrapper> getProjectThroughputByEmployee(@PathVariable("projectCode") String projectCode,
+                                                                          @RequestParam(value = "from", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate from,
+                                                                          @RequestParam(value = "to", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate to){
+        List<ThroughputDTO> days = rollupService.projectThroughputByEmployee(projectCode, from, to);
+        return ResponseEntity.ok(new ResponseWrapper("Project throughput is successfully retrieved",days, HttpStatus.OK));
+    }
+
+    @GetMapping("/{projectCode}/cycle-time")
+    @RolesAllowed({"Admin","Manager"})
+    @RateLimited(value = "reports", perMinute = 20, burst = 5)
+    public ResponseEntity<ResponseWrapper> getProjectCycleTime(@PathVariable("projectCode") String projectCode,
+                                                               @RequestParam(value = "from", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate from,
+                                                               @RequestParam(value = "to", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate to){
+        CycleTimeDTO cycleTime = taskHistoryService.cycleTime(projectCode, from, to);
+        return ResponseEntity.ok(new ResponseWrapper("Project cycle time is successfully retrieved",cycleTime, HttpStatus.OK));
+    }
+
+    @GetMapping("/throughput/employee/{userName}")
+    @RolesAllowed({"Admin","Manager"})
+    @RateLimited(value = "reports", perMinute = 20, burst = 5)
+    public ResponseEntity<ResponseWrapper> getEmployeeThroughput(@PathVariable("userName") String userName,
+                                                                 @RequestParam(value = "from", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate from,
+                                                                 @RequestParam(value = "to", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate to){
+        List<ThroughputDTO> days = rollupService.employeeThroughput(userName, from, to);
+        return ResponseEntity.ok(new ResponseWrapper("Employee throughput is successfully retrieved",days, HttpStatus.OK));
+    }
+
+    @PostMapping("/rollups/backfill")
+    @RolesAllowed("Admin")
+    public ResponseEntity<ResponseWrapper> backfillRollups(){
+        RollupRunDTO run = rollupService.backfill();
+        return ResponseEntity.ok(new ResponseWrapper("Rollups are successfully rebuilt",run, HttpStatus.OK));
+    }
+
+    @GetMapping("/rollups/verify")
+    @RolesAllowed("Admin")
+    @RateLimited(value = "reports", perMinute = 20, burst = 5)
+    public ResponseEntity<ResponseWrapper> verifyRollups(@RequestParam(value = "from", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate from,
+                                                         @RequestParam(value = "to", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate to){
+        RollupVerificationDTO verification = rollupService.verify(from, to);
+        return ResponseEntity.ok(new ResponseWrapper("Rollups are successfully verified",verification, HttpStatus.OK));
+    }
+
+    @GetMapping("/batch")
+    @RolesAllowed("Manager")
+    @VersionedResource({Aggregate.PROJECT, Aggregate.USER, Aggregate.ROLE})
+    public ResponseEntity<ResponseWrapper> getProjectsByCodes(@RequestParam("codes") List<String> projectCodes) throws TicketingProjectException {
+        BatchLookupDTO<String, ProjectDTO> projects = batchLookupService.findProjects(projectCodes);
+        return ResponseEntity.ok(new ResponseWrapper("Projects are successfully retrieved",projects, HttpStatus.OK));
+    }
+
     @GetMapping("/{projectCode}")
     @RolesAllowed("Manager")
+    @VersionedResource({Aggregate.PROJECT, Aggregate.USER, Aggregate.ROLE})
     public ResponseEntity<ResponseWrapper> getProjectByCode(@PathVariable("projectCode") String projectCode){
         ProjectDTO projectDTO = projectService.getByProjectCode(projectCode);
         return ResponseEntity.ok(new ResponseWrapper("Project is successfully retrieved",projectDTO, HttpStatus.OK));
@@ -57,11 +183,22 @@ public class ProjectController {
 
     @GetMapping("/manager/project-status")
     @RolesAllowed("Manager")
+    @VersionedResource(value = {Aggregate.PROJECT, Aggregate.TASK, Aggregate.USER, Aggregate.ROLE}, perUser = true)
+    @RateLimited(value = "project-status", perMinute = 30, burst = 10)
     public ResponseEntity<ResponseWrapper> getProjectByManager(){
         List<ProjectDTO> projectDTOList = projectService.listAllProjectDetails(); // because there is one hard coded manager. I didn't include security yet
         return ResponseEntity.ok(new ResponseWrapper("Projects are successfully retrieved",projectDTOList, HttpStatus.OK));
     }
 
+    @GetMapping("/manager/home")
+    @RolesAllowed("Manager")
+    @RateLimited(value = "project-status", perMinute = 30, burst = 10)
+    public ResponseEntity<ResponseWrapper> getManagerHome(){
+        ManagerHomeDTO home = managerHomeService.managerHome();
+        String message = home.getUnavailable().isEmpty() ? "Manager home is successfully retrieved" : "Manager home is partially retrieved";
+        return ResponseEntity.ok(new ResponseWrapper(message,home, HttpStatus.OK));
+    }
+
     @PutMapping("/manager/complete/{projectCode}")
     @RolesAllowed("Manager")
     public ResponseEntity<ResponseWrapper> managerCompleteProject(@PathVariable("projectCode") String projectCode){
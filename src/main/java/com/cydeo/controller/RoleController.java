@@ -0,0 +1,39 @@
+package com.cydeo.controller;
+
+import com.cydeo.annotation.VersionedResource;
+import com.cydeo.dto.ResponseWrapper;
+import com.cydeo.dto.RoleDTO;
+import com.cydeo.enums.Aggregate;
+import com.cydeo.service.RoleService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.annotation.security.RolesAllowed;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/role")
+@Tag(name = "RoleController", description = "Role API")
+public class RoleController {
+
+    private final RoleService roleService;
+
+    public RoleController(RoleService roleService) {
+        this.roleService = roleService;
+    }
+
+    @GetMapping
+    @RolesAllowed({"Manager", "Admin"})
+    @Operation(summary = "Get roles")
+    @VersionedResource(value = Aggregate.ROLE, maxAgeSeconds = 3600) // roles practically never change, clients may reuse them for an hour
+    public ResponseEntity<ResponseWrapper> getRoles() {
+        List<RoleDTO> roleDTOList = roleService.listAllRoles();
+        return ResponseEntity.ok(new ResponseWrapper("Roles are successfully retrieved", roleDTOList, HttpStatus.OK));
+    }
+
+}
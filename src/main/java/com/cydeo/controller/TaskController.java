@@ -1,14 +1,34 @@
 package com.cydeo.controller;
 
+import com.cydeo.annotation.DefaultExceptionMessage;
+import com.cydeo.annotation.RateLimited;
+import com.cydeo.annotation.VersionedResource;
+import com.cydeo.dto.BatchLookupDTO;
 import com.cydeo.dto.ResponseWrapper;
 import com.cydeo.dto.TaskDTO;
+import com.cydeo.dto.TaskSearchHitDTO;
+import com.cydeo.dto.TaskStatusChangeDTO;
+import com.cydeo.enums.Aggregate;
 import com.cydeo.enums.Status;
+import com.cydeo.exception.TicketingProjectException;
+import com.cydeo.service.BatchLookupService;
+import com.cydeo.service.ProjectionService;
+import com.cydeo.service.TaskHistoryService;
+import com.cydeo.service.TaskSearchService;
 import com.cydeo.service.TaskService;
+import com.cydeo.service.TaskStreamService;
+import com.cydeo.service.TimelineService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import javax.annotation.security.RolesAllowed;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 @RestController
@@ -16,25 +36,94 @@ import java.util.List;
 public class TaskController {
 
     private final TaskService taskService;
+    private final TaskStreamService taskStreamService;
+    private final TaskSearchService taskSearchService;
+    private final TimelineService timelineService;
+    private final TaskHistoryService taskHistoryService;
+    private final ProjectionService projectionService;
+    private final BatchLookupService batchLookupService;
 
-    public TaskController(TaskService taskService) {
+    public TaskController(TaskService taskService, TaskStreamService taskStreamService, TaskSearchService taskSearchService, TimelineService timelineService,
+                          TaskHistoryService taskHistoryService, ProjectionService projectionService, BatchLookupService batchLookupService) {
         this.taskService = taskService;
+        this.taskStreamService = taskStreamService;
+        this.taskSearchService = taskSearchService;
+        this.timelineService = timelineService;
+        this.taskHistoryService = taskHistoryService;
+        this.projectionService = projectionService;
+        this.batchLookupService = batchLookupService;
     }
 
     @GetMapping
     @RolesAllowed("Manager")
-    public ResponseEntity<ResponseWrapper> getTasks(){
+    @VersionedResource({Aggregate.TASK, Aggregate.PROJECT, Aggregate.USER, Aggregate.ROLE})
+    @RateLimited(value = "task-list", perMinute = 30, burst = 10)
+    public ResponseEntity<ResponseWrapper> getTasks(@RequestParam(value = "since", required = false) String since,
+                                                    @RequestParam(value = "fields", required = false) List<String> fields,
+                                                    @RequestParam(value = "compact", defaultValue = "false") boolean compact) throws TicketingProjectException {
+        if (since != null) { // delta sync, an empty value asks for a full list plus the first sync token
+            return ResponseEntity.ok(new ResponseWrapper("Tasks are successfully synchronized", taskService.syncAllTasks(since), HttpStatus.OK));
+        }
+        if (fields != null || compact) { // only the requested columns are selected
+            Object tasks = compact ? projectionService.listCompact(Aggregate.TASK, fields) : projectionService.list(Aggregate.TASK, fields);
+            return ResponseEntity.ok(new ResponseWrapper("Tasks are successfully retrieved", tasks, HttpStatus.OK));
+        }
         List<TaskDTO> taskDTOList = taskService.listAllTasks();
         return ResponseEntity.ok(new ResponseWrapper("Tasks are successfully retrieved",taskDTOList, HttpStatus.OK));
     }
 
+    @GetMapping("/search")
+    @RolesAllowed("Manager")
+    @RateLimited(value = "search", perMinute = 120, burst = 20)
+    public ResponseEntity<ResponseWrapper> searchTasks(@RequestParam("q") String query,
+                                                       @RequestParam(value = "projectCode", required = false) String projectCode,
+                                                       @RequestParam(value = "status", required = false) Status status,
+                                                       @RequestParam(value = "assignee", required = false) String assignee,
+                                                       @RequestParam(value = "limit", defaultValue = "20") int limit){
+        List<TaskSearchHitDTO> hits = taskSearchService.search(query, projectCode, status, assignee, Math.min(limit, 100));
+        return ResponseEntity.ok(new ResponseWrapper("Tasks are successfully retrieved",hits, HttpStatus.OK));
+    }
+
+    @GetMapping("/assigned")
+    @RolesAllowed("Manager")
+    @DefaultExceptionMessage(defaultMessage = "Give either an ISO week like 2026-W42 or a from/to date range")
+    public ResponseEntity<ResponseWrapper> getTasksAssignedBetween(@RequestParam(value = "week", required = false) String week,
+                                                                   @RequestParam(value = "from", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate from,
+                                                                   @RequestParam(value = "to", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate to){
+        if (week != null) { // ISO week, Monday to Sunday
+            from = LocalDate.parse(week + "-1", DateTimeFormatter.ISO_WEEK_DATE);
+            to = from.plusDays(6);
+        } else if (from == null || to == null) { // no complete range, the current week
+            from = LocalDate.now().with(DayOfWeek.MONDAY);
+            to = from.plusDays(6);
+        }
+        List<TaskDTO> taskDTOList = timelineService.listTasksAssignedBetween(from, to);
+        return ResponseEntity.ok(new ResponseWrapper("Tasks are successfully retrieved",taskDTOList, HttpStatus.OK));
+    }
+
+    @GetMapping("/batch")
+    @RolesAllowed("Manager")
+    @VersionedResource({Aggregate.TASK, Aggregate.PROJECT, Aggregate.USER, Aggregate.ROLE})
+    public ResponseEntity<ResponseWrapper> getTasksByIds(@RequestParam("ids") List<Long> ids) throws TicketingProjectException {
+        BatchLookupDTO<Long, TaskDTO> tasks = batchLookupService.findTasks(ids);
+        return ResponseEntity.ok(new ResponseWrapper("Tasks are successfully retrieved",tasks, HttpStatus.OK));
+    }
+
     @GetMapping("/{taskId}")
     @RolesAllowed("Manager")
+    @VersionedResource({Aggregate.TASK, Aggregate.PROJECT, Aggregate.USER, Aggregate.ROLE})
     public ResponseEntity<ResponseWrapper> getTaskById(@PathVariable("taskId") Long taskId){
         TaskDTO task = taskService.findById(taskId);
         return ResponseEntity.ok(new ResponseWrapper("Task is successfully retrieved",task, HttpStatus.OK));
     }
 
+    @GetMapping("/{taskId}/history")
+    @RolesAllowed("Manager")
+    public ResponseEntity<ResponseWrapper> getTaskHistory(@PathVariable("taskId") Long taskId){
+        List<TaskStatusChangeDTO> changes = taskHistoryService.listStatusChanges(taskId);
+        return ResponseEntity.ok(new ResponseWrapper("Task history is successfully retrieved",changes, HttpStatus.OK));
+    }
+
     @PostMapping
     @RolesAllowed("Manager")
     public ResponseEntity<ResponseWrapper> createTask(@RequestBody TaskDTO taskDTO){
@@ -58,7 +147,11 @@ public class TaskController {
 
     @GetMapping("/employee/pending-tasks")
     @RolesAllowed("Employee")
-    public ResponseEntity<ResponseWrapper> employeePendingTasks(){
+    @VersionedResource(value = {Aggregate.TASK, Aggregate.PROJECT, Aggregate.USER, Aggregate.ROLE}, perUser = true)
+    public ResponseEntity<ResponseWrapper> employeePendingTasks(@RequestParam(value = "since", required = false) String since){
+        if (since != null) {
+            return ResponseEntity.ok(new ResponseWrapper("Tasks are successfully synchronized", taskService.syncTasksByStatusIsNot(Status.COMPLETE, since), HttpStatus.OK));
+        }
         List<TaskDTO> taskDTOList = taskService.listAllTasksByStatusIsNot(Status.COMPLETE);
         return ResponseEntity.ok(new ResponseWrapper("Tasks are successfully retrieved",taskDTOList,HttpStatus.OK));
     }
@@ -72,10 +165,19 @@ public class TaskController {
 
     @GetMapping("/employee/archive")
     @RolesAllowed("Employee")
-    public ResponseEntity<ResponseWrapper> employeeArchivedTasks(){
+    @VersionedResource(value = {Aggregate.TASK, Aggregate.PROJECT, Aggregate.USER, Aggregate.ROLE}, perUser = true)
+    public ResponseEntity<ResponseWrapper> employeeArchivedTasks(@RequestParam(value = "since", required = false) String since){
+        if (since != null) {
+            return ResponseEntity.ok(new ResponseWrapper("Tasks are successfully synchronized", taskService.syncTasksByStatus(Status.COMPLETE, since), HttpStatus.OK));
+        }
         List<TaskDTO> taskDTOList = taskService.listAllTasksByStatus(Status.COMPLETE);
         return ResponseEntity.ok(new ResponseWrapper("Tasks are successfully retrieved",taskDTOList, HttpStatus.OK));
     }
 
+    @GetMapping(value = "/employee/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @RolesAllowed("Employee")
+    public SseEmitter employeeTaskStream(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId){
+        return taskStreamService.subscribe(lastEventId); // pushes created/updated/completed/deleted events of the logged in employee's tasks
+    }
 
 }
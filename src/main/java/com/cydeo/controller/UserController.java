@@ -1,9 +1,20 @@
 package com.cydeo.controller;
 
 import com.cydeo.annotation.ExecutionTime;
+import com.cydeo.annotation.CachedResponse;
+import com.cydeo.annotation.RateLimited;
+import com.cydeo.annotation.VersionedResource;
+import com.cydeo.dto.BatchLookupDTO;
 import com.cydeo.dto.ResponseWrapper;
+import com.cydeo.dto.SuggestionDTO;
 import com.cydeo.dto.UserDTO;
+import com.cydeo.dto.UserImportResultDTO;
+import com.cydeo.enums.Aggregate;
 import com.cydeo.exception.TicketingProjectException;
+import com.cydeo.service.BatchLookupService;
+import com.cydeo.service.ProjectionService;
+import com.cydeo.service.TypeaheadService;
+import com.cydeo.service.UserImportService;
 import com.cydeo.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -12,6 +23,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import javax.annotation.security.RolesAllowed;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -20,23 +33,61 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final UserImportService userImportService;
+    private final TypeaheadService typeaheadService;
+    private final ProjectionService projectionService;
+    private final BatchLookupService batchLookupService;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, UserImportService userImportService, TypeaheadService typeaheadService, ProjectionService projectionService,
+                          BatchLookupService batchLookupService) {
         this.userService = userService;
+        this.userImportService = userImportService;
+        this.typeaheadService = typeaheadService;
+        this.projectionService = projectionService;
+        this.batchLookupService = batchLookupService;
     }
 
     @ExecutionTime
     @GetMapping// api end point
     @RolesAllowed({"Manager", "Admin"})
+    @VersionedResource({Aggregate.USER, Aggregate.ROLE})
+    @CachedResponse({Aggregate.USER, Aggregate.ROLE})
     @Operation(summary = "Get users")
-    public ResponseEntity<ResponseWrapper> getUsers() {
+    @RateLimited(value = "user-list", perMinute = 30, burst = 10)
+    public ResponseEntity<ResponseWrapper> getUsers(@RequestParam(value = "fields", required = false) List<String> fields,
+                                                    @RequestParam(value = "compact", defaultValue = "false") boolean compact) throws TicketingProjectException {
+        if (fields != null || compact) { // only the requested columns are selected
+            Object users = compact ? projectionService.listCompact(Aggregate.USER, fields) : projectionService.list(Aggregate.USER, fields);
+            return ResponseEntity.ok(new ResponseWrapper("Users are successfully retrieved", users, HttpStatus.OK));
+        }
         List<UserDTO> userDTOList = userService.listAllUsers();
         return ResponseEntity.ok(new ResponseWrapper("Users are successfully retrieved", userDTOList, HttpStatus.OK));
     }
 
+    @GetMapping("/search")
+    @RolesAllowed({"Manager", "Admin"})
+    @Operation(summary = "Suggest users whose user name, first or last name starts with the query")
+    @RateLimited(value = "search", perMinute = 120, burst = 20)
+    public ResponseEntity<ResponseWrapper> searchUsers(@RequestParam("q") String query,
+                                                       @RequestParam(value = "role", required = false) String role,
+                                                       @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        List<SuggestionDTO> suggestions = typeaheadService.suggestUsers(query, role, Math.min(limit, 50));
+        return ResponseEntity.ok(new ResponseWrapper("Users are successfully retrieved", suggestions, HttpStatus.OK));
+    }
+
+    @GetMapping("/batch")
+    @RolesAllowed("Admin")
+    @VersionedResource({Aggregate.USER, Aggregate.ROLE})
+    @Operation(summary = "Get users by usernames, in the order asked for")
+    public ResponseEntity<ResponseWrapper> getUsersByUserNames(@RequestParam("usernames") List<String> userNames) throws TicketingProjectException {
+        BatchLookupDTO<String, UserDTO> users = batchLookupService.findUsers(userNames);
+        return ResponseEntity.ok(new ResponseWrapper("Users are successfully retrieved", users, HttpStatus.OK));
+    }
+
     @ExecutionTime
     @GetMapping("/{username}")// api end point
     @RolesAllowed("Admin")
+    @VersionedResource({Aggregate.USER, Aggregate.ROLE})
     @Operation(summary = "Get user by username")
     public ResponseEntity<ResponseWrapper> getUserByUserName(@PathVariable("username") String userName) {
         UserDTO userDTO = userService.findByUserName(userName);
@@ -51,6 +102,22 @@ public class UserController {
         return ResponseEntity.status(HttpStatus.CREATED).body(new ResponseWrapper("User is successfully created", HttpStatus.CREATED));
     }
 
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @RolesAllowed("Admin")
+    @Operation(summary = "Import users from CSV (firstName,lastName,userName,passWord,phone,role,gender)")
+    public ResponseEntity<ResponseWrapper> importUsersFromCsv(InputStream body) throws IOException {
+        UserImportResultDTO result = userImportService.importCsv(body);
+        return ResponseEntity.ok(new ResponseWrapper("Users are successfully imported", result, HttpStatus.OK));
+    }
+
+    @PostMapping(value = "/import", consumes = "application/x-ndjson")
+    @RolesAllowed("Admin")
+    @Operation(summary = "Import users from newline delimited JSON")
+    public ResponseEntity<ResponseWrapper> importUsersFromNdjson(InputStream body) throws IOException {
+        UserImportResultDTO result = userImportService.importNdjson(body);
+        return ResponseEntity.ok(new ResponseWrapper("Users are successfully imported", result, HttpStatus.OK));
+    }
+
     @PutMapping
     @RolesAllowed("Admin")
     @Operation(summary = "Update user")
@@ -0,0 +1,17 @@
+package com.cydeo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchLookupDTO<K, T> {
+
+    private List<T> items;      // one per requested key in request order, null where nothing was found
+    private List<K> missing;    // the requested keys nothing was found for
+
+}
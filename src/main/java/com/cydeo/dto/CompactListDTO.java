@@ -0,0 +1,22 @@
+package com.cydeo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+// items reference projects and users by id; each referenced one is listed once, keyed by id
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class CompactListDTO {
+
+    private List<Map<String, Object>> items;
+    private Map<Long, Map<String, Object>> projects;
+    private Map<Long, Map<String, Object>> users;
+
+}
@@ -0,0 +1,27 @@
+package com.cydeo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CycleTimeDTO {
+
+    private String projectCode;
+    private LocalDate from;
+    private LocalDate to;
+    private long completedTasks;
+    // hours from creation to first completion, over the tasks completed in the range
+    private Double averageHours;
+    private Double p50Hours;
+    private Double p75Hours;
+    private Double p90Hours;
+    private Double p95Hours;
+    private Map<LocalDate, Long> completedPerDay;
+
+}
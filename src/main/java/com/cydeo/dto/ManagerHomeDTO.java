@@ -0,0 +1,20 @@
+package com.cydeo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ManagerHomeDTO {
+
+    private List<ProjectDTO> projects;          // the manager's projects with their task counts
+    private List<TaskDTO> openTasks;            // not completed tasks of those projects
+    private List<UserDTO> employees;
+    private List<RoleDTO> roles;
+    private List<String> unavailable;           // parts that failed or ran out of time, their field is null
+
+}
@@ -0,0 +1,25 @@
+package com.cydeo.dto;
+
+import com.cydeo.enums.Status;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// GraphQL Project: the manager is only an id, the manager field is resolved in a batch for all projects of a response
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectNodeDTO {
+
+    private Long id;
+    private String projectCode;
+    private String projectName;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private String projectDetail;
+    private Status projectStatus;
+    private Long assignedManagerId;
+
+}
@@ -0,0 +1,16 @@
+package com.cydeo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RollupRunDTO {
+
+    private int tasksApplied;
+    private int rollupRowsChanged;
+    private long elapsedMillis;
+
+}
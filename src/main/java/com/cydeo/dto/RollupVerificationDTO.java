@@ -0,0 +1,24 @@
+package com.cydeo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RollupVerificationDTO {
+
+    private LocalDate from;
+    private LocalDate to;
+    private LocalDateTime watermark;            // changes after this are not applied yet and are not reported
+    private boolean consistent;
+    private List<Long> taskMismatches;          // tasks whose recorded contribution differs from the row
+    private List<String> openedMismatches;      // day/project/employee keys where rollups and tasks disagree
+    private List<String> completedMismatches;
+
+}
@@ -0,0 +1,19 @@
+package com.cydeo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SuggestionDTO {
+
+    private Long id;
+    private String key;     // userName or projectCode, what the picker submits
+    private String label;   // what the picker shows
+    private String role;
+
+}
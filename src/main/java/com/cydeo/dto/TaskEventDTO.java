@@ -0,0 +1,27 @@
+package com.cydeo.dto;
+
+import com.cydeo.enums.ChangeType;
+import com.cydeo.enums.Status;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TaskEventDTO {
+
+    private Long eventId;
+    private ChangeType type;
+    private Long taskId;
+    private Long projectId;
+    private Status taskStatus;
+    private String taskSubject;
+    private String taskDetail;
+    private LocalDate assignedDate;
+
+}
@@ -0,0 +1,24 @@
+package com.cydeo.dto;
+
+import com.cydeo.enums.Status;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// GraphQL Task: project and employee are only ids, they are resolved in batches
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskNodeDTO {
+
+    private Long id;
+    private String taskSubject;
+    private String taskDetail;
+    private Status taskStatus;
+    private LocalDate assignedDate;
+    private Long projectId;
+    private Long assignedEmployeeId;
+
+}
@@ -0,0 +1,26 @@
+package com.cydeo.dto;
+
+import com.cydeo.enums.Status;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskReportRowDTO {
+
+    private Long id;        // project or employee id, null for tasks without one
+    private String key;     // projectCode or userName
+    private String label;
+    private long total;
+    private Map<Status, Long> countsByStatus;
+    private double completionRate;
+    private long openCount;
+    private double averageOpenAgeDays;
+    private long maxOpenAgeDays;
+    private Map<String, Long> openAgeBuckets;   // "0-7", "8-30", "31-90", "91+" days since assignment
+
+}
@@ -0,0 +1,15 @@
+package com.cydeo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskSearchHitDTO {
+
+    private double score;
+    private TaskDTO task;
+
+}
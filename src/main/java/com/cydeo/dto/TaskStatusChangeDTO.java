@@ -0,0 +1,20 @@
+package com.cydeo.dto;
+
+import com.cydeo.enums.Status;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskStatusChangeDTO {
+
+    private Status fromStatus;  // null when the task was created
+    private Status toStatus;
+    private Long employeeId;
+    private LocalDateTime changedAt;
+
+}
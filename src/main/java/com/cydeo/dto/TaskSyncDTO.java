@@ -0,0 +1,19 @@
+package com.cydeo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskSyncDTO {
+
+    private boolean fullSync;           // true when the token was missing or unreadable, the client should replace its list
+    private List<TaskDTO> tasks;        // rows created or changed since the token, to be upserted by id
+    private List<Long> removedTaskIds;  // soft deleted rows and rows that left this list (e.g. completed while pending, reassigned)
+    private String syncToken;           // pass back as since= on the next call
+
+}
@@ -0,0 +1,22 @@
+package com.cydeo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ThroughputDTO {
+
+    private LocalDate day;
+    private Long employeeId;    // only when broken down by employee, 0 for unassigned tasks
+    private String userName;
+    private long opened;
+    private long completed;
+
+}
@@ -0,0 +1,20 @@
+package com.cydeo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportResultDTO {
+
+    private int total;
+    private int created;
+    private int failed;
+    private long elapsedMillis;
+    private List<UserImportRowDTO> rows;
+
+}
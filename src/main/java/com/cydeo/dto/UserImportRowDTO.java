@@ -0,0 +1,20 @@
+package com.cydeo.dto;
+
+import com.cydeo.enums.ImportStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserImportRowDTO {
+
+    private int row;
+    private String userName;
+    private ImportStatus status;
+    private String message;
+
+}
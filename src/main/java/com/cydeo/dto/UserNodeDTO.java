@@ -0,0 +1,23 @@
+package com.cydeo.dto;
+
+import com.cydeo.enums.Gender;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// GraphQL User: no password fields, the role is resolved in a batch
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserNodeDTO {
+
+    private Long id;
+    private String firstName;
+    private String lastName;
+    private String userName;
+    private boolean enabled;
+    private String phone;
+    private Gender gender;
+    private Long roleId;
+
+}
@@ -0,0 +1,30 @@
+package com.cydeo.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+// One counter per Aggregate, bumped by AggregateVersionListener after every transaction that writes the table.
+// Seeded by AggregateVersionConfig and only ever updated through JDBC.
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "aggregate_versions")
+public class AggregateVersion {
+
+    @Id
+    @Column(length = 32)
+    private String aggregate;   // Aggregate.getValue()
+
+    @Column(nullable = false)
+    private Long version;
+
+}
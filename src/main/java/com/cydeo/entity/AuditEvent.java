@@ -0,0 +1,48 @@
+package com.cydeo.entity;
+
+import com.cydeo.enums.ChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+// Who changed which fields of which row. Append-only, inserted in batches by AuditTrailListener.
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "audit_events", indexes = {
+        @Index(name = "idx_audit_events_entity", columnList = "entity_name, entity_id, changed_at"),
+        @Index(name = "idx_audit_events_user", columnList = "user_id, changed_at")
+})
+public class AuditEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "entity_name", nullable = false)
+    private String entityName;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ChangeType action;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    // JSON object, field name -> {"from": old, "to": new}
+    @Column(columnDefinition = "TEXT")
+    private String changes;
+
+}
@@ -3,6 +3,9 @@ package com.cydeo.entity;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedBy;
+import org.springframework.data.annotation.LastModifiedBy;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
@@ -11,6 +14,7 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Data
 @MappedSuperclass
+@EntityListeners(AuditingEntityListener.class)
 public class BaseEntity {
 
     @Id
@@ -19,10 +23,12 @@ public class BaseEntity {
 
     @Column(nullable = false, updatable = false)
     private LocalDateTime insertDateTime;
+    @CreatedBy
     @Column(nullable = false, updatable = false)
     private Long insertUserId;
-    @Column(nullable = false)
+    @Column(name = "last_update_date_time", nullable = false)   // named, so the entity indexes can refer to it
     private LocalDateTime lastUpdateDateTime;
+    @LastModifiedBy
     @Column(nullable = false)
     private Long lastUpdateUserId;
 
@@ -32,14 +38,11 @@ public class BaseEntity {
     public void onPrePersist() {
         this.insertDateTime = LocalDateTime.now();
         this.lastUpdateDateTime = LocalDateTime.now();
-        this.insertUserId = 1L;
-        this.lastUpdateUserId = 1L;
     }
 
     @PreUpdate
     public void onPreUpdate() {
         this.lastUpdateDateTime = LocalDateTime.now();
-        this.lastUpdateUserId = 1L;
     }
 
 }
@@ -13,7 +13,10 @@ import java.time.LocalDate;
 @Setter
 @NoArgsConstructor
 @Entity
-@Table(name = "projects")
+@Table(name = "projects", indexes = {
+        @Index(name = "idx_projects_last_update", columnList = "last_update_date_time"),
+        @Index(name = "idx_projects_start_end", columnList = "start_date, end_date")
+})
 @Where(clause = "is_deleted=false")
 public class Project extends BaseEntity {
 
@@ -22,10 +25,10 @@ public class Project extends BaseEntity {
 
     private String projectName;
 
-    @Column(columnDefinition = "DATE")
+    @Column(name = "start_date", columnDefinition = "DATE")
     private LocalDate startDate;
 
-    @Column(columnDefinition = "DATE")
+    @Column(name = "end_date", columnDefinition = "DATE")
     private LocalDate endDate;
 
     @Enumerated(EnumType.STRING)
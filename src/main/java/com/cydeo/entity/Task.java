@@ -10,7 +10,11 @@ import javax.persistence.*;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = {
+        @Index(name = "idx_tasks_employee_last_update", columnList = "assigned_employee_id, last_update_date_time"),
+        @Index(name = "idx_tasks_last_update", columnList = "last_update_date_time"),
+        @Index(name = "idx_tasks_assigned_date", columnList = "assigned_date")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -23,7 +27,7 @@ public class Task extends BaseEntity{
     @Enumerated(EnumType.STRING)
     private Status taskStatus;
 
-    @Column(columnDefinition = "DATE")
+    @Column(name = "assigned_date", columnDefinition = "DATE")
     private LocalDate assignedDate;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,43 @@
+package com.cydeo.entity;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+
+// Tasks opened and completed per day, project and assignee. Maintained by RollupServiceImpl with upserts,
+// 0 stands for "no project" / "no assignee" so the unique key has no nulls.
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "task_daily_rollups",
+        uniqueConstraints = @UniqueConstraint(name = "uk_task_daily_rollups_key", columnNames = {"rollup_day", "project_id", "employee_id"}),
+        indexes = {
+                @Index(name = "idx_task_daily_rollups_project_day", columnList = "project_id, rollup_day"),
+                @Index(name = "idx_task_daily_rollups_employee_day", columnList = "employee_id, rollup_day")
+        })
+public class TaskDailyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "rollup_day", nullable = false, columnDefinition = "DATE")
+    private LocalDate rollupDay;
+
+    @Column(name = "project_id", nullable = false)
+    private Long projectId;
+
+    @Column(name = "employee_id", nullable = false)
+    private Long employeeId;
+
+    @Column(nullable = false)
+    private Integer opened;
+
+    @Column(nullable = false)
+    private Integer completed;
+
+}
@@ -0,0 +1,34 @@
+package com.cydeo.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+// Append-only: one row per task moved away from an employee, written in the transaction of the update. The task row
+// only knows its current assignee, delta sync reads these rows to tell the previous one the task left their list.
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "task_reassignments", indexes = @Index(name = "idx_task_reassignments_employee_time", columnList = "from_employee_id, reassigned_at"))
+public class TaskReassignment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    @Column(name = "from_employee_id", nullable = false)
+    private Long fromEmployeeId;
+
+    @Column(name = "reassigned_at", nullable = false)
+    private LocalDateTime reassignedAt;
+
+}
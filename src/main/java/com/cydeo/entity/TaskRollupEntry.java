@@ -0,0 +1,42 @@
+package com.cydeo.entity;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// What each task currently contributes to task_daily_rollups, so a change can take back the old contribution
+// before adding the new one. seenUpdate is the task's last_update_date_time when it was applied.
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "task_rollup_entries", indexes = @Index(name = "idx_task_rollup_entries_seen_update", columnList = "seen_update"))
+public class TaskRollupEntry {
+
+    @Id
+    @Column(name = "task_id")
+    private Long taskId;
+
+    @Column(nullable = false)
+    private Boolean counted;
+
+    @Column(name = "open_day", columnDefinition = "DATE")
+    private LocalDate openDay;
+
+    @Column(name = "project_id", nullable = false)
+    private Long projectId;
+
+    @Column(name = "employee_id", nullable = false)
+    private Long employeeId;
+
+    @Column(name = "completed_day", columnDefinition = "DATE")
+    private LocalDate completedDay;
+
+    @Column(name = "seen_update", nullable = false)
+    private LocalDateTime seenUpdate;
+
+}
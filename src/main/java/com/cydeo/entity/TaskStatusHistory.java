@@ -0,0 +1,49 @@
+package com.cydeo.entity;
+
+import com.cydeo.enums.Status;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+// Append-only: one row per status change of a task, a null fromStatus marks the creation of the task.
+// Rows are inserted in batches by TaskHistoryServiceImpl and never updated.
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "task_status_history", indexes = {
+        @Index(name = "idx_task_status_history_project_status_time", columnList = "project_id, to_status, changed_at"),
+        @Index(name = "idx_task_status_history_task_time", columnList = "task_id, changed_at")
+})
+public class TaskStatusHistory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    @Column(name = "project_id")
+    private Long projectId;
+
+    @Column(name = "employee_id")
+    private Long employeeId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "from_status")
+    private Status fromStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "to_status", nullable = false)
+    private Status toStatus;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+}
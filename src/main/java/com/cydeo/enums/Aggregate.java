@@ -0,0 +1,17 @@
+package com.cydeo.enums;
+
+public enum Aggregate {
+
+    PROJECT("projects"), TASK("tasks"), USER("users"), ROLE("roles");
+
+    private final String value;
+
+    Aggregate(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+}
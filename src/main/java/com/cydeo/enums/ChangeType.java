@@ -0,0 +1,17 @@
+package com.cydeo.enums;
+
+public enum ChangeType {
+
+    CREATED("Created"), UPDATED("Updated"), COMPLETED("Completed"), DELETED("Deleted");
+
+    private final String value;
+
+    ChangeType(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+}
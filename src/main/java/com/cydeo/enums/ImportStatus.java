@@ -0,0 +1,17 @@
+package com.cydeo.enums;
+
+public enum ImportStatus {
+
+    CREATED("Created"), INVALID("Invalid"), DUPLICATE("Duplicate"), FAILED("Failed"), PROVISIONING_FAILED("Provisioning Failed");
+
+    private final String value;
+
+    ImportStatus(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+}
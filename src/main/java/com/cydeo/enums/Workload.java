@@ -0,0 +1,17 @@
+package com.cydeo.enums;
+
+public enum Workload {
+
+    OLTP("oltp"), REPORTING("reporting");
+
+    private final String value;
+
+    Workload(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.cydeo.event;
+
+import com.cydeo.enums.ChangeType;
+import com.cydeo.enums.Status;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class ProjectEvent { // Published by ProjectServiceImpl after every write
+
+    private final ChangeType type;
+    private final Long projectId;
+    private final String projectCode;
+    private final String projectName;
+    private final Long managerId;
+    private final Status projectStatus;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final LocalDateTime occurredAt;
+
+}
@@ -0,0 +1,29 @@
+package com.cydeo.event;
+
+import com.cydeo.enums.ChangeType;
+import com.cydeo.enums.Status;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class TaskEvent { // Published by TaskServiceImpl after every write, listeners must not touch the Task entity graph
+
+    private final ChangeType type;
+    private final Long taskId;
+    private final Long projectId;
+    private final Long employeeId;
+    private final Long previousEmployeeId;
+    private final Status previousStatus;
+    private final Status taskStatus;
+    private final String taskSubject;
+    private final String taskDetail;
+    private final LocalDate assignedDate;
+    private final LocalDateTime occurredAt;
+
+}
@@ -0,0 +1,23 @@
+package com.cydeo.event;
+
+import com.cydeo.enums.ChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class UserEvent { // Published by UserServiceImpl and the user import after every write
+
+    private final ChangeType type;
+    private final Long userId;
+    private final String userName;
+    private final String firstName;
+    private final String lastName;
+    private final String roleDescription;
+    private final LocalDateTime occurredAt;
+
+}
@@ -0,0 +1,10 @@
+package com.cydeo.exception;
+
+// A request the client has to change before retrying (unknown field, too many keys); answered with 400 instead of 409
+public class BadRequestException extends TicketingProjectException {
+
+    public BadRequestException(String message) {
+        super(message);
+    }
+
+}
@@ -4,6 +4,7 @@ import com.cydeo.annotation.DefaultExceptionMessage;
 import com.cydeo.dto.DefaultExceptionMessageDto;
 
 import com.cydeo.dto.ResponseWrapper;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -26,12 +27,25 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(ResponseWrapper.builder().success(false).code(HttpStatus.CONFLICT.value()).message(message).build(),HttpStatus.CONFLICT);
     }
 
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<ResponseWrapper> badRequestException(BadRequestException se){
+        String message = se.getMessage();
+        return new ResponseEntity<>(ResponseWrapper.builder().success(false).code(HttpStatus.BAD_REQUEST.value()).message(message).build(),HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(AccessDeniedException.class)
     public ResponseEntity<ResponseWrapper> accessDeniedException(AccessDeniedException se){
         String message = se.getMessage();
         return new ResponseEntity<>(ResponseWrapper.builder().success(false).code(HttpStatus.FORBIDDEN.value()).message(message).build(),HttpStatus.FORBIDDEN);
     }
 
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<ResponseWrapper> rateLimitExceededException(RateLimitExceededException se){
+        String message = se.getMessage();
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, String.valueOf(se.getRetryAfterSeconds()))
+                .body(ResponseWrapper.builder().success(false).code(HttpStatus.TOO_MANY_REQUESTS.value()).message(message).build());
+    }
+
     @ExceptionHandler({Exception    .class, RuntimeException.class, Throwable.class, BadCredentialsException.class})
     public ResponseEntity<ResponseWrapper> genericException(Throwable e, HandlerMethod handlerMethod) {
 
@@ -0,0 +1,228 @@
+package com.cydeo.index;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Date spans keyed by id, answering "which spans overlap [from, to]". The bulk of the spans lives in an immutable
+// array sorted by start, laid out as an implicit interval tree: the middle of every sub-range stores the largest end
+// in that sub-range, so a query skips whole sub-ranges that end before `from` or start after `to` and costs
+// O(log n + matches). Writes go to a small delta that queries overlay; it is merged into a new array once it grows
+// past the compaction threshold. A missing start or end is treated as open.
+public class IntervalIndex {
+
+    private static final long OPEN_START = Long.MIN_VALUE;
+    private static final long OPEN_END = Long.MAX_VALUE;
+    // rows are {id, start, ...}, ordered by start then id
+    private static final Comparator<long[]> SPAN_ORDER = Comparator.comparingLong((long[] row) -> row[1]).thenComparingLong(row -> row[0]);
+
+    private final int compactionThreshold;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Tree tree = Tree.EMPTY;
+    // id -> {start, end}, or null for an id removed since the last compaction
+    private final Map<Long, long[]> delta = new HashMap<>();
+
+    public IntervalIndex(int compactionThreshold) {
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    // Replaces the whole content, used by the initial load and rebuilds
+    public void load(Collection<Span> spans) {
+        Tree fresh = Tree.build(spans.stream()
+                .map(span -> new long[]{span.id, toDay(span.start, OPEN_START), toDay(span.end, OPEN_END)})
+                .toArray(long[][]::new));
+        lock.writeLock().lock();
+        try {
+            tree = fresh;
+            delta.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void put(long id, LocalDate start, LocalDate end) {
+        write(id, new long[]{toDay(start, OPEN_START), toDay(end, OPEN_END)});
+    }
+
+    public void remove(long id) {
+        write(id, null);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            int size = tree.size();
+            for (Map.Entry<Long, long[]> entry : delta.entrySet()) {
+                boolean inTree = tree.contains(entry.getKey());
+                if (entry.getValue() == null && inTree) size--;
+                if (entry.getValue() != null && !inTree) size++;
+            }
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Ids of the spans that overlap [from, to] (both inclusive, either may be null for open), ordered by start
+    public List<Long> overlapping(LocalDate from, LocalDate to) {
+        long queryFrom = toDay(from, OPEN_START);
+        long queryTo = toDay(to, OPEN_END);
+        List<long[]> matches = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            tree.collect(queryFrom, queryTo, delta.keySet(), matches);
+            delta.forEach((id, span) -> {
+                if (span != null && span[0] <= queryTo && span[1] >= queryFrom) matches.add(new long[]{id, span[0]});
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        matches.sort(Comparator.comparingLong((long[] match) -> match[1]).thenComparingLong(match -> match[0]));
+        List<Long> ids = new ArrayList<>(matches.size());
+        matches.forEach(match -> ids.add(match[0]));
+        return ids;
+    }
+
+    private void write(long id, long[] span) {
+        lock.writeLock().lock();
+        try {
+            delta.put(id, span);
+            // the delta is scanned by every query, let it grow with the tree so large trees are not copied too often
+            if (delta.size() > Math.max(compactionThreshold, tree.size() / 256)) compact();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // The tree is already in start order, so only the delta is sorted and the two are merged in one pass
+    private void compact() {
+        long[][] changed = delta.entrySet().stream()
+                .filter(entry -> entry.getValue() != null)
+                .map(entry -> new long[]{entry.getKey(), entry.getValue()[0], entry.getValue()[1]})
+                .sorted(SPAN_ORDER)
+                .toArray(long[][]::new);
+
+        int capacity = tree.size() + changed.length;
+        long[] ids = new long[capacity];
+        long[] starts = new long[capacity];
+        long[] ends = new long[capacity];
+        int n = 0;
+        int next = 0;
+        for (int i = 0; i < tree.size(); i++) {
+            if (delta.containsKey(tree.ids[i])) continue;
+            while (next < changed.length && SPAN_ORDER.compare(changed[next], new long[]{tree.ids[i], tree.starts[i]}) < 0) {
+                ids[n] = changed[next][0];
+                starts[n] = changed[next][1];
+                ends[n++] = changed[next++][2];
+            }
+            ids[n] = tree.ids[i];
+            starts[n] = tree.starts[i];
+            ends[n++] = tree.ends[i];
+        }
+        for (; next < changed.length; next++) {
+            ids[n] = changed[next][0];
+            starts[n] = changed[next][1];
+            ends[n++] = changed[next][2];
+        }
+
+        tree = Tree.of(Arrays.copyOf(ids, n), Arrays.copyOf(starts, n), Arrays.copyOf(ends, n));
+        delta.clear();
+    }
+
+    private static long toDay(LocalDate date, long open) {
+        return date == null ? open : date.toEpochDay();
+    }
+
+    public static final class Span {
+
+        private final long id;
+        private final LocalDate start;
+        private final LocalDate end;
+
+        public Span(long id, LocalDate start, LocalDate end) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+        }
+
+    }
+
+    private static final class Tree {
+
+        private static final Tree EMPTY = new Tree(new long[0], new long[0], new long[0], new long[0], new long[0]);
+
+        private final long[] ids;
+        private final long[] starts;
+        private final long[] ends;
+        private final long[] maxEnds;
+        private final long[] sortedIds;
+
+        private Tree(long[] ids, long[] starts, long[] ends, long[] maxEnds, long[] sortedIds) {
+            this.ids = ids;
+            this.starts = starts;
+            this.ends = ends;
+            this.maxEnds = maxEnds;
+            this.sortedIds = sortedIds;
+        }
+
+        // Each row is {id, start, end}
+        private static Tree build(long[][] rows) {
+            Arrays.sort(rows, SPAN_ORDER);
+            int n = rows.length;
+            long[] ids = new long[n];
+            long[] starts = new long[n];
+            long[] ends = new long[n];
+            for (int i = 0; i < n; i++) {
+                ids[i] = rows[i][0];
+                starts[i] = rows[i][1];
+                ends[i] = rows[i][2];
+            }
+            return of(ids, starts, ends);
+        }
+
+        // The arrays must already be in SPAN_ORDER
+        private static Tree of(long[] ids, long[] starts, long[] ends) {
+            int n = ids.length;
+            long[] maxEnds = new long[n];
+            fillMaxEnds(ends, maxEnds, 0, n);
+            long[] sortedIds = ids.clone();
+            Arrays.sort(sortedIds);
+            return new Tree(ids, starts, ends, maxEnds, sortedIds);
+        }
+
+        private static long fillMaxEnds(long[] ends, long[] maxEnds, int low, int high) {
+            if (low >= high) return Long.MIN_VALUE;
+            int mid = (low + high) >>> 1;
+            long max = Math.max(ends[mid], Math.max(fillMaxEnds(ends, maxEnds, low, mid), fillMaxEnds(ends, maxEnds, mid + 1, high)));
+            maxEnds[mid] = max;
+            return max;
+        }
+
+        private int size() {
+            return ids.length;
+        }
+
+        private boolean contains(long id) {
+            return Arrays.binarySearch(sortedIds, id) >= 0;
+        }
+
+        private void collect(long from, long to, Set<Long> shadowed, List<long[]> matches) {
+            collect(0, ids.length, from, to, shadowed, matches);
+        }
+
+        private void collect(int low, int high, long from, long to, Set<Long> shadowed, List<long[]> matches) {
+            if (low >= high) return;
+            int mid = (low + high) >>> 1;
+            if (maxEnds[mid] < from) return; // everything below here ended before the range
+            collect(low, mid, from, to, shadowed, matches);
+            if (starts[mid] > to) return; // and everything to the right starts after it
+            if (ends[mid] >= from && (shadowed.isEmpty() || !shadowed.contains(ids[mid]))) matches.add(new long[]{ids[mid], starts[mid]});
+            collect(mid + 1, high, from, to, shadowed, matches);
+        }
+
+    }
+
+}
@@ -0,0 +1,73 @@
+package com.cydeo.index;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Predicate;
+
+// Sorted term index for typeahead: every (term, document) pair is one key of a skip list, so a prefix lookup is one
+// O(log n) seek followed by walking the matching keys in order. Safe for concurrent reads and writes.
+public class PrefixIndex<T> {
+
+    private static final char SEPARATOR = '\u0000';
+
+    private final ConcurrentSkipListMap<String, T> entries = new ConcurrentSkipListMap<>();
+    private final Map<String, List<String>> keysByDocument = new ConcurrentHashMap<>();
+    private final int maxScan;
+
+    public PrefixIndex(int maxScan) {
+        this.maxScan = maxScan;
+    }
+
+    public void put(String documentKey, Collection<String> terms, T value) {
+        List<String> keys = new ArrayList<>();
+        for (String term : terms) {
+            String normalized = normalize(term);
+            if (!normalized.isEmpty()) keys.add(normalized + SEPARATOR + documentKey);
+        }
+        keysByDocument.compute(documentKey, (key, oldKeys) -> {
+            if (oldKeys != null) oldKeys.forEach(entries::remove);
+            keys.forEach(indexKey -> entries.put(indexKey, value));
+            return keys;
+        });
+    }
+
+    public void remove(String documentKey) {
+        keysByDocument.computeIfPresent(documentKey, (key, oldKeys) -> {
+            oldKeys.forEach(entries::remove);
+            return null;
+        });
+    }
+
+    public void clear() {
+        entries.clear();
+        keysByDocument.clear();
+    }
+
+    public int size() {
+        return keysByDocument.size();
+    }
+
+    // Matches come back in term order, so an exact match ranks before longer completions of the same prefix.
+    // A document that matches through several terms (first and last name) is returned once.
+    public List<T> search(String prefix, int limit, Predicate<T> filter) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0) return List.of();
+
+        Map<String, T> matches = new LinkedHashMap<>();
+        int scanned = 0;
+        for (Map.Entry<String, T> entry : entries.subMap(normalized, true, normalized + Character.MAX_VALUE, true).entrySet()) {
+            if (++scanned > maxScan || matches.size() == limit) break;
+            String documentKey = entry.getKey().substring(entry.getKey().indexOf(SEPARATOR) + 1);
+            if (!matches.containsKey(documentKey) && filter.test(entry.getValue())) {
+                matches.put(documentKey, entry.getValue());
+            }
+        }
+        return new ArrayList<>(matches.values());
+    }
+
+    private static String normalize(String term) {
+        return term == null ? "" : term.trim().toLowerCase(Locale.ROOT).replace(SEPARATOR, ' ');
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.cydeo.index;
+
+import com.cydeo.enums.Workload;
+import com.cydeo.support.WorkloadContext;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+// The live copy of an in-memory index plus the swap to a copy rebuilt from the database. Writes that arrive while a
+// rebuild is loading are applied to the live copy and replayed on the new one, otherwise the rebuild could overwrite
+// them with the older rows it read. Rebuilds run one at a time; a rebuild that fails keeps the live copy.
+@Slf4j
+public class RebuildableIndex<T, E> {
+
+    private final String name;
+    private final BiConsumer<T, E> applier;
+
+    private final Object rebuildLock = new Object();
+    private final Object writeLock = new Object();
+    private final List<E> eventsDuringRebuild = new ArrayList<>();
+    private boolean rebuilding;
+    private volatile T current;
+
+    // initial may be null: nothing is served and writes are only kept for the first rebuild
+    public RebuildableIndex(String name, T initial, BiConsumer<T, E> applier) {
+        this.name = name;
+        this.current = initial;
+        this.applier = applier;
+    }
+
+    public T get() {
+        return current;
+    }
+
+    public void apply(E event) {
+        synchronized (writeLock) {
+            if (rebuilding) eventsDuringRebuild.add(event);
+            if (current != null) applier.accept(current, event);
+        }
+    }
+
+    // The loader builds the new copy without holding any lock; null means there was nothing to load
+    public T rebuild(Supplier<T> loader) {
+        synchronized (rebuildLock) {
+            synchronized (writeLock) {
+                rebuilding = true;
+                eventsDuringRebuild.clear();
+            }
+
+            T fresh = null;
+            try {
+                fresh = loader.get();
+            } finally {
+                synchronized (writeLock) {
+                    if (fresh != null) {
+                        for (E event : eventsDuringRebuild) applier.accept(fresh, event);
+                        current = fresh;
+                    }
+                    eventsDuringRebuild.clear();
+                    rebuilding = false;
+                }
+            }
+            return fresh;
+        }
+    }
+
+    // Builds the first copy off the startup thread, against the reporting pool
+    public CompletableFuture<Void> rebuildInBackground(Runnable rebuild, Executor executor) {
+        return CompletableFuture.runAsync(() -> WorkloadContext.run(Workload.REPORTING, rebuild), executor).exceptionally(e -> {
+            log.error("{} could not be built", name, e);
+            return null;
+        });
+    }
+
+}
@@ -0,0 +1,344 @@
+package com.cydeo.index;
+
+import com.cydeo.enums.Status;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Compact copy of the tasks table for reporting: one row per task spread over primitive arrays (status ordinal,
+// dictionary coded project and employee, epoch-day assigned date), about 21 bytes a row plus the id lookup.
+// Aggregations are a single pass over the arrays, split across the fork-join pool for large tables.
+public class TaskColumnStore {
+
+    public enum GroupBy { PROJECT, EMPLOYEE }
+
+    // Open task age buckets in days, upper bounds inclusive, the last bucket is open ended
+    public static final int[] AGE_BUCKET_LIMITS = {7, 30, 90};
+
+    private static final byte DELETED = -1;
+    private static final int NONE = -1;
+    private static final int NO_DATE = Integer.MIN_VALUE;
+    private static final Status[] STATUSES = Status.values();
+
+    // Per group counters: one count per status, then open age sum, open age max, one count per age bucket
+    private static final int OPEN_AGE_SUM = STATUSES.length;
+    private static final int OPEN_AGE_MAX = OPEN_AGE_SUM + 1;
+    private static final int FIRST_BUCKET = OPEN_AGE_MAX + 1;
+    private static final int COUNTERS = FIRST_BUCKET + AGE_BUCKET_LIMITS.length + 1;
+
+    private final int leafRows;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long[] taskIds;
+    private byte[] statuses;
+    private int[] projects;
+    private int[] employees;
+    private int[] assignedDays;
+    private int rows;
+    private final Deque<Integer> freeRows = new ArrayDeque<>();
+
+    private final LongIntHashMap rowByTaskId;
+    private final Dictionary projectCodes = new Dictionary();
+    private final Dictionary employeeCodes = new Dictionary();
+
+    public TaskColumnStore(int expectedSize, int leafRows) {
+        int capacity = Math.max(16, expectedSize);
+        this.leafRows = leafRows;
+        this.taskIds = new long[capacity];
+        this.statuses = new byte[capacity];
+        this.projects = new int[capacity];
+        this.employees = new int[capacity];
+        this.assignedDays = new int[capacity];
+        this.rowByTaskId = new LongIntHashMap(capacity);
+    }
+
+    public void put(long taskId, Long projectId, Long employeeId, Status status, LocalDate assignedDate) {
+        lock.writeLock().lock();
+        try {
+            int row = rowByTaskId.get(taskId);
+            if (row == LongIntHashMap.MISSING) {
+                row = freeRows.isEmpty() ? rows++ : freeRows.pop();
+                if (row == taskIds.length) grow();
+                rowByTaskId.put(taskId, row);
+            }
+            taskIds[row] = taskId;
+            statuses[row] = status == null ? (byte) Status.OPEN.ordinal() : (byte) status.ordinal();
+            projects[row] = projectId == null ? NONE : projectCodes.code(projectId);
+            employees[row] = employeeId == null ? NONE : employeeCodes.code(employeeId);
+            assignedDays[row] = assignedDate == null ? NO_DATE : (int) assignedDate.toEpochDay();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long taskId) {
+        lock.writeLock().lock();
+        try {
+            int row = rowByTaskId.get(taskId);
+            if (row == LongIntHashMap.MISSING) return;
+            rowByTaskId.remove(taskId);
+            statuses[row] = DELETED;
+            freeRows.push(row);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return rowByTaskId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long memoryBytes() {
+        lock.readLock().lock();
+        try {
+            long perRow = Long.BYTES + 1 + Integer.BYTES * 3;
+            return taskIds.length * perRow + rowByTaskId.memoryBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Groups the tasks that pass the filter; tasks without a project or employee are grouped under a null key
+    public Map<Long, GroupStats> aggregate(GroupBy groupBy, Filter filter, LocalDate today) {
+        lock.readLock().lock();
+        try {
+            Dictionary groups = groupBy == GroupBy.PROJECT ? projectCodes : employeeCodes;
+            Scan scan = new Scan(groupBy == GroupBy.PROJECT ? projects : employees, groups.size() + 1,
+                    projectMask(filter.projectIds), employeeCode(filter.employeeId),
+                    filter.from == null ? Integer.MIN_VALUE : (int) filter.from.toEpochDay(),
+                    filter.to == null ? Integer.MAX_VALUE : (int) filter.to.toEpochDay(),
+                    (int) today.toEpochDay());
+
+            long[][] counters = scan.rows <= leafRows ? scan.run(0, rows) : ForkJoinPool.commonPool().invoke(scan.task(0, rows));
+
+            Map<Long, GroupStats> result = new HashMap<>();
+            for (int slot = 0; slot < counters.length; slot++) {
+                if (counters[slot] == null) continue;
+                result.put(slot == 0 ? null : groups.id(slot - 1), new GroupStats(counters[slot]));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean[] projectMask(Collection<Long> projectIds) {
+        if (projectIds == null) return null;
+        boolean[] mask = new boolean[projectCodes.size()];
+        for (Long projectId : projectIds) {
+            int code = projectCodes.find(projectId);
+            if (code != NONE) mask[code] = true;
+        }
+        return mask;
+    }
+
+    private int employeeCode(Long employeeId) {
+        if (employeeId == null) return Integer.MIN_VALUE;  // any employee
+        int code = employeeCodes.find(employeeId);
+        return code == NONE ? Integer.MAX_VALUE : code;    // unknown employee, matches nothing
+    }
+
+    private void grow() {
+        int capacity = taskIds.length * 2;
+        taskIds = Arrays.copyOf(taskIds, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+        projects = Arrays.copyOf(projects, capacity);
+        employees = Arrays.copyOf(employees, capacity);
+        assignedDays = Arrays.copyOf(assignedDays, capacity);
+    }
+
+    public static final class Filter {
+
+        private final Collection<Long> projectIds;
+        private final Long employeeId;
+        private final LocalDate from;
+        private final LocalDate to;
+
+        // null means no restriction; from/to bound the assigned date, tasks without one only pass an open range
+        public Filter(Collection<Long> projectIds, Long employeeId, LocalDate from, LocalDate to) {
+            this.projectIds = projectIds;
+            this.employeeId = employeeId;
+            this.from = from;
+            this.to = to;
+        }
+
+    }
+
+    public static final class GroupStats {
+
+        private final long[] counters;
+
+        private GroupStats(long[] counters) {
+            this.counters = counters;
+        }
+
+        public long getCount(Status status) {
+            return counters[status.ordinal()];
+        }
+
+        public long getTotal() {
+            long total = 0;
+            for (int i = 0; i < STATUSES.length; i++) total += counters[i];
+            return total;
+        }
+
+        public long getOpenCount() {
+            return getTotal() - getCount(Status.COMPLETE);
+        }
+
+        public double getCompletionRate() {
+            long total = getTotal();
+            return total == 0 ? 0 : (double) getCount(Status.COMPLETE) / total;
+        }
+
+        // Only open tasks that have an assigned date have an age
+        public double getAverageOpenAgeDays() {
+            long aged = getAgedOpenCount();
+            return aged == 0 ? 0 : (double) counters[OPEN_AGE_SUM] / aged;
+        }
+
+        public long getMaxOpenAgeDays() {
+            return counters[OPEN_AGE_MAX];
+        }
+
+        public long[] getOpenAgeBuckets() {
+            return Arrays.copyOfRange(counters, FIRST_BUCKET, COUNTERS);
+        }
+
+        private long getAgedOpenCount() {
+            long aged = 0;
+            for (int i = FIRST_BUCKET; i < COUNTERS; i++) aged += counters[i];
+            return aged;
+        }
+
+    }
+
+    // One pass over a row range; the arrays are read under the caller's read lock
+    private final class Scan {
+
+        private final int[] groupColumn;
+        private final int groups;
+        private final boolean[] projectMask;
+        private final int employee;
+        private final int from;
+        private final int to;
+        private final int today;
+        private final int rows = TaskColumnStore.this.rows;
+
+        private Scan(int[] groupColumn, int groups, boolean[] projectMask, int employee, int from, int to, int today) {
+            this.groupColumn = groupColumn;
+            this.groups = groups;
+            this.projectMask = projectMask;
+            this.employee = employee;
+            this.from = from;
+            this.to = to;
+            this.today = today;
+        }
+
+        private long[][] run(int start, int end) {
+            boolean anyDate = from == Integer.MIN_VALUE && to == Integer.MAX_VALUE;
+            int complete = Status.COMPLETE.ordinal();
+            long[][] counters = new long[groups][];
+
+            for (int row = start; row < end; row++) {
+                byte status = statuses[row];
+                if (status == DELETED) continue;
+
+                int project = projects[row];
+                if (projectMask != null && (project == NONE || !projectMask[project])) continue;
+                if (employee != Integer.MIN_VALUE && employees[row] != employee) continue;
+                int assignedDay = assignedDays[row];
+                if (!anyDate && (assignedDay == NO_DATE || assignedDay < from || assignedDay > to)) continue;
+
+                int slot = groupColumn[row] + 1;
+                long[] group = counters[slot];
+                if (group == null) group = counters[slot] = new long[COUNTERS];
+                group[status]++;
+
+                if (status != complete && assignedDay != NO_DATE) {
+                    int age = Math.max(0, today - assignedDay);
+                    group[OPEN_AGE_SUM] += age;
+                    group[OPEN_AGE_MAX] = Math.max(group[OPEN_AGE_MAX], age);
+                    group[FIRST_BUCKET + bucket(age)]++;
+                }
+            }
+            return counters;
+        }
+
+        private RecursiveTask<long[][]> task(int start, int end) {
+            return new RecursiveTask<>() {
+                @Override
+                protected long[][] compute() {
+                    if (end - start <= leafRows) return run(start, end);
+                    int mid = (start + end) >>> 1;
+                    RecursiveTask<long[][]> left = task(start, mid);
+                    left.fork();
+                    long[][] right = task(mid, end).invoke();
+                    return merge(left.join(), right);
+                }
+            };
+        }
+
+        private long[][] merge(long[][] left, long[][] right) {
+            for (int slot = 0; slot < groups; slot++) {
+                if (right[slot] == null) continue;
+                if (left[slot] == null) {
+                    left[slot] = right[slot];
+                    continue;
+                }
+                for (int i = 0; i < COUNTERS; i++) {
+                    left[slot][i] = i == OPEN_AGE_MAX ? Math.max(left[slot][i], right[slot][i]) : left[slot][i] + right[slot][i];
+                }
+            }
+            return left;
+        }
+
+        private int bucket(int age) {
+            for (int i = 0; i < AGE_BUCKET_LIMITS.length; i++) {
+                if (age <= AGE_BUCKET_LIMITS[i]) return i;
+            }
+            return AGE_BUCKET_LIMITS.length;
+        }
+
+    }
+
+    // Maps entity ids to dense codes so the columns hold ints and per group counters can live in arrays
+    private static final class Dictionary {
+
+        private final LongIntHashMap codes = new LongIntHashMap(64);
+        private long[] ids = new long[64];
+
+        private int code(long id) {
+            int code = codes.get(id);
+            if (code != LongIntHashMap.MISSING) return code;
+            code = codes.size();
+            if (code == ids.length) ids = Arrays.copyOf(ids, ids.length * 2);
+            ids[code] = id;
+            codes.put(id, code);
+            return code;
+        }
+
+        private int find(long id) {
+            int code = codes.get(id);
+            return code == LongIntHashMap.MISSING ? NONE : code;
+        }
+
+        private long id(int code) {
+            return ids[code];
+        }
+
+        private int size() {
+            return codes.size();
+        }
+
+    }
+
+}
@@ -0,0 +1,237 @@
+package com.cydeo.index;
+
+import com.cydeo.enums.Status;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+// In-process inverted index over task subject and detail, ranked with BM25. Subject terms count double.
+public class TaskTextIndex {
+
+    private static final int FILE_VERSION = 1;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final Set<String> STOP_WORDS = Set.of("a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is",
+            "it", "of", "on", "or", "the", "to", "with");
+
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long totalLength;
+    private LocalDateTime watermark; // newest lastUpdateDateTime folded into the index, used to catch up after loading a snapshot
+
+    public void put(Document document) {
+        Map<String, Integer> termFrequencies = new HashMap<>();
+        tokenize(document.subject).forEach(term -> termFrequencies.merge(term, 2, Integer::sum));
+        tokenize(document.detail).forEach(term -> termFrequencies.merge(term, 1, Integer::sum));
+        int length = termFrequencies.values().stream().mapToInt(Integer::intValue).sum();
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(document.taskId);
+            document.length = length;
+            document.terms = termFrequencies.keySet().toArray(new String[0]);
+            documents.put(document.taskId, document);
+            totalLength += length;
+            termFrequencies.forEach((term, frequency) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(document.taskId, frequency));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long taskId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(taskId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void advanceWatermark(LocalDateTime updatedAt) {
+        if (updatedAt == null) return;
+        lock.writeLock().lock();
+        try {
+            if (watermark == null || updatedAt.isAfter(watermark)) watermark = updatedAt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public LocalDateTime getWatermark() {
+        lock.readLock().lock();
+        try {
+            return watermark;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Hit> search(String query, Predicate<Document> filter, int limit) {
+        Set<String> terms = new LinkedHashSet<>(tokenize(query));
+        if (terms.isEmpty() || limit <= 0) return List.of();
+
+        Map<Long, Double> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            double averageLength = documentCount == 0 ? 1 : (double) totalLength / documentCount;
+
+            for (String term : terms) {
+                Map<Long, Integer> termPostings = postings.get(term);
+                if (termPostings == null) continue;
+                double idf = Math.log(1 + (documentCount - termPostings.size() + 0.5) / (termPostings.size() + 0.5));
+                termPostings.forEach((taskId, frequency) -> {
+                    Document document = documents.get(taskId);
+                    if (!filter.test(document)) return;
+                    double norm = frequency + K1 * (1 - B + B * document.length / averageLength);
+                    scores.merge(taskId, idf * frequency * (K1 + 1) / norm, Double::sum);
+                });
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        PriorityQueue<Hit> top = new PriorityQueue<>(Comparator.comparingDouble(Hit::getScore));
+        scores.forEach((taskId, score) -> {
+            top.offer(new Hit(taskId, score));
+            if (top.size() > limit) top.poll();
+        });
+        List<Hit> hits = new ArrayList<>(top);
+        hits.sort(Comparator.comparingDouble(Hit::getScore).reversed().thenComparing(Hit::getTaskId));
+        return hits;
+    }
+
+    // The snapshot keeps the source text and re-tokenizes on load, which keeps the format independent of the tokenizer
+    public void writeTo(Path path) throws IOException {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        lock.readLock().lock();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            out.writeInt(FILE_VERSION);
+            out.writeUTF(watermark == null ? "" : watermark.toString());
+            out.writeInt(documents.size());
+            for (Document document : documents.values()) {
+                out.writeLong(document.taskId);
+                out.writeLong(document.projectId == null ? -1 : document.projectId);
+                out.writeLong(document.employeeId == null ? -1 : document.employeeId);
+                out.writeUTF(document.status == null ? "" : document.status.name());
+                out.writeUTF(document.subject == null ? "" : document.subject);
+                out.writeUTF(document.detail == null ? "" : document.detail);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static TaskTextIndex readFrom(Path path) throws IOException {
+        TaskTextIndex index = new TaskTextIndex();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != FILE_VERSION) throw new IOException("Unsupported task index file version");
+            String watermark = in.readUTF();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                long taskId = in.readLong();
+                long projectId = in.readLong();
+                long employeeId = in.readLong();
+                String status = in.readUTF();
+                index.put(new Document(taskId, projectId < 0 ? null : projectId, employeeId < 0 ? null : employeeId,
+                        status.isEmpty() ? null : Status.valueOf(status), in.readUTF(), in.readUTF()));
+            }
+            index.watermark = watermark.isEmpty() ? null : LocalDateTime.parse(watermark);
+        }
+        return index;
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null) return List.of();
+        List<String> tokens = new ArrayList<>();
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (token.length() > 1 && !STOP_WORDS.contains(token)) tokens.add(token);
+        }
+        return tokens;
+    }
+
+    private void removeLocked(Long taskId) {
+        Document old = documents.remove(taskId);
+        if (old == null) return;
+        totalLength -= old.length;
+        for (String term : old.terms) {
+            Map<Long, Integer> termPostings = postings.get(term);
+            if (termPostings == null) continue;
+            termPostings.remove(taskId);
+            if (termPostings.isEmpty()) postings.remove(term);
+        }
+    }
+
+    public static final class Document {
+
+        private final long taskId;
+        private final Long projectId;
+        private final Long employeeId;
+        private final Status status;
+        private final String subject;
+        private final String detail;
+        private int length;
+        private String[] terms;
+
+        public Document(long taskId, Long projectId, Long employeeId, Status status, String subject, String detail) {
+            this.taskId = taskId;
+            this.projectId = projectId;
+            this.employeeId = employeeId;
+            this.status = status;
+            this.subject = subject;
+            this.detail = detail;
+        }
+
+        public Long getProjectId() {
+            return projectId;
+        }
+
+        public Long getEmployeeId() {
+            return employeeId;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+    }
+
+    public static final class Hit {
+
+        private final long taskId;
+        private final double score;
+
+        Hit(long taskId, double score) {
+            this.taskId = taskId;
+            this.score = score;
+        }
+
+        public long getTaskId() {
+            return taskId;
+        }
+
+        public double getScore() {
+            return score;
+        }
+
+    }
+
+}
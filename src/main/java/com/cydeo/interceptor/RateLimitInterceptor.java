@@ -0,0 +1,85 @@
+package com.cydeo.interceptor;
+
+import com.cydeo.annotation.RateLimited;
+import com.cydeo.exception.RateLimitExceededException;
+import com.cydeo.support.RateLimiter;
+import org.keycloak.adapters.springsecurity.account.SimpleKeycloakAccount;
+import org.keycloak.representations.AccessToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Every API call counts against the caller's default budget, endpoints annotated @RateLimited also against their own.
+// Callers are told apart by the token's preferred username (subject when it has none), anonymous calls by address.
+// A role multiplier scales both budgets, the largest multiplier among the caller's roles wins. A call the endpoint budget
+// refuses gives its default token back, so it does not use up the caller's quota for everything else.
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private static final String DEFAULT_BUDGET = "default";
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    private final RateLimiter rateLimiter;
+    private final int defaultPerMinute;
+    private final int defaultBurst;
+    private final Map<String, Double> roleMultipliers;
+
+    public RateLimitInterceptor(RateLimiter rateLimiter, int defaultPerMinute, int defaultBurst, Map<String, Double> roleMultipliers) {
+        this.rateLimiter = rateLimiter;
+        this.defaultPerMinute = defaultPerMinute;
+        this.defaultBurst = defaultBurst;
+        this.roleMultipliers = roleMultipliers;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod)) return true;
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String caller = caller(authentication, request);
+        double multiplier = multiplier(authentication);
+
+        check(caller, DEFAULT_BUDGET, defaultPerMinute, defaultBurst, multiplier);
+        RateLimited rateLimited = ((HandlerMethod) handler).getMethodAnnotation(RateLimited.class);
+        if (rateLimited != null) {
+            try {
+                check(caller, rateLimited.value(), rateLimited.perMinute(), rateLimited.burst(), multiplier);
+            } catch (RateLimitExceededException e) {
+                rateLimiter.release(caller + '|' + DEFAULT_BUDGET, defaultPerMinute * multiplier / 60);
+                throw e;
+            }
+        }
+        return true;
+    }
+
+    private void check(String caller, String budget, int perMinute, int burst, double multiplier) {
+        long waitNanos = rateLimiter.tryAcquire(caller + '|' + budget, perMinute * multiplier / 60, (int) Math.ceil(burst * multiplier));
+        if (waitNanos > 0) throw new RateLimitExceededException(budget, Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999)));
+    }
+
+    private static String caller(Authentication authentication, HttpServletRequest request) {
+        if (authentication != null && authentication.getDetails() instanceof SimpleKeycloakAccount) {
+            AccessToken token = ((SimpleKeycloakAccount) authentication.getDetails()).getKeycloakSecurityContext().getToken();
+            return "user:" + (token.getPreferredUsername() != null ? token.getPreferredUsername() : token.getSubject());
+        }
+        if (authentication != null && authentication.isAuthenticated() && authentication.getName() != null) return "user:" + authentication.getName();
+        return "address:" + request.getRemoteAddr();
+    }
+
+    private double multiplier(Authentication authentication) {
+        if (authentication == null) return 1;
+        double multiplier = 0;
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            String role = authority.getAuthority().startsWith(ROLE_PREFIX) ? authority.getAuthority().substring(ROLE_PREFIX.length()) : authority.getAuthority();
+            multiplier = Math.max(multiplier, roleMultipliers.getOrDefault(role, 0.0));
+        }
+        return multiplier == 0 ? 1 : multiplier;
+    }
+
+}
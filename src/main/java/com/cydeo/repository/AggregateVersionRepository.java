@@ -0,0 +1,18 @@
+package com.cydeo.repository;
+
+import com.cydeo.entity.AggregateVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AggregateVersionRepository extends JpaRepository<AggregateVersion, String> {
+
+    // Scalar rows, so the counters are never served from the persistence context of a long lived session
+    @Query("SELECT v.aggregate, v.version FROM AggregateVersion v WHERE v.aggregate IN ?1")
+    List<Object[]> findVersions(Collection<String> aggregates);
+
+}
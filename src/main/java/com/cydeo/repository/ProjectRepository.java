@@ -1,16 +1,44 @@
 package com.cydeo.repository;
 
+import com.cydeo.dto.ProjectNodeDTO;
 import com.cydeo.entity.Project;
 import com.cydeo.entity.User;
 import com.cydeo.enums.Status;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 public interface ProjectRepository extends JpaRepository<Project,Long> {
 
     Project findByProjectCode(String code);
+
+    @EntityGraph(attributePaths = "assignedManager.role")
+    List<Project> findAllByProjectCodeIn(Collection<String> codes);
+
     List<Project> findAllByAssignedManager(User manager);
     List<Project> findAllByProjectStatusIsNotAndAssignedManager(Status status, User assignedManager);
 
+    // Id and dates only, so loading the timeline index does not hydrate every project and its manager
+    @Query("SELECT p.id, p.startDate, p.endDate FROM Project p")
+    List<Object[]> findAllSpans();
+
+    @Query("SELECT p FROM Project p WHERE (p.startDate IS NULL OR p.startDate <= ?2) AND (p.endDate IS NULL OR p.endDate >= ?1) ORDER BY p.startDate NULLS FIRST, p.id")
+    List<Project> findAllActiveBetween(LocalDate from, LocalDate to);
+
+    // GraphQL reads: columns only, the manager stays an id (no join, assignedManager.id is the foreign key column)
+    @Query("SELECT new com.cydeo.dto.ProjectNodeDTO(p.id, p.projectCode, p.projectName, p.startDate, p.endDate, p.projectDetail, p.projectStatus, p.assignedManager.id) " +
+            "FROM Project p ORDER BY p.projectCode")
+    List<ProjectNodeDTO> findAllNodes();
+
+    @Query("SELECT new com.cydeo.dto.ProjectNodeDTO(p.id, p.projectCode, p.projectName, p.startDate, p.endDate, p.projectDetail, p.projectStatus, p.assignedManager.id) " +
+            "FROM Project p WHERE p.projectCode = ?1")
+    ProjectNodeDTO findNodeByProjectCode(String code);
+
+    @Query("SELECT new com.cydeo.dto.ProjectNodeDTO(p.id, p.projectCode, p.projectName, p.startDate, p.endDate, p.projectDetail, p.projectStatus, p.assignedManager.id) " +
+            "FROM Project p WHERE p.id IN ?1")
+    List<ProjectNodeDTO> findAllNodesByIdIn(Collection<Long> ids);
 }
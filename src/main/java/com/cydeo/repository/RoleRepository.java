@@ -1,12 +1,19 @@
 package com.cydeo.repository;
 
+import com.cydeo.dto.RoleDTO;
 import com.cydeo.entity.Role;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface RoleRepository extends JpaRepository<Role,Long> {
 
     Role findByDescription(String description);
 
+    @Query("SELECT new com.cydeo.dto.RoleDTO(r.id, r.description) FROM Role r WHERE r.id IN ?1")
+    List<RoleDTO> findAllDtosByIdIn(Collection<Long> ids);
 }
@@ -0,0 +1,24 @@
+package com.cydeo.repository;
+
+import com.cydeo.entity.TaskDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface TaskDailyRollupRepository extends JpaRepository<TaskDailyRollup, Long> {
+
+    @Query("SELECT r.rollupDay, SUM(r.opened), SUM(r.completed) FROM TaskDailyRollup r " +
+            "WHERE r.projectId = ?1 AND r.rollupDay BETWEEN ?2 AND ?3 GROUP BY r.rollupDay ORDER BY r.rollupDay")
+    List<Object[]> sumByDayForProject(Long projectId, LocalDate from, LocalDate to);
+
+    @Query("SELECT r.rollupDay, r.employeeId, SUM(r.opened), SUM(r.completed) FROM TaskDailyRollup r " +
+            "WHERE r.projectId = ?1 AND r.rollupDay BETWEEN ?2 AND ?3 GROUP BY r.rollupDay, r.employeeId ORDER BY r.rollupDay, r.employeeId")
+    List<Object[]> sumByDayAndEmployeeForProject(Long projectId, LocalDate from, LocalDate to);
+
+    @Query("SELECT r.rollupDay, SUM(r.opened), SUM(r.completed) FROM TaskDailyRollup r " +
+            "WHERE r.employeeId = ?1 AND r.rollupDay BETWEEN ?2 AND ?3 GROUP BY r.rollupDay ORDER BY r.rollupDay")
+    List<Object[]> sumByDayForEmployee(Long employeeId, LocalDate from, LocalDate to);
+
+}
@@ -0,0 +1,15 @@
+package com.cydeo.repository;
+
+import com.cydeo.entity.TaskReassignment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface TaskReassignmentRepository extends JpaRepository<TaskReassignment, Long> {
+
+    @Query("SELECT DISTINCT r.taskId FROM TaskReassignment r WHERE r.fromEmployeeId = ?1 AND r.reassignedAt >= ?2")
+    List<Long> findTaskIdsReassignedAwayFrom(Long employeeId, LocalDateTime since);
+
+}
@@ -1,12 +1,17 @@
 package com.cydeo.repository;
 
+import com.cydeo.dto.TaskNodeDTO;
 import com.cydeo.entity.Project;
 import com.cydeo.entity.Task;
 import com.cydeo.entity.User;
 import com.cydeo.enums.Status;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface TaskRepository extends JpaRepository<Task,Long> {
@@ -26,4 +31,36 @@ public interface TaskRepository extends JpaRepository<Task,Long> {
 
     List<Task> findAllByTaskStatusAndAssignedEmployee(Status status, User user);
 
+    List<Task> findAllByTaskStatusIsNotAndProjectAssignedManager(Status status, User manager);
+
+    // Native on purpose: @Where(is_deleted=false) would hide the soft deleted rows that delta sync has to report as tombstones
+    @Query(value = "SELECT * FROM tasks t WHERE t.assigned_employee_id = ?1 AND t.last_update_date_time >= ?2", nativeQuery = true)
+    List<Task> findAllChangedSinceByAssignedEmployee(Long employeeId, LocalDateTime since);
+
+    @Query(value = "SELECT * FROM tasks t WHERE t.last_update_date_time >= ?1", nativeQuery = true)
+    List<Task> findAllChangedSince(LocalDateTime since);
+
+    List<Task> findAllByAssignedDateBetweenOrderByAssignedDate(LocalDate from, LocalDate to);
+
+    // Only the columns the analytics store keeps, without hydrating the task graph
+    @Query("SELECT t.id, t.project.id, t.assignedEmployee.id, t.taskStatus, t.assignedDate FROM Task t WHERE t.id BETWEEN ?1 AND ?2")
+    List<Object[]> findAllColumnsByIdBetween(Long from, Long to);
+
+    List<Task> findAllByIdBetween(Long from, Long to);
+
+    // The references the TaskDTO carries come with the tasks instead of one lazy load per task
+    @EntityGraph(attributePaths = {"project.assignedManager.role", "assignedEmployee.role"})
+    List<Task> findAllByIdIn(Collection<Long> ids);
+
+    @Query(value = "SELECT COALESCE(MAX(id), 0) FROM tasks", nativeQuery = true)
+    long findMaxId();
+
+    // GraphQL reads: columns only, project and employee stay ids
+    @Query("SELECT new com.cydeo.dto.TaskNodeDTO(t.id, t.taskSubject, t.taskDetail, t.taskStatus, t.assignedDate, t.project.id, t.assignedEmployee.id) " +
+            "FROM Task t ORDER BY t.id")
+    List<TaskNodeDTO> findAllNodes();
+
+    @Query("SELECT new com.cydeo.dto.TaskNodeDTO(t.id, t.taskSubject, t.taskDetail, t.taskStatus, t.assignedDate, t.project.id, t.assignedEmployee.id) " +
+            "FROM Task t WHERE t.id = ?1")
+    TaskNodeDTO findNodeById(Long id);
 }
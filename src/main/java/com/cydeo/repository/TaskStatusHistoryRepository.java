@@ -0,0 +1,12 @@
+package com.cydeo.repository;
+
+import com.cydeo.entity.TaskStatusHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface TaskStatusHistoryRepository extends JpaRepository<TaskStatusHistory, Long> {
+
+    List<TaskStatusHistory> findAllByTaskIdOrderByChangedAt(Long taskId);
+
+}
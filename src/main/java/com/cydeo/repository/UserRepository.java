@@ -1,9 +1,13 @@
 package com.cydeo.repository;
 
+import com.cydeo.dto.UserNodeDTO;
 import com.cydeo.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import javax.transaction.Transactional;
+import java.util.Collection;
 import java.util.List;
 
 public interface UserRepository extends JpaRepository<User,Long> {
@@ -12,10 +16,32 @@ public interface UserRepository extends JpaRepository<User,Long> {
 
     User findByUserNameAndIsDeleted(String username, Boolean deleted);
 
+    @EntityGraph(attributePaths = "role")
+    List<User> findAllByUserNameInAndIsDeleted(Collection<String> usernames, Boolean deleted);
+
 
     @Transactional
     void deleteByUserName(String username);
 
     List<User> findByRoleDescriptionIgnoreCaseAndIsDeleted(String description, Boolean deleted);
 
+    List<User> findAllByUserNameIn(Collection<String> userNames);
+
+    // [id, userName] rows, for users inserted through JDBC
+    @Query("SELECT u.id, u.userName FROM User u WHERE u.userName IN ?1")
+    List<Object[]> findIdsByUserNameIn(Collection<String> userNames);
+
+    // GraphQL reads: columns only, the role stays an id
+    @Query("SELECT new com.cydeo.dto.UserNodeDTO(u.id, u.firstName, u.lastName, u.userName, u.enabled, u.phone, u.gender, u.role.id) " +
+            "FROM User u WHERE u.isDeleted = false ORDER BY u.firstName DESC")
+    List<UserNodeDTO> findAllNodes();
+
+    @Query("SELECT new com.cydeo.dto.UserNodeDTO(u.id, u.firstName, u.lastName, u.userName, u.enabled, u.phone, u.gender, u.role.id) " +
+            "FROM User u WHERE u.userName = ?1 AND u.isDeleted = false")
+    UserNodeDTO findNodeByUserName(String userName);
+
+    // Deleted users included: they still show up as the manager or employee of older projects and tasks
+    @Query("SELECT new com.cydeo.dto.UserNodeDTO(u.id, u.firstName, u.lastName, u.userName, u.enabled, u.phone, u.gender, u.role.id) " +
+            "FROM User u WHERE u.id IN ?1")
+    List<UserNodeDTO> findAllNodesByIdIn(Collection<Long> ids);
 }
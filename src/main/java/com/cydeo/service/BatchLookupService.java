@@ -0,0 +1,17 @@
+package com.cydeo.service;
+
+import com.cydeo.dto.BatchLookupDTO;
+import com.cydeo.dto.ProjectDTO;
+import com.cydeo.dto.TaskDTO;
+import com.cydeo.dto.UserDTO;
+import com.cydeo.exception.TicketingProjectException;
+
+import java.util.List;
+
+public interface BatchLookupService {
+
+    BatchLookupDTO<Long, TaskDTO> findTasks(List<Long> ids) throws TicketingProjectException;
+    BatchLookupDTO<String, ProjectDTO> findProjects(List<String> projectCodes) throws TicketingProjectException;
+    BatchLookupDTO<String, UserDTO> findUsers(List<String> usernames) throws TicketingProjectException;
+
+}
@@ -0,0 +1,9 @@
+package com.cydeo.service;
+
+import com.cydeo.enums.Aggregate;
+
+public interface CacheCoherenceService {
+
+    void publish(Aggregate aggregate);
+
+}
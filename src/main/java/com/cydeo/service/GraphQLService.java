@@ -0,0 +1,26 @@
+package com.cydeo.service;
+
+import com.cydeo.dto.ProjectNodeDTO;
+import com.cydeo.dto.RoleDTO;
+import com.cydeo.dto.TaskNodeDTO;
+import com.cydeo.dto.UserNodeDTO;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface GraphQLService {
+
+    List<ProjectNodeDTO> listAllProjects();
+    ProjectNodeDTO findProjectByCode(String projectCode);
+    List<TaskNodeDTO> listAllTasks();
+    TaskNodeDTO findTaskById(Long id);
+    List<UserNodeDTO> listAllUsers();
+    UserNodeDTO findUserByUserName(String userName);
+
+    // one IN query per call, keyed by id; missing ids are left out of the map
+    Map<Long, ProjectNodeDTO> findProjectsByIds(Collection<Long> ids);
+    Map<Long, UserNodeDTO> findUsersByIds(Collection<Long> ids);
+    Map<Long, RoleDTO> findRolesByIds(Collection<Long> ids);
+
+}
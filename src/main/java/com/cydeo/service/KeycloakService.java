@@ -3,10 +3,12 @@ package com.cydeo.service;
 import com.cydeo.dto.UserDTO;
 
 import javax.ws.rs.core.Response;
+import java.util.List;
 
 public interface KeycloakService {
 
     Response userCreate (UserDTO userDTO);
+    List<String> userCreateAll(List<UserDTO> userDTOs); // one entry per user, null when the user is provisioned, otherwise the failure message
     void delete(String username);
 
 }
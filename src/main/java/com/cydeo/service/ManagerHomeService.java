@@ -0,0 +1,9 @@
+package com.cydeo.service;
+
+import com.cydeo.dto.ManagerHomeDTO;
+
+public interface ManagerHomeService {
+
+    ManagerHomeDTO managerHome();
+
+}
@@ -0,0 +1,17 @@
+package com.cydeo.service;
+
+import com.cydeo.dto.CompactListDTO;
+import com.cydeo.enums.Aggregate;
+import com.cydeo.exception.TicketingProjectException;
+
+import java.util.List;
+import java.util.Map;
+
+public interface ProjectionService {
+
+    // fields are dotted paths like "taskSubject" or "project.assignedManager.userName"; a reference on its own
+    // ("project") selects all of its columns, no fields selects everything
+    List<Map<String, Object>> list(Aggregate aggregate, List<String> fields) throws TicketingProjectException;
+    CompactListDTO listCompact(Aggregate aggregate, List<String> fields) throws TicketingProjectException;
+
+}
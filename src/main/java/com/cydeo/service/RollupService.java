@@ -0,0 +1,19 @@
+package com.cydeo.service;
+
+import com.cydeo.dto.RollupRunDTO;
+import com.cydeo.dto.RollupVerificationDTO;
+import com.cydeo.dto.ThroughputDTO;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface RollupService {
+
+    List<ThroughputDTO> projectThroughput(String projectCode, LocalDate from, LocalDate to);
+    List<ThroughputDTO> projectThroughputByEmployee(String projectCode, LocalDate from, LocalDate to);
+    List<ThroughputDTO> employeeThroughput(String userName, LocalDate from, LocalDate to);
+    RollupRunDTO catchUp();
+    RollupRunDTO backfill();
+    RollupVerificationDTO verify(LocalDate from, LocalDate to);
+
+}
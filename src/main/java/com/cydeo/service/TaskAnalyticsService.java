@@ -0,0 +1,16 @@
+package com.cydeo.service;
+
+import com.cydeo.dto.TaskReportRowDTO;
+import com.cydeo.event.TaskEvent;
+import com.cydeo.index.TaskColumnStore;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface TaskAnalyticsService {
+
+    List<TaskReportRowDTO> report(TaskColumnStore.GroupBy groupBy, String projectCode, String assignee, LocalDate from, LocalDate to);
+    void rebuild();
+    void onTaskEvent(TaskEvent event);
+
+}
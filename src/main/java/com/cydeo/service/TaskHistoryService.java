@@ -0,0 +1,14 @@
+package com.cydeo.service;
+
+import com.cydeo.dto.CycleTimeDTO;
+import com.cydeo.dto.TaskStatusChangeDTO;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface TaskHistoryService {
+
+    List<TaskStatusChangeDTO> listStatusChanges(Long taskId);
+    CycleTimeDTO cycleTime(String projectCode, LocalDate from, LocalDate to);
+
+}
@@ -0,0 +1,15 @@
+package com.cydeo.service;
+
+import com.cydeo.dto.TaskSearchHitDTO;
+import com.cydeo.enums.Status;
+import com.cydeo.event.TaskEvent;
+
+import java.util.List;
+
+public interface TaskSearchService {
+
+    List<TaskSearchHitDTO> search(String query, String projectCode, Status status, String assignee, int limit);
+    void rebuild();
+    void onTaskEvent(TaskEvent event);
+
+}
@@ -2,6 +2,7 @@ package com.cydeo.service;
 
 import com.cydeo.dto.ProjectDTO;
 import com.cydeo.dto.TaskDTO;
+import com.cydeo.dto.TaskSyncDTO;
 import com.cydeo.dto.UserDTO;
 import com.cydeo.enums.Status;
 
@@ -27,5 +28,10 @@ public interface TaskService {
     List<TaskDTO> listAllTasksByStatus(Status status);
 
     List<TaskDTO> listAllNonCompletedByAssignedEmployee(UserDTO assignedEmployee);
+    List<TaskDTO> listAllNonCompletedByProjectManager(UserDTO manager);
+
+    TaskSyncDTO syncAllTasks(String since);
+    TaskSyncDTO syncTasksByStatusIsNot(Status status, String since);
+    TaskSyncDTO syncTasksByStatus(Status status, String since);
 
 }
@@ -0,0 +1,9 @@
+package com.cydeo.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface TaskStreamService {
+
+    SseEmitter subscribe(String lastEventId);
+
+}
@@ -0,0 +1,15 @@
+package com.cydeo.service;
+
+import com.cydeo.dto.ProjectDTO;
+import com.cydeo.dto.TaskDTO;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface TimelineService {
+
+    List<ProjectDTO> listProjectsActiveBetween(LocalDate from, LocalDate to);
+    List<TaskDTO> listTasksAssignedBetween(LocalDate from, LocalDate to);
+    void rebuild();
+
+}
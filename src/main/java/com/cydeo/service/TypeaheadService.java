@@ -0,0 +1,13 @@
+package com.cydeo.service;
+
+import com.cydeo.dto.SuggestionDTO;
+
+import java.util.List;
+
+public interface TypeaheadService {
+
+    List<SuggestionDTO> suggestUsers(String prefix, String role, int limit);
+    List<SuggestionDTO> suggestProjects(String prefix, int limit);
+    void rebuild();
+
+}
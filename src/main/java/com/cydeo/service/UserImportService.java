@@ -0,0 +1,13 @@
+package com.cydeo.service;
+
+import com.cydeo.dto.UserImportResultDTO;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface UserImportService {
+
+    UserImportResultDTO importCsv(InputStream inputStream) throws IOException;
+    UserImportResultDTO importNdjson(InputStream inputStream) throws IOException;
+
+}
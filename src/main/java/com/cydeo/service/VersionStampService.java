@@ -0,0 +1,12 @@
+package com.cydeo.service;
+
+import com.cydeo.enums.Aggregate;
+
+import java.util.Collection;
+
+public interface VersionStampService {
+
+    String versionOf(Aggregate... aggregates);
+    void bump(Collection<Aggregate> aggregates);    // after the commit that wrote them
+
+}
@@ -0,0 +1,91 @@
+package com.cydeo.service.impl;
+
+import com.cydeo.dto.BatchLookupDTO;
+import com.cydeo.dto.ProjectDTO;
+import com.cydeo.dto.TaskDTO;
+import com.cydeo.dto.UserDTO;
+import com.cydeo.entity.Project;
+import com.cydeo.entity.Task;
+import com.cydeo.entity.User;
+import com.cydeo.exception.BadRequestException;
+import com.cydeo.exception.TicketingProjectException;
+import com.cydeo.mapper.ProjectMapper;
+import com.cydeo.mapper.TaskMapper;
+import com.cydeo.mapper.UserMapper;
+import com.cydeo.repository.ProjectRepository;
+import com.cydeo.repository.TaskRepository;
+import com.cydeo.repository.UserRepository;
+import com.cydeo.service.BatchLookupService;
+import com.cydeo.support.InQueries;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// The multi-get counterparts of the single lookups: one IN query per chunk of keys instead of a request per key.
+// Every distinct key is mapped once, the answer repeats it for keys asked twice.
+@Service
+@Transactional(readOnly = true)
+public class BatchLookupServiceImpl implements BatchLookupService {
+
+    private final TaskRepository taskRepository;
+    private final ProjectRepository projectRepository;
+    private final UserRepository userRepository;
+    private final TaskMapper taskMapper;
+    private final ProjectMapper projectMapper;
+    private final UserMapper userMapper;
+    private final int maxKeys;
+
+    public BatchLookupServiceImpl(TaskRepository taskRepository, ProjectRepository projectRepository, UserRepository userRepository,
+                                  TaskMapper taskMapper, ProjectMapper projectMapper, UserMapper userMapper,
+                                  @Value("${ticketing.batch-lookup.max-keys:100}") int maxKeys) {
+        this.taskRepository = taskRepository;
+        this.projectRepository = projectRepository;
+        this.userRepository = userRepository;
+        this.taskMapper = taskMapper;
+        this.projectMapper = projectMapper;
+        this.userMapper = userMapper;
+        this.maxKeys = maxKeys;
+    }
+
+    @Override
+    public BatchLookupDTO<Long, TaskDTO> findTasks(List<Long> ids) throws TicketingProjectException {
+        return lookup(ids, () -> InQueries.findInChunks(ids, taskRepository::findAllByIdIn, Task::getId), taskMapper::convertToDto);
+    }
+
+    @Override
+    public BatchLookupDTO<String, ProjectDTO> findProjects(List<String> projectCodes) throws TicketingProjectException {
+        return lookup(projectCodes, () -> InQueries.findInChunks(projectCodes, projectRepository::findAllByProjectCodeIn, Project::getProjectCode),
+                projectMapper::convertToDto);
+    }
+
+    @Override
+    public BatchLookupDTO<String, UserDTO> findUsers(List<String> usernames) throws TicketingProjectException {
+        return lookup(usernames, () -> InQueries.findInChunks(usernames, chunk -> userRepository.findAllByUserNameInAndIsDeleted(chunk, false), User::getUserName),
+                userMapper::convertToDto);
+    }
+
+    private <K, E, T> BatchLookupDTO<K, T> lookup(List<K> keys, Supplier<Map<K, E>> finder, Function<E, T> mapper) throws TicketingProjectException {
+        if (keys.size() > maxKeys) throw new BadRequestException("At most " + maxKeys + " keys can be looked up at once");
+
+        Map<K, E> found = finder.get();
+        Map<K, T> mapped = new HashMap<>();
+        found.forEach((key, entity) -> mapped.put(key, mapper.apply(entity)));
+
+        List<T> items = new ArrayList<>(keys.size());
+        List<K> missing = new ArrayList<>();
+        for (K key : keys) {
+            T item = mapped.get(key);
+            items.add(item);
+            if (item == null) missing.add(key);
+        }
+        return new BatchLookupDTO<>(items, missing);
+    }
+
+}
@@ -0,0 +1,213 @@
+package com.cydeo.service.impl;
+
+import com.cydeo.dto.TaskNodeDTO;
+import com.cydeo.enums.Aggregate;
+import com.cydeo.enums.ChangeType;
+import com.cydeo.event.ProjectEvent;
+import com.cydeo.event.TaskEvent;
+import com.cydeo.event.UserEvent;
+import com.cydeo.repository.TaskRepository;
+import com.cydeo.service.CacheCoherenceService;
+import com.cydeo.service.TaskAnalyticsService;
+import com.cydeo.service.TaskSearchService;
+import com.cydeo.service.TimelineService;
+import com.cydeo.service.TypeaheadService;
+import com.cydeo.support.InvalidationChannel;
+import com.cydeo.support.ResponseCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.sql.DriverManager;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Keeps the local caches of every node in line with the writes of the others. The keys are the aggregate names; a
+// node evicts the responses that depend on the aggregate and rebuilds its in-memory indexes (typeahead, task search,
+// timeline, analytics) that are built from it. Task writes are the frequent ones, so their key also carries the task
+// id ("tasks:<id>") and only that row is reloaded into the task indexes. Its own writes are already applied by the
+// local event listeners.
+@Service
+@ConditionalOnProperty(name = "ticketing.cache-coherence.enabled", havingValue = "true")
+@Slf4j
+public class CacheCoherenceServiceImpl implements CacheCoherenceService, SmartLifecycle {
+
+    private final ObjectProvider<ResponseCache<Object>> responseCache;
+    private final TaskRepository taskRepository;
+    private final ObjectProvider<TaskSearchService> taskSearchService;
+    private final ObjectProvider<TaskAnalyticsService> taskAnalyticsService;
+    private final Executor backgroundExecutor;
+    private final Map<Aggregate, List<IndexRebuild>> rebuildsByAggregate = new EnumMap<>(Aggregate.class);
+    private final List<IndexRebuild> rebuilds;
+    private final AtomicBoolean synced = new AtomicBoolean();
+    private final InvalidationChannel channel;
+
+    public CacheCoherenceServiceImpl(DataSource dataSource, DataSourceProperties dataSourceProperties,
+                                     ObjectProvider<ResponseCache<Object>> responseCache, MeterRegistry meterRegistry, TaskRepository taskRepository,
+                                     ObjectProvider<TypeaheadService> typeaheadService, ObjectProvider<TaskSearchService> taskSearchService,
+                                     ObjectProvider<TimelineService> timelineService, ObjectProvider<TaskAnalyticsService> taskAnalyticsService,
+                                     @Qualifier("backgroundExecutor") ObjectProvider<Executor> backgroundExecutor,
+                                     @Value("${ticketing.cache-coherence.channel:ticketing_invalidation}") String channelName,
+                                     @Value("${ticketing.cache-coherence.poll-ms:500}") long pollMillis,
+                                     @Value("${ticketing.cache-coherence.reconnect-ms:2000}") long reconnectMillis) {
+        this.responseCache = responseCache;
+        this.taskRepository = taskRepository;
+        this.taskSearchService = taskSearchService;
+        this.taskAnalyticsService = taskAnalyticsService;
+        this.backgroundExecutor = backgroundExecutor.getIfAvailable(() -> Runnable::run);
+
+        IndexRebuild typeahead = new IndexRebuild("Typeahead index", () -> typeaheadService.ifAvailable(TypeaheadService::rebuild));
+        IndexRebuild taskSearch = new IndexRebuild("Task search index", () -> taskSearchService.ifAvailable(TaskSearchService::rebuild));
+        IndexRebuild timeline = new IndexRebuild("Project timeline index", () -> timelineService.ifAvailable(TimelineService::rebuild));
+        IndexRebuild analytics = new IndexRebuild("Task analytics store", () -> taskAnalyticsService.ifAvailable(TaskAnalyticsService::rebuild));
+        rebuildsByAggregate.put(Aggregate.PROJECT, List.of(typeahead, timeline));
+        rebuildsByAggregate.put(Aggregate.TASK, List.of(taskSearch, analytics));
+        rebuildsByAggregate.put(Aggregate.USER, List.of(typeahead));
+        rebuildsByAggregate.put(Aggregate.ROLE, List.of(typeahead));
+        this.rebuilds = List.of(typeahead, taskSearch, timeline, analytics);
+
+        // Its own connection rather than a pooled one, it is held for as long as the node runs
+        this.channel = new InvalidationChannel(channelName, new JdbcTemplate(dataSource),
+                () -> DriverManager.getConnection(dataSourceProperties.determineUrl(), dataSourceProperties.determineUsername(),
+                        dataSourceProperties.determinePassword()),
+                pollMillis, reconnectMillis, this::evict, this::evictAll);
+
+        FunctionCounter.builder("ticketing.cache-coherence.published", channel, InvalidationChannel::getPublished).register(meterRegistry);
+        FunctionCounter.builder("ticketing.cache-coherence.received", channel, InvalidationChannel::getReceived).register(meterRegistry);
+        FunctionCounter.builder("ticketing.cache-coherence.resyncs", channel, InvalidationChannel::getResyncs).register(meterRegistry);
+        Gauge.builder("ticketing.cache-coherence.connected", channel, c -> c.isConnected() ? 1 : 0).register(meterRegistry);
+    }
+
+    // Listens only once the context has refreshed, the callbacks reach into beans that have to be ready by then
+    @Override
+    public void start() {
+        channel.start();
+    }
+
+    @Override
+    public void stop() {
+        try {
+            channel.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return channel.isRunning();
+    }
+
+    @Override
+    public void publish(Aggregate aggregate) {
+        channel.publish(aggregate.getValue());
+    }
+
+    // Before commit, so the NOTIFY is part of the write and goes out exactly when it commits
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onProjectEvent(ProjectEvent event) {
+        publish(Aggregate.PROJECT);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onTaskEvent(TaskEvent event) {
+        channel.publish(Aggregate.TASK.getValue() + ":" + event.getTaskId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onUserEvent(UserEvent event) {
+        publish(Aggregate.USER);
+    }
+
+    // A notification that only names the aggregate reloads the indexes built from it as a whole
+    void evict(String key) {
+        int separator = key.indexOf(':');
+        String name = separator < 0 ? key : key.substring(0, separator);
+        Arrays.stream(Aggregate.values())
+                .filter(aggregate -> aggregate.getValue().equals(name))
+                .findFirst()
+                .ifPresent(aggregate -> {
+                    responseCache.ifAvailable(cache -> cache.invalidate(aggregate));
+                    if (aggregate == Aggregate.TASK && separator >= 0) {
+                        reloadTask(key.substring(separator + 1));
+                    } else {
+                        rebuildsByAggregate.get(aggregate).forEach(this::schedule);
+                    }
+                });
+    }
+
+    // One primary key read on the listener thread, so the writes to a task are applied in the order they committed.
+    // The row goes through the same per-event path as a local write; a row that is gone or soft deleted is a delete.
+    private void reloadTask(String id) {
+        try {
+            Long taskId = Long.valueOf(id);
+            TaskNodeDTO task = taskRepository.findNodeById(taskId);
+            TaskEvent event = task == null
+                    ? new TaskEvent(ChangeType.DELETED, taskId, null, null, null, null, null, null, null, null, LocalDateTime.now())
+                    : new TaskEvent(ChangeType.UPDATED, taskId, task.getProjectId(), task.getAssignedEmployeeId(), null, null,
+                            task.getTaskStatus(), task.getTaskSubject(), task.getTaskDetail(), task.getAssignedDate(), LocalDateTime.now());
+            taskSearchService.ifAvailable(service -> service.onTaskEvent(event));
+            taskAnalyticsService.ifAvailable(service -> service.onTaskEvent(event));
+        } catch (RuntimeException e) {
+            log.warn("Task {} could not be reloaded after a remote write, rebuilding the task indexes: {}", id, e.getMessage());
+            rebuildsByAggregate.get(Aggregate.TASK).forEach(this::schedule);
+        }
+    }
+
+    // The first connect happens at startup, where the indexes are being built anyway
+    void evictAll() {
+        responseCache.ifAvailable(cache -> Arrays.stream(Aggregate.values()).forEach(cache::invalidate));
+        if (synced.getAndSet(true)) rebuilds.forEach(this::schedule);
+    }
+
+    // One queued rebuild covers every notification that arrives before it starts, so a burst of remote writes costs
+    // at most one rebuild in progress plus one more
+    private void schedule(IndexRebuild rebuild) {
+        if (!rebuild.queued.compareAndSet(false, true)) return;
+        try {
+            backgroundExecutor.execute(() -> {
+                rebuild.queued.set(false);
+                try {
+                    rebuild.action.run();
+                } catch (RuntimeException e) {
+                    log.error("{} could not be rebuilt after a remote write", rebuild.name, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rebuild.queued.set(false);
+            log.warn("{} rebuild after a remote write was rejected: {}", rebuild.name, e.getMessage());
+        }
+    }
+
+    private static final class IndexRebuild {
+
+        private final String name;
+        private final Runnable action;
+        private final AtomicBoolean queued = new AtomicBoolean();
+
+        private IndexRebuild(String name, Runnable action) {
+            this.name = name;
+            this.action = action;
+        }
+
+    }
+
+}
@@ -0,0 +1,81 @@
+package com.cydeo.service.impl;
+
+import com.cydeo.dto.ProjectNodeDTO;
+import com.cydeo.dto.RoleDTO;
+import com.cydeo.dto.TaskNodeDTO;
+import com.cydeo.dto.UserNodeDTO;
+import com.cydeo.repository.ProjectRepository;
+import com.cydeo.repository.RoleRepository;
+import com.cydeo.repository.TaskRepository;
+import com.cydeo.repository.UserRepository;
+import com.cydeo.service.GraphQLService;
+import com.cydeo.support.InQueries;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@Transactional(readOnly = true)
+public class GraphQLServiceImpl implements GraphQLService {
+
+    private final ProjectRepository projectRepository;
+    private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+    private final RoleRepository roleRepository;
+
+    public GraphQLServiceImpl(ProjectRepository projectRepository, TaskRepository taskRepository, UserRepository userRepository, RoleRepository roleRepository) {
+        this.projectRepository = projectRepository;
+        this.taskRepository = taskRepository;
+        this.userRepository = userRepository;
+        this.roleRepository = roleRepository;
+    }
+
+    @Override
+    public List<ProjectNodeDTO> listAllProjects() {
+        return projectRepository.findAllNodes();
+    }
+
+    @Override
+    public ProjectNodeDTO findProjectByCode(String projectCode) {
+        return projectRepository.findNodeByProjectCode(projectCode);
+    }
+
+    @Override
+    public List<TaskNodeDTO> listAllTasks() {
+        return taskRepository.findAllNodes();
+    }
+
+    @Override
+    public TaskNodeDTO findTaskById(Long id) {
+        return taskRepository.findNodeById(id);
+    }
+
+    @Override
+    public List<UserNodeDTO> listAllUsers() {
+        return userRepository.findAllNodes();
+    }
+
+    @Override
+    public UserNodeDTO findUserByUserName(String userName) {
+        return userRepository.findNodeByUserName(userName);
+    }
+
+    @Override
+    public Map<Long, ProjectNodeDTO> findProjectsByIds(Collection<Long> ids) {
+        return InQueries.findInChunks(ids, projectRepository::findAllNodesByIdIn, ProjectNodeDTO::getId);
+    }
+
+    @Override
+    public Map<Long, UserNodeDTO> findUsersByIds(Collection<Long> ids) {
+        return InQueries.findInChunks(ids, userRepository::findAllNodesByIdIn, UserNodeDTO::getId);
+    }
+
+    @Override
+    public Map<Long, RoleDTO> findRolesByIds(Collection<Long> ids) {
+        return InQueries.findInChunks(ids, roleRepository::findAllDtosByIdIn, RoleDTO::getId);
+    }
+
+}
@@ -3,17 +3,26 @@ package com.cydeo.service.impl;
 import com.cydeo.config.KeycloakProperties;
 import com.cydeo.dto.UserDTO;
 import com.cydeo.service.KeycloakService;
+import org.jboss.resteasy.client.jaxrs.ResteasyClientBuilder;
 import org.keycloak.admin.client.Keycloak;
+import org.keycloak.admin.client.KeycloakBuilder;
 import org.keycloak.admin.client.resource.RealmResource;
 import org.keycloak.admin.client.resource.UsersResource;
 import org.keycloak.representations.idm.ClientRepresentation;
 import org.keycloak.representations.idm.CredentialRepresentation;
 import org.keycloak.representations.idm.RoleRepresentation;
 import org.keycloak.representations.idm.UserRepresentation;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
 import javax.ws.rs.core.Response;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 import static java.util.Arrays.asList;
 import static org.keycloak.admin.client.CreatedResponseUtil.getCreatedId;
@@ -23,15 +32,67 @@ public class KeycloakServiceImpl implements KeycloakService {
 
 
     private final KeycloakProperties keycloakProperties;
+    private final ThreadPoolTaskExecutor keycloakProvisioningExecutor;
 
-    public KeycloakServiceImpl(KeycloakProperties keycloakProperties) {
+    public KeycloakServiceImpl(KeycloakProperties keycloakProperties, @Qualifier("keycloakProvisioningExecutor") ThreadPoolTaskExecutor keycloakProvisioningExecutor) {
 
         this.keycloakProperties = keycloakProperties;
+        this.keycloakProvisioningExecutor = keycloakProvisioningExecutor;
     }
 
     @Override
     public Response userCreate(UserDTO userDTO) {
 
+        Keycloak keycloak = getKeycloakInstance(); // If you don't have this, you gonna get error
+
+        RealmResource realmResource = keycloak.realm(keycloakProperties.getRealm());
+        ClientRepresentation appClient = realmResource.clients()
+                .findByClientId(keycloakProperties.getClientId()).get(0);
+
+        RoleRepresentation userClientRole = realmResource.clients().get(appClient.getId()) //
+                .roles().get(userDTO.getRole().getDescription()).toRepresentation();
+
+        Response result = createUser(realmResource, appClient, userClientRole, userDTO);
+
+        keycloak.close();
+        return result;
+    }
+
+    @Override
+    public List<String> userCreateAll(List<UserDTO> userDTOs) {
+
+        // One admin client (one token, pooled connections) is shared by all workers instead of logging in once per user
+        Keycloak keycloak = getKeycloakInstance(keycloakProvisioningExecutor.getMaxPoolSize());
+
+        try {
+            RealmResource realmResource = keycloak.realm(keycloakProperties.getRealm());
+            ClientRepresentation appClient = realmResource.clients()
+                    .findByClientId(keycloakProperties.getClientId()).get(0);
+
+            Map<String, RoleRepresentation> clientRoles = new ConcurrentHashMap<>();
+
+            List<CompletableFuture<String>> results = new ArrayList<>();
+            for (UserDTO userDTO : userDTOs) {
+                results.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        RoleRepresentation userClientRole = clientRoles.computeIfAbsent(userDTO.getRole().getDescription(),
+                                role -> realmResource.clients().get(appClient.getId()).roles().get(role).toRepresentation());
+                        createUser(realmResource, appClient, userClientRole, userDTO).close();
+                        return null;
+                    } catch (Exception e) {
+                        return e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+                    }
+                }, keycloakProvisioningExecutor));
+            }
+
+            return results.stream().map(CompletableFuture::join).collect(Collectors.toList());
+        } finally {
+            keycloak.close();
+        }
+    }
+
+    private Response createUser(RealmResource realmResource, ClientRepresentation appClient, RoleRepresentation userClientRole, UserDTO userDTO) {
+
         CredentialRepresentation credential = new CredentialRepresentation();
         credential.setType(CredentialRepresentation.PASSWORD);
         credential.setTemporary(false);
@@ -46,27 +107,16 @@ public class KeycloakServiceImpl implements KeycloakService {
         keycloakUser.setEmailVerified(true);
         keycloakUser.setEnabled(true);
 
-
-        Keycloak keycloak = getKeycloakInstance(); // If you don't have this, you gonna get error
-
-        RealmResource realmResource = keycloak.realm(keycloakProperties.getRealm());
         UsersResource usersResource = realmResource.users();
 
         // Create Keycloak user
         Response result = usersResource.create(keycloakUser);
 
         String userId = getCreatedId(result);
-        ClientRepresentation appClient = realmResource.clients()
-                .findByClientId(keycloakProperties.getClientId()).get(0);
-
-        RoleRepresentation userClientRole = realmResource.clients().get(appClient.getId()) //
-                .roles().get(userDTO.getRole().getDescription()).toRepresentation();
 
         realmResource.users().get(userId).roles().clientLevel(appClient.getId())
                 .add(List.of(userClientRole));
 
-
-        keycloak.close();
         return result;
     }
 
@@ -91,4 +141,15 @@ public class KeycloakServiceImpl implements KeycloakService {
                 , keycloakProperties.getMasterUserPswd(), keycloakProperties.getMasterClient());
     }
 
+    private Keycloak getKeycloakInstance(int connectionPoolSize){
+        return KeycloakBuilder.builder()
+                .serverUrl(keycloakProperties.getAuthServerUrl())
+                .realm(keycloakProperties.getMasterRealm())
+                .username(keycloakProperties.getMasterUser())
+                .password(keycloakProperties.getMasterUserPswd())
+                .clientId(keycloakProperties.getMasterClient())
+                .resteasyClient(new ResteasyClientBuilder().connectionPoolSize(connectionPoolSize).build())
+                .build();
+    }
+
 }
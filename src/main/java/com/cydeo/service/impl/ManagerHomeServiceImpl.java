@@ -0,0 +1,107 @@
+package com.cydeo.service.impl;
+
+import com.cydeo.dto.ManagerHomeDTO;
+import com.cydeo.dto.ProjectDTO;
+import com.cydeo.dto.RoleDTO;
+import com.cydeo.dto.TaskDTO;
+import com.cydeo.dto.UserDTO;
+import com.cydeo.service.ManagerHomeService;
+import com.cydeo.service.ProjectService;
+import com.cydeo.service.RoleService;
+import com.cydeo.service.TaskService;
+import com.cydeo.service.UserService;
+import lombok.extern.slf4j.Slf4j;
+import org.keycloak.adapters.springsecurity.account.SimpleKeycloakAccount;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// The parts of the manager's landing page do not depend on each other, so they run at the same time and the page
+// takes as long as the slowest one. Each part gets its own transaction and connection on a worker thread that sees
+// the caller's security context (the services and the replica routing read it). A part that fails or runs out of
+// time is left out and named in unavailable instead of failing the page.
+@Service
+@Slf4j
+public class ManagerHomeServiceImpl implements ManagerHomeService {
+
+    private final ProjectService projectService;
+    private final TaskService taskService;
+    private final UserService userService;
+    private final RoleService roleService;
+    private final PlatformTransactionManager transactionManager;
+    private final Executor executor;
+    private final long timeoutMillis;
+
+    public ManagerHomeServiceImpl(ProjectService projectService, TaskService taskService, UserService userService, RoleService roleService,
+                                  PlatformTransactionManager transactionManager, @Qualifier("managerHomeExecutor") Executor executor,
+                                  @Value("${ticketing.manager-home.branch-timeout-ms:2000}") long timeoutMillis) {
+        this.projectService = projectService;
+        this.taskService = taskService;
+        this.userService = userService;
+        this.roleService = roleService;
+        this.transactionManager = transactionManager;
+        this.executor = new DelegatingSecurityContextExecutor(executor);
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    public ManagerHomeDTO managerHome() {
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SimpleKeycloakAccount details = (SimpleKeycloakAccount) authentication.getDetails();
+        String username = details.getKeycloakSecurityContext().getToken().getPreferredUsername();
+
+        CompletableFuture<List<ProjectDTO>> projects = branch(projectService::listAllProjectDetails);
+        CompletableFuture<List<TaskDTO>> openTasks = branch(() -> taskService.listAllNonCompletedByProjectManager(userService.findByUserName(username)));
+        CompletableFuture<List<UserDTO>> employees = branch(() -> userService.listAllByRole("Employee"));
+        CompletableFuture<List<RoleDTO>> roles = branch(roleService::listAllRoles);
+
+        List<String> unavailable = new ArrayList<>();
+        return new ManagerHomeDTO(join("projects", projects, unavailable), join("openTasks", openTasks, unavailable),
+                join("employees", employees, unavailable), join("roles", roles, unavailable), unavailable);
+    }
+
+    // The timeout of every part starts when it is handed to the executor, they all start together
+    private <T> CompletableFuture<T> branch(Supplier<T> call) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        return CompletableFuture.supplyAsync(() -> withinDeadline(call, deadline), executor).orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // orTimeout only stops waiting for a part, the part itself would run on. So a part still queued when its time is up
+    // never starts, and the rest of the deadline becomes the timeout of its transaction, which Hibernate hands to every
+    // statement as its JDBC query timeout (whole seconds, rounded up) instead of the pool's statement timeout.
+    private <T> T withinDeadline(Supplier<T> call, long deadline) {
+        long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+        if (remainingMillis <= 0) throw new CancellationException("Timed out before it started");
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.setTimeout((int) TimeUnit.MILLISECONDS.toSeconds(remainingMillis + 999));
+        return transaction.execute(status -> call.get());
+    }
+
+    private static <T> T join(String name, CompletableFuture<T> branch, List<String> unavailable) {
+        try {
+            return branch.join();
+        } catch (CompletionException e) {
+            log.warn("Manager home is served without {}: {}", name, e.getCause().toString());
+            unavailable.add(name);
+            return null;
+        }
+    }
+
+}
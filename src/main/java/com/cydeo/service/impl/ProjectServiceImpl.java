@@ -1,10 +1,15 @@
 package com.cydeo.service.impl;
 
+import com.cydeo.annotation.SingleFlight;
+import com.cydeo.annotation.WorkloadClass;
 import com.cydeo.dto.ProjectDTO;
 import com.cydeo.dto.UserDTO;
 import com.cydeo.entity.Project;
 import com.cydeo.entity.User;
+import com.cydeo.enums.ChangeType;
 import com.cydeo.enums.Status;
+import com.cydeo.enums.Workload;
+import com.cydeo.event.ProjectEvent;
 import com.cydeo.mapper.ProjectMapper;
 import com.cydeo.mapper.UserMapper;
 import com.cydeo.repository.ProjectRepository;
@@ -12,11 +17,14 @@ import com.cydeo.service.ProjectService;
 import com.cydeo.service.TaskService;
 import com.cydeo.service.UserService;
 import org.keycloak.adapters.springsecurity.account.SimpleKeycloakAccount;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -28,22 +36,26 @@ public class ProjectServiceImpl implements ProjectService {
     private final UserService userService;
     private final UserMapper userMapper;
     private final TaskService taskService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public ProjectServiceImpl(ProjectRepository projectRepository, ProjectMapper projectMapper, UserService userService, UserMapper userMapper, TaskService taskService) {
+    public ProjectServiceImpl(ProjectRepository projectRepository, ProjectMapper projectMapper, UserService userService, UserMapper userMapper, TaskService taskService, ApplicationEventPublisher eventPublisher) {
         this.projectRepository = projectRepository;
         this.projectMapper = projectMapper;
         this.userService = userService;
         this.userMapper = userMapper;
         this.taskService = taskService;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ProjectDTO getByProjectCode(String code) {
         Project project = projectRepository.findByProjectCode(code);
         return projectMapper.convertToDto(project);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ProjectDTO> listAllProjects() {
 
         List<Project> list = projectRepository.findAll(Sort.by("projectCode"));
@@ -52,14 +64,18 @@ public class ProjectServiceImpl implements ProjectService {
     }
 
     @Override
+    @Transactional
     public void save(ProjectDTO dto) {
 
         dto.setProjectStatus(Status.OPEN);
         Project project = projectMapper.convertToEntity(dto);
-        projectRepository.save(project);
+        Project savedProject = projectRepository.save(project);
+
+        publishEvent(ChangeType.CREATED, savedProject);
     }
 
     @Override
+    @Transactional
     public void update(ProjectDTO dto) {
 
         Project project = projectRepository.findByProjectCode(dto.getProjectCode());
@@ -70,34 +86,44 @@ public class ProjectServiceImpl implements ProjectService {
 
         convertedProject.setProjectStatus(project.getProjectStatus());
 
-        projectRepository.save(convertedProject);
+        Project savedProject = projectRepository.save(convertedProject);
 
+        publishEvent(ChangeType.UPDATED, savedProject);
 
     }
 
     @Override
+    @Transactional
     public void delete(String code) {
         Project project = projectRepository.findByProjectCode(code);
         project.setIsDeleted(true);
 
         project.setProjectCode(project.getProjectCode() + "-" + project.getId());  // SP03-4
 
-        projectRepository.save(project);
+        Project savedProject = projectRepository.save(project);
+
+        publishEvent(ChangeType.DELETED, savedProject);
 
         taskService.deleteByProject(projectMapper.convertToDto(project));
 
     }
 
     @Override
+    @Transactional
     public void complete(String code) {
         Project project = projectRepository.findByProjectCode(code);
         project.setProjectStatus(Status.COMPLETE);
-        projectRepository.save(project);
+        Project savedProject = projectRepository.save(project);
+
+        publishEvent(ChangeType.COMPLETED, savedProject);
 
         taskService.completeByProject(projectMapper.convertToDto(project));
     }
 
     @Override
+    @SingleFlight("manager-project-status")
+    @Transactional(readOnly = true)
+    @WorkloadClass(Workload.REPORTING)
     public List<ProjectDTO> listAllProjectDetails() {
 
         // day 36 - 2:25:00
@@ -126,10 +152,17 @@ public class ProjectServiceImpl implements ProjectService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ProjectDTO> listAllNonCompletedByAssignedManager(UserDTO assignedManager) {
         List<Project> projects = projectRepository
                 .findAllByProjectStatusIsNotAndAssignedManager(Status.COMPLETE, userMapper.convertToEntity(assignedManager));
         return projects.stream().map(projectMapper::convertToDto).collect(Collectors.toList());
     }
 
+    private void publishEvent(ChangeType type, Project project) {
+        eventPublisher.publishEvent(new ProjectEvent(type, project.getId(), project.getProjectCode(), project.getProjectName(),
+                project.getAssignedManager() == null ? null : project.getAssignedManager().getId(),
+                project.getProjectStatus(), project.getStartDate(), project.getEndDate(), LocalDateTime.now()));
+    }
+
 }
@@ -0,0 +1,213 @@
+package com.cydeo.service.impl;
+
+import com.cydeo.dto.CompactListDTO;
+import com.cydeo.entity.Project;
+import com.cydeo.entity.Role;
+import com.cydeo.entity.Task;
+import com.cydeo.entity.User;
+import com.cydeo.enums.Aggregate;
+import com.cydeo.exception.BadRequestException;
+import com.cydeo.exception.TicketingProjectException;
+import com.cydeo.service.ProjectionService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.*;
+import java.util.*;
+import java.util.stream.Collectors;
+
+// Sparse fieldsets for the list endpoints. The requested paths become one tuple query that selects only those
+// columns and joins only the references they go through; rows come back as nested maps holding just the requested
+// keys. A reference always brings its id along: a null id means there is no reference, and compact mode keys on it.
+@Service
+@Transactional(readOnly = true)
+public class ProjectionServiceImpl implements ProjectionService {
+
+    private static final Shape ROLE = new Shape(Role.class, null, "id", "description");
+    private static final Shape USER = new Shape(User.class, "users", "id", "firstName", "lastName", "userName", "enabled", "phone", "gender")
+            .reference("role", ROLE);
+    private static final Shape PROJECT = new Shape(Project.class, "projects", "id", "projectCode", "projectName", "startDate", "endDate", "projectDetail", "projectStatus")
+            .reference("assignedManager", USER);
+    private static final Shape TASK = new Shape(Task.class, null, "id", "taskSubject", "taskDetail", "taskStatus", "assignedDate")
+            .reference("project", PROJECT)
+            .reference("assignedEmployee", USER);
+
+    private final EntityManager entityManager;
+
+    public ProjectionServiceImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<Map<String, Object>> list(Aggregate aggregate, List<String> fields) throws TicketingProjectException {
+        Shape shape = shapeOf(aggregate);
+        List<String> columns = columns(shape, fields);
+        return query(aggregate, shape, columns).stream()
+                .map(tuple -> toRow(tuple, columns))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public CompactListDTO listCompact(Aggregate aggregate, List<String> fields) throws TicketingProjectException {
+        List<Map<String, Object>> items = list(aggregate, fields);
+        Map<String, Map<Long, Map<String, Object>>> sideTables = Map.of(
+                PROJECT.sideTable, new LinkedHashMap<>(),
+                USER.sideTable, new LinkedHashMap<>());
+        Shape shape = shapeOf(aggregate);
+        items.forEach(item -> compact(item, shape, sideTables));
+        return new CompactListDTO(items, sideTables.get(PROJECT.sideTable), sideTables.get(USER.sideTable));
+    }
+
+    private static Shape shapeOf(Aggregate aggregate) throws TicketingProjectException {
+        switch (aggregate) {
+            case TASK: return TASK;
+            case PROJECT: return PROJECT;
+            case USER: return USER;
+            default: throw new BadRequestException("Fields can not be selected for " + aggregate.getValue());
+        }
+    }
+
+    // Requested paths checked against the shape and expanded to column paths, in request order
+    private static List<String> columns(Shape shape, List<String> fields) throws TicketingProjectException {
+        Set<String> columns = new LinkedHashSet<>();
+        for (String field : fields == null ? List.<String>of() : fields) {
+            String path = field.trim();
+            if (path.isEmpty()) continue;
+
+            Shape current = shape;
+            String prefix = "";
+            String[] segments = path.split("\\.");
+            for (int i = 0; i < segments.length; i++) {
+                boolean last = i == segments.length - 1;
+                Shape reference = current.references.get(segments[i]);
+                if (reference != null) {
+                    prefix += segments[i] + ".";
+                    columns.add(prefix + "id");
+                    current = reference;
+                    if (last) addColumns(current, prefix, columns, false);
+                } else if (last && current.columns.contains(segments[i])) {
+                    columns.add(prefix + segments[i]);
+                } else {
+                    throw new BadRequestException("Unknown field: " + path);
+                }
+            }
+        }
+        if (columns.isEmpty()) addColumns(shape, "", columns, true);
+        return new ArrayList<>(columns);
+    }
+
+    private static void addColumns(Shape shape, String prefix, Set<String> columns, boolean withReferences) {
+        shape.columns.forEach(column -> columns.add(prefix + column));
+        if (withReferences) {
+            shape.references.forEach((name, reference) -> addColumns(reference, prefix + name + ".", columns, true));
+        }
+    }
+
+    private List<Tuple> query(Aggregate aggregate, Shape shape, List<String> columns) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<?> root = query.from(shape.entity);
+
+        Map<String, From<?, ?>> joins = new HashMap<>();
+        joins.put("", root);
+        List<Selection<?>> selections = new ArrayList<>();
+        for (String column : columns) {
+            int dot = column.lastIndexOf('.');
+            selections.add(join(joins, dot < 0 ? "" : column.substring(0, dot)).get(column.substring(dot + 1)));
+        }
+        query.multiselect(selections);
+
+        // same rows and order as the full list endpoints
+        switch (aggregate) {
+            case PROJECT:
+                query.orderBy(builder.asc(root.get("projectCode")));
+                break;
+            case USER:
+                query.where(builder.isFalse(root.get("isDeleted"))).orderBy(builder.desc(root.get("firstName")));
+                break;
+            default:
+                query.orderBy(builder.asc(root.get("id")));
+        }
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    private static From<?, ?> join(Map<String, From<?, ?>> joins, String path) {
+        From<?, ?> from = joins.get(path);
+        if (from == null) {
+            int dot = path.lastIndexOf('.');
+            from = join(joins, dot < 0 ? "" : path.substring(0, dot)).join(path.substring(dot + 1), JoinType.LEFT);
+            joins.put(path, from);
+        }
+        return from;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> toRow(Tuple tuple, List<String> columns) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            String[] segments = columns.get(i).split("\\.");
+            Map<String, Object> node = row;
+            for (int s = 0; s < segments.length - 1; s++) {
+                node = (Map<String, Object>) node.computeIfAbsent(segments[s], key -> new LinkedHashMap<String, Object>());
+            }
+            node.put(segments[segments.length - 1], tuple.get(i));
+        }
+        removeMissingReferences(row);
+        return row;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void removeMissingReferences(Map<String, Object> node) {
+        node.replaceAll((key, value) -> {
+            if (!(value instanceof Map)) return value;
+            Map<String, Object> reference = (Map<String, Object>) value;
+            if (reference.get("id") == null) return null;
+            removeMissingReferences(reference);
+            return reference;
+        });
+    }
+
+    // Replaces projects and users by their id and moves them to the side tables; a user that is both a manager and
+    // an employee in the list ends up with the columns of both selections. Roles are small enough to stay inline.
+    @SuppressWarnings("unchecked")
+    private static void compact(Map<String, Object> node, Shape shape, Map<String, Map<Long, Map<String, Object>>> sideTables) {
+        shape.references.forEach((name, reference) -> {
+            Object value = node.get(name);
+            if (!(value instanceof Map)) return;
+
+            Map<String, Object> referenced = (Map<String, Object>) value;
+            compact(referenced, reference, sideTables);
+            if (reference.sideTable == null) return;
+
+            Long id = (Long) referenced.get("id");
+            node.put(name, id);
+            sideTables.get(reference.sideTable).merge(id, referenced, (listed, other) -> {
+                listed.putAll(other);
+                return listed;
+            });
+        });
+    }
+
+    private static final class Shape {
+
+        private final Class<?> entity;
+        private final String sideTable;
+        private final List<String> columns;
+        private final Map<String, Shape> references = new LinkedHashMap<>();
+
+        private Shape(Class<?> entity, String sideTable, String... columns) {
+            this.entity = entity;
+            this.sideTable = sideTable;
+            this.columns = List.of(columns);
+        }
+
+        private Shape reference(String name, Shape shape) {
+            references.put(name, shape);
+            return this;
+        }
+
+    }
+
+}
@@ -7,6 +7,7 @@ import com.cydeo.mapper.RoleMapper;
 import com.cydeo.repository.RoleRepository;
 import com.cydeo.service.RoleService;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -25,6 +26,7 @@ public class RoleServiceImpl implements RoleService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<RoleDTO> listAllRoles() {
         List<Role> roleList = roleRepository.findAll();
 //        return roleList.stream().map(roleMapper::convertToDto).collect(Collectors.toList());
@@ -33,6 +35,7 @@ public class RoleServiceImpl implements RoleService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public RoleDTO findById(Long id) {
 
 
@@ -0,0 +1,392 @@
+package com.cydeo.service.impl;
+
+import com.cydeo.annotation.WorkloadClass;
+import com.cydeo.dto.RollupRunDTO;
+import com.cydeo.dto.RollupVerificationDTO;
+import com.cydeo.dto.ThroughputDTO;
+import com.cydeo.entity.Project;
+import com.cydeo.entity.User;
+import com.cydeo.enums.Status;
+import com.cydeo.enums.Workload;
+import com.cydeo.repository.ProjectRepository;
+import com.cydeo.repository.TaskDailyRollupRepository;
+import com.cydeo.repository.UserRepository;
+import com.cydeo.service.RollupService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Keeps task_daily_rollups in step with the tasks table. A job walks the tasks changed since the last run in
+// (last_update_date_time, id) order; for every task it takes back what task_rollup_entries says the task counted
+// for before and adds what it counts for now, so re-applying a task is harmless and no change is counted twice.
+// A task is "opened" on the day it was inserted and "completed" on the day the job first saw it COMPLETE.
+@Service
+@Slf4j
+public class RollupServiceImpl implements RollupService {
+
+    private static final long LOCK_KEY = 0x726f6c6c7570L;   // pg advisory lock, one writer across instances
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final int MAX_REPORTED = 100;
+
+    private static final String CHANGED_TASKS =
+            "SELECT id, project_id, assigned_employee_id, task_status, insert_date_time, last_update_date_time, is_deleted FROM tasks " +
+            "WHERE last_update_date_time > ? OR (last_update_date_time = ? AND id > ?) " +
+            "ORDER BY last_update_date_time, id LIMIT ?";
+
+    private static final String UPSERT_ROLLUP =
+            "INSERT INTO task_daily_rollups (rollup_day, project_id, employee_id, opened, completed) VALUES (?, ?, ?, ?, ?) " +
+            "ON CONFLICT (rollup_day, project_id, employee_id) DO UPDATE SET " +
+            "opened = task_daily_rollups.opened + EXCLUDED.opened, completed = task_daily_rollups.completed + EXCLUDED.completed";
+
+    private static final String UPSERT_ENTRY =
+            "INSERT INTO task_rollup_entries (task_id, counted, open_day, project_id, employee_id, completed_day, seen_update) VALUES (?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (task_id) DO UPDATE SET counted = EXCLUDED.counted, open_day = EXCLUDED.open_day, project_id = EXCLUDED.project_id, " +
+            "employee_id = EXCLUDED.employee_id, completed_day = EXCLUDED.completed_day, seen_update = EXCLUDED.seen_update";
+
+    private static final String TASK_MISMATCHES =
+            "SELECT t.id FROM tasks t LEFT JOIN task_rollup_entries e ON e.task_id = t.id " +
+            "WHERE t.insert_date_time >= :fromTime AND t.insert_date_time < :toTime AND (e.task_id IS NULL " +
+            "OR e.counted = COALESCE(t.is_deleted, false) " +
+            "OR (e.counted AND (e.open_day <> CAST(t.insert_date_time AS DATE) OR e.project_id <> COALESCE(t.project_id, 0) " +
+            "OR e.employee_id <> COALESCE(t.assigned_employee_id, 0) OR (e.completed_day IS NOT NULL) <> (t.task_status = 'COMPLETE')))) " +
+            "ORDER BY t.id LIMIT " + MAX_REPORTED;
+
+    private static final String OPENED_MISMATCHES =
+            "SELECT COALESCE(r.rollup_day, x.rollup_day) AS rollup_day, COALESCE(r.project_id, x.project_id) AS project_id, " +
+            "COALESCE(r.employee_id, x.employee_id) AS employee_id, COALESCE(r.opened, 0) AS rolled_up, COALESCE(x.opened, 0) AS expected " +
+            "FROM (SELECT rollup_day, project_id, employee_id, opened FROM task_daily_rollups WHERE rollup_day BETWEEN :from AND :to AND opened <> 0) r " +
+            "FULL OUTER JOIN (SELECT CAST(insert_date_time AS DATE) AS rollup_day, COALESCE(project_id, 0) AS project_id, " +
+            "COALESCE(assigned_employee_id, 0) AS employee_id, COUNT(*) AS opened FROM tasks " +
+            "WHERE COALESCE(is_deleted, false) = false AND insert_date_time >= :fromTime AND insert_date_time < :toTime GROUP BY 1, 2, 3) x " +
+            "ON r.rollup_day = x.rollup_day AND r.project_id = x.project_id AND r.employee_id = x.employee_id " +
+            "WHERE COALESCE(r.opened, 0) <> COALESCE(x.opened, 0) ORDER BY 1, 2, 3 LIMIT " + MAX_REPORTED;
+
+    private static final String COMPLETED_MISMATCHES =
+            "SELECT COALESCE(r.rollup_day, x.rollup_day) AS rollup_day, COALESCE(r.project_id, x.project_id) AS project_id, " +
+            "COALESCE(r.employee_id, x.employee_id) AS employee_id, COALESCE(r.completed, 0) AS rolled_up, COALESCE(x.completed, 0) AS expected " +
+            "FROM (SELECT rollup_day, project_id, employee_id, completed FROM task_daily_rollups WHERE rollup_day BETWEEN :from AND :to AND completed <> 0) r " +
+            "FULL OUTER JOIN (SELECT completed_day AS rollup_day, project_id, employee_id, COUNT(*) AS completed FROM task_rollup_entries " +
+            "WHERE counted AND completed_day BETWEEN :from AND :to GROUP BY 1, 2, 3) x " +
+            "ON r.rollup_day = x.rollup_day AND r.project_id = x.project_id AND r.employee_id = x.employee_id " +
+            "WHERE COALESCE(r.completed, 0) <> COALESCE(x.completed, 0) ORDER BY 1, 2, 3 LIMIT " + MAX_REPORTED;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskDailyRollupRepository rollupRepository;
+    private final ProjectRepository projectRepository;
+    private final UserRepository userRepository;
+    private final int chunkSize;
+    private final long overlapMillis;
+    private final int defaultDays;
+
+    public RollupServiceImpl(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedJdbcTemplate, TransactionTemplate transactionTemplate,
+                             TaskDailyRollupRepository rollupRepository, ProjectRepository projectRepository, UserRepository userRepository,
+                             @Value("${ticketing.rollup.chunk-size:1000}") int chunkSize,
+                             @Value("${ticketing.rollup.overlap-ms:5000}") long overlapMillis,
+                             @Value("${ticketing.rollup.default-days:30}") int defaultDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.rollupRepository = rollupRepository;
+        this.projectRepository = projectRepository;
+        this.userRepository = userRepository;
+        this.chunkSize = chunkSize;
+        this.overlapMillis = overlapMillis;
+        this.defaultDays = defaultDays;
+    }
+
+    @Override
+    @WorkloadClass(Workload.REPORTING)
+    public List<ThroughputDTO> projectThroughput(String projectCode, LocalDate from, LocalDate to) {
+        Project project = projectRepository.findByProjectCode(projectCode);
+        if (project == null) return List.of();
+        LocalDate start = startOf(from, to);
+        LocalDate end = endOf(to);
+        return everyDay(start, end, rollupRepository.sumByDayForProject(project.getId(), start, end));
+    }
+
+    @Override
+    @WorkloadClass(Workload.REPORTING)
+    public List<ThroughputDTO> projectThroughputByEmployee(String projectCode, LocalDate from, LocalDate to) {
+        Project project = projectRepository.findByProjectCode(projectCode);
+        if (project == null) return List.of();
+
+        List<Object[]> rows = rollupRepository.sumByDayAndEmployeeForProject(project.getId(), startOf(from, to), endOf(to));
+        Map<Long, String> userNames = userRepository.findAllById(rows.stream().map(row -> (Long) row[1]).collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(User::getId, User::getUserName));
+
+        return rows.stream()
+                .map(row -> new ThroughputDTO((LocalDate) row[0], (Long) row[1], userNames.get((Long) row[1]), (Long) row[2], (Long) row[3]))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @WorkloadClass(Workload.REPORTING)
+    public List<ThroughputDTO> employeeThroughput(String userName, LocalDate from, LocalDate to) {
+        User employee = userRepository.findByUserNameAndIsDeleted(userName, false);
+        if (employee == null) return List.of();
+        LocalDate start = startOf(from, to);
+        LocalDate end = endOf(to);
+        return everyDay(start, end, rollupRepository.sumByDayForEmployee(employee.getId(), start, end));
+    }
+
+    @Scheduled(fixedDelayString = "${ticketing.rollup.interval-ms:60000}", initialDelayString = "${ticketing.rollup.interval-ms:60000}")
+    @WorkloadClass(Workload.REPORTING)
+    public void scheduledCatchUp() {
+        try {
+            RollupRunDTO run = catchUp();
+            if (run.getTasksApplied() > 0) {
+                log.debug("Rollups caught up: {} tasks, {} rows in {} ms", run.getTasksApplied(), run.getRollupRowsChanged(), run.getElapsedMillis());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Rollup catch-up failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    @WorkloadClass(Workload.REPORTING)
+    public RollupRunDTO catchUp() {
+        long start = System.currentTimeMillis();
+
+        // Start a little before the newest applied change: rows committed late with an earlier timestamp are still picked up
+        LocalDateTime watermark = jdbcTemplate.queryForObject("SELECT MAX(seen_update) FROM task_rollup_entries", LocalDateTime.class);
+        LocalDateTime cursorTime = watermark == null ? BEGINNING : watermark.minusNanos(overlapMillis * 1_000_000);
+        long cursorId = 0;
+        int tasks = 0;
+        int rows = 0;
+
+        while (true) {
+            List<TaskRow> chunk = jdbcTemplate.query(CHANGED_TASKS, this::mapTaskRow,
+                    Timestamp.valueOf(cursorTime), Timestamp.valueOf(cursorTime), cursorId, chunkSize);
+            if (chunk.isEmpty()) break;
+
+            Integer changed = transactionTemplate.execute(status -> applyChunk(chunk));
+            tasks += chunk.size();
+            rows += changed == null ? 0 : changed;
+
+            TaskRow last = chunk.get(chunk.size() - 1);
+            cursorTime = last.lastUpdate;
+            cursorId = last.id;
+            if (chunk.size() < chunkSize) break;
+        }
+
+        return new RollupRunDTO(tasks, rows, System.currentTimeMillis() - start);
+    }
+
+    @Override
+    @WorkloadClass(Workload.REPORTING)
+    public RollupRunDTO backfill() {
+        transactionTemplate.executeWithoutResult(status -> {
+            lock();
+            jdbcTemplate.execute("TRUNCATE task_daily_rollups, task_rollup_entries");
+        });
+        RollupRunDTO run = catchUp();
+        log.info("Rollups backfilled: {} tasks, {} rows in {} ms", run.getTasksApplied(), run.getRollupRowsChanged(), run.getElapsedMillis());
+        return run;
+    }
+
+    @Override
+    @WorkloadClass(Workload.REPORTING)
+    public RollupVerificationDTO verify(LocalDate from, LocalDate to) {
+        catchUp();
+
+        LocalDate start = startOf(from, to);
+        LocalDate end = endOf(to);
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("from", Date.valueOf(start))
+                .addValue("to", Date.valueOf(end))
+                .addValue("fromTime", Timestamp.valueOf(start.atStartOfDay()))
+                .addValue("toTime", Timestamp.valueOf(end.plusDays(1).atStartOfDay()));
+
+        List<Long> taskMismatches = namedJdbcTemplate.queryForList(TASK_MISMATCHES, params, Long.class);
+        List<String> opened = namedJdbcTemplate.query(OPENED_MISMATCHES, params, (rs, rowNum) -> describeMismatch(rs));
+        List<String> completed = namedJdbcTemplate.query(COMPLETED_MISMATCHES, params, (rs, rowNum) -> describeMismatch(rs));
+
+        LocalDateTime watermark = jdbcTemplate.queryForObject("SELECT MAX(seen_update) FROM task_rollup_entries", LocalDateTime.class);
+        return new RollupVerificationDTO(start, end, watermark, taskMismatches.isEmpty() && opened.isEmpty() && completed.isEmpty(),
+                taskMismatches, opened, completed);
+    }
+
+    private int applyChunk(List<TaskRow> chunk) {
+        lock();
+
+        Map<Long, Entry> previous = namedJdbcTemplate.query(
+                "SELECT task_id, counted, open_day, project_id, employee_id, completed_day FROM task_rollup_entries WHERE task_id IN (:ids)",
+                new MapSqlParameterSource("ids", chunk.stream().map(task -> task.id).collect(Collectors.toList())),
+                (rs, rowNum) -> new Entry(rs.getLong("task_id"), rs.getBoolean("counted"), toLocalDate(rs.getDate("open_day")),
+                        rs.getLong("project_id"), rs.getLong("employee_id"), toLocalDate(rs.getDate("completed_day")))
+        ).stream().collect(Collectors.toMap(entry -> entry.taskId, Function.identity()));
+
+        Map<Key, long[]> deltas = new LinkedHashMap<>();
+        List<Object[]> entries = new ArrayList<>(chunk.size());
+        for (TaskRow task : chunk) {
+            Entry before = previous.get(task.id);
+            Entry after = contribution(task, before);
+            addContribution(deltas, before, -1);
+            addContribution(deltas, after, 1);
+            entries.add(new Object[]{after.taskId, after.counted, toSqlDate(after.openDay), after.projectId, after.employeeId,
+                    toSqlDate(after.completedDay), Timestamp.valueOf(task.lastUpdate)});
+        }
+        deltas.values().removeIf(delta -> delta[0] == 0 && delta[1] == 0);
+
+        jdbcTemplate.batchUpdate(UPSERT_ROLLUP, deltas.entrySet().stream()
+                .map(delta -> new Object[]{Date.valueOf(delta.getKey().day), delta.getKey().projectId, delta.getKey().employeeId,
+                        delta.getValue()[0], delta.getValue()[1]})
+                .collect(Collectors.toList()));
+        jdbcTemplate.batchUpdate(UPSERT_ENTRY, entries);
+        return deltas.size();
+    }
+
+    // What a task counts for now; a task that was already COMPLETE keeps the day it was first seen complete
+    static Entry contribution(TaskRow task, Entry previous) {
+        long projectId = task.projectId == null ? 0 : task.projectId;
+        long employeeId = task.employeeId == null ? 0 : task.employeeId;
+        if (task.deleted) return new Entry(task.id, false, null, projectId, employeeId, null);
+
+        LocalDate completedDay = null;
+        if (task.status == Status.COMPLETE) {
+            completedDay = previous != null && previous.counted && previous.completedDay != null ? previous.completedDay : task.lastUpdate.toLocalDate();
+        }
+        return new Entry(task.id, true, task.inserted.toLocalDate(), projectId, employeeId, completedDay);
+    }
+
+    static void addContribution(Map<Key, long[]> deltas, Entry entry, int sign) {
+        if (entry == null || !entry.counted) return;
+        deltas.computeIfAbsent(new Key(entry.openDay, entry.projectId, entry.employeeId), key -> new long[2])[0] += sign;
+        if (entry.completedDay != null) {
+            deltas.computeIfAbsent(new Key(entry.completedDay, entry.projectId, entry.employeeId), key -> new long[2])[1] += sign;
+        }
+    }
+
+    private void lock() {
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", rs -> null, LOCK_KEY);
+    }
+
+    private TaskRow mapTaskRow(ResultSet rs, int rowNum) throws SQLException {
+        String status = rs.getString("task_status");
+        return new TaskRow(rs.getLong("id"),
+                rs.getObject("project_id", Long.class),
+                rs.getObject("assigned_employee_id", Long.class),
+                status == null ? null : Status.valueOf(status),
+                rs.getTimestamp("insert_date_time").toLocalDateTime(),
+                rs.getTimestamp("last_update_date_time").toLocalDateTime(),
+                rs.getBoolean("is_deleted"));
+    }
+
+    private String describeMismatch(ResultSet rs) throws SQLException {
+        return rs.getDate("rollup_day").toLocalDate() + " project " + rs.getLong("project_id") + " employee " + rs.getLong("employee_id")
+                + ": rollup " + rs.getLong("rolled_up") + ", expected " + rs.getLong("expected");
+    }
+
+    private List<ThroughputDTO> everyDay(LocalDate start, LocalDate end, List<Object[]> rows) {
+        Map<LocalDate, Object[]> byDay = rows.stream().collect(Collectors.toMap(row -> (LocalDate) row[0], Function.identity()));
+        List<ThroughputDTO> days = new ArrayList<>();
+        for (LocalDate day = start; !day.isAfter(end); day = day.plusDays(1)) {
+            Object[] row = byDay.get(day);
+            days.add(row == null ? new ThroughputDTO(day, null, null, 0, 0) : new ThroughputDTO(day, null, null, (Long) row[1], (Long) row[2]));
+        }
+        return days;
+    }
+
+    private LocalDate startOf(LocalDate from, LocalDate to) {
+        return from != null ? from : endOf(to).minusDays(defaultDays - 1);
+    }
+
+    private LocalDate endOf(LocalDate to) {
+        return to != null ? to : LocalDate.now();
+    }
+
+    private static LocalDate toLocalDate(Date date) {
+        return date == null ? null : date.toLocalDate();
+    }
+
+    private static Date toSqlDate(LocalDate date) {
+        return date == null ? null : Date.valueOf(date);
+    }
+
+    static final class TaskRow {
+
+        final long id;
+        final Long projectId;
+        final Long employeeId;
+        final Status status;
+        final LocalDateTime inserted;
+        final LocalDateTime lastUpdate;
+        final boolean deleted;
+
+        TaskRow(long id, Long projectId, Long employeeId, Status status, LocalDateTime inserted, LocalDateTime lastUpdate, boolean deleted) {
+            this.id = id;
+            this.projectId = projectId;
+            this.employeeId = employeeId;
+            this.status = status;
+            this.inserted = inserted;
+            this.lastUpdate = lastUpdate;
+            this.deleted = deleted;
+        }
+
+    }
+
+    static final class Entry {
+
+        final long taskId;
+        final boolean counted;
+        final LocalDate openDay;
+        final long projectId;
+        final long employeeId;
+        final LocalDate completedDay;
+
+        Entry(long taskId, boolean counted, LocalDate openDay, long projectId, long employeeId, LocalDate completedDay) {
+            this.taskId = taskId;
+            this.counted = counted;
+            this.openDay = openDay;
+            this.projectId = projectId;
+            this.employeeId = employeeId;
+            this.completedDay = completedDay;
+        }
+
+    }
+
+    static final class Key {
+
+        final LocalDate day;
+        final long projectId;
+        final long employeeId;
+
+        Key(LocalDate day, long projectId, long employeeId) {
+            this.day = day;
+            this.projectId = projectId;
+            this.employeeId = employeeId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return projectId == key.projectId && employeeId == key.employeeId && day.equals(key.day);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(day, projectId, employeeId);
+        }
+
+    }
+
+}
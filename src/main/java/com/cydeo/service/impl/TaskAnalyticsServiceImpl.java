@@ -0,0 +1,164 @@
+package com.cydeo.service.impl;
+
+import com.cydeo.annotation.WorkloadClass;
+import com.cydeo.dto.TaskReportRowDTO;
+import com.cydeo.entity.Project;
+import com.cydeo.entity.User;
+import com.cydeo.enums.ChangeType;
+import com.cydeo.enums.Status;
+import com.cydeo.enums.Workload;
+import com.cydeo.event.TaskEvent;
+import com.cydeo.index.RebuildableIndex;
+import com.cydeo.index.TaskColumnStore;
+import com.cydeo.repository.ProjectRepository;
+import com.cydeo.repository.TaskRepository;
+import com.cydeo.repository.UserRepository;
+import com.cydeo.service.TaskAnalyticsService;
+import lombok.extern.slf4j.Slf4j;
+import org.keycloak.adapters.springsecurity.account.SimpleKeycloakAccount;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class TaskAnalyticsServiceImpl implements TaskAnalyticsService {
+
+    private final TaskRepository taskRepository;
+    private final ProjectRepository projectRepository;
+    private final UserRepository userRepository;
+    private final int chunkSize;
+    private final int leafRows;
+    private final Executor backgroundExecutor;
+
+    private final RebuildableIndex<TaskColumnStore, TaskEvent> store;
+
+    public TaskAnalyticsServiceImpl(TaskRepository taskRepository, ProjectRepository projectRepository, UserRepository userRepository,
+                                    @Value("${ticketing.analytics.load-chunk-size:10000}") int chunkSize,
+                                    @Value("${ticketing.analytics.leaf-rows:65536}") int leafRows,
+                                    @Qualifier("backgroundExecutor") Executor backgroundExecutor) {
+        this.taskRepository = taskRepository;
+        this.projectRepository = projectRepository;
+        this.userRepository = userRepository;
+        this.chunkSize = chunkSize;
+        this.leafRows = leafRows;
+        this.backgroundExecutor = backgroundExecutor;
+        this.store = new RebuildableIndex<>("Task analytics store", new TaskColumnStore(0, leafRows), this::apply);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        store.rebuildInBackground(this::rebuild, backgroundExecutor);
+    }
+
+    @Override
+    @WorkloadClass(Workload.REPORTING)
+    public List<TaskReportRowDTO> report(TaskColumnStore.GroupBy groupBy, String projectCode, String assignee, LocalDate from, LocalDate to) {
+
+        // A manager reports on the projects they manage
+        Map<Long, Project> projects = projectRepository.findAllByAssignedManager(getLoggedInUser()).stream()
+                .filter(project -> projectCode == null || project.getProjectCode().equals(projectCode))
+                .collect(Collectors.toMap(Project::getId, Function.identity()));
+        if (projects.isEmpty()) return List.of();
+
+        Long employeeId = null;
+        if (assignee != null) {
+            User employee = userRepository.findByUserNameAndIsDeleted(assignee, false);
+            if (employee == null) return List.of();
+            employeeId = employee.getId();
+        }
+
+        Map<Long, TaskColumnStore.GroupStats> groups = store.get().aggregate(groupBy,
+                new TaskColumnStore.Filter(projects.keySet(), employeeId, from, to), LocalDate.now());
+
+        Map<Long, User> employees = groupBy == TaskColumnStore.GroupBy.EMPLOYEE
+                ? userRepository.findAllById(groups.keySet().stream().filter(Objects::nonNull).collect(Collectors.toList())).stream()
+                        .collect(Collectors.toMap(User::getId, Function.identity()))
+                : Map.of();
+
+        return groups.entrySet().stream()
+                .map(group -> {
+                    Long id = group.getKey();
+                    if (id == null) return toRow(null, null, groupBy == TaskColumnStore.GroupBy.PROJECT ? "No project" : "Unassigned", group.getValue());
+                    if (groupBy == TaskColumnStore.GroupBy.PROJECT) {
+                        Project project = projects.get(id);
+                        return toRow(id, project.getProjectCode(), project.getProjectName(), group.getValue());
+                    }
+                    User employee = employees.get(id);
+                    return employee == null
+                            ? toRow(id, null, null, group.getValue())
+                            : toRow(id, employee.getUserName(), employee.getFirstName() + " " + employee.getLastName(), group.getValue());
+                })
+                .sorted(Comparator.comparingLong(TaskReportRowDTO::getTotal).reversed())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @WorkloadClass(Workload.REPORTING)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        TaskColumnStore fresh = store.rebuild(() -> {
+            long maxId = taskRepository.findMaxId();
+            TaskColumnStore loaded = new TaskColumnStore((int) Math.min(maxId, Integer.MAX_VALUE / 2), leafRows);
+            for (long from = 1; from <= maxId; from += chunkSize) {
+                for (Object[] row : taskRepository.findAllColumnsByIdBetween(from, from + chunkSize - 1)) {
+                    loaded.put((Long) row[0], (Long) row[1], (Long) row[2], (Status) row[3], (LocalDate) row[4]);
+                }
+            }
+            return loaded;
+        });
+
+        log.info("Task analytics store built: {} tasks, ~{} KB in {} ms", fresh.size(), fresh.memoryBytes() / 1024, System.currentTimeMillis() - start);
+    }
+
+    @Override
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskEvent(TaskEvent event) {
+        store.apply(event);
+    }
+
+    private void apply(TaskColumnStore target, TaskEvent event) {
+        if (event.getType() == ChangeType.DELETED) {
+            target.remove(event.getTaskId());
+        } else {
+            target.put(event.getTaskId(), event.getProjectId(), event.getEmployeeId(), event.getTaskStatus(), event.getAssignedDate());
+        }
+    }
+
+    private TaskReportRowDTO toRow(Long id, String key, String label, TaskColumnStore.GroupStats stats) {
+        Map<Status, Long> counts = new EnumMap<>(Status.class);
+        for (Status status : Status.values()) counts.put(status, stats.getCount(status));
+
+        long[] buckets = stats.getOpenAgeBuckets();
+        Map<String, Long> ageBuckets = new LinkedHashMap<>();
+        int lower = 0;
+        for (int i = 0; i < TaskColumnStore.AGE_BUCKET_LIMITS.length; i++) {
+            ageBuckets.put(lower + "-" + TaskColumnStore.AGE_BUCKET_LIMITS[i], buckets[i]);
+            lower = TaskColumnStore.AGE_BUCKET_LIMITS[i] + 1;
+        }
+        ageBuckets.put(lower + "+", buckets[buckets.length - 1]);
+
+        return new TaskReportRowDTO(id, key, label, stats.getTotal(), counts, stats.getCompletionRate(), stats.getOpenCount(),
+                stats.getAverageOpenAgeDays(), stats.getMaxOpenAgeDays(), ageBuckets);
+    }
+
+    private User getLoggedInUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SimpleKeycloakAccount details = (SimpleKeycloakAccount) authentication.getDetails();
+        String username = details.getKeycloakSecurityContext().getToken().getPreferredUsername();
+
+        return userRepository.findByUserNameAndIsDeleted(username, false);
+    }
+
+}
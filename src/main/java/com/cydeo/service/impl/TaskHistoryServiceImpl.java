@@ -0,0 +1,149 @@
+package com.cydeo.service.impl;
+
+import com.cydeo.annotation.WorkloadClass;
+import com.cydeo.dto.CycleTimeDTO;
+import com.cydeo.dto.TaskStatusChangeDTO;
+import com.cydeo.entity.Project;
+import com.cydeo.entity.TaskStatusHistory;
+import com.cydeo.enums.ChangeType;
+import com.cydeo.enums.Workload;
+import com.cydeo.event.TaskEvent;
+import com.cydeo.repository.ProjectRepository;
+import com.cydeo.repository.TaskStatusHistoryRepository;
+import com.cydeo.service.TaskHistoryService;
+import com.cydeo.support.AsyncBatchWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+@Service
+public class TaskHistoryServiceImpl implements TaskHistoryService {
+
+    private static final String INSERT_CHANGE =
+            "INSERT INTO task_status_history (task_id, project_id, employee_id, from_status, to_status, changed_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    // Creation to first completion for the tasks first completed in the range. Tasks created before the history
+    // existed have no creation row and fall back to tasks.insert_date_time.
+    private static final String CYCLE_TIME_PERCENTILES =
+            "WITH completed AS (" +
+            "  SELECT task_id, MIN(changed_at) AS completed_at FROM task_status_history " +
+            "  WHERE project_id = ? AND to_status = 'COMPLETE' AND changed_at >= ? AND changed_at < ? GROUP BY task_id), " +
+            "created AS (" +
+            "  SELECT h.task_id, MIN(h.changed_at) AS created_at FROM task_status_history h JOIN completed c ON c.task_id = h.task_id " +
+            "  WHERE h.from_status IS NULL GROUP BY h.task_id), " +
+            "cycle AS (" +
+            "  SELECT CAST(EXTRACT(EPOCH FROM c.completed_at - COALESCE(cr.created_at, t.insert_date_time)) AS DOUBLE PRECISION) / 3600 AS hours " +
+            "  FROM completed c LEFT JOIN created cr ON cr.task_id = c.task_id JOIN tasks t ON t.id = c.task_id) " +
+            "SELECT COUNT(*) AS tasks, AVG(hours) AS average, " +
+            "percentile_cont(0.5) WITHIN GROUP (ORDER BY hours) AS p50, percentile_cont(0.75) WITHIN GROUP (ORDER BY hours) AS p75, " +
+            "percentile_cont(0.9) WITHIN GROUP (ORDER BY hours) AS p90, percentile_cont(0.95) WITHIN GROUP (ORDER BY hours) AS p95 " +
+            "FROM cycle";
+
+    private static final String COMPLETED_PER_DAY =
+            "SELECT CAST(changed_at AS DATE) AS day, COUNT(DISTINCT task_id) AS completed FROM task_status_history " +
+            "WHERE project_id = ? AND to_status = 'COMPLETE' AND changed_at >= ? AND changed_at < ? GROUP BY 1 ORDER BY 1";
+
+    private final TaskStatusHistoryRepository historyRepository;
+    private final ProjectRepository projectRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate insertTransaction;
+    private final int defaultDays;
+    private final AsyncBatchWriter<TaskStatusHistory> writer;
+
+    public TaskHistoryServiceImpl(TaskStatusHistoryRepository historyRepository, ProjectRepository projectRepository, JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${ticketing.task-history.queue-capacity:10000}") int queueCapacity,
+                                  @Value("${ticketing.task-history.batch-size:500}") int batchSize,
+                                  @Value("${ticketing.task-history.flush-interval-ms:200}") long flushIntervalMillis,
+                                  @Value("${ticketing.task-history.default-days:90}") int defaultDays) {
+        this.historyRepository = historyRepository;
+        this.projectRepository = projectRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.insertTransaction = new TransactionTemplate(transactionManager);
+        this.insertTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.defaultDays = defaultDays;
+        this.writer = new AsyncBatchWriter<>("task-history", queueCapacity, batchSize, flushIntervalMillis, this::insert);
+    }
+
+    // Every status change made through TaskServiceImpl (update, completeByProject, save) arrives here;
+    // the request thread only enqueues the row
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskEvent(TaskEvent event) {
+        if (event.getType() == ChangeType.DELETED) return;
+        if (event.getType() != ChangeType.CREATED && event.getPreviousStatus() == event.getTaskStatus()) return;
+
+        writer.submit(new TaskStatusHistory(null, event.getTaskId(), event.getProjectId(), event.getEmployeeId(),
+                event.getType() == ChangeType.CREATED ? null : event.getPreviousStatus(), event.getTaskStatus(), event.getOccurredAt()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writer.close();
+    }
+
+    @Override
+    public List<TaskStatusChangeDTO> listStatusChanges(Long taskId) {
+        return historyRepository.findAllByTaskIdOrderByChangedAt(taskId).stream()
+                .map(change -> new TaskStatusChangeDTO(change.getFromStatus(), change.getToStatus(), change.getEmployeeId(), change.getChangedAt()))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @WorkloadClass(Workload.REPORTING)
+    public CycleTimeDTO cycleTime(String projectCode, LocalDate from, LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(defaultDays - 1);
+
+        CycleTimeDTO cycleTime = new CycleTimeDTO();
+        cycleTime.setProjectCode(projectCode);
+        cycleTime.setFrom(start);
+        cycleTime.setTo(end);
+        cycleTime.setCompletedPerDay(new TreeMap<>());
+
+        Project project = projectRepository.findByProjectCode(projectCode);
+        if (project == null) return cycleTime;
+
+        Timestamp startTime = Timestamp.valueOf(start.atStartOfDay());
+        Timestamp endTime = Timestamp.valueOf(end.plusDays(1).atStartOfDay());
+
+        jdbcTemplate.query(CYCLE_TIME_PERCENTILES, rs -> {
+            cycleTime.setCompletedTasks(rs.getLong("tasks"));
+            cycleTime.setAverageHours(rs.getObject("average", Double.class));
+            cycleTime.setP50Hours(rs.getObject("p50", Double.class));
+            cycleTime.setP75Hours(rs.getObject("p75", Double.class));
+            cycleTime.setP90Hours(rs.getObject("p90", Double.class));
+            cycleTime.setP95Hours(rs.getObject("p95", Double.class));
+        }, project.getId(), startTime, endTime);
+
+        Map<LocalDate, Long> perDay = cycleTime.getCompletedPerDay();
+        jdbcTemplate.query(COMPLETED_PER_DAY, rs -> {
+            perDay.put(rs.getDate("day").toLocalDate(), rs.getLong("completed"));
+        }, project.getId(), startTime, endTime);
+
+        return cycleTime;
+    }
+
+    // A transaction of its own: on a full queue the batch is written by the thread that runs onTaskEvent after the
+    // commit, while the committed transaction's connection is still bound to it. Rows written on that connection
+    // would never be committed.
+    private void insert(List<TaskStatusHistory> changes) {
+        insertTransaction.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_CHANGE, changes.stream()
+                .map(change -> new Object[]{change.getTaskId(), change.getProjectId(), change.getEmployeeId(),
+                        change.getFromStatus() == null ? null : change.getFromStatus().name(), change.getToStatus().name(),
+                        Timestamp.valueOf(change.getChangedAt())})
+                .collect(Collectors.toList())));
+    }
+
+}
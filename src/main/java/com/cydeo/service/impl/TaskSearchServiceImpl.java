@@ -0,0 +1,209 @@
+package com.cydeo.service.impl;
+
+import com.cydeo.annotation.WorkloadClass;
+import com.cydeo.dto.TaskSearchHitDTO;
+import com.cydeo.entity.Project;
+import com.cydeo.entity.Task;
+import com.cydeo.entity.User;
+import com.cydeo.enums.ChangeType;
+import com.cydeo.enums.Status;
+import com.cydeo.enums.Workload;
+import com.cydeo.event.TaskEvent;
+import com.cydeo.index.RebuildableIndex;
+import com.cydeo.index.TaskTextIndex;
+import com.cydeo.mapper.TaskMapper;
+import com.cydeo.repository.ProjectRepository;
+import com.cydeo.repository.TaskRepository;
+import com.cydeo.repository.UserRepository;
+import com.cydeo.service.TaskSearchService;
+import com.cydeo.support.WorkloadContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class TaskSearchServiceImpl implements TaskSearchService {
+
+    private final TaskRepository taskRepository;
+    private final TaskMapper taskMapper;
+    private final ProjectRepository projectRepository;
+    private final UserRepository userRepository;
+    private final Path indexPath;
+    private final int chunkSize;
+    private final int rebuildThreads;
+    private final Executor backgroundExecutor;
+
+    private final RebuildableIndex<TaskTextIndex, TaskEvent> index = new RebuildableIndex<>("Task search index", new TaskTextIndex(), this::apply);
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    public TaskSearchServiceImpl(TaskRepository taskRepository, TaskMapper taskMapper, ProjectRepository projectRepository, UserRepository userRepository,
+                                 @Value("${ticketing.task-search.index-path:}") String indexPath,
+                                 @Value("${ticketing.task-search.rebuild-chunk-size:5000}") int chunkSize,
+                                 @Value("${ticketing.task-search.rebuild-threads:4}") int rebuildThreads,
+                                 @Qualifier("backgroundExecutor") Executor backgroundExecutor) {
+        this.taskRepository = taskRepository;
+        this.taskMapper = taskMapper;
+        this.projectRepository = projectRepository;
+        this.userRepository = userRepository;
+        this.indexPath = indexPath.isBlank() ? null : Paths.get(indexPath);
+        this.chunkSize = chunkSize;
+        this.rebuildThreads = rebuildThreads;
+        this.backgroundExecutor = backgroundExecutor;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        index.rebuildInBackground(() -> {
+            if (indexPath != null && Files.exists(indexPath) && loadSnapshot()) return;
+            rebuild();
+        }, backgroundExecutor);
+    }
+
+    @Override
+    public List<TaskSearchHitDTO> search(String query, String projectCode, Status status, String assignee, int limit) {
+
+        Project project = projectCode == null ? null : projectRepository.findByProjectCode(projectCode);
+        User employee = assignee == null ? null : userRepository.findByUserNameAndIsDeleted(assignee, false);
+
+        // An unknown project or assignee is a filter no task matches
+        if ((projectCode != null && project == null) || (assignee != null && employee == null)) return List.of();
+        Long projectId = project == null ? null : project.getId();
+        Long employeeId = employee == null ? null : employee.getId();
+
+        Predicate<TaskTextIndex.Document> filter = document ->
+                (projectId == null || projectId.equals(document.getProjectId()))
+                        && (status == null || status == document.getStatus())
+                        && (employeeId == null || employeeId.equals(document.getEmployeeId()));
+
+        List<TaskTextIndex.Hit> hits = index.get().search(query, filter, limit);
+        if (hits.isEmpty()) return List.of();
+
+        // One IN query for the page of hits, then back into score order
+        Map<Long, Task> tasks = taskRepository.findAllById(hits.stream().map(TaskTextIndex.Hit::getTaskId).collect(Collectors.toList()))
+                .stream().collect(Collectors.toMap(Task::getId, Function.identity()));
+
+        return hits.stream()
+                .filter(hit -> tasks.containsKey(hit.getTaskId()))
+                .map(hit -> new TaskSearchHitDTO(hit.getScore(), taskMapper.convertToDto(tasks.get(hit.getTaskId()))))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @WorkloadClass(Workload.REPORTING)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        TaskTextIndex fresh = index.rebuild(() -> {
+            TaskTextIndex loaded = new TaskTextIndex();
+            loaded.advanceWatermark(LocalDateTime.now());
+            ExecutorService executor = Executors.newFixedThreadPool(rebuildThreads);
+            try {
+                // Id ranges are read in parallel, each chunk is one short query
+                long maxId = taskRepository.findMaxId();
+                List<CompletableFuture<Void>> chunks = new ArrayList<>();
+                for (long from = 1; from <= maxId; from += chunkSize) {
+                    long chunkStart = from;
+                    chunks.add(CompletableFuture.runAsync(() -> WorkloadContext.run(Workload.REPORTING, () ->
+                            taskRepository.findAllByIdBetween(chunkStart, chunkStart + chunkSize - 1).forEach(task -> loaded.put(toDocument(task)))), executor));
+                }
+                CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0])).join();
+            } finally {
+                executor.shutdown();
+            }
+            return loaded;
+        });
+        dirty.set(true);
+        log.info("Task search index built: {} tasks in {} ms", fresh.size(), System.currentTimeMillis() - start);
+    }
+
+    @Override
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskEvent(TaskEvent event) {
+        index.apply(event);
+        dirty.set(true);
+    }
+
+    @Scheduled(fixedDelayString = "${ticketing.task-search.snapshot-interval-ms:300000}")
+    public void snapshot() {
+        if (indexPath == null || !dirty.getAndSet(false)) return;
+        try {
+            index.get().writeTo(indexPath);
+        } catch (IOException e) {
+            dirty.set(true);
+            log.warn("Task search index snapshot could not be written to {}: {}", indexPath, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        snapshot();
+    }
+
+    private boolean loadSnapshot() {
+        try {
+            TaskTextIndex snapshot = TaskTextIndex.readFrom(indexPath);
+            if (snapshot.getWatermark() == null) return false;
+
+            // Catch up with everything written since the snapshot, deleted rows included
+            int[] caughtUp = new int[1];
+            TaskTextIndex loaded = index.rebuild(() -> {
+                List<Task> changed = taskRepository.findAllChangedSince(snapshot.getWatermark().minusMinutes(1));
+                for (Task task : changed) {
+                    if (Boolean.TRUE.equals(task.getIsDeleted())) {
+                        snapshot.remove(task.getId());
+                    } else {
+                        snapshot.put(toDocument(task));
+                    }
+                    snapshot.advanceWatermark(task.getLastUpdateDateTime());
+                }
+                caughtUp[0] = changed.size();
+                return snapshot;
+            });
+
+            log.info("Task search index loaded from {}: {} tasks, {} caught up", indexPath, loaded.size(), caughtUp[0]);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Task search index snapshot {} is not usable, rebuilding: {}", indexPath, e.getMessage());
+            return false;
+        }
+    }
+
+    private void apply(TaskTextIndex target, TaskEvent event) {
+        if (event.getType() == ChangeType.DELETED) {
+            target.remove(event.getTaskId());
+        } else {
+            target.put(new TaskTextIndex.Document(event.getTaskId(), event.getProjectId(), event.getEmployeeId(), event.getTaskStatus(),
+                    event.getTaskSubject(), event.getTaskDetail()));
+        }
+        target.advanceWatermark(event.getOccurredAt());
+    }
+
+    private TaskTextIndex.Document toDocument(Task task) {
+        return new TaskTextIndex.Document(task.getId(),
+                task.getProject() == null ? null : task.getProject().getId(),
+                task.getAssignedEmployee() == null ? null : task.getAssignedEmployee().getId(),
+                task.getTaskStatus(), task.getTaskSubject(), task.getTaskDetail());
+    }
+
+}
@@ -1,45 +1,69 @@
 package com.cydeo.service.impl;
 
+import com.cydeo.annotation.SingleFlight;
 import com.cydeo.dto.ProjectDTO;
 import com.cydeo.dto.TaskDTO;
+import com.cydeo.dto.TaskSyncDTO;
 import com.cydeo.dto.UserDTO;
 import com.cydeo.entity.Project;
 import com.cydeo.entity.Task;
+import com.cydeo.entity.TaskReassignment;
+import com.cydeo.entity.User;
+import com.cydeo.enums.ChangeType;
 import com.cydeo.enums.Status;
+import com.cydeo.event.TaskEvent;
 import com.cydeo.mapper.ProjectMapper;
 import com.cydeo.mapper.TaskMapper;
 import com.cydeo.mapper.UserMapper;
+import com.cydeo.repository.TaskReassignmentRepository;
 import com.cydeo.repository.TaskRepository;
 import com.cydeo.service.TaskService;
 import com.cydeo.service.UserService;
 import org.keycloak.adapters.springsecurity.account.SimpleKeycloakAccount;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 @Service
 public class TaskServiceImpl implements TaskService {
 
     private final TaskRepository taskRepository;
+    private final TaskReassignmentRepository reassignmentRepository;
     private final TaskMapper taskMapper;
     private final ProjectMapper projectMapper;
     private final UserService userService;
     private final UserMapper userMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long syncOverlapMillis;
 
-    public TaskServiceImpl(TaskRepository taskRepository, TaskMapper taskMapper, ProjectMapper projectMapper, UserService userService, UserMapper userMapper) {
+    public TaskServiceImpl(TaskRepository taskRepository, TaskReassignmentRepository reassignmentRepository, TaskMapper taskMapper, ProjectMapper projectMapper, UserService userService, UserMapper userMapper, ApplicationEventPublisher eventPublisher,
+                           @Value("${ticketing.task-sync.overlap-ms:5000}") long syncOverlapMillis) {
         this.taskRepository = taskRepository;
+        this.reassignmentRepository = reassignmentRepository;
         this.taskMapper = taskMapper;
         this.projectMapper = projectMapper;
         this.userService = userService;
         this.userMapper = userMapper;
+        this.eventPublisher = eventPublisher;
+        this.syncOverlapMillis = syncOverlapMillis;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public TaskDTO findById(Long id) {
 
         Optional<Task> task = taskRepository.findById(id);
@@ -51,21 +75,26 @@ public class TaskServiceImpl implements TaskService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<TaskDTO> listAllTasks() {
         return taskRepository.findAll().stream().map(taskMapper::convertToDto).collect(Collectors.toList());
     }
 
     @Override
+    @Transactional
     public void save(TaskDTO dto) {
 
         dto.setTaskStatus(Status.OPEN);
         dto.setAssignedDate(LocalDate.now());
         Task task = taskMapper.convertToEntity(dto);
-        taskRepository.save(task);
+        Task savedTask = taskRepository.save(task);
+
+        publishEvent(ChangeType.CREATED, savedTask, null, null);
 
     }
 
     @Override
+    @Transactional
     public void update(TaskDTO dto) {
 
         Optional<Task> task = taskRepository.findById(dto.getId());
@@ -74,34 +103,50 @@ public class TaskServiceImpl implements TaskService {
         if(task.isPresent()){
             convertedTask.setTaskStatus(dto.getTaskStatus() == null ? task.get().getTaskStatus() : dto.getTaskStatus());
             convertedTask.setAssignedDate(task.get().getAssignedDate());
-            taskRepository.save(convertedTask);
+
+            Status previousStatus = task.get().getTaskStatus();
+            Long previousEmployeeId = idOf(task.get().getAssignedEmployee());
+            Task savedTask = taskRepository.save(convertedTask);
+
+            if (previousEmployeeId != null && !previousEmployeeId.equals(idOf(savedTask.getAssignedEmployee()))) {
+                reassignmentRepository.save(new TaskReassignment(null, savedTask.getId(), previousEmployeeId, LocalDateTime.now()));
+            }
+
+            ChangeType type = savedTask.getTaskStatus() == Status.COMPLETE && previousStatus != Status.COMPLETE ? ChangeType.COMPLETED : ChangeType.UPDATED;
+            publishEvent(type, savedTask, previousStatus, previousEmployeeId);
         }
 
     }
 
     @Override
+    @Transactional
     public void delete(Long id) {
 
         Optional<Task> foundTask = taskRepository.findById(id);
 
         if(foundTask.isPresent()){
             foundTask.get().setIsDeleted(true);
-            taskRepository.save(foundTask.get());
+            Task savedTask = taskRepository.save(foundTask.get());
+
+            publishEvent(ChangeType.DELETED, savedTask, savedTask.getTaskStatus(), idOf(savedTask.getAssignedEmployee()));
         }
 
     }
 
     @Override
+    @Transactional(readOnly = true)
     public int totalNonCompletedTask(String projectCode) {
         return taskRepository.totalNonCompletedTasks(projectCode);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public int totalCompletedTask(String projectCode) {
         return taskRepository.totalCompletedTasks(projectCode);
     }
 
     @Override
+    @Transactional
     public void deleteByProject(ProjectDTO projectDTO) {
         Project project = projectMapper.convertToEntity(projectDTO);
         List<Task> tasks = taskRepository.findAllByProject(project);
@@ -109,6 +154,7 @@ public class TaskServiceImpl implements TaskService {
     }
 
     @Override
+    @Transactional
     public void completeByProject(ProjectDTO projectDTO) {
         Project project = projectMapper.convertToEntity(projectDTO);
         List<Task> tasks = taskRepository.findAllByProject(project);
@@ -119,6 +165,8 @@ public class TaskServiceImpl implements TaskService {
     }
 
     @Override
+    @SingleFlight("employee-pending-tasks")
+    @Transactional(readOnly = true)
     public List<TaskDTO> listAllTasksByStatusIsNot(Status status) {
 
         // day 36 - 2:25:00
@@ -134,6 +182,8 @@ public class TaskServiceImpl implements TaskService {
     }
 
     @Override
+    @SingleFlight("employee-tasks-by-status")
+    @Transactional(readOnly = true)
     public List<TaskDTO> listAllTasksByStatus(Status status) {
 
         // day 36 - 2:25:00
@@ -149,10 +199,121 @@ public class TaskServiceImpl implements TaskService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<TaskDTO> listAllNonCompletedByAssignedEmployee(UserDTO assignedEmployee) {
         List<Task> tasks = taskRepository
                 .findAllByTaskStatusIsNotAndAssignedEmployee(Status.COMPLETE, userMapper.convertToEntity(assignedEmployee));
         return tasks.stream().map(taskMapper::convertToDto).collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<TaskDTO> listAllNonCompletedByProjectManager(UserDTO manager) {
+        List<Task> tasks = taskRepository
+                .findAllByTaskStatusIsNotAndProjectAssignedManager(Status.COMPLETE, userMapper.convertToEntity(manager));
+        return tasks.stream().map(taskMapper::convertToDto).collect(Collectors.toList());
+    }
+
+    // Read-write on purpose so it stays on the primary: a lagging replica would hand out a token past changes it
+    // has not applied yet, and the sync overlap only covers clock skew
+    @Override
+    @Transactional
+    public TaskSyncDTO syncAllTasks(String since) {
+
+        LocalDateTime sinceTime = decodeSyncToken(since);
+        String nextToken = nextSyncToken();
+
+        if (sinceTime == null) {
+            return new TaskSyncDTO(true, listAllTasks(), List.of(), nextToken);
+        }
+        return toSyncDTO(taskRepository.findAllChangedSince(sinceTime), task -> true, nextToken);
+    }
+
+    @Override
+    @Transactional
+    public TaskSyncDTO syncTasksByStatusIsNot(Status status, String since) {
+        LocalDateTime sinceTime = decodeSyncToken(since);
+        String nextToken = nextSyncToken();
+
+        if (sinceTime == null) {
+            return new TaskSyncDTO(true, listAllTasksByStatusIsNot(status), List.of(), nextToken);
+        }
+        return syncAssignedTasks(sinceTime, task -> task.getTaskStatus() != status, nextToken);
+    }
+
+    @Override
+    @Transactional
+    public TaskSyncDTO syncTasksByStatus(Status status, String since) {
+        LocalDateTime sinceTime = decodeSyncToken(since);
+        String nextToken = nextSyncToken();
+
+        if (sinceTime == null) {
+            return new TaskSyncDTO(true, listAllTasksByStatus(status), List.of(), nextToken);
+        }
+        return syncAssignedTasks(sinceTime, task -> task.getTaskStatus() == status, nextToken);
+    }
+
+    private TaskSyncDTO syncAssignedTasks(LocalDateTime sinceTime, Predicate<Task> inList, String nextToken) {
+        Long employeeId = getLoggedInUser().getId();
+        List<Task> changedTasks = taskRepository.findAllChangedSinceByAssignedEmployee(employeeId, sinceTime);
+        TaskSyncDTO sync = toSyncDTO(changedTasks, inList, nextToken);
+
+        // Tasks moved to someone else no longer match the query above, they come from the reassignment rows.
+        // One that came back to this employee since is in the changed rows and stays.
+        Set<Long> changedTaskIds = changedTasks.stream().map(Task::getId).collect(Collectors.toSet());
+        reassignmentRepository.findTaskIdsReassignedAwayFrom(employeeId, sinceTime).stream()
+                .filter(taskId -> !changedTaskIds.contains(taskId))
+                .forEach(sync.getRemovedTaskIds()::add);
+        return sync;
+    }
+
+    private TaskSyncDTO toSyncDTO(List<Task> changedTasks, Predicate<Task> inList, String nextToken) {
+        List<TaskDTO> tasks = new ArrayList<>();
+        List<Long> removedTaskIds = new ArrayList<>();
+        for (Task task : changedTasks) {
+            if (Boolean.TRUE.equals(task.getIsDeleted()) || !inList.test(task)) {
+                removedTaskIds.add(task.getId());
+            } else {
+                tasks.add(taskMapper.convertToDto(task));
+            }
+        }
+        return new TaskSyncDTO(false, tasks, removedTaskIds, nextToken);
+    }
+
+    // The token is taken before the query and moved back by the overlap, so rows committed while we read are sent again
+    // on the next sync instead of being missed. Clients upsert by id, so a repeated row is harmless.
+    private String nextSyncToken() {
+        LocalDateTime from = LocalDateTime.now().minusNanos(syncOverlapMillis * 1_000_000);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(from.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private LocalDateTime decodeSyncToken(String token) {
+        if (token == null || token.isBlank()) return null;
+        try {
+            return LocalDateTime.parse(new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8));
+        } catch (RuntimeException e) {
+            return null; // unreadable token, answer with a full sync
+        }
+    }
+
+    private UserDTO getLoggedInUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SimpleKeycloakAccount details = (SimpleKeycloakAccount) authentication.getDetails();
+        String username = details.getKeycloakSecurityContext().getToken().getPreferredUsername();
+
+        return userService.findByUserName(username);
+    }
+
+    private void publishEvent(ChangeType type, Task task, Status previousStatus, Long previousEmployeeId) {
+        eventPublisher.publishEvent(new TaskEvent(type, task.getId(),
+                task.getProject() == null ? null : task.getProject().getId(),
+                idOf(task.getAssignedEmployee()), previousEmployeeId,
+                previousStatus, task.getTaskStatus(), task.getTaskSubject(), task.getTaskDetail(), task.getAssignedDate(),
+                LocalDateTime.now()));
+    }
+
+    private Long idOf(User user) {
+        return user == null ? null : user.getId();
+    }
+
 }
@@ -0,0 +1,232 @@
+package com.cydeo.service.impl;
+
+import com.cydeo.dto.TaskEventDTO;
+import com.cydeo.dto.UserDTO;
+import com.cydeo.enums.ChangeType;
+import com.cydeo.event.TaskEvent;
+import com.cydeo.service.TaskStreamService;
+import com.cydeo.service.UserService;
+import lombok.extern.slf4j.Slf4j;
+import org.keycloak.adapters.springsecurity.account.SimpleKeycloakAccount;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+@Slf4j
+public class TaskStreamServiceImpl implements TaskStreamService {
+
+    private final UserService userService;
+    private final long timeoutMillis;
+    private final int bufferSize;
+    private final int historySize;
+    private final ThreadPoolTaskExecutor sender;
+
+    // Every delivered message gets its own id, so a reconnecting client can ask for everything after the last one it saw.
+    // The sequence lives in memory and starts over on every boot and on every node, so the id is "<epoch>-<sequence>"
+    // with a random epoch per boot; an id from another boot or node cannot be resumed from.
+    private final String epoch;
+    private final Deque<HistoryEntry> history = new ArrayDeque<>();
+    private final Object historyLock = new Object();
+    private long sequence;
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    public TaskStreamServiceImpl(UserService userService,
+                                 @Value("${ticketing.task-stream.timeout-ms:1800000}") long timeoutMillis,
+                                 @Value("${ticketing.task-stream.buffer-size:256}") int bufferSize,
+                                 @Value("${ticketing.task-stream.history-size:5000}") int historySize,
+                                 @Value("${ticketing.task-stream.sender-threads:4}") int senderThreads) {
+        this(userService, UUID.randomUUID().toString().substring(0, 8), timeoutMillis, bufferSize, historySize, senderPool(senderThreads));
+    }
+
+    TaskStreamServiceImpl(UserService userService, String epoch, long timeoutMillis, int bufferSize, int historySize, ThreadPoolTaskExecutor sender) {
+        this.userService = userService;
+        this.epoch = epoch;
+        this.timeoutMillis = timeoutMillis;
+        this.bufferSize = bufferSize;
+        this.historySize = historySize;
+        this.sender = sender;
+    }
+
+    @Override
+    public SseEmitter subscribe(String lastEventId) {
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SimpleKeycloakAccount details = (SimpleKeycloakAccount) authentication.getDetails();
+        String username = details.getKeycloakSecurityContext().getToken().getPreferredUsername();
+
+        UserDTO loggedInUser = userService.findByUserName(username);
+
+        Subscriber subscriber = new Subscriber(loggedInUser.getId(), new SseEmitter(timeoutMillis));
+        subscriber.emitter.onCompletion(() -> unsubscribe(subscriber));
+        subscriber.emitter.onTimeout(() -> unsubscribe(subscriber));
+        subscriber.emitter.onError(e -> unsubscribe(subscriber));
+
+        synchronized (historyLock) {
+            // Registering and replaying under the same lock as publishing keeps replayed and live events in order
+            subscribers.computeIfAbsent(subscriber.employeeId, id -> new CopyOnWriteArraySet<>()).add(subscriber);
+
+            if (lastEventId != null) {
+                long lastSequence = sequenceOf(lastEventId);
+                HistoryEntry oldest = history.peekFirst();
+                if (lastSequence < 0 || lastSequence > sequence || (oldest != null && lastSequence < oldest.eventId - 1)) {
+                    // Another boot or node, or more missed than we retain: the client has to reload its task list
+                    subscriber.offer(SseEmitter.event().name("reset").data(""));
+                } else {
+                    history.stream()
+                            .filter(entry -> entry.eventId > lastSequence && entry.employeeId.equals(subscriber.employeeId))
+                            .forEach(entry -> subscriber.offer(toSseEvent(entry.event)));
+                }
+            }
+        }
+
+        return subscriber.emitter;
+    }
+
+    // Only writes made on this node: the invalidation notifications of the other nodes reach the indexes, not the
+    // stream, so a subscriber misses the writes of a node it is not connected to
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskEvent(TaskEvent event) {
+
+        if (event.getEmployeeId() != null) {
+            publish(event.getEmployeeId(), event, event.getType());
+        }
+        if (event.getPreviousEmployeeId() != null && !event.getPreviousEmployeeId().equals(event.getEmployeeId())) {
+            // Re-assigned away from the previous employee, for them the task is gone
+            publish(event.getPreviousEmployeeId(), event, ChangeType.DELETED);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ticketing.task-stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.offer(SseEmitter.event().comment("heartbeat"))));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.emitter.complete()));
+        sender.shutdown();
+    }
+
+    private void publish(Long employeeId, TaskEvent event, ChangeType type) {
+        synchronized (historyLock) {
+            TaskEventDTO dto = new TaskEventDTO(++sequence, type, event.getTaskId(), event.getProjectId(), event.getTaskStatus(),
+                    event.getTaskSubject(), event.getTaskDetail(), event.getAssignedDate());
+
+            history.addLast(new HistoryEntry(dto.getEventId(), employeeId, dto));
+            if (history.size() > historySize) history.removeFirst();
+
+            subscribers.getOrDefault(employeeId, Collections.emptySet()).forEach(subscriber -> subscriber.offer(toSseEvent(dto)));
+        }
+    }
+
+    // The sequence of an id of this boot, -1 for anything else
+    private long sequenceOf(String eventId) {
+        int separator = eventId.lastIndexOf('-');
+        if (separator < 0 || !eventId.substring(0, separator).equals(epoch)) return -1;
+        try {
+            return Long.parseLong(eventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static ThreadPoolTaskExecutor senderPool(int senderThreads) {
+        ThreadPoolTaskExecutor sender = new ThreadPoolTaskExecutor();
+        sender.setCorePoolSize(senderThreads);
+        sender.setMaxPoolSize(senderThreads);
+        sender.setThreadNamePrefix("task-stream-");
+        sender.initialize();
+        return sender;
+    }
+
+    private SseEmitter.SseEventBuilder toSseEvent(TaskEventDTO dto) {
+        return SseEmitter.event()
+                .id(epoch + "-" + dto.getEventId())
+                .name(dto.getType().name().toLowerCase())
+                .data(dto);
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.employeeId, (id, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private static final class HistoryEntry {
+
+        private final long eventId;
+        private final Long employeeId;
+        private final TaskEventDTO event;
+
+        private HistoryEntry(long eventId, Long employeeId, TaskEventDTO event) {
+            this.eventId = eventId;
+            this.employeeId = employeeId;
+            this.event = event;
+        }
+
+    }
+
+    private final class Subscriber {
+
+        private final Long employeeId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(Long employeeId, SseEmitter emitter) {
+            this.employeeId = employeeId;
+            this.emitter = emitter;
+        }
+
+        // Never blocks the publisher: a client that falls a full buffer behind is disconnected and resumes from its last event id
+        private void offer(SseEmitter.SseEventBuilder event) {
+            if (!buffer.offer(event)) {
+                log.warn("Task stream buffer of employee {} is full, closing the stream", employeeId);
+                unsubscribe(this);
+                emitter.complete();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while ((event = buffer.poll()) != null) {
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                unsubscribe(this);
+                buffer.clear();
+            } finally {
+                draining.set(false);
+            }
+            if (!buffer.isEmpty()) scheduleDrain();
+        }
+
+    }
+
+}
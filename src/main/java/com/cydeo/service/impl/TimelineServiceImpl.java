@@ -0,0 +1,125 @@
+package com.cydeo.service.impl;
+
+import com.cydeo.annotation.WorkloadClass;
+import com.cydeo.dto.ProjectDTO;
+import com.cydeo.dto.TaskDTO;
+import com.cydeo.entity.Project;
+import com.cydeo.enums.ChangeType;
+import com.cydeo.enums.Workload;
+import com.cydeo.event.ProjectEvent;
+import com.cydeo.index.IntervalIndex;
+import com.cydeo.index.RebuildableIndex;
+import com.cydeo.mapper.ProjectMapper;
+import com.cydeo.mapper.TaskMapper;
+import com.cydeo.repository.ProjectRepository;
+import com.cydeo.repository.TaskRepository;
+import com.cydeo.service.TimelineService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class TimelineServiceImpl implements TimelineService {
+
+    // A missing end of the range, as dates every database can bind; the index treats null the same way
+    private static final LocalDate OPEN_FROM = LocalDate.of(1, 1, 1);
+    private static final LocalDate OPEN_TO = LocalDate.of(9999, 12, 31);
+
+    private final ProjectRepository projectRepository;
+    private final ProjectMapper projectMapper;
+    private final TaskRepository taskRepository;
+    private final TaskMapper taskMapper;
+    private final int compactionThreshold;
+    private final Executor backgroundExecutor;
+
+    // null until the first load finishes, queries go to the database meanwhile
+    private final RebuildableIndex<IntervalIndex, ProjectEvent> projectSpans = new RebuildableIndex<>("Project timeline index", null, this::apply);
+
+    public TimelineServiceImpl(ProjectRepository projectRepository, ProjectMapper projectMapper, TaskRepository taskRepository, TaskMapper taskMapper,
+                               @Value("${ticketing.timeline.compaction-threshold:1024}") int compactionThreshold,
+                               @Qualifier("backgroundExecutor") Executor backgroundExecutor) {
+        this.projectRepository = projectRepository;
+        this.projectMapper = projectMapper;
+        this.taskRepository = taskRepository;
+        this.taskMapper = taskMapper;
+        this.compactionThreshold = compactionThreshold;
+        this.backgroundExecutor = backgroundExecutor;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        projectSpans.rebuildInBackground(this::rebuild, backgroundExecutor);
+    }
+
+    @Override
+    public List<ProjectDTO> listProjectsActiveBetween(LocalDate from, LocalDate to) {
+
+        IntervalIndex index = projectSpans.get();
+        if (index == null) {
+            return projectRepository.findAllActiveBetween(from == null ? OPEN_FROM : from, to == null ? OPEN_TO : to).stream()
+                    .map(projectMapper::convertToDto)
+                    .collect(Collectors.toList());
+        }
+
+        List<Long> ids = index.overlapping(from, to);
+        if (ids.isEmpty()) return List.of();
+
+        // One IN query for the matches, then back into timeline order
+        Map<Long, Project> projects = projectRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Project::getId, Function.identity()));
+
+        return ids.stream()
+                .filter(projects::containsKey)
+                .map(id -> projectMapper.convertToDto(projects.get(id)))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<TaskDTO> listTasksAssignedBetween(LocalDate from, LocalDate to) {
+        // Tasks only carry a single date, the assigned_date index answers this directly
+        return taskRepository.findAllByAssignedDateBetweenOrderByAssignedDate(from, to).stream()
+                .map(taskMapper::convertToDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @WorkloadClass(Workload.REPORTING)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        IntervalIndex fresh = projectSpans.rebuild(() -> {
+            IntervalIndex loaded = new IntervalIndex(compactionThreshold);
+            loaded.load(projectRepository.findAllSpans().stream()
+                    .map(row -> new IntervalIndex.Span((Long) row[0], (LocalDate) row[1], (LocalDate) row[2]))
+                    .collect(Collectors.toList()));
+            return loaded;
+        });
+
+        log.info("Project timeline index built: {} projects in {} ms", fresh.size(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProjectEvent(ProjectEvent event) {
+        projectSpans.apply(event);
+    }
+
+    private void apply(IntervalIndex target, ProjectEvent event) {
+        if (event.getType() == ChangeType.DELETED) {
+            target.remove(event.getProjectId());
+        } else {
+            target.put(event.getProjectId(), event.getStartDate(), event.getEndDate());
+        }
+    }
+
+}
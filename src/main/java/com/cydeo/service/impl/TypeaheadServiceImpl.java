@@ -0,0 +1,184 @@
+package com.cydeo.service.impl;
+
+import com.cydeo.annotation.WorkloadClass;
+import com.cydeo.dto.ProjectDTO;
+import com.cydeo.dto.RoleDTO;
+import com.cydeo.dto.SuggestionDTO;
+import com.cydeo.dto.UserDTO;
+import com.cydeo.enums.ChangeType;
+import com.cydeo.enums.Workload;
+import com.cydeo.event.ProjectEvent;
+import com.cydeo.event.UserEvent;
+import com.cydeo.index.PrefixIndex;
+import com.cydeo.index.RebuildableIndex;
+import com.cydeo.service.ProjectService;
+import com.cydeo.service.RoleService;
+import com.cydeo.service.TypeaheadService;
+import com.cydeo.service.UserService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@Slf4j
+public class TypeaheadServiceImpl implements TypeaheadService {
+
+    private final UserService userService;
+    private final RoleService roleService;
+    private final ProjectService projectService;
+    private final int maxScan;
+    private final Executor backgroundExecutor;
+
+    private final RebuildableIndex<Indexes, Object> indexes;
+
+    public TypeaheadServiceImpl(UserService userService, RoleService roleService, ProjectService projectService,
+                                @Value("${ticketing.typeahead.max-scan:2000}") int maxScan,
+                                @Qualifier("backgroundExecutor") Executor backgroundExecutor) {
+        this.userService = userService;
+        this.roleService = roleService;
+        this.projectService = projectService;
+        this.maxScan = maxScan;
+        this.backgroundExecutor = backgroundExecutor;
+        this.indexes = new RebuildableIndex<>("Typeahead index", new Indexes(maxScan), this::apply);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        indexes.rebuildInBackground(this::rebuild, backgroundExecutor);
+    }
+
+    @Override
+    public List<SuggestionDTO> suggestUsers(String prefix, String role, int limit) {
+        Indexes current = indexes.get();
+        PrefixIndex<SuggestionDTO> index = role == null || role.isBlank()
+                ? current.users
+                : current.usersByRole.get(role.toLowerCase(Locale.ROOT));
+        return index == null ? List.of() : index.search(prefix, limit, suggestion -> true);
+    }
+
+    @Override
+    public List<SuggestionDTO> suggestProjects(String prefix, int limit) {
+        return indexes.get().projects.search(prefix, limit, suggestion -> true);
+    }
+
+    @Override
+    @WorkloadClass(Workload.REPORTING)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        Indexes fresh = indexes.rebuild(() -> {
+            Indexes loaded = new Indexes(maxScan);
+            for (RoleDTO role : roleService.listAllRoles()) {
+                userService.listAllByRole(role.getDescription()).forEach(user -> putUser(loaded, toSuggestion(user)));
+            }
+            projectService.listAllProjects().forEach(project -> putProject(loaded, project.getId(), project.getProjectCode(), project.getProjectName()));
+            return loaded;
+        });
+
+        log.info("Typeahead index built: {} users, {} projects in {} ms", fresh.users.size(), fresh.projects.size(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserEvent(UserEvent event) {
+        if (event.getType() != ChangeType.DELETED && event.getRoleDescription() == null) {
+            // the DTO that was saved did not carry the role description, read the stored user instead
+            UserDTO user = userService.findByUserName(event.getUserName());
+            event = new UserEvent(event.getType(), event.getUserId(), user.getUserName(), user.getFirstName(), user.getLastName(),
+                    user.getRole().getDescription(), event.getOccurredAt());
+        }
+        onWrite(event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProjectEvent(ProjectEvent event) {
+        onWrite(event);
+    }
+
+    private void onWrite(Object event) {
+        indexes.apply(event);
+    }
+
+    private void apply(Indexes target, Object event) {
+        if (event instanceof UserEvent) {
+            UserEvent userEvent = (UserEvent) event;
+            if (userEvent.getType() == ChangeType.DELETED) {
+                removeUser(target, userEvent.getUserId());
+            } else {
+                putUser(target, new SuggestionDTO(userEvent.getUserId(), userEvent.getUserName(),
+                        label(userEvent.getFirstName(), userEvent.getLastName(), userEvent.getUserName()), userEvent.getRoleDescription()));
+            }
+        } else if (event instanceof ProjectEvent) {
+            ProjectEvent projectEvent = (ProjectEvent) event;
+            if (projectEvent.getType() == ChangeType.DELETED) {
+                target.projects.remove(String.valueOf(projectEvent.getProjectId()));
+            } else {
+                putProject(target, projectEvent.getProjectId(), projectEvent.getProjectCode(), projectEvent.getProjectName());
+            }
+        }
+    }
+
+    private void putUser(Indexes target, SuggestionDTO suggestion) {
+        removeUser(target, suggestion.getId());
+
+        String documentKey = String.valueOf(suggestion.getId());
+        List<String> terms = terms(suggestion.getKey(), suggestion.getLabel());
+        target.users.put(documentKey, terms, suggestion);
+        if (suggestion.getRole() != null) {
+            target.usersByRole.computeIfAbsent(suggestion.getRole().toLowerCase(Locale.ROOT), role -> new PrefixIndex<>(maxScan))
+                    .put(documentKey, terms, suggestion);
+        }
+    }
+
+    private void removeUser(Indexes target, Long userId) {
+        String documentKey = String.valueOf(userId);
+        target.users.remove(documentKey);
+        target.usersByRole.values().forEach(index -> index.remove(documentKey));
+    }
+
+    private void putProject(Indexes target, Long id, String projectCode, String projectName) {
+        target.projects.put(String.valueOf(id), terms(projectCode, projectName),
+                new SuggestionDTO(id, projectCode, projectCode + " - " + projectName, null));
+    }
+
+    private SuggestionDTO toSuggestion(UserDTO user) {
+        return new SuggestionDTO(user.getId(), user.getUserName(), label(user.getFirstName(), user.getLastName(), user.getUserName()),
+                user.getRole() == null ? null : user.getRole().getDescription());
+    }
+
+    private String label(String firstName, String lastName, String userName) {
+        String fullName = ((firstName == null ? "" : firstName) + " " + (lastName == null ? "" : lastName)).trim();
+        return fullName.isEmpty() ? userName : fullName + " (" + userName + ")";
+    }
+
+    // The key, the whole label and every word of the label, so "smi" finds "John Smith" and "spring c" finds "Spring Core"
+    private List<String> terms(String key, String label) {
+        List<String> terms = new ArrayList<>();
+        terms.add(key);
+        if (label != null) {
+            terms.add(label);
+            terms.addAll(Arrays.asList(label.split("[\\s()\\-]+")));
+        }
+        return terms;
+    }
+
+    private static final class Indexes {
+
+        private final PrefixIndex<SuggestionDTO> users;
+        private final Map<String, PrefixIndex<SuggestionDTO>> usersByRole = new ConcurrentHashMap<>();
+        private final PrefixIndex<SuggestionDTO> projects;
+
+        private Indexes(int maxScan) {
+            this.users = new PrefixIndex<>(maxScan);
+            this.projects = new PrefixIndex<>(maxScan);
+        }
+
+    }
+
+}
@@ -0,0 +1,347 @@
+package com.cydeo.service.impl;
+
+import com.cydeo.dto.RoleDTO;
+import com.cydeo.dto.UserDTO;
+import com.cydeo.dto.UserImportResultDTO;
+import com.cydeo.dto.UserImportRowDTO;
+import com.cydeo.entity.User;
+import com.cydeo.enums.Aggregate;
+import com.cydeo.enums.ChangeType;
+import com.cydeo.enums.Gender;
+import com.cydeo.enums.ImportStatus;
+import com.cydeo.event.UserEvent;
+import com.cydeo.repository.UserRepository;
+import com.cydeo.service.KeycloakService;
+import com.cydeo.service.RoleService;
+import com.cydeo.service.UserImportService;
+import com.cydeo.service.VersionStampService;
+import com.cydeo.support.AuditTrailListener;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class UserImportServiceImpl implements UserImportService {
+
+    private static final List<String> CSV_COLUMNS = List.of("firstName", "lastName", "userName", "passWord", "phone", "role", "gender");
+
+    private static final String INSERT_USER =
+            "INSERT INTO users (insert_date_time, insert_user_id, is_deleted, last_update_date_time, last_update_user_id, enabled, " +
+            "first_name, last_name, user_name, pass_word, phone, role_id, gender) VALUES (?, ?, false, ?, ?, true, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String DELETE_USER = "DELETE FROM users WHERE id = ?";
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final RoleService roleService;
+    private final KeycloakService keycloakService;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AuditorAware<Long> auditorAware;
+    private final AuditTrailListener auditTrailListener;
+    private final VersionStampService versionStampService;
+    private final int chunkSize;
+
+    public UserImportServiceImpl(UserRepository userRepository, JdbcTemplate jdbcTemplate, RoleService roleService, KeycloakService keycloakService,
+                                 Validator validator, ObjectMapper objectMapper, TransactionTemplate transactionTemplate,
+                                 ApplicationEventPublisher eventPublisher, AuditorAware<Long> auditorAware, AuditTrailListener auditTrailListener,
+                                 VersionStampService versionStampService, @Value("${ticketing.user-import.chunk-size:100}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.roleService = roleService;
+        this.keycloakService = keycloakService;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.auditorAware = auditorAware;
+        this.auditTrailListener = auditTrailListener;
+        this.versionStampService = versionStampService;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public UserImportResultDTO importCsv(InputStream inputStream) throws IOException {
+        Map<String, RoleDTO> roles = rolesByDescription();
+        return importLines(inputStream, true, line -> fromCsv(line, roles));
+    }
+
+    @Override
+    public UserImportResultDTO importNdjson(InputStream inputStream) throws IOException {
+        Map<String, RoleDTO> roles = rolesByDescription();
+        return importLines(inputStream, false, line -> fromJson(line, roles));
+    }
+
+    // The body is read line by line and handed over in chunks, so the whole file is never held in memory
+    private UserImportResultDTO importLines(InputStream inputStream, boolean skipHeader, Function<String, UserDTO> parser) throws IOException {
+
+        long start = System.currentTimeMillis();
+        List<UserImportRowDTO> rows = new ArrayList<>();
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || (skipHeader && lineNumber == 1)) continue;
+
+                UserImportRowDTO status = new UserImportRowDTO(lineNumber, null, null, null);
+                rows.add(status);
+
+                UserDTO userDTO;
+                try {
+                    userDTO = parser.apply(line);
+                } catch (RuntimeException e) {
+                    reject(status, ImportStatus.INVALID, e.getMessage());
+                    continue;
+                }
+                status.setUserName(userDTO.getUserName());
+
+                String violations = validate(userDTO);
+                if (violations != null) {
+                    reject(status, ImportStatus.INVALID, violations);
+                    continue;
+                }
+
+                chunk.add(new ImportRow(userDTO, status));
+                if (chunk.size() == chunkSize) {
+                    processChunk(chunk);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+        }
+        if (!chunk.isEmpty()) processChunk(chunk);
+
+        int created = (int) rows.stream().filter(row -> row.getStatus() == ImportStatus.CREATED).count();
+        log.info("User import finished: {} rows, {} created in {} ms", rows.size(), created, System.currentTimeMillis() - start);
+
+        return new UserImportResultDTO(rows.size(), created, rows.size() - created, System.currentTimeMillis() - start, rows);
+    }
+
+    private void processChunk(List<ImportRow> chunk) {
+
+        // Duplicates inside the file and against the table are caught with one IN query per chunk instead of one lookup per row
+        Set<String> existing = userRepository.findAllByUserNameIn(chunk.stream().map(row -> row.userDTO.getUserName()).collect(Collectors.toSet()))
+                .stream().map(User::getUserName).collect(Collectors.toSet());
+
+        List<ImportRow> accepted = new ArrayList<>();
+        for (ImportRow row : chunk) {
+            if (!existing.add(row.userDTO.getUserName())) {
+                reject(row.status, ImportStatus.DUPLICATE, "User name already exists");
+            } else {
+                accepted.add(row);
+            }
+        }
+        if (accepted.isEmpty()) return;
+
+        List<ImportRow> persisted = persist(accepted);
+        if (persisted.isEmpty()) return;
+
+        List<String> provisioningErrors = keycloakService.userCreateAll(persisted.stream().map(row -> row.userDTO).collect(Collectors.toList()));
+        List<ImportRow> provisioned = new ArrayList<>();
+        List<ImportRow> unprovisioned = new ArrayList<>();
+        for (int i = 0; i < persisted.size(); i++) {
+            String error = provisioningErrors.get(i);
+            if (error == null) {
+                persisted.get(i).status.setStatus(ImportStatus.CREATED);
+                provisioned.add(persisted.get(i));
+            } else {
+                reject(persisted.get(i).status, ImportStatus.PROVISIONING_FAILED, error);
+                unprovisioned.add(persisted.get(i));
+            }
+        }
+        remove(unprovisioned);
+
+        // The JDBC writes bypass the Hibernate listeners, so the import reports its users to them itself
+        provisioned.forEach(this::publishCreated);
+        versionStampService.bump(EnumSet.of(Aggregate.USER));
+    }
+
+    private List<ImportRow> persist(List<ImportRow> rows) {
+        try {
+            transactionTemplate.executeWithoutResult(tx -> insert(rows));
+            return rows;
+        } catch (RuntimeException e) {
+            // One bad row must not fail its neighbours, so the chunk is retried row by row to isolate it
+            log.warn("Chunk insert failed, retrying {} rows individually: {}", rows.size(), e.getMessage());
+            List<ImportRow> persisted = new ArrayList<>();
+            for (ImportRow row : rows) {
+                try {
+                    transactionTemplate.executeWithoutResult(tx -> insert(List.of(row)));
+                    persisted.add(row);
+                } catch (RuntimeException rowException) {
+                    reject(row.status, ImportStatus.FAILED, NestedExceptionUtils.getMostSpecificCause(rowException).getMessage());
+                }
+            }
+            return persisted;
+        }
+    }
+
+    // users has an IDENTITY key, which keeps Hibernate from batching inserts, so the chunk goes out as one JDBC batch
+    // and the generated ids are read back with one IN query
+    private void insert(List<ImportRow> rows) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Long auditor = auditorAware.getCurrentAuditor().orElse(null);
+        jdbcTemplate.batchUpdate(INSERT_USER, rows.stream()
+                .map(row -> new Object[]{now, auditor, now, auditor, row.userDTO.getFirstName(), row.userDTO.getLastName(),
+                        row.userDTO.getUserName(), row.userDTO.getPassWord(), row.userDTO.getPhone(), row.userDTO.getRole().getId(),
+                        row.userDTO.getGender().name()})
+                .collect(Collectors.toList()));
+
+        Map<String, Long> ids = new HashMap<>();
+        for (Object[] id : userRepository.findIdsByUserNameIn(rows.stream().map(row -> row.userDTO.getUserName()).collect(Collectors.toList()))) {
+            ids.put((String) id[1], ((Number) id[0]).longValue());
+        }
+        rows.forEach(row -> {
+            row.userDTO.setId(ids.get(row.userDTO.getUserName()));
+            row.userDTO.setEnabled(true);
+        });
+    }
+
+    // A user Keycloak did not take cannot log in. Its row is deleted again, so fixing the cause and importing the same
+    // line again is all it takes to retry.
+    private void remove(List<ImportRow> rows) {
+        if (rows.isEmpty()) return;
+        try {
+            transactionTemplate.executeWithoutResult(tx -> jdbcTemplate.batchUpdate(DELETE_USER,
+                    rows.stream().map(row -> new Object[]{row.userDTO.getId()}).collect(Collectors.toList())));
+        } catch (RuntimeException e) {
+            log.error("Could not remove {} imported users that Keycloak did not provision", rows.size(), e);
+            rows.forEach(row -> row.status.setMessage(row.status.getMessage() + "; the user was stored but could not be removed again"));
+        }
+    }
+
+    private void publishCreated(ImportRow row) {
+        UserDTO user = row.userDTO;
+        eventPublisher.publishEvent(new UserEvent(ChangeType.CREATED, user.getId(), user.getUserName(), user.getFirstName(), user.getLastName(),
+                user.getRole().getDescription(), LocalDateTime.now()));
+
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("enabled", true);
+        state.put("firstName", user.getFirstName());
+        state.put("gender", user.getGender());
+        state.put("isDeleted", false);
+        state.put("lastName", user.getLastName());
+        state.put("passWord", user.getPassWord());
+        state.put("phone", user.getPhone());
+        state.put("role", user.getRole().getId());
+        state.put("userName", user.getUserName());
+        auditTrailListener.recordCreated(User.class, user.getId(), auditorAware.getCurrentAuditor().orElse(null), state);
+    }
+
+    private String validate(UserDTO userDTO) {
+        Set<ConstraintViolation<UserDTO>> violations = validator.validate(userDTO);
+        if (violations.isEmpty()) return null;
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private void reject(UserImportRowDTO status, ImportStatus importStatus, String message) {
+        status.setStatus(importStatus);
+        status.setMessage(message);
+    }
+
+    private Map<String, RoleDTO> rolesByDescription() {
+        return roleService.listAllRoles().stream()
+                .collect(Collectors.toMap(role -> role.getDescription().toLowerCase(), Function.identity()));
+    }
+
+    private UserDTO fromCsv(String line, Map<String, RoleDTO> roles) {
+
+        List<String> values = splitCsv(line);
+        if (values.size() != CSV_COLUMNS.size()) {
+            throw new IllegalArgumentException("Expected " + CSV_COLUMNS.size() + " columns " + CSV_COLUMNS + " but found " + values.size());
+        }
+
+        UserDTO userDTO = new UserDTO();
+        userDTO.setFirstName(values.get(0));
+        userDTO.setLastName(values.get(1));
+        userDTO.setUserName(values.get(2));
+        userDTO.setPassWord(values.get(3));
+        userDTO.setConfirmPassWord(values.get(3));
+        userDTO.setPhone(values.get(4));
+        userDTO.setRole(roles.get(values.get(5).toLowerCase()));
+        userDTO.setGender(values.get(6).isEmpty() ? null : Gender.valueOf(values.get(6).toUpperCase()));
+        return userDTO;
+    }
+
+    private UserDTO fromJson(String line, Map<String, RoleDTO> roles) {
+        try {
+            UserDTO userDTO = objectMapper.readValue(line, UserDTO.class);
+            if (userDTO.getConfirmPassWord() == null) userDTO.setConfirmPassWord(userDTO.getPassWord());
+            if (userDTO.getRole() != null && userDTO.getRole().getDescription() != null) {
+                userDTO.setRole(roles.get(userDTO.getRole().getDescription().toLowerCase()));
+            }
+            return userDTO;
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    // Minimal RFC 4180 splitting: quoted fields may contain commas and doubled quotes
+    private List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString().trim());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString().trim());
+        return values;
+    }
+
+    private static class ImportRow {
+
+        private final UserDTO userDTO;
+        private final UserImportRowDTO status;
+
+        private ImportRow(UserDTO userDTO, UserImportRowDTO status) {
+            this.userDTO = userDTO;
+            this.status = status;
+        }
+
+    }
+
+}
@@ -4,6 +4,8 @@ import com.cydeo.dto.ProjectDTO;
 import com.cydeo.dto.TaskDTO;
 import com.cydeo.dto.UserDTO;
 import com.cydeo.entity.User;
+import com.cydeo.enums.ChangeType;
+import com.cydeo.event.UserEvent;
 import com.cydeo.exception.TicketingProjectException;
 import com.cydeo.mapper.UserMapper;
 import com.cydeo.repository.UserRepository;
@@ -11,9 +13,12 @@ import com.cydeo.service.KeycloakService;
 import com.cydeo.service.ProjectService;
 import com.cydeo.service.TaskService;
 import com.cydeo.service.UserService;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.stream.Collectors;
@@ -26,16 +31,19 @@ public class UserServiceImpl implements UserService {
     private final ProjectService projectService;
     private final TaskService taskService;
     private final KeycloakService keycloakService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public UserServiceImpl(UserRepository userRepository, UserMapper userMapper, @Lazy ProjectService projectService, @Lazy TaskService taskService, KeycloakService keycloakService) {
+    public UserServiceImpl(UserRepository userRepository, UserMapper userMapper, @Lazy ProjectService projectService, @Lazy TaskService taskService, KeycloakService keycloakService, ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.userMapper = userMapper;
         this.projectService = projectService;
         this.taskService = taskService;
         this.keycloakService = keycloakService;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserDTO findByUserName(String username) {
         User user = userRepository.findByUserNameAndIsDeleted(username, false);
         if (user == null) throw new NoSuchElementException("User not found.");
@@ -43,12 +51,14 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<UserDTO> listAllUsers() {
         List<User> userList = userRepository.findAllByIsDeletedOrderByFirstNameDesc(false);
         return userList.stream().map(userMapper::convertToDto).collect(Collectors.toList());
     }
 
     @Override
+    @Transactional
     public UserDTO save(UserDTO user) {
 
         user.setEnabled(true);
@@ -59,6 +69,8 @@ public class UserServiceImpl implements UserService {
 
         keycloakService.userCreate(user);
 
+        publishEvent(ChangeType.CREATED, savedUser);
+
         return userMapper.convertToDto(savedUser);
 
     }
@@ -70,6 +82,7 @@ public class UserServiceImpl implements UserService {
 //    }
 
     @Override
+    @Transactional
     public UserDTO update(UserDTO user) {
 
         //Find current user
@@ -79,13 +92,16 @@ public class UserServiceImpl implements UserService {
         //set id to the converted object
         convertedUser.setId(user1.getId());
         //save the updated user in the db
-        userRepository.save(convertedUser);
+        User savedUser = userRepository.save(convertedUser);
+
+        publishEvent(ChangeType.UPDATED, savedUser);
 
         return findByUserName(user.getUserName());
 
     }
 
     @Override
+    @Transactional
     public void delete(String username) throws TicketingProjectException{
 
         User user = userRepository.findByUserNameAndIsDeleted(username, false);
@@ -94,6 +110,8 @@ public class UserServiceImpl implements UserService {
             user.setIsDeleted(true);
             user.setUserName(user.getUserName() + "-" + user.getId());  // harold@manager.com-2
             userRepository.save(user);
+
+            publishEvent(ChangeType.DELETED, user);
         }else{
             throw new TicketingProjectException("User can not be deleted");
         }
@@ -101,11 +119,17 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<UserDTO> listAllByRole(String role) {
         List<User> users = userRepository.findByRoleDescriptionIgnoreCaseAndIsDeleted(role, false);
         return users.stream().map(userMapper::convertToDto).collect(Collectors.toList());
     }
 
+    private void publishEvent(ChangeType type, User user) {
+        eventPublisher.publishEvent(new UserEvent(type, user.getId(), user.getUserName(), user.getFirstName(), user.getLastName(),
+                user.getRole() == null ? null : user.getRole().getDescription(), LocalDateTime.now()));
+    }
+
     private boolean checkIfUserCanBeDeleted(User user) {
 
         switch (user.getRole().getDescription()) {
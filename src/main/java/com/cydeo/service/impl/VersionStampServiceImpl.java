@@ -0,0 +1,70 @@
+package com.cydeo.service.impl;
+
+import com.cydeo.enums.Aggregate;
+import com.cydeo.repository.AggregateVersionRepository;
+import com.cydeo.service.VersionStampService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class VersionStampServiceImpl implements VersionStampService {
+
+    private static final String BUMP = "UPDATE aggregate_versions SET version = version + 1 WHERE aggregate = ?";
+
+    private final AggregateVersionRepository aggregateVersionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate bumpTransaction;
+
+    public VersionStampServiceImpl(AggregateVersionRepository aggregateVersionRepository, JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager) {
+        this.aggregateVersionRepository = aggregateVersionRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.bumpTransaction = new TransactionTemplate(transactionManager);
+        this.bumpTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // AggregateVersionListener bumps a counter after every commit that wrote the table, so the counter changes with
+    // every commit that could change a response, whatever order concurrent transactions commit in
+    @Override
+    public String versionOf(Aggregate... aggregates) {
+        List<String> names = Arrays.stream(aggregates).map(Aggregate::getValue).collect(Collectors.toList());
+        Map<String, Long> versions = new HashMap<>();
+        for (Object[] row : aggregateVersionRepository.findVersions(names)) {
+            versions.put((String) row[0], ((Number) row[1]).longValue());
+        }
+
+        StringBuilder version = new StringBuilder();
+        for (String name : names) {
+            version.append(name).append('=').append(versions.getOrDefault(name, 0L)).append(';');
+        }
+        return version.toString();
+    }
+
+    // A short transaction of its own, so the counter row is locked for this UPDATE only and never for the length of
+    // a write; the caller's transaction may still be bound to the thread while it completes. A read between the commit
+    // and the bump gets the new rows under the old tag, which is harmless: the tag still changes right after, and
+    // ConditionalGetAspect reads the version before the body, so a new tag never goes out with an old body.
+    // One UPDATE per aggregate in enum order, so two bumps lock the counter rows in the same order.
+    @Override
+    public void bump(Collection<Aggregate> aggregates) {
+        if (aggregates.isEmpty()) return;
+        List<Object[]> rows = EnumSet.copyOf(aggregates).stream()
+                .map(aggregate -> new Object[]{aggregate.getValue()})
+                .collect(Collectors.toList());
+        try {
+            bumpTransaction.executeWithoutResult(status -> jdbcTemplate.batchUpdate(BUMP, rows));
+        } catch (RuntimeException e) {
+            // The write is committed either way; until the next bump the tags of these aggregates stay as they were
+            log.error("Could not bump the versions of {}", aggregates, e);
+        }
+    }
+
+}
@@ -0,0 +1,109 @@
+package com.cydeo.support;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Caps the requests in flight at a limit learned from latency, gradient style. Response times are averaged per window
+// (at least windowSamples samples and windowMillis long); a slow-moving average of those windows is the "healthy"
+// baseline, and every window moves the limit by baseline / window average. While responses are as fast as the
+// baseline the limit grows by about sqrt(limit) per window; when they slow down (the database is queueing) it shrinks,
+// at most by half per window before smoothing. Windows in which less than half the limit was in use leave the limit
+// alone, the load then says nothing about what the backend can take.
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final double baselineWeight;
+    private final long windowNanos;
+    private final int windowSamples;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile double limit;
+    private double baselineNanos;
+    private long windowStart = System.nanoTime();
+    private long windowSum;
+    private int windowCount;
+    private int windowMaxInFlight;
+
+    // tolerance: how much slower than the baseline still counts as healthy (1.5 = 50% slower)
+    // smoothing: share of a new estimate that goes into the limit; baselineWindows: windows in the baseline average
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit, double tolerance, double smoothing,
+                                      int baselineWindows, long windowMillis, int windowSamples) {
+        this.name = name;
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.baselineWeight = 2.0 / (baselineWindows + 1);
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.windowSamples = windowSamples;
+    }
+
+    // false means the caller has to shed the request; true has to be followed by exactly one release
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                rejected.incrementAndGet();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) return true;
+        }
+    }
+
+    public void release(long elapsedNanos) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        update(Math.max(1, elapsedNanos), inFlightBefore);
+    }
+
+    private synchronized void update(long sampleNanos, int inFlightBefore) {
+        windowSum += sampleNanos;
+        windowCount++;
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlightBefore);
+        long now = System.nanoTime();
+        if (windowCount < windowSamples || now - windowStart < windowNanos) return;
+
+        double averageNanos = (double) windowSum / windowCount;
+        int maxInFlight = windowMaxInFlight;
+        windowSum = 0;
+        windowCount = 0;
+        windowMaxInFlight = 0;
+        windowStart = now;
+
+        baselineNanos = baselineNanos == 0 ? averageNanos : baselineNanos + (averageNanos - baselineNanos) * baselineWeight;
+        // After a long slow period the baseline lags behind; let it drop quickly once responses are fast again
+        if (baselineNanos / averageNanos > 2) baselineNanos *= 0.95;
+
+        if (maxInFlight < limit / 2) return;
+
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, tolerance * baselineNanos / averageNanos));
+        double estimate = limit * gradient + Math.sqrt(limit);
+        double smoothed = limit * (1 - smoothing) + estimate * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, smoothed));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.cydeo.support;
+
+import com.cydeo.entity.Project;
+import com.cydeo.entity.Role;
+import com.cydeo.entity.Task;
+import com.cydeo.entity.User;
+import com.cydeo.enums.Aggregate;
+import com.cydeo.service.VersionStampService;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Bumps the aggregate_versions counter of every aggregate a transaction wrote, once, after that transaction
+// committed, so the counter moves only once the write is visible. A timestamp column cannot do that: a transaction
+// that started earlier can commit an older last_update_date_time after a newer one has already been read.
+@Component
+public class AggregateVersionListener implements PostFlushEventListener {
+
+    private final VersionStampService versionStampService;
+
+    // Aggregates written by the open transaction of each session; a session is only ever used by one thread
+    private final Map<EventSource, Set<Aggregate>> touched = new ConcurrentHashMap<>();
+
+    public AggregateVersionListener(VersionStampService versionStampService) {
+        this.versionStampService = versionStampService;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        touch(event.getSession(), event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        touch(event.getSession(), event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        touch(event.getSession(), event.getEntity());
+    }
+
+    private void touch(EventSource session, Object entity) {
+        Aggregate aggregate = aggregateOf(entity);
+        if (aggregate == null) return;
+
+        Set<Aggregate> aggregates = touched.get(session);
+        if (aggregates == null) {
+            aggregates = EnumSet.noneOf(Aggregate.class);
+            touched.put(session, aggregates);
+            // The commit flushes before it completes, so every write of the transaction is in the set by then;
+            // a rolled back transaction bumps nothing
+            session.getActionQueue().registerProcess((AfterTransactionCompletionProcess) (success, completedSession) -> {
+                Set<Aggregate> written = touched.remove(session);
+                if (success && written != null) versionStampService.bump(written);
+            });
+        }
+        aggregates.add(aggregate);
+    }
+
+    private Aggregate aggregateOf(Object entity) {
+        if (entity instanceof Task) return Aggregate.TASK;
+        if (entity instanceof Project) return Aggregate.PROJECT;
+        if (entity instanceof User) return Aggregate.USER;
+        if (entity instanceof Role) return Aggregate.ROLE;
+        return null;
+    }
+
+}
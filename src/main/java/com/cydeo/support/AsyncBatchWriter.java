@@ -0,0 +1,138 @@
+package com.cydeo.support;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+// Collects records from request threads and hands them to a sink in batches on one background thread, so a caller
+// only pays for a queue offer. A batch goes out when it is full or when the flush interval has passed. When the queue
+// is full the caller writes a batch itself rather than dropping records, so the sink runs on whatever transaction the
+// caller has bound and has to start its own. A batch that still fails after the retries is logged and dropped.
+@Slf4j
+public class AsyncBatchWriter<T> implements AutoCloseable {
+
+    private static final int ATTEMPTS = 3;
+
+    private final String name;
+    private final BlockingQueue<T> queue;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final Consumer<List<T>> sink;
+    private final Thread worker;
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong callerWrites = new AtomicLong();
+    private volatile boolean running = true;
+
+    public AsyncBatchWriter(String name, int capacity, int batchSize, long flushIntervalMillis, Consumer<List<T>> sink) {
+        this.name = name;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.sink = sink;
+        this.worker = new Thread(this::run, name + "-writer");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    public void submit(T record) {
+        if (queue.offer(record)) return;
+
+        // Backpressure: the caller drains and writes one batch, which frees room and slows the producer down
+        callerWrites.incrementAndGet();
+        List<T> batch = new ArrayList<>(batchSize);
+        queue.drainTo(batch, batchSize - 1);
+        batch.add(record);
+        write(batch);
+    }
+
+    public int getPending() {
+        return queue.size();
+    }
+
+    public long getWritten() {
+        return written.get();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public long getCallerWrites() {
+        return callerWrites.get();
+    }
+
+    // Stops the worker after its current batch (without interrupting a write in progress) and writes whatever is still queued
+    @Override
+    public void close() {
+        running = false;
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<T> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        for (int from = 0; from < rest.size(); from += batchSize) {
+            write(rest.subList(from, Math.min(rest.size(), from + batchSize)));
+        }
+    }
+
+    private void run() {
+        List<T> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                T first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+
+                // Give a trickle of records up to one interval to fill the batch
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+                while (batch.size() < batchSize) {
+                    if (queue.drainTo(batch, batchSize - batch.size()) > 0) continue;
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) break;
+                    T next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                if (!running) break;
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) write(batch);
+    }
+
+    private void write(List<T> batch) {
+        for (int attempt = 1; attempt <= ATTEMPTS; attempt++) {
+            try {
+                sink.accept(batch);
+                written.addAndGet(batch.size());
+                return;
+            } catch (RuntimeException e) {
+                if (attempt == ATTEMPTS) {
+                    dropped.addAndGet(batch.size());
+                    log.error("{} writer dropped {} records after {} attempts", name, batch.size(), ATTEMPTS, e);
+                    return;
+                }
+                try {
+                    Thread.sleep(100L * attempt);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+}
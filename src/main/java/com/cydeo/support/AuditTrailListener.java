@@ -0,0 +1,149 @@
+package com.cydeo.support;
+
+import com.cydeo.entity.AuditEvent;
+import com.cydeo.entity.BaseEntity;
+import com.cydeo.enums.ChangeType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+// Turns every insert and update of a BaseEntity into an audit_events row with the changed fields. The row is built
+// during the flush, handed to the batch writer only once the transaction has committed, and inserted later in a JDBC
+// batch; the write that caused it never waits for an extra INSERT.
+@Component
+public class AuditTrailListener implements PostFlushEventListener {
+
+    private static final String INSERT_EVENT =
+            "INSERT INTO audit_events (entity_name, entity_id, action, user_id, changed_at, changes) VALUES (?, ?, ?, ?, ?, ?)";
+
+    // Bookkeeping columns that change on every write and say nothing on their own
+    private static final Set<String> IGNORED = Set.of("lastUpdateDateTime", "lastUpdateUserId", "insertDateTime", "insertUserId");
+    private static final Set<String> MASKED = Set.of("passWord");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate insertTransaction;
+    private final ObjectMapper objectMapper;
+    private final AsyncBatchWriter<AuditEvent> writer;
+
+    public AuditTrailListener(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+                              @Value("${ticketing.audit.queue-capacity:20000}") int queueCapacity,
+                              @Value("${ticketing.audit.batch-size:500}") int batchSize,
+                              @Value("${ticketing.audit.flush-interval-ms:500}") long flushIntervalMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.insertTransaction = new TransactionTemplate(transactionManager);
+        this.insertTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.objectMapper = objectMapper;
+        this.writer = new AsyncBatchWriter<>("audit", queueCapacity, batchSize, flushIntervalMillis, this::insert);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (!(event.getEntity() instanceof BaseEntity)) return;
+
+        String[] names = event.getPersister().getPropertyNames();
+        Object[] state = event.getState();
+        Map<String, Map<String, Object>> changes = new LinkedHashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            if (state[i] != null) addChange(changes, names[i], null, state[i]);
+        }
+        record(event.getSession(), event.getPersister(), (BaseEntity) event.getEntity(), ChangeType.CREATED, changes);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof BaseEntity) || event.getOldState() == null) return;
+
+        String[] names = event.getPersister().getPropertyNames();
+        Object[] oldState = event.getOldState();
+        Object[] state = event.getState();
+        int[] dirty = event.getDirtyProperties();
+        if (dirty == null) {
+            dirty = IntStream.range(0, names.length).filter(i -> !Objects.equals(oldState[i], state[i])).toArray();
+        }
+
+        Map<String, Map<String, Object>> changes = new LinkedHashMap<>();
+        for (int i : dirty) addChange(changes, names[i], oldState[i], state[i]);
+        if (changes.isEmpty()) return;
+
+        // Rows are soft deleted, the delete is the update that sets isDeleted
+        ChangeType action = Boolean.TRUE.equals(((BaseEntity) event.getEntity()).getIsDeleted()) && changes.containsKey("isDeleted")
+                ? ChangeType.DELETED : ChangeType.UPDATED;
+        record(event.getSession(), event.getPersister(), (BaseEntity) event.getEntity(), action, changes);
+    }
+
+    // For rows inserted through JDBC, which this listener never sees; the caller hands them over once committed
+    public void recordCreated(Class<?> entityClass, Long entityId, Long userId, Map<String, Object> state) {
+        Map<String, Map<String, Object>> changes = new LinkedHashMap<>();
+        state.forEach((field, value) -> {
+            if (value != null) addChange(changes, field, null, value);
+        });
+        writer.submit(new AuditEvent(null, entityClass.getSimpleName(), entityId, ChangeType.CREATED, userId, LocalDateTime.now(), toJson(changes)));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writer.close();
+    }
+
+    private void record(EventSource session, EntityPersister persister, BaseEntity entity, ChangeType action,
+                        Map<String, Map<String, Object>> changes) {
+        AuditEvent auditEvent = new AuditEvent(null, persister.getMappedClass().getSimpleName(), entity.getId(), action,
+                entity.getLastUpdateUserId(), LocalDateTime.now(), toJson(changes));
+
+        // A rolled back transaction leaves no audit row
+        session.getActionQueue().registerProcess((AfterTransactionCompletionProcess) (success, completedSession) -> {
+            if (success) writer.submit(auditEvent);
+        });
+    }
+
+    private void addChange(Map<String, Map<String, Object>> changes, String field, Object from, Object to) {
+        if (IGNORED.contains(field)) return;
+        Map<String, Object> change = new LinkedHashMap<>();
+        change.put("from", MASKED.contains(field) && from != null ? "***" : plain(from));
+        change.put("to", MASKED.contains(field) && to != null ? "***" : plain(to));
+        changes.put(field, change);
+    }
+
+    // Associations are recorded by id, so lazy proxies are never initialised
+    private Object plain(Object value) {
+        if (value == null || value instanceof Number || value instanceof Boolean) return value;
+        if (value instanceof BaseEntity) return ((BaseEntity) value).getId();
+        if (value instanceof Enum) return ((Enum<?>) value).name();
+        return value.toString();
+    }
+
+    private String toJson(Map<String, Map<String, Object>> changes) {
+        try {
+            return objectMapper.writeValueAsString(changes);
+        } catch (JsonProcessingException e) {
+            return changes.keySet().toString();
+        }
+    }
+
+    // A transaction of its own: on a full queue the batch is written inside Hibernate's commit, where Spring still has
+    // the committing transaction's connection bound, and rows written on it would never be committed
+    private void insert(List<AuditEvent> events) {
+        insertTransaction.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_EVENT, events.stream()
+                .map(event -> new Object[]{event.getEntityName(), event.getEntityId(), event.getAction().name(), event.getUserId(),
+                        Timestamp.valueOf(event.getChangedAt()), event.getChanges()})
+                .collect(Collectors.toList())));
+    }
+
+}
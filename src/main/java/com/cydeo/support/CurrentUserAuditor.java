@@ -0,0 +1,57 @@
+package com.cydeo.support;
+
+import org.keycloak.adapters.springsecurity.account.SimpleKeycloakAccount;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.List;
+import java.util.Optional;
+
+// Fills insertUserId / lastUpdateUserId with the id of the logged in user. The id is looked up on the first write of
+// a request and kept in the request attributes, so a request that saves many rows does one lookup. Writes outside a
+// request or without a Keycloak login (scheduled jobs, startup) are attributed to the system user.
+@Component("currentUserAuditor")
+public class CurrentUserAuditor implements AuditorAware<Long> {
+
+    private static final String CACHE_KEY = CurrentUserAuditor.class.getName() + ".userId";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Long systemUserId;
+
+    public CurrentUserAuditor(JdbcTemplate jdbcTemplate, @Value("${ticketing.audit.system-user-id:1}") Long systemUserId) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.systemUserId = systemUserId;
+    }
+
+    @Override
+    public Optional<Long> getCurrentAuditor() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            Long cached = (Long) attributes.getAttribute(CACHE_KEY, RequestAttributes.SCOPE_REQUEST);
+            if (cached != null) return Optional.of(cached);
+        }
+
+        Long userId = resolve();
+        if (attributes != null) attributes.setAttribute(CACHE_KEY, userId, RequestAttributes.SCOPE_REQUEST);
+        return Optional.of(userId);
+    }
+
+    private Long resolve() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getDetails() instanceof SimpleKeycloakAccount)) return systemUserId;
+
+        SimpleKeycloakAccount details = (SimpleKeycloakAccount) authentication.getDetails();
+        String username = details.getKeycloakSecurityContext().getToken().getPreferredUsername();
+
+        // Plain JDBC: this runs while Hibernate flushes, a repository query here would start another flush
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM users WHERE user_name = ? AND is_deleted = false", Long.class, username);
+        return ids.isEmpty() ? systemUserId : ids.get(0);
+    }
+
+}
@@ -0,0 +1,33 @@
+package com.cydeo.support;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+public final class InQueries {
+
+    // Bind parameters per IN query; a deep page of tasks can reference more ids than a statement should carry
+    public static final int CHUNK_SIZE = 500;
+
+    private InQueries() {
+    }
+
+    // One finder call per chunk of distinct keys, the results indexed by their key. Keys nothing was found for are
+    // simply absent.
+    public static <K, T> Map<K, T> findInChunks(Collection<K> keys, Function<List<K>, List<T>> finder, Function<T, K> keyOf) {
+        List<K> distinct = new ArrayList<>(new LinkedHashSet<>(keys));
+        distinct.removeIf(Objects::isNull);
+        Map<K, T> found = new HashMap<>();
+        for (int from = 0; from < distinct.size(); from += CHUNK_SIZE) {
+            finder.apply(distinct.subList(from, Math.min(from + CHUNK_SIZE, distinct.size())))
+                    .forEach(item -> found.put(keyOf.apply(item), item));
+        }
+        return found;
+    }
+
+}
@@ -0,0 +1,153 @@
+package com.cydeo.support;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+// Invalidation keys between the nodes of a cluster over Postgres LISTEN/NOTIFY, no broker needed. NOTIFY is
+// transactional: sent inside the writing transaction it is delivered when that commits and never after a rollback.
+// Every node listens on its own connection outside the pool and skips what it sent itself. Notifications sent while
+// a node is not listening are lost, so after every (re)connect the node drops everything it caches.
+@Slf4j
+public class InvalidationChannel implements AutoCloseable {
+
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    private final String channel;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final JdbcTemplate jdbcTemplate;
+    private final Callable<Connection> listenConnection;
+    private final long pollMillis;
+    private final long reconnectMillis;
+    private final Consumer<String> onInvalidate;
+    private final Runnable onResync;
+    private Thread listener;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong resyncs = new AtomicLong();
+    private volatile boolean connected;
+    private volatile boolean running;
+
+    public InvalidationChannel(String channel, JdbcTemplate jdbcTemplate, Callable<Connection> listenConnection, long pollMillis,
+                               long reconnectMillis, Consumer<String> onInvalidate, Runnable onResync) {
+        if (!CHANNEL_NAME.matcher(channel).matches()) throw new IllegalArgumentException("Invalid channel name: " + channel);
+        this.channel = channel;
+        this.jdbcTemplate = jdbcTemplate;
+        this.listenConnection = listenConnection;
+        this.pollMillis = pollMillis;
+        this.reconnectMillis = reconnectMillis;
+        this.onInvalidate = onInvalidate;
+        this.onResync = onResync;
+    }
+
+    // Callbacks run on the listener thread from here on, so start once whatever they touch is ready
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        listener = new Thread(this::listen, channel + "-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Joins the caller's transaction when there is one, so the other nodes hear about it only once it commits
+    public void publish(String key) {
+        jdbcTemplate.execute("SELECT pg_notify(?, ?)", (PreparedStatementCallback<Boolean>) statement -> {
+            statement.setString(1, channel);
+            statement.setString(2, nodeId + " " + key);
+            return statement.execute();
+        });
+        published.incrementAndGet();
+    }
+
+    public long getPublished() {
+        return published.get();
+    }
+
+    public long getReceived() {
+        return received.get();
+    }
+
+    public long getResyncs() {
+        return resyncs.get();
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    @Override
+    public synchronized void close() throws InterruptedException {
+        running = false;
+        if (listener == null) return;
+        listener.interrupt();
+        listener.join(pollMillis + 1000);
+        listener = null;
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = listenConnection.call()) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                connected = true;
+                // Listening before dropping, so a write committed in between is not missed
+                resyncs.incrementAndGet();
+                onResync.run();
+
+                while (running) {
+                    // Waits up to pollMillis and throws once the connection is broken
+                    PGNotification[] notifications = pgConnection.getNotifications((int) pollMillis);
+                    if (notifications == null) continue;
+                    for (PGNotification notification : notifications) {
+                        received(notification.getParameter());
+                    }
+                }
+            } catch (Exception e) {
+                if (!running) break;
+                log.warn("Invalidation channel {} lost its connection, reconnecting in {} ms: {}", channel, reconnectMillis, e.getMessage());
+            } finally {
+                connected = false;
+            }
+            sleep();
+        }
+    }
+
+    private void received(String payload) {
+        int separator = payload.indexOf(' ');
+        if (separator < 0 || payload.substring(0, separator).equals(nodeId)) return;
+
+        received.incrementAndGet();
+        try {
+            onInvalidate.accept(payload.substring(separator + 1));
+        } catch (RuntimeException e) {
+            log.error("Invalidation of {} failed", payload.substring(separator + 1), e);
+        }
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(reconnectMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+}
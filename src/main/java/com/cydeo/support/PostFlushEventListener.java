@@ -0,0 +1,34 @@
+package com.cydeo.support;
+
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+
+// Insert, update and delete listeners that act during the flush and see the commit through a transaction completion
+// process. The deprecated requiresPostCommitHanding is answered here once instead of in every listener.
+public interface PostFlushEventListener extends PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    @Override
+    default void onPostInsert(PostInsertEvent event) {
+    }
+
+    @Override
+    default void onPostUpdate(PostUpdateEvent event) {
+    }
+
+    @Override
+    default void onPostDelete(PostDeleteEvent event) {
+    }
+
+    // Deprecated, but Hibernate 5.6 still declares it abstract, so it has to be implemented somewhere
+    @Override
+    @SuppressWarnings("deprecation")
+    default boolean requiresPostCommitHanding(EntityPersister persister) {
+        return false;
+    }
+
+}
@@ -0,0 +1,95 @@
+package com.cydeo.support;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token buckets kept as one number each (GCRA): the time at which the bucket would be full again. A call pushes that
+// time one emission interval further, and is refused when it would end up more than a burst ahead of now. Taking a
+// token is a single compare-and-set, no locks. A bucket whose time has passed is full, which is exactly what a new
+// bucket looks like, so idle buckets are dropped without losing anything; that keeps the map at about the number of
+// recently active users. The sweep is scheduled; a new bucket that takes the map to maxKeys also starts one on the
+// sweeper, never on the request thread. It drops the idle buckets and then arbitrary ones down to 90%, forgiving their
+// callers' debt, so the map only overshoots by the buckets created while a sweep runs.
+public class RateLimiter {
+
+    private final int maxKeys;
+    private final Executor sweeper;
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    public RateLimiter(int maxKeys, Executor sweeper) {
+        this.maxKeys = maxKeys;
+        this.sweeper = sweeper;
+    }
+
+    // 0 when the call may go ahead, otherwise the nanoseconds until it would be allowed
+    public long tryAcquire(String key, double perSecond, int burst) {
+        return tryAcquire(key, perSecond, burst, System.nanoTime());
+    }
+
+    long tryAcquire(String key, double perSecond, int burst, long now) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+            if (buckets.size() >= maxKeys) requestSweep();
+        }
+
+        long interval = (long) (1_000_000_000L / perSecond);
+        long allowance = interval * Math.max(1, burst);
+        while (true) {
+            long fullAt = bucket.get();
+            long next = (fullAt - now > 0 ? fullAt : now) + interval;
+            long wait = next - now - allowance;
+            if (wait > 0) return wait;
+            if (bucket.compareAndSet(fullAt, next)) return 0;
+        }
+    }
+
+    // Gives back a token tryAcquire took, for a call another budget refused after all
+    public void release(String key, double perSecond) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket != null) bucket.addAndGet(-(long) (1_000_000_000L / perSecond));
+    }
+
+    @Scheduled(fixedDelayString = "${ticketing.rate-limit.sweep-interval-ms:60000}")
+    public void evictIdle() {
+        evict(System.nanoTime());
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    private void requestSweep() {
+        if (!sweeping.compareAndSet(false, true)) return;
+        try {
+            sweeper.execute(() -> {
+                try {
+                    evict(System.nanoTime());
+                } finally {
+                    sweeping.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            sweeping.set(false);    // rejected, the scheduled sweep still runs
+        }
+    }
+
+    private void evict(long now) {
+        buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+        // leave some room so a stream of new users does not pay for a sweep each
+        int target = maxKeys - Math.max(1, maxKeys / 10);
+        Iterator<AtomicLong> overflow = buckets.values().iterator();
+        while (buckets.size() > target && overflow.hasNext()) {
+            overflow.next();
+            overflow.remove();
+        }
+    }
+
+}
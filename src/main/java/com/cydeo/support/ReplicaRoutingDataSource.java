@@ -0,0 +1,185 @@
+package com.cydeo.support;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Hands out replica connections to read-only transactions and primary connections to everything else. Replicas are
+// picked round robin among the ones that passed the last health check (connection valid and, when a lag query is
+// set, lag under the limit); a replica that refuses a connection is skipped until the next check passes, and with no
+// healthy replica reads go to the primary. A user who commits a read-write transaction reads from the primary for the
+// read-your-writes window, so their own change is visible even when the replicas lag.
+// Must be wrapped in a LazyConnectionDataSourceProxy: the transaction manager asks for the connection before the
+// transaction is marked read-only, the proxy delays that until the first statement.
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long readYourWritesMillis;
+    private final String lagQuery;
+    private final double maxLagSeconds;
+    private final int validationTimeoutSeconds;
+
+    private final AtomicInteger next = new AtomicInteger();
+    // user name -> until when their reads stay on the primary
+    private final Map<String, Long> primaryUntil = new ConcurrentHashMap<>();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, long readYourWritesMillis,
+                                    String lagQuery, double maxLagSeconds, int validationTimeoutSeconds) {
+        this.primary = primary;
+        replicas.forEach((name, dataSource) -> this.replicas.add(new Replica(name, dataSource)));
+        this.readYourWritesMillis = readYourWritesMillis;
+        this.lagQuery = lagQuery == null || lagQuery.isBlank() ? null : lagQuery;
+        this.maxLagSeconds = maxLagSeconds;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Replica replica = route();
+        if (replica == null) return primary.getConnection();
+        try {
+            return replica.dataSource.getConnection();
+        } catch (SQLException e) {
+            markDown(replica, e.getMessage());
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Replica replica = route();
+        if (replica == null) return primary.getConnection(username, password);
+        try {
+            return replica.dataSource.getConnection(username, password);
+        } catch (SQLException e) {
+            markDown(replica, e.getMessage());
+            return primary.getConnection(username, password);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ticketing.datasource.health-check-ms:5000}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            String problem = probe(replica);
+            if (problem != null) {
+                markDown(replica, problem);
+            } else if (!replica.healthy) {
+                replica.healthy = true;
+                log.info("Replica {} is healthy again", replica.name);
+            }
+        }
+        long now = System.currentTimeMillis();
+        primaryUntil.values().removeIf(until -> until <= now);
+    }
+
+    public Map<String, Boolean> getReplicaHealth() {
+        Map<String, Boolean> health = new LinkedHashMap<>();
+        replicas.forEach(replica -> health.put(replica.name, replica.healthy));
+        return health;
+    }
+
+    public List<DataSource> getReplicaDataSources() {
+        List<DataSource> dataSources = new ArrayList<>();
+        replicas.forEach(replica -> dataSources.add(replica.dataSource));
+        return dataSources;
+    }
+
+    // The primary is owned by whoever passed it in
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable) ((AutoCloseable) replica.dataSource).close();
+        }
+    }
+
+    // null means the primary
+    private Replica route() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            rememberWrite();
+            return null;
+        }
+        if (readsOwnWrites()) return null;
+
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) return replica;
+        }
+        return null;
+    }
+
+    // Any read-write transaction counts, the window is cheap and a missed write would show the user stale data
+    private void rememberWrite() {
+        if (readYourWritesMillis <= 0 || !TransactionSynchronizationManager.isSynchronizationActive()) return;
+        String user = currentUser();
+        if (user == null) return;
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                primaryUntil.put(user, System.currentTimeMillis() + readYourWritesMillis);
+            }
+        });
+    }
+
+    private boolean readsOwnWrites() {
+        if (readYourWritesMillis <= 0 || primaryUntil.isEmpty()) return false;
+        String user = currentUser();
+        if (user == null) return false;
+        Long until = primaryUntil.get(user);
+        return until != null && until > System.currentTimeMillis();
+    }
+
+    private String probe(Replica replica) {
+        try (Connection connection = replica.dataSource.getConnection()) {
+            if (!connection.isValid(validationTimeoutSeconds)) return "connection is not valid";
+            if (lagQuery == null) return null;
+            try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(lagQuery)) {
+                double lag = rs.next() ? rs.getDouble(1) : 0;
+                return lag > maxLagSeconds ? "lag of " + lag + "s is over " + maxLagSeconds + "s" : null;
+            }
+        } catch (SQLException e) {
+            return e.getMessage();
+        }
+    }
+
+    private void markDown(Replica replica, String problem) {
+        if (replica.healthy) log.warn("Replica {} taken out of rotation: {}", replica.name, problem);
+        replica.healthy = false;
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null ? null : authentication.getName();
+    }
+
+    private static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+    }
+
+}
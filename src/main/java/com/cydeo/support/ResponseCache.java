@@ -0,0 +1,151 @@
+package com.cydeo.support;
+
+import com.cydeo.enums.Aggregate;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+// Built responses by key, with concurrent misses of one key coalesced: the first caller builds, the others wait for
+// its result. Every entry is stamped with the write generations of the aggregates it was built from; a committed write
+// moves its aggregate's generation on, so an entry built before the write, or still being built while it committed,
+// is never served afterwards. The TTL bounds what a write that bypasses the services (or a lagging replica read
+// right after one) can leave behind.
+public class ResponseCache<V> {
+
+    public interface Loader<V> {
+        V load() throws Throwable;
+    }
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final Map<Aggregate, AtomicLong> generations = new EnumMap<>(Aggregate.class);
+    private final ConcurrentHashMap<String, CompletableFuture<Entry<V>>> entries = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public ResponseCache(int maxEntries, long ttlMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        for (Aggregate aggregate : Aggregate.values()) generations.put(aggregate, new AtomicLong());
+    }
+
+    // Only values the predicate accepts are kept; the others still go to the callers that waited for them
+    public V get(String key, Aggregate[] aggregates, Predicate<V> cacheable, Loader<V> loader) throws Throwable {
+        while (true) {
+            long stamp = stampOf(aggregates);
+            CompletableFuture<Entry<V>> future = entries.get(key);
+
+            if (future == null) {
+                CompletableFuture<Entry<V>> mine = new CompletableFuture<>();
+                if (entries.putIfAbsent(key, mine) != null) continue;
+                misses.increment();
+                return load(key, aggregates, stamp, cacheable, loader, mine);
+            }
+            if (!future.isDone()) {
+                coalesced.increment();
+                return await(future);
+            }
+
+            Entry<V> entry = future.join();
+            if (entry.stamp == stamp && System.currentTimeMillis() - entry.createdAt < ttlMillis) {
+                hits.increment();
+                return entry.value;
+            }
+            entries.remove(key, future);
+        }
+    }
+
+    public void invalidate(Aggregate aggregate) {
+        generations.get(aggregate).incrementAndGet();
+        entries.values().removeIf(future -> future.isDone() && future.join().dependsOn(aggregate));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    private V load(String key, Aggregate[] aggregates, long stamp, Predicate<V> cacheable, Loader<V> loader, CompletableFuture<Entry<V>> mine) throws Throwable {
+        V value;
+        try {
+            value = loader.load();
+        } catch (Throwable e) {
+            entries.remove(key, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+
+        // done futures in the map always hold a servable entry, so drop it before completing when it is not one
+        if (!cacheable.test(value) || stampOf(aggregates) != stamp) entries.remove(key, mine);
+        mine.complete(new Entry<>(value, aggregates, stamp, System.currentTimeMillis(), sequence.incrementAndGet()));
+        if (entries.size() > maxEntries) evictOldest();
+        return value;
+    }
+
+    private V await(CompletableFuture<Entry<V>> future) throws Throwable {
+        try {
+            return future.join().value;
+        } catch (CompletionException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void evictOldest() {
+        entries.entrySet().stream()
+                .filter(candidate -> candidate.getValue().isDone())
+                .min(Comparator.comparingLong(candidate -> candidate.getValue().join().sequence))
+                .ifPresent(oldest -> entries.remove(oldest.getKey(), oldest.getValue()));
+    }
+
+    // Generations only go up, so their sum changes whenever one of them does
+    private long stampOf(Aggregate[] aggregates) {
+        long stamp = 0;
+        for (Aggregate aggregate : aggregates) stamp += generations.get(aggregate).get();
+        return stamp;
+    }
+
+    private static final class Entry<V> {
+
+        private final V value;
+        private final Aggregate[] aggregates;
+        private final long stamp;
+        private final long createdAt;
+        private final long sequence;
+
+        private Entry(V value, Aggregate[] aggregates, long stamp, long createdAt, long sequence) {
+            this.value = value;
+            this.aggregates = aggregates;
+            this.stamp = stamp;
+            this.createdAt = createdAt;
+            this.sequence = sequence;
+        }
+
+        private boolean dependsOn(Aggregate aggregate) {
+            return Arrays.asList(aggregates).contains(aggregate);
+        }
+
+    }
+
+}
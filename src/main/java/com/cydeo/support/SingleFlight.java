@@ -0,0 +1,74 @@
+package com.cydeo.support;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Collapses concurrent calls with the same key into one: the first caller runs it, callers arriving while it runs
+// wait and get its result (or its exception). Nothing is kept afterwards, a call arriving after the result is
+// handed out runs again.
+public class SingleFlight {
+
+    public interface Call {
+        Object call() throws Throwable;
+    }
+
+    private final String name;
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public SingleFlight(String name) {
+        this.name = name;
+    }
+
+    public Object execute(String key, Call call) throws Throwable {
+        calls.increment();
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, mine);
+
+        if (running != null) {
+            coalesced.increment();
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                throw e.getCause();
+            }
+        }
+
+        try {
+            Object result = call.call();
+            inFlight.remove(key, mine);
+            mine.complete(result);
+            return result;
+        } catch (Throwable e) {
+            inFlight.remove(key, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    public double getCoalescingRatio() {
+        long total = calls.sum();
+        return total == 0 ? 0 : (double) coalesced.sum() / total;
+    }
+
+    public int getInFlight() {
+        return inFlight.size();
+    }
+
+}
@@ -0,0 +1,51 @@
+package com.cydeo.support;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+// The code base compiles for Java 11, so virtual threads (Java 21) are reached through reflection. Only the public
+// Thread.Builder interface is used; the builder implementation classes are not accessible from outside java.base.
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    public static boolean isSupported() {
+        try {
+            threadFactory("probe-");
+            return true;
+        } catch (IllegalStateException e) {
+            return false;
+        }
+    }
+
+    // Threads are named prefix0, prefix1, ...
+    public static ThreadFactory threadFactory(String prefix) {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (InvocationTargetException e) {
+            // Java 19 and 20 have them as a preview feature only
+            throw new IllegalStateException("Virtual threads are not available: " + e.getCause(), e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads need Java 21, running on " + System.getProperty("java.version"), e);
+        }
+    }
+
+    // One new virtual thread per task, there is no pool to size
+    public static ExecutorService newThreadPerTaskExecutor(String prefix) {
+        ThreadFactory factory = threadFactory(prefix);
+        try {
+            Method method = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return (ExecutorService) method.invoke(null, factory);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads need Java 21, running on " + System.getProperty("java.version"), e);
+        }
+    }
+
+}
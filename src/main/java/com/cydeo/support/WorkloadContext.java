@@ -0,0 +1,51 @@
+package com.cydeo.support;
+
+import com.cydeo.enums.Workload;
+
+import java.util.function.Supplier;
+
+// The workload of the current thread, read by WorkloadRoutingDataSource when a connection is taken. Work handed to
+// other threads (async rebuilds, parallel chunks) has to set it again there.
+public final class WorkloadContext {
+
+    private static final ThreadLocal<Workload> CURRENT = new ThreadLocal<>();
+
+    private WorkloadContext() {
+    }
+
+    public static Workload current() {
+        Workload workload = CURRENT.get();
+        return workload == null ? Workload.OLTP : workload;
+    }
+
+    // Returns what was set before, to be handed back to exit
+    public static Workload enter(Workload workload) {
+        Workload previous = CURRENT.get();
+        CURRENT.set(workload);
+        return previous;
+    }
+
+    public static void exit(Workload previous) {
+        if (previous == null) CURRENT.remove();
+        else CURRENT.set(previous);
+    }
+
+    public static <T> T call(Workload workload, Supplier<T> work) {
+        Workload previous = enter(workload);
+        try {
+            return work.get();
+        } finally {
+            exit(previous);
+        }
+    }
+
+    public static void run(Workload workload, Runnable work) {
+        Workload previous = enter(workload);
+        try {
+            work.run();
+        } finally {
+            exit(previous);
+        }
+    }
+
+}
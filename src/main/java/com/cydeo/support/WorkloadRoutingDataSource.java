@@ -0,0 +1,26 @@
+package com.cydeo.support;
+
+import com.cydeo.enums.Workload;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+// One pool per workload class on the same database, so a burst of reports queues on its own pool instead of taking
+// the connections task updates need. Like the replica routing it must sit behind a LazyConnectionDataSourceProxy,
+// the pool is picked when the first statement runs.
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource {
+
+    public WorkloadRoutingDataSource(Map<Workload, DataSource> pools) {
+        setTargetDataSources(new HashMap<>(pools));
+        setDefaultTargetDataSource(pools.get(Workload.OLTP));
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return WorkloadContext.current();
+    }
+
+}
@@ -0,0 +1,148 @@
+package com.cydeo.aspect;
+
+import com.cydeo.annotation.VersionedResource;
+import com.cydeo.enums.Aggregate;
+import com.cydeo.service.VersionStampService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.keycloak.adapters.springsecurity.account.SimpleKeycloakAccount;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConditionalGetAspectTest {
+
+    private final Endpoints target = new Endpoints();
+    private String version = "tasks=1;";
+    private Endpoints endpoints;
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    void setUp() {
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+        proxyFactory.addAspect(new ConditionalGetAspect(new VersionStampService() {
+            @Override
+            public String versionOf(Aggregate... aggregates) {
+                return version;
+            }
+
+            @Override
+            public void bump(Collection<Aggregate> aggregates) {
+            }
+        }));
+        endpoints = proxyFactory.getProxy();
+
+        request = new MockHttpServletRequest("GET", "/api/v1/task");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void should_answer_a_matching_if_none_match_with_304_without_running_the_method() {
+
+        String eTag = endpoints.getTasks("SP00").getHeaders().getETag();
+        assertNotNull(eTag);
+
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"stale\", " + eTag);
+        ResponseEntity<?> notModified = endpoints.getTasks("SP00");
+
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+        assertEquals(eTag, notModified.getHeaders().getETag());
+        assertNull(notModified.getBody());
+        assertEquals(1, target.calls);
+    }
+
+    @Test
+    void should_send_200_with_a_new_tag_once_the_version_moves() {
+
+        String eTag = endpoints.getTasks("SP00").getHeaders().getETag();
+
+        version = "tasks=2;";
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, eTag);
+        ResponseEntity<?> changed = endpoints.getTasks("SP00");
+
+        assertEquals(HttpStatus.OK, changed.getStatusCode());
+        assertEquals("SP00", changed.getBody());
+        assertNotEquals(eTag, changed.getHeaders().getETag());
+        assertEquals(2, target.calls);
+    }
+
+    @Test
+    void should_tag_per_user_endpoints_per_user() {
+
+        logIn("sam");
+        String sams = endpoints.getMyTasks().getHeaders().getETag();
+        String shared = endpoints.getTasks("SP00").getHeaders().getETag();
+
+        logIn("ozzy");
+        assertNotEquals(sams, endpoints.getMyTasks().getHeaders().getETag());
+        assertEquals(shared, endpoints.getTasks("SP00").getHeaders().getETag());
+
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, sams);
+        assertEquals(HttpStatus.OK, endpoints.getMyTasks().getStatusCode());   // ozzy never gets sam's 304
+    }
+
+    @Test
+    void should_vary_by_accept_next_to_the_vary_of_the_response() {
+
+        ResponseEntity<?> json = endpoints.getTasks("SP00");
+        assertEquals(List.of(HttpHeaders.ACCEPT_ENCODING, HttpHeaders.ACCEPT), json.getHeaders().getVary());
+
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, json.getHeaders().getETag());
+        assertEquals(List.of(HttpHeaders.ACCEPT), endpoints.getTasks("SP00").getHeaders().getVary());
+
+        MockHttpServletRequest csv = new MockHttpServletRequest("GET", "/api/v1/task");
+        csv.addHeader(HttpHeaders.ACCEPT, "text/csv");
+        csv.addHeader(HttpHeaders.IF_NONE_MATCH, json.getHeaders().getETag());
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(csv));
+        ResponseEntity<?> other = endpoints.getTasks("SP00");
+
+        assertEquals(HttpStatus.OK, other.getStatusCode());   // another representation, another tag
+        assertNotEquals(json.getHeaders().getETag(), other.getHeaders().getETag());
+    }
+
+    private void logIn(String userName) {
+        SimpleKeycloakAccount account = mock(SimpleKeycloakAccount.class, RETURNS_DEEP_STUBS);
+        when(account.getKeycloakSecurityContext().getToken().getPreferredUsername()).thenReturn(userName);
+        TestingAuthenticationToken authentication = new TestingAuthenticationToken(userName, null);
+        authentication.setDetails(account);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+
+    static class Endpoints {
+
+        private int calls;
+
+        @VersionedResource(Aggregate.TASK)
+        public ResponseEntity<?> getTasks(String projectCode) {
+            calls++;
+            return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT_ENCODING).body(projectCode);
+        }
+
+        @VersionedResource(value = Aggregate.TASK, perUser = true)
+        public ResponseEntity<?> getMyTasks() {
+            calls++;
+            return ResponseEntity.ok("mine");
+        }
+
+    }
+
+}
@@ -0,0 +1,118 @@
+package com.cydeo.aspect;
+
+import com.cydeo.annotation.CachedResponse;
+import com.cydeo.dto.ResponseWrapper;
+import com.cydeo.enums.Aggregate;
+import com.cydeo.enums.ChangeType;
+import com.cydeo.event.ProjectEvent;
+import com.cydeo.event.TaskEvent;
+import com.cydeo.support.ResponseCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheAspectTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ResponseCacheAspect aspect = new ResponseCacheAspect(new ResponseCache<>(10, 60_000),
+            new HttpMessageConverters(false, List.of(new MappingJackson2HttpMessageConverter(objectMapper))));
+    private final Endpoints target = new Endpoints();
+    private Endpoints endpoints;
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    void setUp() {
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+        proxyFactory.addAspect(aspect);
+        endpoints = proxyFactory.getProxy();
+
+        request = new MockHttpServletRequest("GET", "/api/v1/project");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void should_serve_the_serialized_body_until_a_write_event_of_its_aggregates() throws IOException {
+
+        byte[] expected = objectMapper.writeValueAsBytes(new ResponseWrapper("Projects are successfully retrieved", List.of("SP00"), HttpStatus.OK));
+
+        ResponseEntity<?> first = endpoints.getProjects("SP");
+        ResponseEntity<?> second = endpoints.getProjects("SP");
+        assertEquals(1, target.calls);
+        assertArrayEquals(expected, (byte[]) first.getBody());
+        assertArrayEquals(expected, (byte[]) second.getBody());
+        assertEquals(MediaType.APPLICATION_JSON, second.getHeaders().getContentType());
+
+        endpoints.getProjects("AP");
+        assertEquals(2, target.calls);   // other arguments, other entry
+
+        aspect.onTaskEvent(new TaskEvent(ChangeType.UPDATED, 1L, null, null, null, null, null, null, null, null, null));
+        endpoints.getProjects("SP");
+        assertEquals(2, target.calls);
+
+        aspect.onProjectEvent(new ProjectEvent(ChangeType.UPDATED, 1L, "SP00", null, null, null, null, null, null));
+        endpoints.getProjects("SP");
+        assertEquals(3, target.calls);
+    }
+
+    @Test
+    void should_send_the_gzipped_copy_to_clients_that_accept_it() throws IOException {
+
+        byte[] plain = (byte[]) endpoints.getProjects("SP").getBody();
+
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "br, gzip;q=0.8");
+        ResponseEntity<?> gzipped = endpoints.getProjects("SP");
+
+        assertEquals(1, target.calls);
+        assertEquals("gzip", gzipped.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(List.of(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING), gzipped.getHeaders().getVary());
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream((byte[]) gzipped.getBody()))) {
+            assertArrayEquals(plain, gzip.readAllBytes());
+        }
+    }
+
+    @Test
+    void should_leave_formats_it_can_not_write_to_spring_mvc() {
+
+        request.addHeader(HttpHeaders.ACCEPT, "text/csv");
+
+        assertTrue(endpoints.getProjects("SP").getBody() instanceof ResponseWrapper);
+        endpoints.getProjects("SP");
+        assertEquals(2, target.calls);
+    }
+
+    static class Endpoints {
+
+        private int calls;
+
+        @CachedResponse({Aggregate.PROJECT, Aggregate.USER})
+        public ResponseEntity<?> getProjects(String prefix) {
+            calls++;
+            return ResponseEntity.ok(new ResponseWrapper("Projects are successfully retrieved", List.of(prefix + "00"), HttpStatus.OK));
+        }
+
+    }
+
+}
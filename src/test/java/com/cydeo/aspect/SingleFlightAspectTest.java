@@ -0,0 +1,109 @@
+package com.cydeo.aspect;
+
+import com.cydeo.annotation.SingleFlight;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightAspectTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Service target = new Service();
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void should_coalesce_only_calls_of_the_same_user_with_the_same_arguments() throws Exception {
+
+        Service service = proxy(new MockEnvironment());
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<String> first = executor.submit(() -> as("sam", () -> service.pendingTasks("COMPLETE")));
+            assertTrue(target.running.await(5, TimeUnit.SECONDS));
+
+            Future<String> sameUser = executor.submit(() -> as("sam", () -> service.pendingTasks("COMPLETE")));
+            while (meterRegistry.get("ticketing.single-flight.coalesced").functionCounter().count() < 1) Thread.sleep(1);
+            Future<String> otherArguments = executor.submit(() -> as("sam", () -> service.pendingTasks("OPEN")));
+            Future<String> otherUser = executor.submit(() -> as("mike", () -> service.pendingTasks("COMPLETE")));
+            while (target.executions.get() < 3) Thread.sleep(1);
+            target.release.countDown();
+
+            assertEquals("sam:COMPLETE", first.get(5, TimeUnit.SECONDS));
+            assertEquals("sam:COMPLETE", sameUser.get(5, TimeUnit.SECONDS));
+            assertEquals("sam:OPEN", otherArguments.get(5, TimeUnit.SECONDS));
+            assertEquals("mike:COMPLETE", otherUser.get(5, TimeUnit.SECONDS));
+            assertEquals(3, target.executions.get());
+            assertEquals(0.25, meterRegistry.get("ticketing.single-flight.coalescing-ratio").tag("method", "pending-tasks").gauge().value());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void should_run_every_call_of_a_method_that_is_turned_off() throws Exception {
+
+        Service service = proxy(new MockEnvironment().withProperty("ticketing.single-flight.methods.pending-tasks", "false"));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> first = executor.submit(() -> as("sam", () -> service.pendingTasks("COMPLETE")));
+            Future<String> second = executor.submit(() -> as("sam", () -> service.pendingTasks("COMPLETE")));
+            while (target.executions.get() < 2) Thread.sleep(1);
+            target.release.countDown();
+
+            assertEquals("sam:COMPLETE", first.get(5, TimeUnit.SECONDS));
+            assertEquals("sam:COMPLETE", second.get(5, TimeUnit.SECONDS));
+            assertNull(meterRegistry.find("ticketing.single-flight.calls").functionCounter());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Service proxy(MockEnvironment environment) {
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+        proxyFactory.addAspect(new SingleFlightAspect(environment, meterRegistry));
+        return proxyFactory.getProxy();
+    }
+
+    private static String as(String userName, Callable<String> call) throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(userName, null));
+        try {
+            return call.call();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    static class Service {
+
+        private final CountDownLatch running = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final AtomicInteger executions = new AtomicInteger();
+
+        @SingleFlight("pending-tasks")
+        public String pendingTasks(String status) throws InterruptedException {
+            executions.incrementAndGet();
+            running.countDown();
+            release.await();
+            return SecurityContextHolder.getContext().getAuthentication().getName() + ":" + status;
+        }
+
+    }
+
+}
@@ -0,0 +1,106 @@
+package com.cydeo.config;
+
+import com.cydeo.dto.ProjectDTO;
+import com.cydeo.dto.ResponseWrapper;
+import com.cydeo.dto.RoleDTO;
+import com.cydeo.dto.TaskDTO;
+import com.cydeo.dto.UserDTO;
+import com.cydeo.enums.Gender;
+import com.cydeo.enums.Status;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class JacksonConfigTest {
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    private final JacksonConfig jacksonConfig = new JacksonConfig();
+    private final MappingJackson2SmileHttpMessageConverter smileConverter = jacksonConfig.smileHttpMessageConverter(builder());
+    private final MappingJackson2CborHttpMessageConverter cborConverter = jacksonConfig.cborHttpMessageConverter(builder());
+    private final ObjectMapper jsonMapper = builder().build();
+
+    private final MockMvc mvc = MockMvcBuilders.standaloneSetup(new TaskEndpoint())
+            .setMessageConverters(new MappingJackson2HttpMessageConverter(jsonMapper), smileConverter, cborConverter)
+            .build();
+
+    @Test
+    void should_answer_in_the_binary_format_the_client_accepts() throws Exception {
+
+        MvcResult smile = mvc.perform(get("/task").accept(SMILE)).andExpect(status().isOk()).andExpect(content().contentType(SMILE)).andReturn();
+        MvcResult cbor = mvc.perform(get("/task").accept(MediaType.APPLICATION_CBOR)).andExpect(content().contentType(MediaType.APPLICATION_CBOR)).andReturn();
+        MvcResult json = mvc.perform(get("/task").accept(MediaType.ALL)).andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON)).andReturn();
+
+        JsonNode expected = jsonMapper.readTree(json.getResponse().getContentAsByteArray());
+        assertEquals(expected, smileConverter.getObjectMapper().readTree(smile.getResponse().getContentAsByteArray()));
+        assertEquals(expected, cborConverter.getObjectMapper().readTree(cbor.getResponse().getContentAsByteArray()));
+        assertEquals("2026-10-19", expected.at("/data/assignedDate").asText());
+        assertTrue(expected.at("/data/assignedEmployee/passWord").isMissingNode());
+        assertTrue(smile.getResponse().getContentAsByteArray().length < json.getResponse().getContentAsByteArray().length);
+    }
+
+    @Test
+    void should_read_binary_request_bodies() throws Exception {
+
+        byte[] body = smileConverter.getObjectMapper().writeValueAsBytes(task());
+
+        MvcResult result = mvc.perform(post("/task").contentType(SMILE).content(body).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertEquals("Controllers", jsonMapper.readTree(result.getResponse().getContentAsByteArray()).at("/data/taskSubject").asText());
+    }
+
+    // what Boot hands to the config: its settings plus the module beans
+    private static Jackson2ObjectMapperBuilder builder() {
+        return new Jackson2ObjectMapperBuilder()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .modulesToInstall(new JacksonConfig().blackbirdModule());
+    }
+
+    static TaskDTO task() {
+        UserDTO employee = new UserDTO(3L, "Sam", "Smith", "sam", "Abc1", "Abc1", true, "5551234567", new RoleDTO(3L, "Employee"), Gender.MALE);
+        UserDTO manager = new UserDTO(2L, "Ozzy", "Osbourne", "ozzy", "Abc1", "Abc1", true, "5557654321", new RoleDTO(2L, "Manager"), Gender.MALE);
+        ProjectDTO project = new ProjectDTO("API Project", "SP00", manager, LocalDate.of(2026, 10, 1), LocalDate.of(2026, 12, 31), "REST API", Status.OPEN);
+        project.setId(1L);
+        return new TaskDTO(1L, project, employee, "Controllers", "Task controller", Status.IN_PROGRESS, LocalDate.of(2026, 10, 19));
+    }
+
+    @RestController
+    static class TaskEndpoint {
+
+        @GetMapping("/task")
+        public ResponseWrapper getTask() {
+            return new ResponseWrapper("Task is successfully retrieved", task(), HttpStatus.OK);
+        }
+
+        @PostMapping("/task")
+        public ResponseWrapper createTask(@RequestBody TaskDTO task) {
+            return new ResponseWrapper("Task is successfully created", task, HttpStatus.OK);
+        }
+
+    }
+
+}
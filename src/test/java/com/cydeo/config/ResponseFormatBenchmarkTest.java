@@ -0,0 +1,138 @@
+package com.cydeo.config;
+
+import com.cydeo.dto.ResponseWrapper;
+import com.cydeo.dto.TaskDTO;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import lombok.Data;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Run with: mvn test -Pbenchmark
+// A task list response of TASKS tasks (every task with its project, manager and employee, like GET /api/v1/task)
+// written and read by each format, with and without Blackbird. Reading goes into typed DTOs, like our clients do.
+@Tag("benchmark")
+class ResponseFormatBenchmarkTest {
+
+    private static final int TASKS = 10_000;
+    private static final int WARMUP_ROUNDS = 30;
+    private static final int ROUNDS = 50;
+
+    @Test
+    void task_list_size_and_serialization_cost_per_format() throws IOException {
+
+        ResponseWrapper response = new ResponseWrapper("Tasks are successfully retrieved", tasks(), HttpStatus.OK);
+
+        List<Result> results = new ArrayList<>();
+        for (boolean blackbird : new boolean[]{false, true}) {
+            results.add(run("json", new JsonFactory(), blackbird, response));
+            results.add(run("smile", new SmileFactory(), blackbird, response));
+            results.add(run("cbor", new CBORFactory(), blackbird, response));
+        }
+        results.forEach(System.out::println);
+
+        Result json = results.get(0);
+        Result smile = results.get(1);
+        assertTrue(smile.bytes < json.bytes, "smile " + smile.bytes + " bytes, json " + json.bytes + " bytes");
+    }
+
+    private static Result run(String format, JsonFactory factory, boolean blackbird, ResponseWrapper response) throws IOException {
+
+        Jackson2ObjectMapperBuilder builder = new Jackson2ObjectMapperBuilder().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (blackbird) builder.modulesToInstall(new BlackbirdModule());
+        ObjectMapper mapper = builder.factory(factory).build();
+        JavaType type = mapper.getTypeFactory().constructType(TaskListResponse.class);
+
+        byte[] payload = mapper.writeValueAsBytes(response);
+        TaskListResponse decoded = mapper.readValue(payload, type);
+        assertEquals(TASKS, decoded.getData().size());
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            mapper.readValue(mapper.writeValueAsBytes(response), type);
+        }
+
+        long writeNanos = 0;
+        long readNanos = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            payload = mapper.writeValueAsBytes(response);
+            long written = System.nanoTime();
+            mapper.readValue(payload, type);
+            writeNanos += written - start;
+            readNanos += System.nanoTime() - written;
+        }
+        return new Result(format + (blackbird ? "+blackbird" : ""), payload.length, gzip(payload).length,
+                writeNanos / ROUNDS / 1_000_000.0, readNanos / ROUNDS / 1_000_000.0);
+    }
+
+    private static List<TaskDTO> tasks() {
+        List<TaskDTO> tasks = new ArrayList<>(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            TaskDTO task = JacksonConfigTest.task();
+            task.setId((long) i);
+            task.setTaskSubject("Task " + i);
+            task.getProject().setProjectCode("SP" + (i % 50));
+            task.getAssignedEmployee().setUserName("employee" + (i % 200) + "@cydeo.com");
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    private static byte[] gzip(byte[] payload) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(payload);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Data
+    static class TaskListResponse {
+
+        private boolean success;
+        private String message;
+        private Integer code;
+        private List<TaskDTO> data;
+
+    }
+
+    private static final class Result {
+
+        private final String format;
+        private final int bytes;
+        private final int gzippedBytes;
+        private final double writeMillis;
+        private final double readMillis;
+
+        private Result(String format, int bytes, int gzippedBytes, double writeMillis, double readMillis) {
+            this.format = format;
+            this.bytes = bytes;
+            this.gzippedBytes = gzippedBytes;
+            this.writeMillis = writeMillis;
+            this.readMillis = readMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-16s %,10d bytes  %,9d gzipped  write %7.2f ms  read %7.2f ms", format, bytes, gzippedBytes, writeMillis, readMillis);
+        }
+
+    }
+
+}
@@ -0,0 +1,138 @@
+package com.cydeo.config;
+
+import com.cydeo.support.VirtualThreads;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServer;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// Run with: mvn test -Pbenchmark (the virtual thread half needs Java 21: mvn test -Pbenchmark,virtual-threads)
+// Every request waits STUB_LATENCY_MS on a stub standing in for a JDBC round trip or a Keycloak admin call, like the
+// blocking calls in our services do. With platform threads Tomcat serves at most threads.max (200) of them at a time.
+@Tag("benchmark")
+class VirtualThreadBenchmarkTest {
+
+    private static final int STUB_LATENCY_MS = 50;
+    private static final int CONCURRENCY = 1000;
+    private static final int REQUESTS = 20_000;
+
+    @Test
+    void blocking_requests_on_platform_and_virtual_threads() throws Exception {
+
+        Result platform = run("platform", null);
+        System.out.println(platform);
+
+        assumeTrue(VirtualThreads.isSupported(), "virtual threads need Java 21, running on " + System.getProperty("java.version"));
+        ExecutorService requestExecutor = VirtualThreads.newThreadPerTaskExecutor("http-vt-");
+        try {
+            Result virtual = run("virtual", requestExecutor);
+            System.out.println(virtual);
+            assertTrue(virtual.throughput > platform.throughput * 2, "virtual " + virtual.throughput + " req/s, platform " + platform.throughput + " req/s");
+        } finally {
+            requestExecutor.shutdown();
+        }
+    }
+
+    private static Result run(String mode, ExecutorService requestExecutor) throws Exception {
+
+        TomcatServletWebServerFactory factory = new TomcatServletWebServerFactory(0);
+        if (requestExecutor != null) factory.addProtocolHandlerCustomizers(new VirtualThreadConfig().virtualThreadProtocolHandler(requestExecutor));
+        WebServer server = factory.getWebServer(context -> context.addServlet("stub", new StubServlet()).addMapping("/*"));
+        server.start();
+
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        URI uri = URI.create("http://localhost:" + server.getPort() + "/api/v1/task/list");
+        try {
+            // warm up connections and the JIT
+            send(client, uri, CONCURRENCY, 2_000, new long[2_000]);
+
+            long[] latencies = new long[REQUESTS];
+            long start = System.nanoTime();
+            int ok = send(client, uri, CONCURRENCY, REQUESTS, latencies);
+            long elapsed = System.nanoTime() - start;
+
+            assertEquals(REQUESTS, ok);
+            Arrays.sort(latencies);
+            return new Result(mode, REQUESTS * 1e9 / elapsed, latencies[REQUESTS / 2] / 1_000_000, latencies[REQUESTS * 99 / 100] / 1_000_000);
+        } finally {
+            server.stop();
+        }
+    }
+
+    // Keeps `concurrency` requests in flight until `requests` have completed
+    private static int send(HttpClient client, URI uri, int concurrency, int requests, long[] latencies) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(concurrency);
+        AtomicInteger ok = new AtomicInteger();
+        CompletableFuture<?>[] responses = new CompletableFuture[requests];
+        for (int i = 0; i < requests; i++) {
+            inFlight.acquire();
+            int index = i;
+            long sent = System.nanoTime();
+            responses[i] = client.sendAsync(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, e) -> {
+                        latencies[index] = System.nanoTime() - sent;
+                        if (response != null && response.statusCode() == 200) ok.incrementAndGet();
+                        inFlight.release();
+                    });
+        }
+        CompletableFuture.allOf(responses).orTimeout(5, TimeUnit.MINUTES).exceptionally(e -> null).join();
+        return ok.get();
+    }
+
+    static class StubServlet extends HttpServlet {
+
+        @Override
+        protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            try {
+                Thread.sleep(STUB_LATENCY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            response.setContentType("application/json");
+            response.getWriter().write("{\"success\":true}");
+        }
+
+    }
+
+    private static final class Result {
+
+        private final String mode;
+        private final double throughput;
+        private final long p50Millis;
+        private final long p99Millis;
+
+        private Result(String mode, double throughput, long p50Millis, long p99Millis) {
+            this.mode = mode;
+            this.throughput = throughput;
+            this.p50Millis = p50Millis;
+            this.p99Millis = p99Millis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s threads: %d requests, %d in flight, %d ms stub latency: %.0f req/s, p50 %d ms, p99 %d ms",
+                    mode, REQUESTS, CONCURRENCY, STUB_LATENCY_MS, throughput, p50Millis, p99Millis);
+        }
+
+    }
+
+}
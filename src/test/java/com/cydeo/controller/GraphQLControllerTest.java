@@ -0,0 +1,124 @@
+package com.cydeo.controller;
+
+import com.cydeo.config.GraphQLConfig;
+import com.cydeo.dto.ProjectNodeDTO;
+import com.cydeo.dto.RoleDTO;
+import com.cydeo.dto.TaskNodeDTO;
+import com.cydeo.dto.UserNodeDTO;
+import com.cydeo.enums.Gender;
+import com.cydeo.enums.Status;
+import com.cydeo.service.GraphQLService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.graphql.GraphQlTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.graphql.test.tester.GraphQlTester;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@GraphQlTest(controllers = GraphQLController.class, properties = "ticketing.graphql.max-depth=4")
+@Import(GraphQLConfig.class)
+class GraphQLControllerTest {
+
+    @Autowired
+    private GraphQlTester graphQlTester;
+
+    @MockBean
+    private GraphQLService graphQLService;
+
+    @Test
+    void should_load_each_relation_of_a_list_with_one_batch_of_distinct_ids() {
+
+        when(graphQLService.listAllTasks()).thenReturn(List.of(
+                task(1L, "Controllers", 10L, 3L),
+                task(2L, "Services", 10L, 3L),
+                task(3L, "Queries", 20L, 4L)));
+        when(graphQLService.findProjectsByIds(anyCollection())).thenReturn(Map.of(
+                10L, project(10L, "SP00", 2L),
+                20L, project(20L, "SP01", 2L)));
+        when(graphQLService.findUsersByIds(Set.of(3L, 4L))).thenReturn(Map.of(3L, user(3L, "sam", 3L), 4L, user(4L, "emma", 3L)));
+        when(graphQLService.findUsersByIds(Set.of(2L))).thenReturn(Map.of(2L, user(2L, "ozzy", 2L)));
+
+        graphQlTester.document("{ tasks { taskSubject assignedEmployee { userName } project { projectCode assignedManager { userName } } } }")
+                .execute()
+                .path("tasks[*].assignedEmployee.userName").entityList(String.class).containsExactly("sam", "sam", "emma")
+                .path("tasks[*].project.projectCode").entityList(String.class).containsExactly("SP00", "SP00", "SP01")
+                .path("tasks[*].project.assignedManager.userName").entityList(String.class).containsExactly("ozzy", "ozzy", "ozzy");
+
+        verify(graphQLService).listAllTasks();
+        verify(graphQLService).findProjectsByIds(Set.of(10L, 20L));
+        verify(graphQLService).findUsersByIds(Set.of(3L, 4L));
+        verify(graphQLService).findUsersByIds(Set.of(2L));
+        verifyNoMoreInteractions(graphQLService);
+    }
+
+    @Test
+    void should_load_the_roles_of_a_user_list_with_one_batch() {
+
+        when(graphQLService.listAllUsers()).thenReturn(List.of(user(2L, "ozzy", 2L), user(3L, "sam", 3L), user(4L, "emma", 3L)));
+        when(graphQLService.findRolesByIds(anyCollection())).thenReturn(Map.of(2L, new RoleDTO(2L, "Manager"), 3L, new RoleDTO(3L, "Employee")));
+
+        graphQlTester.document("{ users { userName role { description } } }")
+                .execute()
+                .path("users[*].role.description").entityList(String.class).containsExactly("Manager", "Employee", "Employee");
+
+        verify(graphQLService).findRolesByIds(Set.of(2L, 3L));
+    }
+
+    @Test
+    void should_resolve_a_missing_reference_to_null() {
+
+        when(graphQLService.listAllTasks()).thenReturn(List.of(task(1L, "Controllers", null, 99L)));
+        when(graphQLService.findUsersByIds(anyCollection())).thenReturn(Map.of());
+
+        graphQlTester.document("{ tasks { taskSubject project { projectCode } assignedEmployee { userName } } }")
+                .execute()
+                .path("tasks[0].project").valueIsNull()
+                .path("tasks[0].assignedEmployee").valueIsNull();
+    }
+
+    @Test
+    void should_reject_a_too_deep_query_before_running_it() {
+
+        graphQlTester.document("{ tasks { project { assignedManager { role { description } } } } }")
+                .execute()
+                .errors()
+                .satisfy(errors -> assertTrue(errors.get(0).getMessage().contains("depth")));
+
+        verifyNoInteractions(graphQLService);
+    }
+
+    @Test
+    void should_reject_a_too_complex_query_before_running_it() {
+
+        graphQlTester.document("{ tasks { id taskSubject taskDetail taskStatus assignedDate" +
+                        " project { id projectCode projectName startDate endDate projectDetail projectStatus }" +
+                        " assignedEmployee { id firstName lastName userName enabled phone gender } } }")
+                .execute()
+                .errors()
+                .satisfy(errors -> assertTrue(errors.get(0).getMessage().contains("complexity")));
+
+        verifyNoInteractions(graphQLService);
+    }
+
+    private static TaskNodeDTO task(Long id, String subject, Long projectId, Long employeeId) {
+        return new TaskNodeDTO(id, subject, "", Status.OPEN, LocalDate.now(), projectId, employeeId);
+    }
+
+    private static ProjectNodeDTO project(Long id, String code, Long managerId) {
+        return new ProjectNodeDTO(id, code, "", LocalDate.now(), LocalDate.now().plusDays(30), "", Status.OPEN, managerId);
+    }
+
+    private static UserNodeDTO user(Long id, String userName, Long roleId) {
+        return new UserNodeDTO(id, "", "", userName, true, "", Gender.MALE, roleId);
+    }
+
+}
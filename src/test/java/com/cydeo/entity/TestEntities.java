@@ -0,0 +1,59 @@
+package com.cydeo.entity;
+
+import com.cydeo.enums.Status;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDate;
+
+// Rows for the @DataJpaTest slices. Auditing is not part of a slice, so persist fills in the audit user columns.
+public class TestEntities {
+
+    private final TestEntityManager entityManager;
+
+    public TestEntities(TestEntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    public <T extends BaseEntity> T persist(T entity) {
+        entity.setInsertUserId(1L);
+        entity.setLastUpdateUserId(1L);
+        return entityManager.persist(entity);
+    }
+
+    public static User user(String firstName, String userName, Role role) {
+        User user = new User();
+        user.setFirstName(firstName);
+        user.setLastName("");
+        user.setUserName(userName);
+        user.setPassWord("");
+        user.setEnabled(true);
+        user.setRole(role);
+        return user;
+    }
+
+    public static Project project(String code, User manager) {
+        return project(code, manager, LocalDate.now(), LocalDate.now().plusDays(30));
+    }
+
+    public static Project project(String code, User manager, LocalDate startDate, LocalDate endDate) {
+        Project project = new Project();
+        project.setProjectCode(code);
+        project.setProjectName(code);
+        project.setProjectStatus(Status.OPEN);
+        project.setStartDate(startDate);
+        project.setEndDate(endDate);
+        project.setAssignedManager(manager);
+        return project;
+    }
+
+    public static Task task(String subject, Project project, User employee) {
+        Task task = new Task();
+        task.setTaskSubject(subject);
+        task.setTaskStatus(Status.OPEN);
+        task.setAssignedDate(LocalDate.now());
+        task.setProject(project);
+        task.setAssignedEmployee(employee);
+        return task;
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.cydeo.filter;
+
+import com.cydeo.support.AdaptiveConcurrencyLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitFilterTest {
+
+    private final AdaptiveConcurrencyLimiter readLimiter = new AdaptiveConcurrencyLimiter("read", 1, 1, 10, 1.5, 0.2, 600, 1000, 10);
+    private final AdaptiveConcurrencyLimiter writeLimiter = new AdaptiveConcurrencyLimiter("write", 1, 1, 10, 1.5, 0.2, 600, 1000, 10);
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(readLimiter, writeLimiter, 2, new ObjectMapper());
+
+    @Test
+    void should_shed_with_503_and_retry_after_when_the_limit_is_reached() throws Exception {
+
+        assertTrue(readLimiter.tryAcquire());
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/task"), response, new MockFilterChain());
+
+        assertEquals(503, response.getStatus());
+        assertEquals("2", response.getHeader("Retry-After"));
+        assertTrue(response.getContentAsString().contains("\"success\":false"));
+    }
+
+    @Test
+    void should_keep_writes_going_while_reads_are_at_their_limit() throws Exception {
+
+        assertTrue(readLimiter.tryAcquire());
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("PUT", "/api/v1/task/employee/update/"), response, new MockFilterChain());
+
+        assertEquals(200, response.getStatus());
+        assertEquals(0, writeLimiter.getInFlight());
+    }
+
+    @Test
+    void should_leave_event_streams_alone() throws Exception {
+
+        assertTrue(readLimiter.tryAcquire());
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/task/employee/stream"), response, new MockFilterChain());
+
+        assertEquals(200, response.getStatus());
+    }
+
+}
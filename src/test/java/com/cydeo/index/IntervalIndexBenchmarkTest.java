@@ -0,0 +1,70 @@
+package com.cydeo.index;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Run with: mvn test -Pbenchmark
+@Tag("benchmark")
+class IntervalIndexBenchmarkTest {
+
+    private static final int PROJECTS = 1_000_000;
+    private static final int QUERIES = 10_000;
+    private static final int YEARS = 30;
+    private static final LocalDate BASE = LocalDate.of(2020, 1, 1);
+
+    @Test
+    void timeline_queries_over_one_million_projects() {
+
+        Random random = new Random(7);
+        List<IntervalIndex.Span> spans = new ArrayList<>(PROJECTS);
+        List<LocalDate[]> linear = new ArrayList<>(PROJECTS);
+        for (long id = 0; id < PROJECTS; id++) {
+            LocalDate start = BASE.plusDays(random.nextInt(YEARS * 365));
+            LocalDate end = start.plusDays(7 + random.nextInt(60));
+            spans.add(new IntervalIndex.Span(id, start, end));
+            linear.add(new LocalDate[]{start, end});
+        }
+
+        IntervalIndex index = new IntervalIndex(1024);
+        long loadStart = System.nanoTime();
+        index.load(spans);
+        long loadMillis = (System.nanoTime() - loadStart) / 1_000_000;
+
+        long writeStart = System.nanoTime();
+        for (int i = 0; i < 20_000; i++) {
+            LocalDate start = BASE.plusDays(random.nextInt(YEARS * 365));
+            index.put(random.nextInt(PROJECTS), start, start.plusDays(30));
+        }
+        long writeMillis = (System.nanoTime() - writeStart) / 1_000_000;
+
+        LocalDate[] froms = new LocalDate[QUERIES];
+        for (int i = 0; i < QUERIES; i++) froms[i] = BASE.plusDays(random.nextInt(YEARS * 365));
+
+        long matches = 0;
+        long indexStart = System.nanoTime();
+        for (LocalDate from : froms) matches += index.overlapping(from, from.plusDays(6)).size();
+        long indexNanos = System.nanoTime() - indexStart;
+
+        long scanned = 0;
+        long scanStart = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            LocalDate from = froms[i];
+            LocalDate to = from.plusDays(6);
+            for (LocalDate[] span : linear) if (!span[0].isAfter(to) && !span[1].isBefore(from)) scanned++;
+        }
+        long scanNanos = (System.nanoTime() - scanStart) / 100 * QUERIES;
+
+        System.out.printf("IntervalIndex: load %d ms, 20000 writes in %d ms, %d week queries in %d ms (%.1f matches avg), linear scan would take ~%d ms%n",
+                loadMillis, writeMillis, QUERIES, indexNanos / 1_000_000, (double) matches / QUERIES, scanNanos / 1_000_000);
+        assertTrue(scanned > 0);
+        assertTrue(indexNanos < scanNanos);
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.cydeo.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntervalIndexTest {
+
+    private static final LocalDate BASE = LocalDate.of(2026, 1, 1);
+
+    @Test
+    void should_return_overlapping_spans_in_start_order() {
+
+        IntervalIndex index = new IntervalIndex(16);
+        index.load(List.of(
+                new IntervalIndex.Span(1, BASE, BASE.plusDays(10)),
+                new IntervalIndex.Span(2, BASE.plusDays(20), BASE.plusDays(30)),
+                new IntervalIndex.Span(3, BASE.minusDays(5), BASE),
+                new IntervalIndex.Span(4, BASE.plusDays(25), null)));
+
+        assertEquals(List.of(3L, 1L), index.overlapping(BASE, BASE.plusDays(5)));
+        assertEquals(List.of(2L, 4L), index.overlapping(BASE.plusDays(25), BASE.plusDays(25)));
+        assertEquals(List.of(4L), index.overlapping(BASE.plusYears(5), null));
+        assertTrue(index.overlapping(BASE.plusDays(11), BASE.plusDays(19)).isEmpty());
+    }
+
+    @Test
+    void should_apply_writes_before_and_after_compaction() {
+
+        IntervalIndex index = new IntervalIndex(2);
+        index.load(List.of(new IntervalIndex.Span(1, BASE, BASE.plusDays(10))));
+
+        index.put(1, BASE.plusDays(100), BASE.plusDays(110));
+        assertTrue(index.overlapping(BASE, BASE.plusDays(10)).isEmpty());
+        assertEquals(List.of(1L), index.overlapping(BASE.plusDays(105), BASE.plusDays(105)));
+
+        index.put(2, BASE, BASE.plusDays(1));
+        index.remove(1);   // third write, compacts
+        assertEquals(1, index.size());
+        assertEquals(List.of(2L), index.overlapping(null, null));
+    }
+
+    @Test
+    void should_match_a_linear_scan_on_random_spans() {
+
+        Random random = new Random(42);
+        IntervalIndex index = new IntervalIndex(64);
+        Map<Long, LocalDate[]> expected = new HashMap<>();
+
+        List<IntervalIndex.Span> initial = new ArrayList<>();
+        for (long id = 0; id < 5_000; id++) {
+            LocalDate start = BASE.plusDays(random.nextInt(1000));
+            LocalDate end = start.plusDays(random.nextInt(90));
+            initial.add(new IntervalIndex.Span(id, start, end));
+            expected.put(id, new LocalDate[]{start, end});
+        }
+        index.load(initial);
+
+        for (int round = 0; round < 500; round++) {
+            long id = random.nextInt(6_000);
+            if (random.nextInt(4) == 0) {
+                index.remove(id);
+                expected.remove(id);
+            } else {
+                LocalDate start = BASE.plusDays(random.nextInt(1000));
+                LocalDate end = start.plusDays(random.nextInt(90));
+                index.put(id, start, end);
+                expected.put(id, new LocalDate[]{start, end});
+            }
+
+            LocalDate from = BASE.plusDays(random.nextInt(1100));
+            LocalDate to = from.plusDays(random.nextInt(30));
+            Set<Long> scanned = expected.entrySet().stream()
+                    .filter(entry -> !entry.getValue()[0].isAfter(to) && !entry.getValue()[1].isBefore(from))
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toSet());
+            assertEquals(scanned, new HashSet<>(index.overlapping(from, to)));
+        }
+        assertEquals(expected.size(), index.size());
+    }
+
+}
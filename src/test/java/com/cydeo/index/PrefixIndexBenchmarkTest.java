@@ -0,0 +1,38 @@
+package com.cydeo.index;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Run with: mvn test -Pbenchmark
+@Tag("benchmark")
+class PrefixIndexBenchmarkTest {
+
+    private static final int USERS = 100_000;
+    private static final int QUERIES = 1000;
+
+    @Test
+    void prefix_lookups_over_one_hundred_thousand_users() {
+
+        PrefixIndex<Integer> index = new PrefixIndex<>(2000);
+        long loadStart = System.nanoTime();
+        for (int i = 0; i < USERS; i++) {
+            index.put(String.valueOf(i), List.of("user" + i + "@cydeo.com", "First" + i, "Last" + i), i);
+        }
+        long loadMillis = (System.nanoTime() - loadStart) / 1_000_000;
+
+        long start = System.nanoTime();
+        for (int i = 0; i < QUERIES; i++) {
+            assertEquals(10, index.search("user" + (10 + i % 90), 10, value -> true).size());
+        }
+        long averageMicros = (System.nanoTime() - start) / 1000 / QUERIES;
+
+        System.out.printf("PrefixIndex: %d users loaded in %d ms, %d lookups at %d us avg%n", USERS, loadMillis, QUERIES, averageMicros);
+        assertTrue(averageMicros < 1000, "average lookup took " + averageMicros + " us");
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.cydeo.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrefixIndexTest {
+
+    @Test
+    void should_return_each_document_once_in_term_order() {
+
+        PrefixIndex<String> index = new PrefixIndex<>(1000);
+        index.put("1", List.of("john@cydeo.com", "John", "Smith"), "John Smith");
+        index.put("2", List.of("jo@cydeo.com", "Jo", "Jones"), "Jo Jones");
+        index.put("3", List.of("mike@cydeo.com", "Mike", "Johnson"), "Mike Johnson");
+
+        List<String> result = index.search("jo", 10, value -> true);
+
+        assertEquals(List.of("Jo Jones", "John Smith", "Mike Johnson"), result);
+        assertEquals(List.of("Jo Jones"), index.search("JO", 1, value -> true));
+    }
+
+    @Test
+    void should_replace_terms_on_update_and_forget_removed_documents() {
+
+        PrefixIndex<String> index = new PrefixIndex<>(1000);
+        index.put("1", List.of("SP00", "Spring Core"), "SP00 - Spring Core");
+        index.put("1", List.of("SP00", "Spring Boot"), "SP00 - Spring Boot");
+
+        assertEquals(List.of("SP00 - Spring Boot"), index.search("spring b", 10, value -> true));
+        assertTrue(index.search("spring c", 10, value -> true).isEmpty());
+
+        index.remove("1");
+
+        assertTrue(index.search("sp", 10, value -> true).isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void should_stop_at_the_limit_on_a_large_index() {
+
+        PrefixIndex<Integer> index = new PrefixIndex<>(2000);
+        for (int i = 0; i < 10_000; i++) {
+            index.put(String.valueOf(i), List.of("user" + i + "@cydeo.com", "First" + i, "Last" + i), i);
+        }
+
+        assertEquals(List.of(4200, 4201, 4202, 4203, 4204), index.search("user42", 5, value -> true));
+        assertEquals(List.of(421, 4210), index.search("last421", 2, value -> true));
+    }
+
+}
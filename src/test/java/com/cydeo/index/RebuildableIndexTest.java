@@ -0,0 +1,100 @@
+package com.cydeo.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RebuildableIndexTest {
+
+    @Test
+    void should_replay_writes_that_arrive_while_loading_on_the_new_copy() throws Exception {
+
+        RebuildableIndex<List<String>, String> index = new RebuildableIndex<>("test index", new ArrayList<>(List.of("old")), List::add);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch written = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<List<String>> rebuilt = executor.submit(() -> index.rebuild(() -> {
+                loading.countDown();
+                await(written);
+                return new ArrayList<>(List.of("loaded"));
+            }));
+
+            loading.await(5, TimeUnit.SECONDS);
+            index.apply("during");
+            assertEquals(List.of("old", "during"), index.get());   // still served from the live copy
+            written.countDown();
+
+            List<String> fresh = rebuilt.get(5, TimeUnit.SECONDS);
+            assertSame(fresh, index.get());
+            assertEquals(List.of("loaded", "during"), index.get());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        index.apply("after");
+        assertEquals(List.of("loaded", "during", "after"), index.get());
+    }
+
+    @Test
+    void should_keep_the_live_copy_when_the_load_fails() {
+
+        List<String> live = new ArrayList<>(List.of("old"));
+        RebuildableIndex<List<String>, String> index = new RebuildableIndex<>("test index", live, List::add);
+
+        assertThrows(IllegalStateException.class, () -> index.rebuild(() -> {
+            index.apply("during");
+            throw new IllegalStateException("database is down");
+        }));
+        assertNull(index.rebuild(() -> null));
+
+        assertSame(live, index.get());
+        index.apply("after");
+        assertEquals(List.of("old", "during", "after"), index.get());
+    }
+
+    @Test
+    void should_serve_nothing_until_the_first_load_and_keep_the_writes_for_it() {
+
+        RebuildableIndex<List<String>, String> index = new RebuildableIndex<>("test index", null, List::add);
+        index.apply("before");
+        assertNull(index.get());
+
+        index.rebuild(() -> {
+            index.apply("during");
+            return new ArrayList<>(List.of("loaded"));
+        });
+
+        assertEquals(List.of("loaded", "during"), index.get());
+    }
+
+    @Test
+    void should_log_a_failed_background_build_instead_of_failing_the_future() {
+
+        RebuildableIndex<List<String>, String> index = new RebuildableIndex<>("test index", null, List::add);
+
+        index.rebuildInBackground(() -> index.rebuild(() -> {
+            throw new IllegalStateException("database is down");
+        }), Runnable::run).join();
+
+        assertNull(index.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
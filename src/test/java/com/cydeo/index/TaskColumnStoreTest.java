@@ -0,0 +1,90 @@
+package com.cydeo.index;
+
+import com.cydeo.enums.Status;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskColumnStoreTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 19);
+
+    @Test
+    void should_group_counts_and_open_task_aging() {
+
+        TaskColumnStore store = new TaskColumnStore(4, 1024);
+        store.put(1, 10L, 100L, Status.OPEN, TODAY.minusDays(3));
+        store.put(2, 10L, 100L, Status.IN_PROGRESS, TODAY.minusDays(40));
+        store.put(3, 10L, 101L, Status.COMPLETE, TODAY.minusDays(100));
+        store.put(4, 11L, null, Status.OPEN, null);
+        store.put(5, 11L, 101L, Status.OPEN, TODAY.minusDays(200));  // grows past the initial capacity
+
+        Map<Long, TaskColumnStore.GroupStats> byProject = store.aggregate(TaskColumnStore.GroupBy.PROJECT,
+                new TaskColumnStore.Filter(null, null, null, null), TODAY);
+
+        TaskColumnStore.GroupStats project10 = byProject.get(10L);
+        assertEquals(3, project10.getTotal());
+        assertEquals(1, project10.getCount(Status.COMPLETE));
+        assertEquals(1.0 / 3, project10.getCompletionRate(), 1e-9);
+        assertEquals(21.5, project10.getAverageOpenAgeDays(), 1e-9);
+        assertEquals(40, project10.getMaxOpenAgeDays());
+        assertArrayEquals(new long[]{1, 0, 1, 0}, project10.getOpenAgeBuckets());
+
+        Map<Long, TaskColumnStore.GroupStats> byEmployee = store.aggregate(TaskColumnStore.GroupBy.EMPLOYEE,
+                new TaskColumnStore.Filter(List.of(11L), null, null, null), TODAY);
+        assertEquals(new HashSet<>(Arrays.asList(101L, null)), byEmployee.keySet());
+        assertEquals(1, byEmployee.get(null).getOpenCount());
+    }
+
+    @Test
+    void should_apply_updates_removals_and_filters() {
+
+        TaskColumnStore store = new TaskColumnStore(16, 1024);
+        store.put(1, 10L, 100L, Status.OPEN, TODAY);
+        store.put(2, 10L, 100L, Status.OPEN, TODAY.minusDays(10));
+        store.put(1, 10L, 100L, Status.COMPLETE, TODAY);
+        store.remove(2);
+        store.put(3, 10L, 200L, Status.OPEN, TODAY.minusDays(1));   // reuses the removed row
+
+        assertEquals(2, store.size());
+        Map<Long, TaskColumnStore.GroupStats> stats = store.aggregate(TaskColumnStore.GroupBy.PROJECT,
+                new TaskColumnStore.Filter(null, 100L, null, null), TODAY);
+        assertEquals(1, stats.get(10L).getCount(Status.COMPLETE));
+        assertEquals(0, stats.get(10L).getOpenCount());
+
+        assertTrue(store.aggregate(TaskColumnStore.GroupBy.PROJECT, new TaskColumnStore.Filter(null, 999L, null, null), TODAY).isEmpty());
+        assertEquals(1, store.aggregate(TaskColumnStore.GroupBy.PROJECT,
+                new TaskColumnStore.Filter(null, null, TODAY.minusDays(2), TODAY.minusDays(1)), TODAY).get(10L).getTotal());
+    }
+
+    @Test
+    void should_give_the_same_answer_with_a_parallel_scan() {
+
+        Random random = new Random(3);
+        TaskColumnStore sequential = new TaskColumnStore(1000, Integer.MAX_VALUE);
+        TaskColumnStore parallel = new TaskColumnStore(1000, 512);
+        for (long id = 1; id <= 50_000; id++) {
+            Long project = (long) random.nextInt(50);
+            Long employee = random.nextInt(10) == 0 ? null : (long) random.nextInt(200);
+            Status status = Status.values()[random.nextInt(3)];
+            LocalDate assigned = TODAY.minusDays(random.nextInt(365));
+            sequential.put(id, project, employee, status, assigned);
+            parallel.put(id, project, employee, status, assigned);
+        }
+
+        TaskColumnStore.Filter filter = new TaskColumnStore.Filter(null, null, TODAY.minusDays(180), null);
+        Map<Long, TaskColumnStore.GroupStats> expected = sequential.aggregate(TaskColumnStore.GroupBy.EMPLOYEE, filter, TODAY);
+        Map<Long, TaskColumnStore.GroupStats> actual = parallel.aggregate(TaskColumnStore.GroupBy.EMPLOYEE, filter, TODAY);
+
+        assertEquals(expected.keySet(), actual.keySet());
+        expected.forEach((employee, stats) -> {
+            assertEquals(stats.getTotal(), actual.get(employee).getTotal());
+            assertEquals(stats.getMaxOpenAgeDays(), actual.get(employee).getMaxOpenAgeDays());
+            assertArrayEquals(stats.getOpenAgeBuckets(), actual.get(employee).getOpenAgeBuckets());
+        });
+    }
+
+}
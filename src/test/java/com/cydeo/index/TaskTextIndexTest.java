@@ -0,0 +1,68 @@
+package com.cydeo.index;
+
+import com.cydeo.enums.Status;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskTextIndexTest {
+
+    private List<Long> ids(List<TaskTextIndex.Hit> hits) {
+        return hits.stream().map(TaskTextIndex.Hit::getTaskId).collect(Collectors.toList());
+    }
+
+    @Test
+    void should_rank_subject_matches_first_and_apply_filters() {
+
+        TaskTextIndex index = new TaskTextIndex();
+        index.put(new TaskTextIndex.Document(1, 10L, 100L, Status.OPEN, "Fix login page", "The login button does nothing"));
+        index.put(new TaskTextIndex.Document(2, 10L, 101L, Status.COMPLETE, "Update docs", "Mention the login flow"));
+        index.put(new TaskTextIndex.Document(3, 11L, 100L, Status.OPEN, "Database migration", "Add index to tasks"));
+
+        assertEquals(List.of(1L, 2L), ids(index.search("Login", document -> true, 10)));
+        assertEquals(List.of(2L), ids(index.search("login", document -> document.getStatus() == Status.COMPLETE, 10)));
+        assertEquals(List.of(3L), ids(index.search("the index", document -> document.getProjectId() == 11L, 10)));
+        assertTrue(index.search("the", document -> true, 10).isEmpty());
+    }
+
+    @Test
+    void should_replace_and_remove_documents() {
+
+        TaskTextIndex index = new TaskTextIndex();
+        index.put(new TaskTextIndex.Document(1, 10L, 100L, Status.OPEN, "Fix login page", ""));
+        index.put(new TaskTextIndex.Document(1, 10L, 100L, Status.OPEN, "Fix signup page", ""));
+
+        assertTrue(index.search("login", document -> true, 10).isEmpty());
+        assertEquals(List.of(1L), ids(index.search("signup", document -> true, 10)));
+
+        index.remove(1L);
+
+        assertTrue(index.search("signup", document -> true, 10).isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void should_restore_the_same_index_from_a_snapshot(@TempDir Path directory) throws Exception {
+
+        TaskTextIndex index = new TaskTextIndex();
+        index.put(new TaskTextIndex.Document(1, 10L, null, Status.IN_PROGRESS, "Fix login page", "Button"));
+        index.put(new TaskTextIndex.Document(2, null, 101L, null, "Login docs", null));
+        LocalDateTime watermark = LocalDateTime.of(2026, 10, 19, 10, 0);
+        index.advanceWatermark(watermark);
+
+        Path file = directory.resolve("tasks.idx");
+        index.writeTo(file);
+        TaskTextIndex restored = TaskTextIndex.readFrom(file);
+
+        assertEquals(2, restored.size());
+        assertEquals(watermark, restored.getWatermark());
+        assertEquals(ids(index.search("login button", document -> true, 10)), ids(restored.search("login button", document -> true, 10)));
+    }
+
+}
@@ -0,0 +1,95 @@
+package com.cydeo.interceptor;
+
+import com.cydeo.annotation.RateLimited;
+import com.cydeo.exception.RateLimitExceededException;
+import com.cydeo.support.RateLimiter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitInterceptorTest {
+
+    private final RateLimitInterceptor interceptor = new RateLimitInterceptor(new RateLimiter(100, Runnable::run), 600, 100, Map.of("Manager", 2.0));
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void should_refuse_calls_over_the_endpoint_budget_with_a_retry_hint() throws Exception {
+
+        login("employee", "ROLE_Employee");
+        HandlerMethod handler = new HandlerMethod(new Endpoints(), Endpoints.class.getMethod("report"));
+
+        assertTrue(call(handler));
+        assertTrue(call(handler));
+        RateLimitExceededException exception = assertThrows(RateLimitExceededException.class, () -> call(handler));
+        assertTrue(exception.getRetryAfterSeconds() >= 1);
+    }
+
+    @Test
+    void should_scale_the_budget_by_role_and_count_each_user_separately() throws Exception {
+
+        HandlerMethod handler = new HandlerMethod(new Endpoints(), Endpoints.class.getMethod("report"));
+
+        login("manager", "ROLE_Manager");
+        for (int i = 0; i < 4; i++) assertTrue(call(handler));
+        assertThrows(RateLimitExceededException.class, () -> call(handler));
+
+        login("other-manager", "ROLE_Manager");
+        assertTrue(call(handler));
+    }
+
+    @Test
+    void should_not_charge_the_default_budget_for_a_call_the_endpoint_budget_refuses() throws Exception {
+
+        RateLimitInterceptor interceptor = new RateLimitInterceptor(new RateLimiter(100, Runnable::run), 1, 3, Map.of());
+        login("employee", "ROLE_Employee");
+        HandlerMethod report = new HandlerMethod(new Endpoints(), Endpoints.class.getMethod("report"));
+        HandlerMethod list = new HandlerMethod(new Endpoints(), Endpoints.class.getMethod("list"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest(), response, report));
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest(), response, report));
+        for (int i = 0; i < 5; i++) {
+            RateLimitExceededException refused = assertThrows(RateLimitExceededException.class,
+                    () -> interceptor.preHandle(new MockHttpServletRequest(), response, report));
+            assertTrue(refused.getMessage().contains("report"));
+        }
+
+        // Two of the three default tokens are used, the refused calls gave theirs back
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest(), response, list));
+        assertThrows(RateLimitExceededException.class, () -> interceptor.preHandle(new MockHttpServletRequest(), response, list));
+    }
+
+    private boolean call(HandlerMethod handler) {
+        return interceptor.preHandle(new MockHttpServletRequest("GET", "/api/v1/report"), new MockHttpServletResponse(), handler);
+    }
+
+    private static void login(String userName, String role) {
+        TestingAuthenticationToken authentication = new TestingAuthenticationToken(userName, null, role);
+        authentication.setAuthenticated(true);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+
+    static class Endpoints {
+
+        @RateLimited(value = "report", perMinute = 1, burst = 2)
+        public void report() {
+        }
+
+        public void list() {
+        }
+
+    }
+
+}
@@ -0,0 +1,120 @@
+package com.cydeo.service.impl;
+
+import com.cydeo.dto.BatchLookupDTO;
+import com.cydeo.dto.ProjectDTO;
+import com.cydeo.dto.TaskDTO;
+import com.cydeo.dto.UserDTO;
+import com.cydeo.entity.Project;
+import com.cydeo.entity.Role;
+import com.cydeo.entity.Task;
+import com.cydeo.entity.TestEntities;
+import com.cydeo.entity.User;
+import com.cydeo.exception.BadRequestException;
+import com.cydeo.exception.TicketingProjectException;
+import com.cydeo.mapper.ProjectMapper;
+import com.cydeo.mapper.TaskMapper;
+import com.cydeo.mapper.UserMapper;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static com.cydeo.entity.TestEntities.project;
+import static com.cydeo.entity.TestEntities.task;
+import static com.cydeo.entity.TestEntities.user;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect", "spring.sql.init.mode=never",
+        "spring.jpa.properties.hibernate.generate_statistics=true", "ticketing.batch-lookup.max-keys=3"})
+@Import({BatchLookupServiceImpl.class, TaskMapper.class, ProjectMapper.class, UserMapper.class})
+class BatchLookupServiceImplTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private BatchLookupServiceImpl batchLookupService;
+
+    private TestEntities entities;
+    private Long controllers;
+    private Long services;
+
+    @BeforeEach
+    void setUp() {
+        entities = new TestEntities(entityManager);
+        Role manager = entities.persist(new Role("Manager"));
+        Role employee = entities.persist(new Role("Employee"));
+        User ozzy = entities.persist(user("Ozzy", "ozzy", manager));
+        User sam = entities.persist(user("Sam", "sam", employee));
+        User gone = user("Gone", "gone", employee);
+        gone.setIsDeleted(true);
+        entities.persist(gone);
+
+        Project api = entities.persist(project("SP00", ozzy));
+        entities.persist(project("SP01", ozzy));
+        controllers = entities.persist(task("Controllers", api, sam)).getId();
+        services = entities.persist(task("Services", api, ozzy)).getId();
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void should_answer_in_request_order_with_the_misses_in_one_query() throws TicketingProjectException {
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        BatchLookupDTO<Long, TaskDTO> tasks = batchLookupService.findTasks(Arrays.asList(services, -1L, controllers));
+
+        assertEquals(1, statistics.getPrepareStatementCount());   // the projects, managers, employees and roles come along
+        assertEquals("Services", tasks.getItems().get(0).getTaskSubject());
+        assertNull(tasks.getItems().get(1));
+        assertEquals("Controllers", tasks.getItems().get(2).getTaskSubject());
+        assertEquals("ozzy", tasks.getItems().get(2).getProject().getAssignedManager().getUserName());
+        assertEquals("Employee", tasks.getItems().get(2).getAssignedEmployee().getRole().getDescription());
+        assertEquals(List.of(-1L), tasks.getMissing());
+    }
+
+    @Test
+    void should_repeat_an_item_asked_for_twice() throws TicketingProjectException {
+
+        BatchLookupDTO<String, ProjectDTO> projects = batchLookupService.findProjects(List.of("SP01", "SP00", "SP01"));
+
+        assertEquals(List.of("SP01", "SP00", "SP01"), projects.getItems().stream().map(ProjectDTO::getProjectCode).collect(Collectors.toList()));
+        assertTrue(projects.getMissing().isEmpty());
+    }
+
+    @Test
+    void should_report_deleted_users_as_missing() throws TicketingProjectException {
+
+        BatchLookupDTO<String, UserDTO> users = batchLookupService.findUsers(List.of("sam", "gone"));
+
+        assertEquals("Employee", users.getItems().get(0).getRole().getDescription());
+        assertNull(users.getItems().get(1));
+        assertEquals(List.of("gone"), users.getMissing());
+    }
+
+    @Test
+    void should_reject_more_keys_than_allowed() {
+
+        List<Long> ids = LongStream.rangeClosed(1, 4).boxed().collect(Collectors.toCollection(ArrayList::new));
+        assertThrows(BadRequestException.class, () -> batchLookupService.findTasks(ids));
+        assertDoesNotThrow(() -> batchLookupService.findTasks(Collections.nCopies(3, controllers)));
+    }
+
+}
@@ -0,0 +1,185 @@
+package com.cydeo.service.impl;
+
+import com.cydeo.dto.TaskNodeDTO;
+import com.cydeo.enums.ChangeType;
+import com.cydeo.enums.Status;
+import com.cydeo.event.TaskEvent;
+import com.cydeo.repository.TaskRepository;
+import com.cydeo.service.TaskAnalyticsService;
+import com.cydeo.service.TaskSearchService;
+import com.cydeo.service.TimelineService;
+import com.cydeo.service.TypeaheadService;
+import com.cydeo.support.ResponseCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+// What a node rebuilds when it hears about a remote write; the notifications themselves need Postgres, see CacheCoherenceServiceImplTest
+@ExtendWith(MockitoExtension.class)
+class CacheCoherenceServiceImplRebuildTest {
+
+    @Mock
+    private TypeaheadService typeaheadService;
+
+    @Mock
+    private TaskSearchService taskSearchService;
+
+    @Mock
+    private TimelineService timelineService;
+
+    @Mock
+    private TaskAnalyticsService taskAnalyticsService;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Captor
+    private ArgumentCaptor<TaskEvent> taskEvent;
+
+    private final List<Runnable> queued = new ArrayList<>();
+    private final ResponseCache<Object> responseCache = new ResponseCache<>(10, 60_000);
+    private CacheCoherenceServiceImpl cacheCoherenceService;
+
+    @BeforeEach
+    void setUp() {
+        Executor executor = queued::add;
+        cacheCoherenceService = new CacheCoherenceServiceImpl(mock(DataSource.class), new DataSourceProperties(), provider(responseCache),
+                new SimpleMeterRegistry(), taskRepository, provider(typeaheadService), provider(taskSearchService), provider(timelineService),
+                provider(taskAnalyticsService), provider(executor), "ticketing_test", 50, 100);
+    }
+
+    @Test
+    void should_rebuild_the_indexes_built_from_the_written_aggregate() {
+
+        cacheCoherenceService.evict("tasks");
+        runQueued();
+        verify(taskSearchService).rebuild();
+        verify(taskAnalyticsService).rebuild();
+        verifyNoInteractions(typeaheadService, timelineService);
+
+        cacheCoherenceService.evict("projects");
+        runQueued();
+        verify(typeaheadService).rebuild();
+        verify(timelineService).rebuild();
+
+        cacheCoherenceService.evict("unknown");
+        assertTrue(queued.isEmpty());
+    }
+
+    @Test
+    void should_reload_only_the_written_task() {
+
+        when(taskRepository.findNodeById(7L)).thenReturn(new TaskNodeDTO(7L, "Deploy", "to prod", Status.IN_PROGRESS, LocalDate.now(), 3L, 5L));
+
+        cacheCoherenceService.evict("tasks:7");
+
+        assertTrue(queued.isEmpty());
+        verify(taskSearchService).onTaskEvent(taskEvent.capture());
+        verify(taskAnalyticsService).onTaskEvent(taskEvent.getValue());
+        verify(taskSearchService, never()).rebuild();
+        verify(taskAnalyticsService, never()).rebuild();
+
+        TaskEvent event = taskEvent.getValue();
+        assertEquals(ChangeType.UPDATED, event.getType());
+        assertEquals(7L, event.getTaskId());
+        assertEquals(3L, event.getProjectId());
+        assertEquals(5L, event.getEmployeeId());
+        assertEquals(Status.IN_PROGRESS, event.getTaskStatus());
+        assertEquals("Deploy", event.getTaskSubject());
+    }
+
+    @Test
+    void should_remove_a_task_that_is_gone() {
+
+        cacheCoherenceService.evict("tasks:7");   // the mock finds nothing, as for a soft deleted row
+
+        verify(taskSearchService).onTaskEvent(taskEvent.capture());
+        assertEquals(ChangeType.DELETED, taskEvent.getValue().getType());
+        assertEquals(7L, taskEvent.getValue().getTaskId());
+        assertTrue(queued.isEmpty());
+    }
+
+    @Test
+    void should_rebuild_the_task_indexes_when_the_task_cannot_be_reloaded() {
+
+        when(taskRepository.findNodeById(7L)).thenThrow(new IllegalStateException("database is down"));
+
+        cacheCoherenceService.evict("tasks:7");
+        runQueued();
+
+        verify(taskSearchService, never()).onTaskEvent(any());
+        verify(taskSearchService).rebuild();
+        verify(taskAnalyticsService).rebuild();
+    }
+
+    @Test
+    void should_queue_one_rebuild_for_a_burst_of_notifications() {
+
+        for (int i = 0; i < 5; i++) cacheCoherenceService.evict("users");
+        assertEquals(1, queued.size());
+
+        runQueued();
+        cacheCoherenceService.evict("users");   // arrives after the rebuild started, needs one more
+        runQueued();
+
+        verify(typeaheadService, times(2)).rebuild();
+    }
+
+    @Test
+    void should_rebuild_everything_after_a_reconnect_but_not_on_the_first_connect() {
+
+        cacheCoherenceService.evictAll();
+        assertTrue(queued.isEmpty());
+
+        cacheCoherenceService.evictAll();
+        runQueued();
+
+        verify(typeaheadService).rebuild();
+        verify(taskSearchService).rebuild();
+        verify(timelineService).rebuild();
+        verify(taskAnalyticsService).rebuild();
+    }
+
+    @Test
+    void should_keep_going_when_a_rebuild_fails() {
+
+        doThrow(new IllegalStateException("database is down")).doNothing().when(taskSearchService).rebuild();
+
+        cacheCoherenceService.evict("tasks");
+        runQueued();
+        cacheCoherenceService.evict("tasks");
+        runQueued();
+
+        verify(taskSearchService, times(2)).rebuild();
+    }
+
+    private void runQueued() {
+        List<Runnable> tasks = new ArrayList<>(queued);
+        queued.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> ObjectProvider<T> provider(T bean) {
+        return (ObjectProvider<T>) new StaticListableBeanFactory(Map.of("bean", bean)).getBeanProvider(bean.getClass());
+    }
+
+}
@@ -0,0 +1,185 @@
+package com.cydeo.service.impl;
+
+import com.cydeo.enums.Aggregate;
+import com.cydeo.enums.ChangeType;
+import com.cydeo.event.ProjectEvent;
+import com.cydeo.event.TaskEvent;
+import com.cydeo.support.ResponseCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.env.MockPropertySource;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// Two nodes as two application contexts in one JVM against a local Postgres; skipped when there is none. Point it
+// elsewhere with -Dticketing.test.postgres-url=..., -Dticketing.test.postgres-username=..., -Dticketing.test.postgres-password=...
+class CacheCoherenceServiceImplTest {
+
+    private static final String URL = System.getProperty("ticketing.test.postgres-url", "jdbc:postgresql://localhost:5432/ticketing-app");
+    private static final String USERNAME = System.getProperty("ticketing.test.postgres-username", "postgres");
+    private static final String PASSWORD = System.getProperty("ticketing.test.postgres-password", "7410");
+    private static final Aggregate[] PROJECTS = {Aggregate.PROJECT, Aggregate.USER};
+
+    private final String channel = "ticketing_test_" + System.nanoTime();
+    private final AtomicInteger loads = new AtomicInteger();
+    private AnnotationConfigApplicationContext nodeA;
+    private AnnotationConfigApplicationContext nodeB;
+
+    @BeforeEach
+    void setUp() {
+        try (Connection ignored = DriverManager.getConnection(URL, USERNAME, PASSWORD)) {
+            nodeA = node();
+            nodeB = node();
+        } catch (SQLException e) {
+            assumeTrue(false, "No Postgres at " + URL);
+        }
+        await(() -> resyncs(nodeA) == 1 && resyncs(nodeB) == 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (nodeA != null) nodeA.close();
+        if (nodeB != null) nodeB.close();
+    }
+
+    @Test
+    void should_evict_on_the_other_node_when_a_write_commits() throws Throwable {
+
+        cachedProjects(nodeB);
+
+        inTransaction(nodeA, false, () -> nodeA.publishEvent(new ProjectEvent(ChangeType.UPDATED, 1L, "SP00", null, null, null, null, null, null)));
+        await(() -> received(nodeB) == 1);
+
+        cachedProjects(nodeB);
+        assertEquals(2, loads.get());
+        assertEquals(0, received(nodeA));   // its own write, evicted locally already
+    }
+
+    @Test
+    void should_not_notify_a_rolled_back_write() throws Throwable {
+
+        cachedProjects(nodeB);
+
+        inTransaction(nodeA, true, () -> nodeA.publishEvent(new ProjectEvent(ChangeType.UPDATED, 1L, "SP00", null, null, null, null, null, null)));
+        inTransaction(nodeA, false, () -> nodeA.publishEvent(new TaskEvent(ChangeType.UPDATED, 1L, null, null, null, null, null, null, null, null, null)));
+        // Delivered in commit order, so the project write would have arrived before the task write
+        await(() -> received(nodeB) == 1);
+
+        cachedProjects(nodeB);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void should_drop_everything_after_a_reconnect() throws Throwable {
+
+        cachedProjects(nodeB);
+
+        new JdbcTemplate(nodeA.getBean(DataSource.class)).query("SELECT pg_terminate_backend(pid) FROM pg_stat_activity " +
+                "WHERE query = ? AND pid <> pg_backend_pid()", resultSet -> null, "LISTEN " + channel);
+        await(() -> resyncs(nodeB) == 2);
+
+        cachedProjects(nodeB);
+        assertEquals(2, loads.get());
+    }
+
+    private AnnotationConfigApplicationContext node() {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MockPropertySource()
+                .withProperty("ticketing.cache-coherence.enabled", "true")
+                .withProperty("ticketing.cache-coherence.channel", channel)
+                .withProperty("ticketing.cache-coherence.poll-ms", "50")
+                .withProperty("ticketing.cache-coherence.reconnect-ms", "100"));
+        context.register(NodeConfig.class, CacheCoherenceServiceImpl.class);
+        context.refresh();
+        return context;
+    }
+
+    private void cachedProjects(AnnotationConfigApplicationContext node) throws Throwable {
+        @SuppressWarnings("unchecked")
+        ResponseCache<Object> cache = node.getBean(ResponseCache.class);
+        cache.get("projects", PROJECTS, value -> true, () -> loads.incrementAndGet());
+    }
+
+    private static void inTransaction(AnnotationConfigApplicationContext node, boolean rollback, Runnable work) {
+        new TransactionTemplate(node.getBean(DataSourceTransactionManager.class)).executeWithoutResult(status -> {
+            work.run();
+            if (rollback) status.setRollbackOnly();
+        });
+    }
+
+    private static double received(AnnotationConfigApplicationContext node) {
+        return node.getBean(MeterRegistry.class).get("ticketing.cache-coherence.received").functionCounter().count();
+    }
+
+    private static double resyncs(AnnotationConfigApplicationContext node) {
+        return node.getBean(MeterRegistry.class).get("ticketing.cache-coherence.resyncs").functionCounter().count();
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out");
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    static class NodeConfig {
+
+        @Bean
+        DataSourceProperties dataSourceProperties() {
+            DataSourceProperties properties = new DataSourceProperties();
+            properties.setUrl(URL);
+            properties.setUsername(USERNAME);
+            properties.setPassword(PASSWORD);
+            return properties;
+        }
+
+        @Bean
+        DataSource dataSource() {
+            return new DriverManagerDataSource(URL, USERNAME, PASSWORD);
+        }
+
+        @Bean
+        DataSourceTransactionManager transactionManager(DataSource dataSource) {
+            return new DataSourceTransactionManager(dataSource);
+        }
+
+        @Bean
+        ResponseCache<Object> responseCache() {
+            return new ResponseCache<>(10, 60_000);
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+    }
+
+}
@@ -0,0 +1,164 @@
+package com.cydeo.service.impl;
+
+import com.cydeo.dto.ManagerHomeDTO;
+import com.cydeo.dto.ProjectDTO;
+import com.cydeo.dto.RoleDTO;
+import com.cydeo.dto.TaskDTO;
+import com.cydeo.dto.UserDTO;
+import com.cydeo.service.ProjectService;
+import com.cydeo.service.RoleService;
+import com.cydeo.service.TaskService;
+import com.cydeo.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.keycloak.adapters.springsecurity.account.SimpleKeycloakAccount;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ManagerHomeServiceImplTest {
+
+    @Mock
+    private ProjectService projectService;
+
+    @Mock
+    private TaskService taskService;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private RoleService roleService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final UserDTO manager = new UserDTO();
+    private ManagerHomeServiceImpl managerHomeService;
+
+    @BeforeEach
+    void setUp() {
+        managerHomeService = new ManagerHomeServiceImpl(projectService, taskService, userService, roleService, transactionManager, executor, 1000);
+
+        SimpleKeycloakAccount account = mock(SimpleKeycloakAccount.class, RETURNS_DEEP_STUBS);
+        when(account.getKeycloakSecurityContext().getToken().getPreferredUsername()).thenReturn("ozzy");
+        TestingAuthenticationToken authentication = new TestingAuthenticationToken("ozzy", null);
+        authentication.setDetails(account);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+
+        lenient().when(userService.findByUserName("ozzy")).thenReturn(manager);   // not reached when the open tasks part never starts
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void should_run_the_parts_at_the_same_time_as_the_logged_in_user() {
+
+        // Every part waits until all four have started, run one after the other they would time out
+        CountDownLatch started = new CountDownLatch(4);
+        when(projectService.listAllProjectDetails()).thenAnswer(invocation -> {
+            assertEquals("ozzy", SecurityContextHolder.getContext().getAuthentication().getName());
+            return awaitOthers(started, List.of(new ProjectDTO()));
+        });
+        when(taskService.listAllNonCompletedByProjectManager(manager)).thenAnswer(invocation -> awaitOthers(started, List.of(new TaskDTO())));
+        when(userService.listAllByRole("Employee")).thenAnswer(invocation -> awaitOthers(started, List.of(new UserDTO())));
+        when(roleService.listAllRoles()).thenAnswer(invocation -> awaitOthers(started, List.of(new RoleDTO(3L, "Employee"))));
+
+        ManagerHomeDTO home = managerHomeService.managerHome();
+
+        assertEquals(1, home.getProjects().size());
+        assertEquals(1, home.getOpenTasks().size());
+        assertEquals(1, home.getEmployees().size());
+        assertEquals(List.of(new RoleDTO(3L, "Employee")), home.getRoles());
+        assertTrue(home.getUnavailable().isEmpty());
+    }
+
+    @Test
+    void should_leave_out_the_parts_that_fail_or_run_out_of_time() {
+
+        when(projectService.listAllProjectDetails()).thenReturn(List.of(new ProjectDTO()));
+        when(taskService.listAllNonCompletedByProjectManager(manager)).thenReturn(List.of());
+        when(userService.listAllByRole("Employee")).thenThrow(new IllegalStateException("connection refused"));
+        when(roleService.listAllRoles()).thenAnswer(invocation -> {
+            Thread.sleep(3000);
+            return List.of();
+        });
+
+        long start = System.nanoTime();
+        ManagerHomeDTO home = managerHomeService.managerHome();
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2500);
+        assertEquals(1, home.getProjects().size());
+        assertEquals(List.of(), home.getOpenTasks());
+        assertNull(home.getEmployees());
+        assertNull(home.getRoles());
+        assertEquals(List.of("employees", "roles"), home.getUnavailable());
+    }
+
+    @Test
+    void should_run_each_part_in_a_read_only_transaction_bounded_by_the_rest_of_its_time() {
+
+        when(projectService.listAllProjectDetails()).thenReturn(List.of());
+        when(taskService.listAllNonCompletedByProjectManager(manager)).thenReturn(List.of());
+        when(userService.listAllByRole("Employee")).thenReturn(List.of());
+        when(roleService.listAllRoles()).thenReturn(List.of());
+
+        managerHomeService.managerHome();
+
+        ArgumentCaptor<TransactionDefinition> definitions = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager, times(4)).getTransaction(definitions.capture());
+        definitions.getAllValues().forEach(definition -> {
+            assertTrue(definition.isReadOnly());
+            assertEquals(1, definition.getTimeout());   // 1000 ms, in whole seconds
+        });
+    }
+
+    @Test
+    void should_not_start_a_part_whose_time_ran_out_in_the_queue() throws InterruptedException {
+
+        ExecutorService oneThread = Executors.newSingleThreadExecutor();
+        ManagerHomeServiceImpl queued = new ManagerHomeServiceImpl(projectService, taskService, userService, roleService,
+                transactionManager, oneThread, 200);
+        when(projectService.listAllProjectDetails()).thenAnswer(invocation -> {
+            Thread.sleep(400);
+            return List.of();
+        });
+
+        ManagerHomeDTO home = queued.managerHome();
+        oneThread.shutdown();
+        assertTrue(oneThread.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals(List.of("projects", "openTasks", "employees", "roles"), home.getUnavailable());
+        verifyNoInteractions(taskService, userService, roleService);
+        verify(transactionManager, times(1)).getTransaction(any());
+    }
+
+    private static <T> T awaitOthers(CountDownLatch started, T result) throws InterruptedException {
+        started.countDown();
+        assertTrue(started.await(900, TimeUnit.MILLISECONDS));
+        return result;
+    }
+
+}
@@ -0,0 +1,106 @@
+package com.cydeo.service.impl;
+
+import com.cydeo.dto.CompactListDTO;
+import com.cydeo.entity.Project;
+import com.cydeo.entity.Role;
+import com.cydeo.entity.Task;
+import com.cydeo.entity.TestEntities;
+import com.cydeo.entity.User;
+import com.cydeo.enums.Aggregate;
+import com.cydeo.exception.BadRequestException;
+import com.cydeo.exception.TicketingProjectException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.cydeo.entity.TestEntities.project;
+import static com.cydeo.entity.TestEntities.task;
+import static com.cydeo.entity.TestEntities.user;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect", "spring.sql.init.mode=never"})
+@Import(ProjectionServiceImpl.class)
+class ProjectionServiceImplTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProjectionServiceImpl projectionService;
+
+    private TestEntities entities;
+
+    private User ozzy;
+    private User sam;
+
+    @BeforeEach
+    void setUp() {
+        entities = new TestEntities(entityManager);
+        Role manager = entities.persist(new Role("Manager"));
+        Role employee = entities.persist(new Role("Employee"));
+        ozzy = entities.persist(user("Ozzy", "ozzy", manager));
+        sam = entities.persist(user("Sam", "sam", employee));
+
+        Project api = entities.persist(project("SP00", ozzy));
+        entities.persist(task("Controllers", api, sam));
+        entities.persist(task("Services", api, ozzy));
+        entities.persist(task("Unassigned", null, null));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void should_return_only_the_requested_fields_nested_like_the_dto() throws TicketingProjectException {
+
+        List<Map<String, Object>> tasks = projectionService.list(Aggregate.TASK, List.of("taskSubject", "project.assignedManager.userName"));
+
+        assertEquals(3, tasks.size());
+        assertEquals(Map.of("taskSubject", "Controllers",
+                        "project", Map.of("id", ozzyProjectId(tasks), "assignedManager", Map.of("id", ozzy.getId(), "userName", "ozzy"))),
+                tasks.get(0));
+        assertNull(tasks.get(2).get("project"));
+        assertTrue(tasks.get(2).containsKey("project"));
+    }
+
+    @Test
+    void should_select_all_columns_of_a_reference_named_on_its_own() throws TicketingProjectException {
+
+        List<Map<String, Object>> users = projectionService.list(Aggregate.USER, List.of("userName", "role"));
+
+        assertEquals(List.of("userName", "role"), List.copyOf(users.get(0).keySet()));
+        assertEquals(Map.of("id", sam.getRole().getId(), "description", "Employee"), users.get(0).get("role"));   // first name descending
+    }
+
+    @Test
+    void should_list_each_referenced_user_and_project_once_in_compact_mode() throws TicketingProjectException {
+
+        CompactListDTO compact = projectionService.listCompact(Aggregate.TASK,
+                List.of("taskSubject", "assignedEmployee.userName", "project.projectCode", "project.assignedManager.firstName"));
+
+        assertEquals(sam.getId(), compact.getItems().get(0).get("assignedEmployee"));
+        assertEquals(ozzy.getId(), compact.getItems().get(1).get("assignedEmployee"));
+        assertEquals(1, compact.getProjects().size());
+        assertEquals(ozzy.getId(), compact.getProjects().values().iterator().next().get("assignedManager"));
+        // ozzy is the manager of the project and the employee of a task: one entry with the columns of both
+        assertEquals(Map.of("id", ozzy.getId(), "userName", "ozzy", "firstName", "Ozzy"), compact.getUsers().get(ozzy.getId()));
+        assertEquals(2, compact.getUsers().size());
+    }
+
+    @Test
+    void should_reject_unknown_fields() {
+
+        assertThrows(BadRequestException.class, () -> projectionService.list(Aggregate.USER, List.of("passWord")));
+        assertThrows(BadRequestException.class, () -> projectionService.list(Aggregate.TASK, List.of("project.tasks")));
+    }
+
+    private static Object ozzyProjectId(List<Map<String, Object>> tasks) {
+        return ((Map<?, ?>) tasks.get(0).get("project")).get("id");
+    }
+
+}
@@ -0,0 +1,71 @@
+package com.cydeo.service.impl;
+
+import com.cydeo.enums.Status;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RollupServiceImplTest {
+
+    private static final LocalDateTime INSERTED = LocalDateTime.of(2026, 10, 1, 9, 0);
+
+    private Map<RollupServiceImpl.Key, long[]> apply(RollupServiceImpl.Entry before, RollupServiceImpl.Entry after) {
+        Map<RollupServiceImpl.Key, long[]> deltas = new HashMap<>();
+        RollupServiceImpl.addContribution(deltas, before, -1);
+        RollupServiceImpl.addContribution(deltas, after, 1);
+        deltas.values().removeIf(delta -> delta[0] == 0 && delta[1] == 0);
+        return deltas;
+    }
+
+    private RollupServiceImpl.TaskRow task(Long employeeId, Status status, LocalDateTime lastUpdate, boolean deleted) {
+        return new RollupServiceImpl.TaskRow(1, 10L, employeeId, status, INSERTED, lastUpdate, deleted);
+    }
+
+    @Test
+    void should_count_a_new_task_as_opened_on_its_insert_day() {
+
+        RollupServiceImpl.Entry entry = RollupServiceImpl.contribution(task(100L, Status.OPEN, INSERTED, false), null);
+
+        Map<RollupServiceImpl.Key, long[]> deltas = apply(null, entry);
+
+        assertEquals(1, deltas.size());
+        assertArrayEquals(new long[]{1, 0}, deltas.get(new RollupServiceImpl.Key(LocalDate.of(2026, 10, 1), 10, 100)));
+    }
+
+    @Test
+    void should_keep_the_first_completion_day_and_move_counts_on_reassignment() {
+
+        RollupServiceImpl.Entry opened = RollupServiceImpl.contribution(task(100L, Status.OPEN, INSERTED, false), null);
+        RollupServiceImpl.Entry completed = RollupServiceImpl.contribution(task(100L, Status.COMPLETE, INSERTED.plusDays(3), false), opened);
+        assertEquals(LocalDate.of(2026, 10, 4), completed.completedDay);
+
+        // edited later while still complete and moved to another employee
+        RollupServiceImpl.Entry moved = RollupServiceImpl.contribution(task(200L, Status.COMPLETE, INSERTED.plusDays(9), false), completed);
+        assertEquals(LocalDate.of(2026, 10, 4), moved.completedDay);
+
+        Map<RollupServiceImpl.Key, long[]> deltas = apply(completed, moved);
+        assertArrayEquals(new long[]{-1, 0}, deltas.get(new RollupServiceImpl.Key(LocalDate.of(2026, 10, 1), 10, 100)));
+        assertArrayEquals(new long[]{0, -1}, deltas.get(new RollupServiceImpl.Key(LocalDate.of(2026, 10, 4), 10, 100)));
+        assertArrayEquals(new long[]{1, 0}, deltas.get(new RollupServiceImpl.Key(LocalDate.of(2026, 10, 1), 10, 200)));
+        assertArrayEquals(new long[]{0, 1}, deltas.get(new RollupServiceImpl.Key(LocalDate.of(2026, 10, 4), 10, 200)));
+    }
+
+    @Test
+    void should_take_back_everything_when_a_task_is_deleted_and_ignore_repeats() {
+
+        RollupServiceImpl.Entry completed = RollupServiceImpl.contribution(task(null, Status.COMPLETE, INSERTED, false), null);
+        assertTrue(apply(completed, RollupServiceImpl.contribution(task(null, Status.COMPLETE, INSERTED, false), completed)).isEmpty());
+
+        RollupServiceImpl.Entry deleted = RollupServiceImpl.contribution(task(null, Status.COMPLETE, INSERTED.plusDays(1), true), completed);
+        Map<RollupServiceImpl.Key, long[]> deltas = apply(completed, deleted);
+
+        assertArrayEquals(new long[]{-1, -1}, deltas.get(new RollupServiceImpl.Key(LocalDate.of(2026, 10, 1), 10, 0)));
+        assertTrue(apply(deleted, RollupServiceImpl.contribution(task(null, Status.COMPLETE, INSERTED.plusDays(1), true), deleted)).isEmpty());
+    }
+
+}
@@ -0,0 +1,120 @@
+package com.cydeo.service.impl;
+
+import com.cydeo.entity.Role;
+import com.cydeo.enums.ChangeType;
+import com.cydeo.enums.Status;
+import com.cydeo.event.TaskEvent;
+import com.cydeo.repository.ProjectRepository;
+import com.cydeo.repository.RoleRepository;
+import com.cydeo.repository.TaskStatusHistoryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Commits for real: the history rows are written after the task's transaction committed. Pooled connections that do
+// not autocommit, so a write left on the committed transaction's connection is rolled back when it returns to the pool.
+@DataJpaTest(properties = {"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect", "spring.sql.init.mode=never",
+        "spring.datasource.url=jdbc:h2:mem:task-history;DB_CLOSE_DELAY=-1", "spring.datasource.hikari.auto-commit=false",
+        "spring.jpa.properties.hibernate.connection.provider_disables_autocommit=true"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TaskHistoryServiceImplTest {
+
+    @Autowired
+    private TaskStatusHistoryRepository historyRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        historyRepository.deleteAll();
+        roleRepository.deleteAll();
+    }
+
+    @Test
+    void should_commit_the_batch_a_caller_writes_after_the_commit_when_the_queue_is_full() {
+
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingJdbcTemplate jdbcTemplate = new BlockingJdbcTemplate(dataSource, release);
+        TaskHistoryServiceImpl taskHistoryService = new TaskHistoryServiceImpl(historyRepository, projectRepository, jdbcTemplate,
+                transactionManager, 1, 1, 10, 90);
+
+        // The background writer blocks on its first batch, so the queue of one overflows onto the publishing thread,
+        // which runs after the commit with the committed transaction's connection still bound
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            roleRepository.save(audited(new Role("Employee")));
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    for (long taskId = 1; taskId <= 3; taskId++) taskHistoryService.onTaskEvent(created(taskId));
+                }
+            });
+        });
+
+        assertTrue(historyRepository.count() > 0);   // only the caller can have written yet, the writer is blocked
+
+        release.countDown();
+        taskHistoryService.shutdown();
+        assertEquals(3, historyRepository.count());
+    }
+
+    private static TaskEvent created(Long taskId) {
+        return new TaskEvent(ChangeType.CREATED, taskId, 1L, 7L, null, null, Status.OPEN, "Task " + taskId, null, null, LocalDateTime.now());
+    }
+
+    private static Role audited(Role role) {
+        role.setInsertUserId(1L);
+        role.setLastUpdateUserId(1L);
+        return role;
+    }
+
+    static class BlockingJdbcTemplate extends JdbcTemplate {
+
+        private final CountDownLatch release;
+
+        BlockingJdbcTemplate(DataSource dataSource, CountDownLatch release) {
+            super(dataSource);
+            this.release = release;
+        }
+
+        @Override
+        public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+            if (Thread.currentThread().getName().startsWith("task-history-writer")) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return super.batchUpdate(sql, batchArgs);
+        }
+
+    }
+
+}
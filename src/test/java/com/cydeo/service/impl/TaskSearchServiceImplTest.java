@@ -0,0 +1,89 @@
+package com.cydeo.service.impl;
+
+import com.cydeo.dto.TaskSearchHitDTO;
+import com.cydeo.entity.BaseEntity;
+import com.cydeo.entity.Project;
+import com.cydeo.entity.Task;
+import com.cydeo.entity.User;
+import com.cydeo.enums.ChangeType;
+import com.cydeo.enums.Status;
+import com.cydeo.event.TaskEvent;
+import com.cydeo.mapper.TaskMapper;
+import com.cydeo.repository.ProjectRepository;
+import com.cydeo.repository.TaskRepository;
+import com.cydeo.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.modelmapper.ModelMapper;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskSearchServiceImplTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private ProjectRepository projectRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private TaskSearchServiceImpl taskSearchService;
+
+    @BeforeEach
+    void setUp() {
+        taskSearchService = new TaskSearchServiceImpl(taskRepository, new TaskMapper(new ModelMapper()), projectRepository, userRepository,
+                "", 5000, 1, Runnable::run);
+        taskSearchService.onTaskEvent(new TaskEvent(ChangeType.CREATED, 7L, 1L, 2L, null, null, Status.OPEN,
+                "Controller layer", "Write the task controller", LocalDate.now(), LocalDateTime.now()));
+    }
+
+    @Test
+    void should_find_nothing_for_a_project_that_does_not_exist() {
+
+        assertTrue(taskSearchService.search("controller", "NOPE", null, null, 10).isEmpty());
+        verify(taskRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void should_find_nothing_for_an_assignee_that_does_not_exist() {
+
+        when(projectRepository.findByProjectCode("SP00")).thenReturn(entity(new Project(), 1L));
+
+        assertTrue(taskSearchService.search("controller", "SP00", null, "nobody@cydeo.com", 10).isEmpty());
+        verify(userRepository).findByUserNameAndIsDeleted("nobody@cydeo.com", false);
+        verify(taskRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void should_filter_by_the_project_and_assignee_that_exist() {
+
+        Task task = entity(new Task(), 7L);
+        task.setTaskSubject("Controller layer");
+        when(projectRepository.findByProjectCode("SP00")).thenReturn(entity(new Project(), 1L));
+        when(userRepository.findByUserNameAndIsDeleted("sam@cydeo.com", false)).thenReturn(entity(new User(), 2L));
+        when(taskRepository.findAllById(List.of(7L))).thenReturn(List.of(task));
+
+        List<TaskSearchHitDTO> hits = taskSearchService.search("controller", "SP00", Status.OPEN, "sam@cydeo.com", 10);
+
+        assertEquals(1, hits.size());
+        assertEquals("Controller layer", hits.get(0).getTask().getTaskSubject());
+    }
+
+    private static <T extends BaseEntity> T entity(T entity, Long id) {
+        entity.setId(id);
+        return entity;
+    }
+
+}
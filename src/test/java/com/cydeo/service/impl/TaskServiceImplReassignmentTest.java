@@ -0,0 +1,146 @@
+package com.cydeo.service.impl;
+
+import com.cydeo.config.AuditConfig;
+import com.cydeo.dto.TaskDTO;
+import com.cydeo.dto.TaskSyncDTO;
+import com.cydeo.dto.UserDTO;
+import com.cydeo.entity.Project;
+import com.cydeo.entity.Task;
+import com.cydeo.entity.TestEntities;
+import com.cydeo.entity.User;
+import com.cydeo.enums.Status;
+import com.cydeo.mapper.ProjectMapper;
+import com.cydeo.mapper.TaskMapper;
+import com.cydeo.mapper.UserMapper;
+import com.cydeo.repository.TaskReassignmentRepository;
+import com.cydeo.repository.TaskRepository;
+import com.cydeo.service.UserService;
+import com.cydeo.support.CurrentUserAuditor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.keycloak.adapters.springsecurity.account.SimpleKeycloakAccount;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.cydeo.entity.TestEntities.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest(properties = {"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect", "spring.sql.init.mode=never"})
+@Import({AuditConfig.class, CurrentUserAuditor.class})
+class TaskServiceImplReassignmentTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskReassignmentRepository reassignmentRepository;
+
+    private final UserService userService = mock(UserService.class);
+    private TaskServiceImpl taskService;
+    private TestEntities entities;
+
+    @BeforeEach
+    void setUp() {
+        ModelMapper modelMapper = new ModelMapper();
+        taskService = new TaskServiceImpl(taskRepository, reassignmentRepository, new TaskMapper(modelMapper), new ProjectMapper(modelMapper),
+                userService, new UserMapper(modelMapper), mock(ApplicationEventPublisher.class), 5000);
+        entities = new TestEntities(entityManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void should_tell_the_previous_assignee_that_a_reassigned_task_left_their_list() {
+
+        User sam = entities.persist(user("Sam", "sam@cydeo.com", null));
+        User mike = entities.persist(user("Mike", "mike@cydeo.com", null));
+        Project project = entities.persist(project("SP01", sam));
+        Task task = entities.persist(task("Controllers", project, sam));
+        entityManager.flush();
+        String since = encode(LocalDateTime.now().minusMinutes(1));
+
+        TaskDTO reassigned = new TaskMapper(new ModelMapper()).convertToDto(task);
+        reassigned.setAssignedEmployee(new UserMapper(new ModelMapper()).convertToDto(mike));
+        entityManager.clear();
+        taskService.update(reassigned);
+        entityManager.flush();
+
+        loggedInAs("sam@cydeo.com", sam.getId());
+        TaskSyncDTO samSync = taskService.syncTasksByStatusIsNot(Status.COMPLETE, since);
+        loggedInAs("mike@cydeo.com", mike.getId());
+        TaskSyncDTO mikeSync = taskService.syncTasksByStatusIsNot(Status.COMPLETE, since);
+
+        assertTrue(samSync.getTasks().isEmpty());
+        assertEquals(List.of(task.getId()), samSync.getRemovedTaskIds());
+        assertEquals(List.of(task.getId()), ids(mikeSync.getTasks()));
+        assertTrue(mikeSync.getRemovedTaskIds().isEmpty());
+    }
+
+    @Test
+    void should_not_remove_a_task_that_came_back_to_the_previous_assignee() {
+
+        User sam = entities.persist(user("Sam", "sam@cydeo.com", null));
+        User mike = entities.persist(user("Mike", "mike@cydeo.com", null));
+        Project project = entities.persist(project("SP01", sam));
+        Task task = entities.persist(task("Controllers", project, sam));
+        entityManager.flush();
+        String since = encode(LocalDateTime.now().minusMinutes(1));
+
+        TaskDTO dto = new TaskMapper(new ModelMapper()).convertToDto(task);
+        entityManager.clear();
+        dto.setAssignedEmployee(new UserMapper(new ModelMapper()).convertToDto(mike));
+        taskService.update(dto);
+        entityManager.flush();
+        entityManager.clear();
+        dto.setAssignedEmployee(new UserMapper(new ModelMapper()).convertToDto(sam));
+        taskService.update(dto);
+        entityManager.flush();
+
+        loggedInAs("sam@cydeo.com", sam.getId());
+        TaskSyncDTO samSync = taskService.syncTasksByStatusIsNot(Status.COMPLETE, since);
+
+        assertEquals(List.of(task.getId()), ids(samSync.getTasks()));
+        assertTrue(samSync.getRemovedTaskIds().isEmpty());
+    }
+
+    private void loggedInAs(String userName, Long userId) {
+        SimpleKeycloakAccount account = mock(SimpleKeycloakAccount.class, RETURNS_DEEP_STUBS);
+        when(account.getKeycloakSecurityContext().getToken().getPreferredUsername()).thenReturn(userName);
+        TestingAuthenticationToken authentication = new TestingAuthenticationToken(userName, null);
+        authentication.setDetails(account);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+
+        UserDTO user = new UserDTO();
+        user.setId(userId);
+        when(userService.findByUserName(userName)).thenReturn(user);
+    }
+
+    private static List<Long> ids(List<TaskDTO> tasks) {
+        return tasks.stream().map(TaskDTO::getId).collect(Collectors.toList());
+    }
+
+    private static String encode(LocalDateTime time) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(time.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,173 @@
+package com.cydeo.service.impl;
+
+import com.cydeo.dto.TaskDTO;
+import com.cydeo.dto.TaskSyncDTO;
+import com.cydeo.dto.UserDTO;
+import com.cydeo.entity.Task;
+import com.cydeo.enums.Status;
+import com.cydeo.mapper.ProjectMapper;
+import com.cydeo.mapper.TaskMapper;
+import com.cydeo.mapper.UserMapper;
+import com.cydeo.repository.TaskReassignmentRepository;
+import com.cydeo.repository.TaskRepository;
+import com.cydeo.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.keycloak.adapters.springsecurity.account.SimpleKeycloakAccount;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskServiceImplTest {
+
+    private static final long OVERLAP_MILLIS = 5000;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private TaskReassignmentRepository reassignmentRepository;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private TaskServiceImpl taskService;
+
+    @BeforeEach
+    void setUp() {
+        ModelMapper modelMapper = new ModelMapper();
+        taskService = new TaskServiceImpl(taskRepository, reassignmentRepository, new TaskMapper(modelMapper), new ProjectMapper(modelMapper), userService,
+                new UserMapper(modelMapper), eventPublisher, OVERLAP_MILLIS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void should_answer_a_first_sync_with_the_full_list_and_a_token() {
+
+        when(taskRepository.findAll()).thenReturn(List.of(task(1L, Status.OPEN, false), task(2L, Status.COMPLETE, false)));
+
+        TaskSyncDTO sync = taskService.syncAllTasks("");
+
+        assertTrue(sync.isFullSync());
+        assertEquals(List.of(1L, 2L), ids(sync.getTasks()));
+        assertTrue(sync.getRemovedTaskIds().isEmpty());
+        assertNotNull(decode(sync.getSyncToken()));
+    }
+
+    @Test
+    void should_report_soft_deleted_rows_of_a_delta_as_removed() {
+
+        LocalDateTime since = LocalDateTime.of(2026, 1, 5, 10, 0);
+        when(taskRepository.findAllChangedSince(since)).thenReturn(List.of(task(1L, Status.OPEN, false), task(2L, Status.OPEN, true)));
+
+        TaskSyncDTO sync = taskService.syncAllTasks(encode(since));
+
+        assertFalse(sync.isFullSync());
+        assertEquals(List.of(1L), ids(sync.getTasks()));
+        assertEquals(List.of(2L), sync.getRemovedTaskIds());
+    }
+
+    @Test
+    void should_report_a_task_that_left_the_status_filter_as_removed() {
+
+        loggedInAs("sam", 7L);
+        LocalDateTime since = LocalDateTime.of(2026, 1, 5, 10, 0);
+        when(taskRepository.findAllChangedSinceByAssignedEmployee(7L, since))
+                .thenReturn(List.of(task(1L, Status.IN_PROGRESS, false), task(2L, Status.COMPLETE, false)));
+
+        TaskSyncDTO pending = taskService.syncTasksByStatusIsNot(Status.COMPLETE, encode(since));
+        TaskSyncDTO archived = taskService.syncTasksByStatus(Status.COMPLETE, encode(since));
+
+        assertEquals(List.of(1L), ids(pending.getTasks()));
+        assertEquals(List.of(2L), pending.getRemovedTaskIds());   // completed while it was pending
+        assertEquals(List.of(2L), ids(archived.getTasks()));
+        assertEquals(List.of(1L), archived.getRemovedTaskIds());
+    }
+
+    @Test
+    void should_move_the_token_back_by_the_overlap_so_rows_committed_during_the_read_come_again() {
+
+        when(taskRepository.findAll()).thenReturn(List.of());
+
+        LocalDateTime before = LocalDateTime.now();
+        String token = taskService.syncAllTasks(null).getSyncToken();
+        LocalDateTime after = LocalDateTime.now();
+
+        LocalDateTime tokenTime = decode(token);
+        assertFalse(tokenTime.isBefore(before.minusNanos(OVERLAP_MILLIS * 1_000_000)));
+        assertFalse(tokenTime.isAfter(after.minusNanos(OVERLAP_MILLIS * 1_000_000)));
+
+        // The next sync asks for everything from that earlier point on
+        when(taskRepository.findAllChangedSince(tokenTime)).thenReturn(List.of(task(3L, Status.OPEN, false)));
+        assertEquals(List.of(3L), ids(taskService.syncAllTasks(token).getTasks()));
+    }
+
+    @Test
+    void should_fall_back_to_a_full_sync_for_an_unreadable_token() {
+
+        when(taskRepository.findAll()).thenReturn(List.of(task(1L, Status.OPEN, false)));
+
+        TaskSyncDTO garbage = taskService.syncAllTasks("not a token!");
+        TaskSyncDTO notADate = taskService.syncAllTasks(Base64.getUrlEncoder().encodeToString("yesterday".getBytes(StandardCharsets.UTF_8)));
+
+        assertTrue(garbage.isFullSync());
+        assertTrue(notADate.isFullSync());
+        assertEquals(List.of(1L), ids(garbage.getTasks()));
+        verify(taskRepository, never()).findAllChangedSince(any());
+    }
+
+    private void loggedInAs(String userName, Long userId) {
+        SimpleKeycloakAccount account = mock(SimpleKeycloakAccount.class, RETURNS_DEEP_STUBS);
+        when(account.getKeycloakSecurityContext().getToken().getPreferredUsername()).thenReturn(userName);
+        TestingAuthenticationToken authentication = new TestingAuthenticationToken(userName, null);
+        authentication.setDetails(account);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+
+        UserDTO user = new UserDTO();
+        user.setId(userId);
+        when(userService.findByUserName(userName)).thenReturn(user);
+    }
+
+    private static Task task(Long id, Status status, boolean deleted) {
+        Task task = new Task();
+        task.setId(id);
+        task.setTaskStatus(status);
+        task.setIsDeleted(deleted);
+        return task;
+    }
+
+    private static List<Long> ids(List<TaskDTO> tasks) {
+        return tasks.stream().map(TaskDTO::getId).collect(Collectors.toList());
+    }
+
+    private static String encode(LocalDateTime time) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(time.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static LocalDateTime decode(String token) {
+        return LocalDateTime.parse(new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8));
+    }
+
+}
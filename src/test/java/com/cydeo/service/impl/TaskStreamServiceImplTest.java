@@ -0,0 +1,232 @@
+package com.cydeo.service.impl;
+
+import com.cydeo.dto.UserDTO;
+import com.cydeo.enums.ChangeType;
+import com.cydeo.enums.Status;
+import com.cydeo.event.TaskEvent;
+import com.cydeo.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.keycloak.adapters.springsecurity.account.SimpleKeycloakAccount;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@ExtendWith(MockitoExtension.class)
+class TaskStreamServiceImplTest {
+
+    @Mock
+    private UserService userService;
+
+    // Sends only when the test says so, which lets a subscriber fall behind
+    private final ManualSender sender = new ManualSender();
+    private TaskStreamServiceImpl taskStreamService;
+    private MockMvc mvc;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void should_send_an_event_to_every_stream_of_the_assigned_employee_only() throws Exception {
+
+        setUp(16, 100);
+        MockHttpServletResponse samOnPhone = subscribe("sam", 7L, null);
+        MockHttpServletResponse samOnLaptop = subscribe("sam", 7L, null);
+        MockHttpServletResponse mike = subscribe("mike", 8L, null);
+
+        taskStreamService.onTaskEvent(event(7L, null, "Controllers"));
+        sender.runAll();
+
+        assertTrue(samOnPhone.getContentAsString().contains("id:boot-1\nevent:created\n"));
+        assertTrue(samOnPhone.getContentAsString().contains("\"taskSubject\":\"Controllers\""));
+        assertTrue(samOnLaptop.getContentAsString().contains("\"taskSubject\":\"Controllers\""));
+        assertEquals("", mike.getContentAsString());
+    }
+
+    @Test
+    void should_tell_the_previous_employee_that_a_reassigned_task_is_gone() throws Exception {
+
+        setUp(16, 100);
+        MockHttpServletResponse sam = subscribe("sam", 7L, null);
+        MockHttpServletResponse mike = subscribe("mike", 8L, null);
+
+        taskStreamService.onTaskEvent(event(8L, 7L, "Controllers"));
+        sender.runAll();
+
+        assertTrue(sam.getContentAsString().contains("event:deleted\n"));
+        assertTrue(mike.getContentAsString().contains("event:updated\n"));
+    }
+
+    @Test
+    void should_replay_the_events_after_the_last_event_id() throws Exception {
+
+        setUp(16, 100);
+        taskStreamService.onTaskEvent(event(7L, null, "First"));
+        taskStreamService.onTaskEvent(event(8L, null, "Someone else's"));
+        taskStreamService.onTaskEvent(event(7L, null, "Third"));
+
+        MockHttpServletResponse sam = subscribe("sam", 7L, "boot-1");
+        sender.runAll();
+
+        String content = sam.getContentAsString();
+        assertFalse(content.contains("First"));
+        assertFalse(content.contains("Someone else's"));
+        assertTrue(content.contains("id:boot-3\n"));
+        assertTrue(content.contains("Third"));
+    }
+
+    @Test
+    void should_ask_for_a_reload_when_the_replay_buffer_moved_past_the_last_event_id() throws Exception {
+
+        setUp(16, 2);
+        taskStreamService.onTaskEvent(event(7L, null, "First"));
+        taskStreamService.onTaskEvent(event(7L, null, "Second"));
+        taskStreamService.onTaskEvent(event(7L, null, "Third"));
+
+        MockHttpServletResponse sam = subscribe("sam", 7L, "boot-0");
+        sender.runAll();
+
+        String content = sam.getContentAsString();
+        assertTrue(content.startsWith("event:reset\n"));
+        assertFalse(content.contains("Second"));
+    }
+
+    @Test
+    void should_ask_for_a_reload_when_the_last_event_id_is_from_before_a_restart() throws Exception {
+
+        setUp("boot", 16, 100);
+        taskStreamService.onTaskEvent(event(7L, null, "First"));
+        taskStreamService.onTaskEvent(event(7L, null, "Second"));
+
+        // Restarted (or another node): its sequence starts over and its history is empty
+        setUp("reboot", 16, 100);
+        MockHttpServletResponse emptyHistory = subscribe("sam", 7L, "boot-2");
+        taskStreamService.onTaskEvent(event(7L, null, "Third"));
+        taskStreamService.onTaskEvent(event(7L, null, "Fourth"));
+        taskStreamService.onTaskEvent(event(7L, null, "Fifth"));
+        MockHttpServletResponse behindTheSequence = subscribe("sam", 7L, "boot-1");
+        MockHttpServletResponse aheadOfTheSequence = subscribe("sam", 7L, "reboot-9");
+        MockHttpServletResponse noEpoch = subscribe("sam", 7L, "2");
+        sender.runAll();
+
+        assertTrue(emptyHistory.getContentAsString().startsWith("event:reset\n"));
+        assertTrue(behindTheSequence.getContentAsString().startsWith("event:reset\n"));
+        assertFalse(behindTheSequence.getContentAsString().contains("Fourth"));
+        assertTrue(aheadOfTheSequence.getContentAsString().startsWith("event:reset\n"));
+        assertTrue(noEpoch.getContentAsString().startsWith("event:reset\n"));
+    }
+
+    @Test
+    void should_close_the_stream_of_a_subscriber_whose_buffer_is_full() throws Exception {
+
+        setUp(2, 100);
+        MockHttpServletResponse sam = subscribe("sam", 7L, null);
+
+        taskStreamService.onTaskEvent(event(7L, null, "First"));
+        taskStreamService.onTaskEvent(event(7L, null, "Second"));
+        taskStreamService.onTaskEvent(event(7L, null, "Overflow"));   // nothing was sent yet, the buffer holds two
+        sender.runAll();
+        taskStreamService.onTaskEvent(event(7L, null, "After"));
+        sender.runAll();
+
+        // Closed and unsubscribed on the overflow: what was buffered is dropped, later events are not buffered any more
+        assertEquals("", sam.getContentAsString());
+    }
+
+    @Test
+    void should_send_a_heartbeat_comment_to_every_stream() throws Exception {
+
+        setUp(16, 100);
+        MockHttpServletResponse sam = subscribe("sam", 7L, null);
+        MockHttpServletResponse mike = subscribe("mike", 8L, null);
+
+        taskStreamService.heartbeat();
+        sender.runAll();
+
+        assertEquals(":heartbeat\n\n", sam.getContentAsString());
+        assertEquals(":heartbeat\n\n", mike.getContentAsString());
+    }
+
+    private void setUp(int bufferSize, int historySize) {
+        setUp("boot", bufferSize, historySize);
+    }
+
+    private void setUp(String epoch, int bufferSize, int historySize) {
+        taskStreamService = new TaskStreamServiceImpl(userService, epoch, 60_000, bufferSize, historySize, sender);
+        mvc = MockMvcBuilders.standaloneSetup(new StreamEndpoint(taskStreamService)).build();
+    }
+
+    private MockHttpServletResponse subscribe(String userName, Long userId, String lastEventId) throws Exception {
+        SimpleKeycloakAccount account = mock(SimpleKeycloakAccount.class, RETURNS_DEEP_STUBS);
+        when(account.getKeycloakSecurityContext().getToken().getPreferredUsername()).thenReturn(userName);
+        TestingAuthenticationToken authentication = new TestingAuthenticationToken(userName, null);
+        authentication.setDetails(account);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+
+        UserDTO user = new UserDTO();
+        user.setId(userId);
+        when(userService.findByUserName(userName)).thenReturn(user);
+
+        return mvc.perform(lastEventId == null ? get("/stream") : get("/stream").header("Last-Event-ID", lastEventId))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+    }
+
+    private static TaskEvent event(Long employeeId, Long previousEmployeeId, String subject) {
+        return new TaskEvent(previousEmployeeId == null ? ChangeType.CREATED : ChangeType.UPDATED, 1L, 1L, employeeId, previousEmployeeId,
+                null, Status.OPEN, subject, null, null, null);
+    }
+
+    @RestController
+    static class StreamEndpoint {
+
+        private final TaskStreamServiceImpl taskStreamService;
+
+        StreamEndpoint(TaskStreamServiceImpl taskStreamService) {
+            this.taskStreamService = taskStreamService;
+        }
+
+        @GetMapping("/stream")
+        public SseEmitter stream(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+            return taskStreamService.subscribe(lastEventId);
+        }
+
+    }
+
+    static class ManualSender extends ThreadPoolTaskExecutor {
+
+        private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+        @Override
+        public void execute(Runnable task) {
+            tasks.add(task);
+        }
+
+        void runAll() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) task.run();
+        }
+
+    }
+
+}
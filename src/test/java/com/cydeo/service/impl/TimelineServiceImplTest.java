@@ -0,0 +1,85 @@
+package com.cydeo.service.impl;
+
+import com.cydeo.dto.ProjectDTO;
+import com.cydeo.entity.TestEntities;
+import com.cydeo.mapper.ProjectMapper;
+import com.cydeo.mapper.TaskMapper;
+import com.cydeo.repository.ProjectRepository;
+import com.cydeo.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.cydeo.entity.TestEntities.project;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect", "spring.sql.init.mode=never"})
+class TimelineServiceImplTest {
+
+    private static final LocalDate JAN = LocalDate.of(2026, 1, 1);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ModelMapper modelMapper;
+
+    private TimelineServiceImpl timelineService;
+    private TestEntities entities;
+
+    @BeforeEach
+    void setUp() {
+        entities = new TestEntities(entityManager);
+        entities.persist(project("SP00", null, JAN, JAN.plusMonths(2)));
+        entities.persist(project("SP01", null, null, JAN.plusMonths(1)));
+        entities.persist(project("SP02", null, JAN.plusMonths(3), null));
+        entities.persist(project("SP03", null, null, null));
+        entities.persist(project("SP04", null, JAN.plusMonths(6), JAN.plusMonths(7)));
+        entityManager.flush();
+        entityManager.clear();
+
+        timelineService = new TimelineServiceImpl(projectRepository, new ProjectMapper(modelMapper), taskRepository, new TaskMapper(modelMapper),
+                1024, Runnable::run);
+    }
+
+    @Test
+    void should_return_the_same_rows_from_the_database_and_from_the_index() {
+
+        LocalDate[][] ranges = {{null, null}, {JAN.plusMonths(4), null}, {null, JAN.minusDays(1)}, {JAN.plusMonths(1), JAN.plusMonths(3)}};
+
+        List<List<String>> beforeLoad = listAll(ranges);
+        timelineService.rebuild();
+        List<List<String>> afterLoad = listAll(ranges);
+
+        assertEquals(List.of("SP01", "SP03", "SP00", "SP02", "SP04"), beforeLoad.get(0));
+        assertEquals(List.of("SP03", "SP02", "SP04"), beforeLoad.get(1));
+        assertEquals(List.of("SP01", "SP03"), beforeLoad.get(2));
+        assertEquals(List.of("SP01", "SP03", "SP00", "SP02"), beforeLoad.get(3));
+        assertEquals(beforeLoad, afterLoad);
+    }
+
+    private List<List<String>> listAll(LocalDate[][] ranges) {
+        List<List<String>> results = new ArrayList<>();
+        for (LocalDate[] range : ranges) {
+            results.add(timelineService.listProjectsActiveBetween(range[0], range[1]).stream()
+                    .map(ProjectDTO::getProjectCode)
+                    .collect(Collectors.toList()));
+        }
+        return results;
+    }
+
+}
@@ -0,0 +1,152 @@
+package com.cydeo.service.impl;
+
+import com.cydeo.dto.RoleDTO;
+import com.cydeo.dto.UserDTO;
+import com.cydeo.dto.UserImportResultDTO;
+import com.cydeo.entity.User;
+import com.cydeo.enums.ImportStatus;
+import com.cydeo.event.UserEvent;
+import com.cydeo.repository.UserRepository;
+import com.cydeo.service.KeycloakService;
+import com.cydeo.service.RoleService;
+import com.cydeo.service.VersionStampService;
+import com.cydeo.support.AuditTrailListener;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserImportServiceImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private RoleService roleService;
+
+    @Mock
+    private KeycloakService keycloakService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private AuditTrailListener auditTrailListener;
+
+    @Mock
+    private VersionStampService versionStampService;
+
+    @Captor
+    private ArgumentCaptor<List<Object[]>> batch;
+
+    private UserImportServiceImpl userImportService;
+
+    @BeforeEach
+    void setUp() {
+        userImportService = new UserImportServiceImpl(userRepository, jdbcTemplate, roleService, keycloakService,
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(), new TransactionTemplate(transactionManager), eventPublisher,
+                () -> Optional.of(1L), auditTrailListener, versionStampService, 2);
+
+        when(roleService.listAllRoles()).thenReturn(List.of(new RoleDTO(2L, "Manager"), new RoleDTO(3L, "Employee")));
+        // Ids for the inserted user names, in the order asked
+        when(userRepository.findIdsByUserNameIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> userNames = invocation.getArgument(0);
+            List<Object[]> ids = new ArrayList<>();
+            userNames.forEach(userName -> ids.add(new Object[]{100L + ids.size(), userName}));
+            return ids;
+        });
+    }
+
+    @Test
+    void should_report_status_per_row_and_persist_valid_rows_in_chunks() throws Exception {
+
+        User existing = new User();
+        existing.setUserName("taken@cydeo.com");
+        when(userRepository.findAllByUserNameIn(anySet())).thenReturn(List.of(existing)).thenReturn(List.of());
+        when(keycloakService.userCreateAll(anyList())).thenAnswer(invocation -> {
+            List<UserDTO> users = invocation.getArgument(0);
+            List<String> errors = new ArrayList<>();
+            users.forEach(user -> errors.add(null));
+            return errors;
+        });
+
+        String csv = "firstName,lastName,userName,passWord,phone,role,gender\n" +
+                "John,Doe,john@cydeo.com,Abc1,1234567890,Employee,MALE\n" +
+                "Jane,Doe,taken@cydeo.com,Abc1,1234567890,Manager,FEMALE\n" +
+                "X,Doe,not-an-email,abc,12,Employee,MALE\n" +
+                "\"Mary, Ann\",Smith,mary@cydeo.com,Abc1,1234567890,employee,FEMALE\n";
+
+        UserImportResultDTO result = userImportService.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(4, result.getTotal());
+        assertEquals(2, result.getCreated());
+        assertEquals(ImportStatus.CREATED, result.getRows().get(0).getStatus());
+        assertEquals(ImportStatus.DUPLICATE, result.getRows().get(1).getStatus());
+        assertEquals(ImportStatus.INVALID, result.getRows().get(2).getStatus());
+        assertEquals(ImportStatus.CREATED, result.getRows().get(3).getStatus());
+
+        // One JDBC batch per chunk, none of them through the repository
+        verify(jdbcTemplate, times(2)).batchUpdate(startsWith("INSERT INTO users"), batch.capture());
+        assertEquals(List.of("john@cydeo.com", "mary@cydeo.com"),
+                batch.getAllValues().stream().flatMap(List::stream).map(row -> row[6]).collect(Collectors.toList()));
+        verify(userRepository, never()).saveAll(anyList());
+        verify(userRepository, never()).save(any());
+        verify(eventPublisher, times(2)).publishEvent(any(UserEvent.class));
+        verify(auditTrailListener, times(2)).recordCreated(eq(User.class), anyLong(), eq(1L), anyMap());
+        verify(versionStampService, times(2)).bump(anyCollection());
+
+    }
+
+    @Test
+    void should_mark_and_remove_again_the_rows_that_keycloak_rejects() throws Exception {
+
+        when(userRepository.findAllByUserNameIn(anySet())).thenReturn(List.of());
+        when(keycloakService.userCreateAll(anyList())).thenReturn(List.of("Conflict"));
+
+        String ndjson = "{\"firstName\":\"John\",\"lastName\":\"Doe\",\"userName\":\"john@cydeo.com\",\"passWord\":\"Abc1\"," +
+                "\"phone\":\"1234567890\",\"role\":{\"description\":\"Employee\"},\"gender\":\"MALE\"}\n";
+
+        UserImportResultDTO result = userImportService.importNdjson(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(1, result.getFailed());
+        assertEquals(ImportStatus.PROVISIONING_FAILED, result.getRows().get(0).getStatus());
+        assertEquals("Conflict", result.getRows().get(0).getMessage());
+
+        // The row is deleted again, so the same line can be imported once Keycloak takes it
+        verify(jdbcTemplate).batchUpdate(startsWith("DELETE FROM users"), batch.capture());
+        assertArrayEquals(new Object[]{100L}, batch.getValue().get(0));
+        verify(eventPublisher, never()).publishEvent(any());
+        verify(auditTrailListener, never()).recordCreated(any(), any(), any(), any());
+
+    }
+
+}
@@ -0,0 +1,117 @@
+package com.cydeo.service.impl;
+
+import com.cydeo.config.AggregateVersionConfig;
+import com.cydeo.entity.Role;
+import com.cydeo.enums.Aggregate;
+import com.cydeo.repository.RoleRepository;
+import com.cydeo.support.AggregateVersionListener;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Commits for real, the counters only move when a transaction commits
+@DataJpaTest(properties = {"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect", "spring.sql.init.mode=never"})
+@Import({VersionStampServiceImpl.class, AggregateVersionConfig.class, AggregateVersionListener.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class VersionStampServiceImplTest {
+
+    @Autowired
+    private VersionStampServiceImpl versionStampService;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void should_bump_only_the_written_aggregate_once_per_commit() {
+
+        String roles = versionStampService.versionOf(Aggregate.ROLE);
+        String projects = versionStampService.versionOf(Aggregate.PROJECT);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            roleRepository.save(role("Admin"));
+            roleRepository.save(role("Manager"));
+        });
+
+        assertEquals(next(roles), versionStampService.versionOf(Aggregate.ROLE));
+        assertEquals(projects, versionStampService.versionOf(Aggregate.PROJECT));
+    }
+
+    @Test
+    void should_not_move_when_the_transaction_rolls_back() {
+
+        String before = versionStampService.versionOf(Aggregate.ROLE);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            roleRepository.save(role("Employee"));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(before, versionStampService.versionOf(Aggregate.ROLE));
+    }
+
+    @Test
+    void should_move_when_a_transaction_that_wrote_first_commits_last() {
+
+        TransactionTemplate inner = new TransactionTemplate(transactionManager);
+        inner.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        String[] seen = new String[1];
+        String before = versionStampService.versionOf(Aggregate.ROLE);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(outer -> {
+            roleRepository.saveAndFlush(role("Early"));                        // older last_update_date_time ...
+            inner.executeWithoutResult(status -> roleRepository.save(role("Late")));
+            seen[0] = versionStampService.versionOf(Aggregate.ROLE);            // ... read after the newer one committed
+        });
+
+        assertEquals(next(before), seen[0]);
+        assertNotEquals(seen[0], versionStampService.versionOf(Aggregate.ROLE));
+    }
+
+    @Test
+    void should_leave_the_counter_row_unlocked_while_the_write_is_open() {
+
+        String before = versionStampService.versionOf(Aggregate.ROLE);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            roleRepository.saveAndFlush(role("Open"));
+            // Another writer of the aggregate bumps and commits without waiting for this transaction
+            CompletableFuture.runAsync(() -> versionStampService.bump(Set.of(Aggregate.ROLE))).orTimeout(5, TimeUnit.SECONDS).join();
+        });
+
+        assertEquals(next(next(before)), versionStampService.versionOf(Aggregate.ROLE));
+    }
+
+    @Test
+    void should_list_the_aggregates_in_the_order_asked() {
+        assertTrue(versionStampService.versionOf(Aggregate.TASK, Aggregate.USER).matches("tasks=\\d+;users=\\d+;"));
+    }
+
+    private static Role role(String description) {
+        Role role = new Role(description);
+        role.setInsertUserId(1L);
+        role.setLastUpdateUserId(1L);
+        return role;
+    }
+
+    private static String next(String version) {
+        String[] parts = version.split("[=;]");
+        return parts[0] + "=" + (Long.parseLong(parts[1]) + 1) + ";";
+    }
+
+}
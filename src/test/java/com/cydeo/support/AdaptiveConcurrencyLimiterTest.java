@@ -0,0 +1,75 @@
+package com.cydeo.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(200);
+
+    @Test
+    void should_reject_once_the_limit_is_in_flight() {
+
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 3, 1, 10, 1.5, 0.2, 600, 0, 10);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(1, limiter.getRejected());
+
+        limiter.release(FAST);
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void should_grow_while_saturated_and_latency_stays_at_the_baseline() {
+
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 10, 1, 100, 1.5, 0.2, 600, 0, 10);
+
+        for (int i = 0; i < 200; i++) saturatedSample(limiter, FAST);
+
+        assertEquals(100, limiter.getLimit());
+    }
+
+    @Test
+    void should_shrink_when_latency_rises_and_recover_when_it_drops() {
+
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 50, 5, 100, 1.5, 0.2, 600, 0, 10);
+        for (int i = 0; i < 100; i++) saturatedSample(limiter, FAST);
+        int healthy = limiter.getLimit();
+
+        for (int i = 0; i < 5; i++) saturatedSample(limiter, SLOW);
+        int degraded = limiter.getLimit();
+        assertTrue(degraded < healthy / 2, "limit went from " + healthy + " to " + degraded);
+
+        for (int i = 0; i < 200; i++) saturatedSample(limiter, FAST);
+        assertTrue(limiter.getLimit() > degraded);
+    }
+
+    @Test
+    void should_not_grow_when_the_load_is_far_below_the_limit() {
+
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 20, 1, 100, 1.5, 0.2, 600, 0, 10);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(FAST);
+        }
+
+        assertEquals(20, limiter.getLimit());
+    }
+
+    // Fills the limit, then completes one request, so the sample is taken under full load
+    private static void saturatedSample(AdaptiveConcurrencyLimiter limiter, long elapsedNanos) {
+        int acquired = 0;
+        while (limiter.tryAcquire()) acquired++;
+        limiter.release(elapsedNanos);
+        for (int i = 1; i < acquired; i++) limiter.release(elapsedNanos);
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.cydeo.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncBatchWriterTest {
+
+    @Test
+    void should_write_everything_in_batches_no_larger_than_the_batch_size() throws Exception {
+
+        List<List<Integer>> batches = Collections.synchronizedList(new ArrayList<>());
+        AsyncBatchWriter<Integer> writer = new AsyncBatchWriter<>("test", 10_000, 100, 50, batch -> batches.add(new ArrayList<>(batch)));
+
+        for (int i = 0; i < 1_000; i++) writer.submit(i);
+        writer.close();
+
+        assertEquals(1_000, batches.stream().mapToInt(List::size).sum());
+        assertTrue(batches.stream().allMatch(batch -> batch.size() <= 100));
+        assertEquals(1_000, writer.getWritten());
+    }
+
+    @Test
+    void should_flush_a_partial_batch_after_the_interval() throws Exception {
+
+        CountDownLatch written = new CountDownLatch(1);
+        AsyncBatchWriter<String> writer = new AsyncBatchWriter<>("test", 100, 100, 20, batch -> written.countDown());
+
+        writer.submit("only one");
+
+        assertTrue(written.await(2, TimeUnit.SECONDS));
+        writer.close();
+    }
+
+    @Test
+    void should_make_the_caller_write_when_the_queue_is_full() throws Exception {
+
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger total = new AtomicInteger();
+        AsyncBatchWriter<Integer> writer = new AsyncBatchWriter<>("test", 2, 2, 10, batch -> {
+            if (!Thread.currentThread().getName().startsWith("test-writer")) {
+                total.addAndGet(batch.size());
+                return;
+            }
+            try {
+                release.await();    // keep the background thread busy so the queue fills up
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            total.addAndGet(batch.size());
+        });
+
+        for (int i = 0; i < 10; i++) writer.submit(i);
+        assertTrue(writer.getCallerWrites() > 0);
+
+        release.countDown();
+        writer.close();
+        assertEquals(10, total.get());
+        assertEquals(0, writer.getDropped());
+    }
+
+    @Test
+    void should_retry_and_then_drop_a_failing_batch() {
+
+        AtomicInteger attempts = new AtomicInteger();
+        AsyncBatchWriter<Integer> writer = new AsyncBatchWriter<>("test", 10, 10, 10, batch -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("database is down");
+        });
+
+        writer.submit(1);
+        writer.close();
+
+        assertEquals(3, attempts.get());
+        assertEquals(1, writer.getDropped());
+    }
+
+}
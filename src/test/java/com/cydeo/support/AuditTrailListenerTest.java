@@ -0,0 +1,154 @@
+package com.cydeo.support;
+
+import com.cydeo.config.AuditTrailConfig;
+import com.cydeo.entity.BaseEntity;
+import com.cydeo.entity.Role;
+import com.cydeo.entity.User;
+import com.cydeo.repository.RoleRepository;
+import com.cydeo.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Commits for real, audit rows are only handed to the writer once a transaction has committed
+@DataJpaTest(properties = {"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect", "spring.sql.init.mode=never",
+        "ticketing.audit.flush-interval-ms=20"})
+@Import({AuditTrailConfig.class, AuditTrailListener.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AuditTrailListenerTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private Role employee;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        employee = roleRepository.findByDescription("Employee");
+        if (employee == null) employee = roleRepository.save(audited(new Role("Employee")));
+    }
+
+    @Test
+    void should_record_only_the_changed_fields_with_the_password_masked() throws Exception {
+
+        Long id = userRepository.save(user("sam@cydeo.com")).getId();
+        transaction.executeWithoutResult(status -> {
+            User user = userRepository.findById(id).orElseThrow();
+            user.setFirstName("Samuel");
+            user.setPassWord("new-secret");
+        });
+
+        List<Map<String, Object>> events = awaitEvents(id, 2);
+        assertEquals("CREATED", events.get(0).get("action"));
+        JsonNode created = objectMapper.readTree((String) events.get(0).get("changes"));
+        assertEquals("sam@cydeo.com", created.at("/userName/to").asText());
+        assertEquals("***", created.at("/passWord/to").asText());
+        assertFalse(created.has("lastUpdateDateTime"));
+
+        assertEquals("UPDATED", events.get(1).get("action"));
+        JsonNode updated = objectMapper.readTree((String) events.get(1).get("changes"));
+        assertEquals(List.of("firstName", "passWord"), fieldNames(updated));
+        assertEquals("Sam", updated.at("/firstName/from").asText());
+        assertEquals("Samuel", updated.at("/firstName/to").asText());
+        assertEquals("***", updated.at("/passWord/from").asText());
+        assertEquals("***", updated.at("/passWord/to").asText());
+    }
+
+    @Test
+    void should_record_a_soft_delete_as_deleted() throws Exception {
+
+        Long id = userRepository.save(user("gone@cydeo.com")).getId();
+        transaction.executeWithoutResult(status -> userRepository.findById(id).orElseThrow().setIsDeleted(true));
+
+        List<Map<String, Object>> events = awaitEvents(id, 2);
+        assertEquals("DELETED", events.get(1).get("action"));
+        JsonNode changes = objectMapper.readTree((String) events.get(1).get("changes"));
+        assertTrue(changes.at("/isDeleted/to").asBoolean());
+    }
+
+    @Test
+    void should_leave_no_row_for_a_rolled_back_transaction() {
+
+        Long[] rolledBack = new Long[1];
+        transaction.executeWithoutResult(status -> {
+            rolledBack[0] = userRepository.save(user("never@cydeo.com")).getId();
+            status.setRollbackOnly();
+        });
+        Long committed = userRepository.save(user("later@cydeo.com")).getId();
+
+        awaitEvents(committed, 1);   // the writer keeps submission order, anything earlier is written by now
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM audit_events WHERE entity_name = 'User' AND entity_id = ?",
+                Integer.class, rolledBack[0]));
+    }
+
+    private List<Map<String, Object>> awaitEvents(Long userId, int count) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (true) {
+            List<Map<String, Object>> events = jdbcTemplate.queryForList(
+                    "SELECT action, changes FROM audit_events WHERE entity_name = 'User' AND entity_id = ? ORDER BY id", userId);
+            if (events.size() >= count || System.currentTimeMillis() > deadline) return events;
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return events;
+            }
+        }
+    }
+
+    private static List<String> fieldNames(JsonNode node) {
+        List<String> names = new ArrayList<>();
+        node.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+
+    private User user(String userName) {
+        User user = new User();
+        user.setFirstName("Sam");
+        user.setLastName("Smith");
+        user.setUserName(userName);
+        user.setPassWord("secret");
+        user.setEnabled(true);
+        user.setRole(employee);
+        return audited(user);
+    }
+
+    private static <T extends BaseEntity> T audited(T entity) {
+        entity.setInsertUserId(1L);
+        entity.setLastUpdateUserId(1L);
+        return entity;
+    }
+
+}
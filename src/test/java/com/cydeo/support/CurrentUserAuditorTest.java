@@ -0,0 +1,74 @@
+package com.cydeo.support;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.keycloak.adapters.RefreshableKeycloakSecurityContext;
+import org.keycloak.adapters.springsecurity.account.SimpleKeycloakAccount;
+import org.keycloak.representations.AccessToken;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CurrentUserAuditorTest {
+
+    @Mock
+    JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void clear() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    private void login(String username) {
+        AccessToken token = new AccessToken();
+        token.setPreferredUsername(username);
+        RefreshableKeycloakSecurityContext securityContext = mock(RefreshableKeycloakSecurityContext.class);
+        when(securityContext.getToken()).thenReturn(token);
+        SimpleKeycloakAccount account = mock(SimpleKeycloakAccount.class);
+        when(account.getKeycloakSecurityContext()).thenReturn(securityContext);
+
+        TestingAuthenticationToken authentication = new TestingAuthenticationToken(username, null);
+        authentication.setDetails(account);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+
+    @Test
+    void should_look_up_the_logged_in_user_once_per_request() {
+
+        login("ozzy");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq("ozzy"))).thenReturn(List.of(2L));
+        CurrentUserAuditor auditor = new CurrentUserAuditor(jdbcTemplate, 1L);
+
+        assertEquals(Optional.of(2L), auditor.getCurrentAuditor());
+        assertEquals(Optional.of(2L), auditor.getCurrentAuditor());
+
+        verify(jdbcTemplate, times(1)).queryForList(anyString(), eq(Long.class), eq("ozzy"));
+    }
+
+    @Test
+    void should_fall_back_to_the_system_user_without_a_login() {
+
+        CurrentUserAuditor auditor = new CurrentUserAuditor(jdbcTemplate, 1L);
+
+        assertEquals(Optional.of(1L), auditor.getCurrentAuditor());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.cydeo.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void should_allow_the_burst_then_one_call_per_interval() {
+
+        RateLimiter limiter = new RateLimiter(100, Runnable::run);
+        long now = 0;
+
+        for (int i = 0; i < 5; i++) assertEquals(0, limiter.tryAcquire("alice", 1, 5, now));
+        long wait = limiter.tryAcquire("alice", 1, 5, now);
+        assertEquals(SECOND, wait);
+
+        assertEquals(0, limiter.tryAcquire("alice", 1, 5, now + wait));
+        assertTrue(limiter.tryAcquire("alice", 1, 5, now + wait) > 0);
+    }
+
+    @Test
+    void should_keep_callers_apart() {
+
+        RateLimiter limiter = new RateLimiter(100, Runnable::run);
+
+        assertEquals(0, limiter.tryAcquire("alice", 1, 1, 0));
+        assertTrue(limiter.tryAcquire("alice", 1, 1, 0) > 0);
+        assertEquals(0, limiter.tryAcquire("bob", 1, 1, 0));
+    }
+
+    @Test
+    void should_give_a_released_token_back() {
+
+        RateLimiter limiter = new RateLimiter(100, Runnable::run);
+
+        assertEquals(0, limiter.tryAcquire("alice", 1, 1, 0));
+        assertTrue(limiter.tryAcquire("alice", 1, 1, 0) > 0);
+
+        limiter.release("alice", 1);
+        assertEquals(0, limiter.tryAcquire("alice", 1, 1, 0));
+    }
+
+    @Test
+    void should_drop_idle_buckets_in_the_scheduled_sweep() {
+
+        RateLimiter limiter = new RateLimiter(100, Runnable::run);
+        long aWhileAgo = System.nanoTime() - 10 * SECOND;
+
+        for (int i = 0; i < 10; i++) limiter.tryAcquire("user" + i, 1, 1, aWhileAgo);
+        assertEquals(10, limiter.size());
+
+        limiter.evictIdle();
+        assertEquals(0, limiter.size());
+    }
+
+    @Test
+    void should_sweep_a_full_map_on_the_sweeper_not_on_the_caller() {
+
+        Queue<Runnable> sweeps = new ArrayDeque<>();
+        RateLimiter limiter = new RateLimiter(10, sweeps::add);
+
+        for (int i = 0; i < 9; i++) limiter.tryAcquire("user" + i, 1, 1, 0);
+        assertTrue(sweeps.isEmpty());
+
+        limiter.tryAcquire("user9", 1, 1, 0);       // reaches the bound: a sweep is handed over, the caller goes on
+        limiter.tryAcquire("user10", 1, 1, 0);      // one sweep at a time
+        assertEquals(11, limiter.size());
+        assertEquals(1, sweeps.size());
+
+        sweeps.poll().run();
+        assertTrue(limiter.size() <= 9);
+    }
+
+}
@@ -0,0 +1,154 @@
+package com.cydeo.support;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Two embedded databases stand in for the primary and the replica, each says which one it is
+class ReplicaRoutingDataSourceTest {
+
+    private EmbeddedDatabase primary;
+    private EmbeddedDatabase replica;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        primary.shutdown();
+        replica.shutdown();
+    }
+
+    @Test
+    void should_send_read_only_transactions_to_the_replica_and_the_rest_to_the_primary() {
+
+        Routing routing = new Routing(replicas(replica), 0, null);
+
+        assertEquals("replica", routing.read());
+        assertEquals("primary", routing.write());
+        assertEquals("primary", routing.jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    @Test
+    void should_read_from_the_primary_when_the_replica_lags() {
+
+        Routing routing = new Routing(replicas(replica), 0, "SELECT lag_seconds FROM node");
+        new JdbcTemplate(replica).update("UPDATE node SET lag_seconds = 30");
+
+        routing.dataSource.checkReplicas();
+
+        assertEquals(Map.of("replica-0", false), routing.dataSource.getReplicaHealth());
+        assertEquals("primary", routing.read());
+
+        new JdbcTemplate(replica).update("UPDATE node SET lag_seconds = 0");
+        routing.dataSource.checkReplicas();
+
+        assertEquals("replica", routing.read());
+    }
+
+    @Test
+    void should_fall_back_to_the_primary_when_a_replica_refuses_connections() {
+
+        DataSource unreachable = new DriverManagerDataSource("jdbc:h2:mem:missing;IFEXISTS=TRUE");
+        Routing routing = new Routing(replicas(unreachable), 0, null);
+
+        assertEquals("primary", routing.read());
+        assertEquals(Map.of("replica-0", false), routing.dataSource.getReplicaHealth());
+    }
+
+    @Test
+    void should_keep_a_users_reads_on_the_primary_after_they_write() {
+
+        Routing routing = new Routing(replicas(replica), 60_000, null);
+
+        login("alice");
+        routing.write();
+        assertEquals("primary", routing.read());
+
+        login("bob");
+        assertEquals("replica", routing.read());
+    }
+
+    @Test
+    void should_spread_reads_over_healthy_replicas() {
+
+        EmbeddedDatabase second = database("replica");
+        try {
+            Routing routing = new Routing(replicas(replica, second), 0, null);
+            new JdbcTemplate(second).update("UPDATE node SET name = 'second'");
+
+            assertNotEquals(routing.read(), routing.read());
+        } finally {
+            second.shutdown();
+        }
+    }
+
+    private static EmbeddedDatabase database(String name) {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE node (name VARCHAR(20), lag_seconds INT)");
+        jdbcTemplate.update("INSERT INTO node VALUES (?, 0)", name);
+        return database;
+    }
+
+    private static Map<String, DataSource> replicas(DataSource... dataSources) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < dataSources.length; i++) replicas.put("replica-" + i, dataSources[i]);
+        return replicas;
+    }
+
+    private static void login(String userName) {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(userName, null));
+    }
+
+    private class Routing {
+
+        private final ReplicaRoutingDataSource dataSource;
+        private final JdbcTemplate jdbcTemplate;
+        private final TransactionTemplate readOnly;
+        private final TransactionTemplate readWrite;
+
+        private Routing(Map<String, DataSource> replicas, long readYourWritesMillis, String lagQuery) {
+            dataSource = new ReplicaRoutingDataSource(primary, replicas, readYourWritesMillis, lagQuery, 10, 1);
+            LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(dataSource);
+            DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(proxy);
+            jdbcTemplate = new JdbcTemplate(proxy);
+            readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            readWrite = new TransactionTemplate(transactionManager);
+        }
+
+        private String read() {
+            return readOnly.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+        }
+
+        private String write() {
+            return readWrite.execute(status -> {
+                jdbcTemplate.update("UPDATE node SET lag_seconds = lag_seconds");
+                return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+            });
+        }
+
+    }
+
+}
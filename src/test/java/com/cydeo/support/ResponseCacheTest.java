@@ -0,0 +1,118 @@
+package com.cydeo.support;
+
+import com.cydeo.enums.Aggregate;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheTest {
+
+    private static final Aggregate[] PROJECTS = {Aggregate.PROJECT, Aggregate.USER};
+    private static final Predicate<String> ANY = value -> true;
+
+    private final ResponseCache<String> cache = new ResponseCache<>(10, 60_000);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void should_serve_a_hit_until_one_of_its_aggregates_is_written() throws Throwable {
+
+        assertEquals("v1", cache.get("projects", PROJECTS, ANY, () -> load("v1")));
+        assertEquals("v1", cache.get("projects", PROJECTS, ANY, () -> load("v2")));
+
+        cache.invalidate(Aggregate.TASK);
+        assertEquals("v1", cache.get("projects", PROJECTS, ANY, () -> load("v2")));
+
+        cache.invalidate(Aggregate.USER);
+        assertEquals("v2", cache.get("projects", PROJECTS, ANY, () -> load("v2")));
+        assertEquals(2, loads.get());
+        assertEquals(2, cache.getHits());
+    }
+
+    @Test
+    void should_not_keep_a_value_built_while_a_write_committed() throws Throwable {
+
+        cache.get("projects", PROJECTS, ANY, () -> {
+            cache.invalidate(Aggregate.PROJECT);
+            return load("stale");
+        });
+
+        assertEquals("fresh", cache.get("projects", PROJECTS, ANY, () -> load("fresh")));
+    }
+
+    @Test
+    void should_let_one_caller_build_and_hand_the_result_to_concurrent_ones() throws Exception {
+
+        CountDownLatch building = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<String> first = executor.submit(() -> get(() -> {
+                building.countDown();
+                release.await();
+                return load("built");
+            }));
+            assertTrue(building.await(5, TimeUnit.SECONDS));
+
+            Future<String> second = executor.submit(() -> get(() -> load("again")));
+            Future<String> third = executor.submit(() -> get(() -> load("again")));
+            while (cache.getCoalesced() < 2) Thread.sleep(1);
+            release.countDown();
+
+            assertEquals("built", first.get(5, TimeUnit.SECONDS));
+            assertEquals("built", second.get(5, TimeUnit.SECONDS));
+            assertEquals("built", third.get(5, TimeUnit.SECONDS));
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void should_hand_a_failure_to_the_waiters_and_keep_nothing() throws Throwable {
+
+        assertThrows(IllegalStateException.class, () -> cache.get("projects", PROJECTS, ANY, () -> {
+            throw new IllegalStateException("database down");
+        }));
+
+        assertEquals("v1", cache.get("projects", PROJECTS, ANY, () -> load("v1")));
+    }
+
+    @Test
+    void should_keep_only_cacheable_values_and_evict_the_oldest_when_full() throws Throwable {
+
+        cache.get("error", PROJECTS, value -> !value.startsWith("error"), () -> load("error"));
+        cache.get("error", PROJECTS, value -> !value.startsWith("error"), () -> load("error"));
+        assertEquals(2, loads.get());
+
+        for (int i = 0; i < 11; i++) {
+            String value = "v" + i;
+            cache.get("key" + i, PROJECTS, ANY, () -> load(value));
+        }
+        assertEquals(10, cache.size());
+        assertEquals("reloaded", cache.get("key0", PROJECTS, ANY, () -> load("reloaded")));
+    }
+
+    private String get(ResponseCache.Loader<String> loader) throws Exception {
+        try {
+            return cache.get("projects", PROJECTS, ANY, loader);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String load(String value) {
+        loads.incrementAndGet();
+        return value;
+    }
+
+}
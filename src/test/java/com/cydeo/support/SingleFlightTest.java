@@ -0,0 +1,101 @@
+package com.cydeo.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final SingleFlight flight = new SingleFlight("pending-tasks");
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @Test
+    void should_share_one_execution_between_concurrent_calls_with_the_same_key() throws Exception {
+
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<Object> first = executor.submit(() -> execute("sam", () -> {
+                running.countDown();
+                release.await();
+                return "tasks of sam";
+            }));
+            assertTrue(running.await(5, TimeUnit.SECONDS));
+
+            Future<Object> second = executor.submit(() -> execute("sam", () -> "again"));
+            Future<Object> third = executor.submit(() -> execute("sam", () -> "again"));
+            while (flight.getCoalesced() < 2) Thread.sleep(1);
+            Object other = execute("ozzy", () -> "tasks of ozzy");
+            release.countDown();
+
+            assertEquals("tasks of sam", first.get(5, TimeUnit.SECONDS));
+            assertEquals("tasks of sam", second.get(5, TimeUnit.SECONDS));
+            assertEquals("tasks of sam", third.get(5, TimeUnit.SECONDS));
+            assertEquals("tasks of ozzy", other);
+            assertEquals(2, executions.get());
+            assertEquals(0.5, flight.getCoalescingRatio());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void should_run_again_once_the_result_is_handed_out() throws Throwable {
+
+        assertEquals("v1", execute("sam", () -> "v1"));
+        assertEquals("v2", execute("sam", () -> "v2"));
+
+        assertEquals(0, flight.getInFlight());
+        assertEquals(0, flight.getCoalesced());
+    }
+
+    @Test
+    void should_hand_the_exception_to_the_waiters_and_keep_nothing() throws Exception {
+
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Object> first = executor.submit(() -> execute("sam", () -> {
+                running.countDown();
+                release.await();
+                throw new IllegalStateException("database is down");
+            }));
+            assertTrue(running.await(5, TimeUnit.SECONDS));
+
+            Future<Object> second = executor.submit(() -> execute("sam", () -> "again"));
+            while (flight.getCoalesced() < 1) Thread.sleep(1);
+            release.countDown();
+
+            Exception firstFailure = assertThrows(Exception.class, () -> first.get(5, TimeUnit.SECONDS));
+            Exception secondFailure = assertThrows(Exception.class, () -> second.get(5, TimeUnit.SECONDS));
+            assertTrue(firstFailure.getCause() instanceof IllegalStateException);
+            assertTrue(secondFailure.getCause() instanceof IllegalStateException);
+            assertEquals(0, flight.getInFlight());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Object execute(String key, SingleFlight.Call call) throws Exception {
+        try {
+            return flight.execute(key, () -> {
+                executions.incrementAndGet();
+                return call.call();
+            });
+        } catch (Exception e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new AssertionError(e);
+        }
+    }
+
+}
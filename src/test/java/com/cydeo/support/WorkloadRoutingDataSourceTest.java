@@ -0,0 +1,86 @@
+package com.cydeo.support;
+
+import com.cydeo.annotation.WorkloadClass;
+import com.cydeo.aspect.WorkloadAspect;
+import com.cydeo.enums.Workload;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkloadRoutingDataSourceTest {
+
+    private EmbeddedDatabase oltp;
+    private EmbeddedDatabase reporting;
+    private WorkloadRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        oltp = database("oltp");
+        reporting = database("reporting");
+        dataSource = new WorkloadRoutingDataSource(Map.of(Workload.OLTP, oltp, Workload.REPORTING, reporting));
+    }
+
+    @AfterEach
+    void tearDown() {
+        oltp.shutdown();
+        reporting.shutdown();
+    }
+
+    @Test
+    void should_take_connections_from_the_pool_of_the_current_workload() {
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        assertEquals("oltp", jdbcTemplate.queryForObject("SELECT name FROM pool", String.class));
+        assertEquals("reporting", WorkloadContext.call(Workload.REPORTING, () -> jdbcTemplate.queryForObject("SELECT name FROM pool", String.class)));
+        assertEquals(Workload.OLTP, WorkloadContext.current());
+    }
+
+    @Test
+    void should_route_annotated_methods_to_their_pool() {
+
+        AspectJProxyFactory factory = new AspectJProxyFactory(new Reports(new JdbcTemplate(dataSource)));
+        factory.addAspect(new WorkloadAspect());
+        Reports reports = factory.getProxy();
+
+        assertEquals("reporting", reports.dashboard());
+        assertEquals("oltp", reports.lookup());
+    }
+
+    private static EmbeddedDatabase database(String name) {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE pool (name VARCHAR(20))");
+        jdbcTemplate.update("INSERT INTO pool VALUES (?)", name);
+        return database;
+    }
+
+    static class Reports {
+
+        private final JdbcTemplate jdbcTemplate;
+
+        Reports(JdbcTemplate jdbcTemplate) {
+            this.jdbcTemplate = jdbcTemplate;
+        }
+
+        @WorkloadClass(Workload.REPORTING)
+        public String dashboard() {
+            return jdbcTemplate.queryForObject("SELECT name FROM pool", String.class);
+        }
+
+        public String lookup() {
+            return jdbcTemplate.queryForObject("SELECT name FROM pool", String.class);
+        }
+
+    }
+
+}